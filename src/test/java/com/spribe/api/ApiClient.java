@@ -1,34 +1,273 @@
 package com.spribe.api;
 
 import com.spribe.config.ConfigManager;
+import com.spribe.metrics.ApiMetrics;
+import com.spribe.server.LocalPlayerServer;
 import io.qameta.allure.restassured.AllureRestAssured;
 import io.restassured.RestAssured;
 import io.restassured.builder.RequestSpecBuilder;
-import io.restassured.filter.log.LogDetail;
-import io.restassured.filter.log.RequestLoggingFilter;
-import io.restassured.filter.log.ResponseLoggingFilter;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.ContentType;
 import io.restassured.specification.RequestSpecification;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * API Client for configuring REST Assured
  */
 public class ApiClient {
-    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final Logger logger = LogManager.getLogger(ApiClient.class);
+    private static final String POOLED_TRANSPORT = "pooled";
+    private static final String STUB_TRANSPORT = "stub";
+    private static final String SYNC_REPORTING = "allure";
+    private static final String ASYNC_REPORTING = "async";
+    private static final String NO_REPORTING = "off";
+    private static final String LOCAL_TARGET = "local";
+    private static final ConcurrentMap<SpecKey, RequestSpecification> specCache = new ConcurrentHashMap<>();
+    private static final AtomicBoolean faultTargetWarned = new AtomicBoolean();
+
+    static {
+        // Cached specs hold filters built from the snapshot they were made with
+        ConfigManager.addReloadListener(reloaded -> clearSpecCache());
+    }
 
+    /**
+     * The current configuration snapshot; read at every use so a reload reaches the client
+     */
+    private static ConfigManager config() {
+        return ConfigManager.getInstance();
+    }
+
+    /**
+     * Returns the shared base specification for the current configuration.
+     * Specs are built once per key and must not be modified; callers layer per-call parts on top via given().spec().
+     */
     public static RequestSpecification getRequestSpec() {
-        return new RequestSpecBuilder()
-                .setBaseUri(config.getBaseUrl())
+        return getRequestSpec(config().getReportingProfile());
+    }
+
+    /**
+     * Base specification without Allure reporting, for calls made outside of a test context
+     * such as background cleanup threads
+     */
+    public static RequestSpecification getUnreportedRequestSpec() {
+        return getRequestSpec(NO_REPORTING);
+    }
+
+    /**
+     * Unreported specification whose connect and socket timeouts are cleanup.request.timeout.seconds, so a
+     * cleanup delete on a stalled connection fails instead of hanging its worker
+     */
+    public static RequestSpecification getCleanupRequestSpec() {
+        return getRequestSpec(NO_REPORTING,
+                (int) TimeUnit.SECONDS.toMillis(config().getCleanupRequestTimeoutSeconds()));
+    }
+
+    private static RequestSpecification getRequestSpec(String reportingProfile) {
+        return getRequestSpec(reportingProfile, 0);
+    }
+
+    private static RequestSpecification getRequestSpec(String reportingProfile, int timeoutMillis) {
+        SpecKey key = new SpecKey(getBaseUrl(), getLoggingTier(), reportingProfile, timeoutMillis);
+        RequestSpecification spec = specCache.get(key);
+        if (spec == null) {
+            spec = specCache.computeIfAbsent(key, ApiClient::buildRequestSpec);
+        }
+        return spec;
+    }
+
+    static RequestSpecification buildRequestSpec(SpecKey key) {
+        logger.debug("Building request spec for {}", key);
+        RequestSpecBuilder builder = new RequestSpecBuilder()
+                .setBaseUri(key.baseUrl)
                 .setContentType(ContentType.JSON)
-                .setAccept(ContentType.JSON)
-                .addFilter(new AllureRestAssured())
-                .addFilter(new RequestLoggingFilter(LogDetail.ALL))
-                .addFilter(new ResponseLoggingFilter(LogDetail.ALL))
-                .build();
+                .setAccept(ContentType.JSON);
+        boolean timed = ApiMetrics.getInstance().isEnabled();
+        if (timed) {
+            builder.addFilter(ApiTimingFilter.outer());
+        }
+        if (SYNC_REPORTING.equalsIgnoreCase(key.reportingProfile)) {
+            builder.addFilter(new AllureRestAssured());
+        } else if (ASYNC_REPORTING.equalsIgnoreCase(key.reportingProfile)) {
+            builder.addFilter(new AsyncAllureFilter(AsyncAttachmentWriter.getInstance(),
+                    config().getAttachmentMaxBodyChars(), config().getAttachmentOversizePolicy()));
+        }
+        if (key.loggingTier != LoggingTier.OFF) {
+            builder.addFilter(new HttpExchangeLoggingFilter(key.loggingTier, config().getHttpLoggingBufferSize()));
+        }
+        if (timed) {
+            // Same order as Allure and fault injection; added in between so injected faults count as network time
+            builder.addFilter(ApiTimingFilter.inner());
+        }
+        if (isFaultInjectionEnabled()) {
+            builder.addFilter(new FaultInjectionFilter(FaultProfile.forName(config().getFaultProfile())));
+        }
+        if (isStubTransport()) {
+            builder.addFilter(new StubTransportFilter());
+        }
+        HttpClientConfig httpClient = null;
+        if (isPooledTransport()) {
+            PooledHttpTransport transport = PooledHttpTransport.getInstance();
+            httpClient = key.timeoutMillis > 0 ? transport.httpClientConfig(key.timeoutMillis) : transport.httpClientConfig();
+        } else {
+            httpClient = HttpClientConfig.httpClientConfig().httpClientFactory(ApiClient::newUnpooledClient);
+            if (key.timeoutMillis > 0) {
+                // Without a reused instance REST Assured builds a client per request, so the params stay with that request
+                httpClient = httpClient
+                        .setParam("http.connection.timeout", key.timeoutMillis)
+                        .setParam("http.socket.timeout", key.timeoutMillis);
+            }
+        }
+        builder.setConfig(RestAssuredConfig.config().httpClient(httpClient));
+        return builder.build();
+    }
+
+    /**
+     * Client for one request of the default transport. HttpClient's own retry handler is off: it would resend
+     * GET and DELETE, including the non-idempotent create, behind the back of {@link RetryPolicy}.
+     */
+    private static DefaultHttpClient newUnpooledClient() {
+        DefaultHttpClient client = new DefaultHttpClient();
+        client.setHttpRequestRetryHandler(new DefaultHttpRequestRetryHandler(0, false));
+        return client;
+    }
+
+    public static void clearSpecCache() {
+        specCache.clear();
     }
 
     public static void setupRestAssured() {
-        RestAssured.baseURI = config.getBaseUrl();
+        RestAssured.baseURI = getBaseUrl();
         RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
     }
+
+    /**
+     * Base URL of the service under test; with api.target=local this starts the in-process stand-in on first use
+     */
+    public static String getBaseUrl() {
+        if (isLocalTarget()) {
+            return LocalPlayerServer.getInstance().getBaseUrl();
+        }
+        return config().getBaseUrl();
+    }
+
+    public static boolean isLocalTarget() {
+        return LOCAL_TARGET.equalsIgnoreCase(config().getApiTarget());
+    }
+
+    public static void stopLocalTarget() {
+        if (isLocalTarget()) {
+            LocalPlayerServer.getInstance().stop();
+        }
+    }
+
+    /**
+     * Faults are enacted by the local server, so fault.profile and fault.groups only apply with api.target=local
+     */
+    public static boolean isFaultInjectionEnabled() {
+        boolean configured = FaultProfile.forName(config().getFaultProfile()).isActive() || !FaultGroups.PROFILES.isEmpty();
+        if (configured && !isLocalTarget()) {
+            if (faultTargetWarned.compareAndSet(false, true)) {
+                logger.warn("Fault injection is configured but api.target is not local; faults are not injected");
+            }
+            return false;
+        }
+        return configured;
+    }
+
+    /**
+     * Applies the fault profile mapped to the first matching test group to the current thread
+     */
+    public static void selectFaultProfile(String[] groups) {
+        if (!FaultGroups.PROFILES.isEmpty() && isFaultInjectionEnabled()) {
+            FaultInjectionFilter.selectForGroups(groups, FaultGroups.PROFILES);
+        }
+    }
+
+    public static LoggingTier getLoggingTier() {
+        return LoggingTier.fromConfig(config().getHttpLogging());
+    }
+
+    public static boolean isPooledTransport() {
+        return POOLED_TRANSPORT.equalsIgnoreCase(config().getHttpTransport());
+    }
+
+    public static boolean isStubTransport() {
+        return STUB_TRANSPORT.equalsIgnoreCase(config().getHttpTransport());
+    }
+
+    public static void flushReporting() {
+        if (ASYNC_REPORTING.equalsIgnoreCase(config().getReportingProfile())) {
+            AsyncAttachmentWriter.getInstance().close();
+        }
+    }
+
+    public static void logTransportStats() {
+        if (isPooledTransport()) {
+            PooledHttpTransport transport = PooledHttpTransport.getInstance();
+            logger.info("HTTP connection pool: {}, {}", transport.getStats(), transport.getPoolStats());
+        }
+        logger.info("Retries: {}, suite budget left: {}", RetryPolicy.getMetrics(),
+                RetryPolicy.getBudget().getSuiteRemaining());
+        if (isFaultInjectionEnabled()) {
+            logger.info("Fault injection: {}", FaultInjectionFilter.stats());
+        }
+    }
+
+    private static class FaultGroups {
+        private static final Map<String, FaultProfile> PROFILES = FaultInjectionFilter.parseGroups(config().getFaultGroups());
+    }
+
+    /**
+     * Cache key for base request specifications
+     */
+    static final class SpecKey {
+        private final String baseUrl;
+        private final LoggingTier loggingTier;
+        private final String reportingProfile;
+        private final int timeoutMillis;
+
+        SpecKey(String baseUrl, LoggingTier loggingTier, String reportingProfile, int timeoutMillis) {
+            this.baseUrl = baseUrl;
+            this.loggingTier = loggingTier;
+            this.reportingProfile = reportingProfile;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SpecKey)) {
+                return false;
+            }
+            SpecKey other = (SpecKey) o;
+            return Objects.equals(baseUrl, other.baseUrl)
+                    && loggingTier == other.loggingTier
+                    && Objects.equals(reportingProfile, other.reportingProfile)
+                    && timeoutMillis == other.timeoutMillis;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(baseUrl, loggingTier, reportingProfile, timeoutMillis);
+        }
+
+        @Override
+        public String toString() {
+            return "SpecKey{baseUrl='" + baseUrl + "', logging=" + loggingTier + ", reporting=" + reportingProfile
+                    + (timeoutMillis > 0 ? ", timeout=" + timeoutMillis + "ms" : "") + '}';
+        }
+    }
 }
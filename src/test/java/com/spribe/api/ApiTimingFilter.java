@@ -0,0 +1,60 @@
+package com.spribe.api;
+
+import com.spribe.metrics.ExchangeTiming;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Timing probe for {@link com.spribe.metrics.ApiMetrics}. The outer instance runs before every other
+ * filter and measures the whole filter chain; the inner instance runs next to the transport and
+ * measures network time and body sizes. Injected faults sit inside the inner probe and count as network.
+ */
+public class ApiTimingFilter implements OrderedFilter {
+    private final boolean outer;
+
+    private ApiTimingFilter(boolean outer) {
+        this.outer = outer;
+    }
+
+    public static ApiTimingFilter outer() {
+        return new ApiTimingFilter(true);
+    }
+
+    public static ApiTimingFilter inner() {
+        return new ApiTimingFilter(false);
+    }
+
+    @Override
+    public int getOrder() {
+        return outer ? HIGHEST_PRECEDENCE : LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        long start = System.nanoTime();
+        Response response = ctx.next(requestSpec, responseSpec);
+        long elapsed = System.nanoTime() - start;
+        ExchangeTiming timing = ExchangeTiming.current();
+        if (outer) {
+            timing.recordFilterChain(elapsed);
+        } else {
+            timing.recordNetwork(elapsed, bodySize(requestSpec.getBody()), response.asByteArray().length);
+        }
+        return response;
+    }
+
+    private static long bodySize(Object body) {
+        if (body == null) {
+            return 0;
+        }
+        return body instanceof byte[] ? ((byte[]) body).length
+                : String.valueOf(body).getBytes(StandardCharsets.UTF_8).length;
+    }
+}
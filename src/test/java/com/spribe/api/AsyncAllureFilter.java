@@ -0,0 +1,80 @@
+package com.spribe.api;
+
+import io.qameta.allure.attachment.http.HttpRequestAttachment;
+import io.qameta.allure.attachment.http.HttpResponseAttachment;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.internal.NameAndValue;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Allure reporting filter that hands request/response attachments to {@link AsyncAttachmentWriter}
+ * instead of rendering and writing them on the test thread like AllureRestAssured does.
+ */
+public class AsyncAllureFilter implements Filter {
+    private static final String REQUEST_TEMPLATE = "http-request.ftl";
+    private static final String RESPONSE_TEMPLATE = "http-response.ftl";
+    private static final String OVERSIZE_DROP = "drop";
+
+    private final AsyncAttachmentWriter writer;
+    private final int maxBodyChars;
+    private final boolean dropOversize;
+
+    public AsyncAllureFilter(AsyncAttachmentWriter writer, int maxBodyChars, String oversizePolicy) {
+        this.writer = writer;
+        this.maxBodyChars = maxBodyChars;
+        this.dropOversize = OVERSIZE_DROP.equalsIgnoreCase(oversizePolicy);
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        HttpRequestAttachment.Builder requestBuilder = HttpRequestAttachment.Builder
+                .create("Request", requestSpec.getURI())
+                .setMethod(requestSpec.getMethod())
+                .setHeaders(toMap(requestSpec.getHeaders()))
+                .setCookies(toMap(requestSpec.getCookies()));
+        Object requestBody = requestSpec.getBody();
+        if (requestBody != null) {
+            requestBuilder.setBody(limit(String.valueOf(requestBody)));
+        }
+        HttpRequestAttachment request = requestBuilder.build();
+        writer.submit(request.getName(), request, REQUEST_TEMPLATE);
+
+        Response response = ctx.next(requestSpec, responseSpec);
+
+        HttpResponseAttachment responseAttachment = HttpResponseAttachment.Builder
+                .create(response.getStatusLine() == null ? "Response" : response.getStatusLine())
+                .setResponseCode(response.getStatusCode())
+                .setHeaders(toMap(response.getHeaders()))
+                .setBody(limit(response.asString()))
+                .build();
+        writer.submit(responseAttachment.getName(), responseAttachment, RESPONSE_TEMPLATE);
+        return response;
+    }
+
+    private String limit(String body) {
+        if (body == null || maxBodyChars <= 0 || body.length() <= maxBodyChars) {
+            return body;
+        }
+        int overflow = body.length() - maxBodyChars;
+        if (dropOversize) {
+            return "[body dropped: " + body.length() + " chars exceeds limit of " + maxBodyChars + "]";
+        }
+        return body.substring(0, maxBodyChars) + "\n... [truncated " + overflow + " chars]";
+    }
+
+    private static Map<String, String> toMap(Iterable<? extends NameAndValue> items) {
+        Map<String, String> map = new HashMap<>();
+        for (NameAndValue item : items) {
+            map.put(item.getName(), item.getValue());
+        }
+        return map;
+    }
+}
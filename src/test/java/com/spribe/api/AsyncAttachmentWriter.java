@@ -0,0 +1,224 @@
+package com.spribe.api;
+
+import com.spribe.config.ConfigManager;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.attachment.AttachmentData;
+import io.qameta.allure.attachment.AttachmentRenderer;
+import io.qameta.allure.attachment.FreemarkerAttachmentRenderer;
+import io.qameta.allure.attachment.http.HttpRequestAttachment;
+import io.qameta.allure.attachment.http.HttpResponseAttachment;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bounded background writer for Allure HTTP attachments.
+ * Test threads only reserve the attachment in the Allure lifecycle and enqueue the data;
+ * template rendering, optional compression and file writes happen in batches on the writer thread.
+ */
+public class AsyncAttachmentWriter {
+    private static final Logger logger = LogManager.getLogger(AsyncAttachmentWriter.class);
+    private static final String HTML_TYPE = "text/html";
+    private static final String HTML_EXTENSION = ".html";
+    private static final String GZIP_TYPE = "application/gzip";
+    private static final String GZIP_EXTENSION = ".html.gz";
+
+    private final AllureLifecycle lifecycle = Allure.getLifecycle();
+    private final BlockingQueue<Task> queue;
+    private final int batchSize;
+    private final int compressThresholdBytes;
+    private final Thread worker;
+    private final Map<String, AttachmentRenderer<AttachmentData>> renderers = new HashMap<>();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder writtenInline = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile boolean running = true;
+
+    private AsyncAttachmentWriter(ConfigManager config) {
+        queue = new ArrayBlockingQueue<>(config.getAttachmentQueueCapacity());
+        batchSize = config.getAttachmentBatchSize();
+        compressThresholdBytes = config.getAttachmentCompressThresholdBytes();
+        worker = new Thread(this::drainLoop, "allure-attachment-writer");
+        worker.setDaemon(true);
+        worker.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "allure-attachment-flush"));
+    }
+
+    private static class Holder {
+        private static final AsyncAttachmentWriter INSTANCE = new AsyncAttachmentWriter(ConfigManager.getInstance());
+    }
+
+    public static AsyncAttachmentWriter getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Reserves the attachment in the current test or step and schedules its rendering and write.
+     * Falls back to writing on the calling thread when the queue is full or the writer is closed.
+     */
+    public void submit(String name, AttachmentData data, String template) {
+        boolean compress = compressThresholdBytes > 0 && estimateSize(data) >= compressThresholdBytes;
+        String source = compress
+                ? lifecycle.prepareAttachment(name, GZIP_TYPE, GZIP_EXTENSION)
+                : lifecycle.prepareAttachment(name, HTML_TYPE, HTML_EXTENSION);
+        Task task = new Task(source, data, template, compress);
+        // A close() between the check and the offer may already have drained the queue; take the task back
+        // unless the writer got it first
+        if (running && queue.offer(task) && (running || !queue.remove(task))) {
+            return;
+        }
+        writtenInline.increment();
+        synchronized (renderers) {
+            write(task);
+        }
+    }
+
+    /**
+     * Blocks until every attachment enqueued before this call has been written
+     */
+    public boolean flush(long timeout, TimeUnit unit) {
+        if (!running) {
+            return true;
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            if (!queue.offer(new Task(latch), timeout, unit)) {
+                return false;
+            }
+            return latch.await(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Stops accepting attachments, so later ones are written on the calling thread, then waits for the writer
+     * to write everything queued before it exits
+     */
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            // Wakes a writer waiting on the empty queue; it exits once the queue is empty
+            if (!queue.offer(new Task(latch), 30, TimeUnit.SECONDS) || !latch.await(30, TimeUnit.SECONDS)) {
+                logger.warn("Timed out flushing Allure attachments, {} still queued", queue.size());
+            }
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker.interrupt();
+        List<Task> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        writeBatch(remaining);
+        logger.info("Allure attachment writer closed: written={}, writtenInline={}, failed={}",
+                written.sum(), writtenInline.sum(), failed.sum());
+    }
+
+    private void drainLoop() {
+        List<Task> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<Task> batch) {
+        synchronized (renderers) {
+            for (Task task : batch) {
+                if (task.flushLatch != null) {
+                    task.flushLatch.countDown();
+                } else {
+                    write(task);
+                }
+            }
+        }
+    }
+
+    private void write(Task task) {
+        try {
+            String content = renderers
+                    .computeIfAbsent(task.template, FreemarkerAttachmentRenderer::new)
+                    .render(task.data)
+                    .getContent();
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            if (task.compress) {
+                bytes = gzip(bytes);
+            }
+            lifecycle.writeAttachment(task.source, new ByteArrayInputStream(bytes));
+            written.increment();
+        } catch (Exception e) {
+            failed.increment();
+            logger.warn("Failed to write Allure attachment {}", task.source, e);
+        }
+    }
+
+    private static int estimateSize(AttachmentData data) {
+        if (data instanceof HttpRequestAttachment) {
+            String body = ((HttpRequestAttachment) data).getBody();
+            return body == null ? 0 : body.length();
+        }
+        if (data instanceof HttpResponseAttachment) {
+            String body = ((HttpResponseAttachment) data).getBody();
+            return body == null ? 0 : body.length();
+        }
+        return 0;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static final class Task {
+        private final String source;
+        private final AttachmentData data;
+        private final String template;
+        private final boolean compress;
+        private final CountDownLatch flushLatch;
+
+        Task(String source, AttachmentData data, String template, boolean compress) {
+            this.source = source;
+            this.data = data;
+            this.template = template;
+            this.compress = compress;
+            this.flushLatch = null;
+        }
+
+        Task(CountDownLatch flushLatch) {
+            this.source = null;
+            this.data = null;
+            this.template = null;
+            this.compress = false;
+            this.flushLatch = flushLatch;
+        }
+    }
+}
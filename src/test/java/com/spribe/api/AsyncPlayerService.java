@@ -0,0 +1,101 @@
+package com.spribe.api;
+
+import com.spribe.config.ConfigManager;
+import com.spribe.models.Player;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link PlayerService} on the JDK HttpClient.
+ * Keeps the same API quirks: create is a GET with query parameters, get is a POST with a JSON body,
+ * update is a PATCH and delete takes the player id as a query parameter.
+ * Calls complete off the test thread, so they are not reported as Allure steps.
+ */
+public class AsyncPlayerService {
+    private static final Logger logger = LogManager.getLogger(AsyncPlayerService.class);
+    private static final String JSON = "application/json";
+
+    private final HttpClient httpClient;
+    private final ConfigManager config = ConfigManager.getInstance();
+    private final Duration requestTimeout;
+
+    public AsyncPlayerService() {
+        requestTimeout = Duration.ofSeconds(config.getTimeoutSeconds());
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(requestTimeout)
+                .build();
+    }
+
+    public CompletableFuture<PlayerResult> createPlayer(Player player, String editor) {
+        logger.info("Creating player asynchronously with editor: {}, player: {}", editor, player);
+        // BUG: API uses GET instead of POST and query parameters instead of JSON body
+        StringBuilder query = new StringBuilder();
+        appendParam(query, "age", player.getAge());
+        appendParam(query, "gender", player.getGender());
+        appendParam(query, "login", player.getLogin());
+        appendParam(query, "password", player.getPassword());
+        appendParam(query, "role", player.getRole());
+        appendParam(query, "screenName", player.getScreenName());
+        return send(request("/player/create/" + encode(editor) + "?" + query).GET());
+    }
+
+    public CompletableFuture<PlayerResult> getPlayer(int playerId) {
+        logger.info("Getting player asynchronously with id: {}", playerId);
+        // BUG: API uses POST instead of GET and JSON body instead of query parameter
+        String requestBody = "{\"playerId\": " + playerId + "}";
+        return send(request("/player/get").POST(HttpRequest.BodyPublishers.ofString(requestBody)));
+    }
+
+    public CompletableFuture<PlayerResult> updatePlayer(Player player, String editor, int id) {
+        logger.info("Updating player asynchronously with id: {} by editor: {}, updates: {}", id, editor, player);
+        return send(request("/player/update/" + encode(editor) + "/" + id)
+                .method("PATCH", HttpRequest.BodyPublishers.ofByteArray(PlayerCodec.write(player))));
+    }
+
+    public CompletableFuture<PlayerResult> deletePlayer(int playerId, String editor) {
+        logger.info("Deleting player asynchronously with id: {} by editor: {}", playerId, editor);
+        return send(request("/player/delete/" + encode(editor) + "?playerId=" + playerId).DELETE());
+    }
+
+    private HttpRequest.Builder request(String pathAndQuery) {
+        return HttpRequest.newBuilder(URI.create(ApiClient.getBaseUrl() + pathAndQuery))
+                .timeout(requestTimeout)
+                .header("Content-Type", JSON)
+                .header("Accept", JSON);
+    }
+
+    private CompletableFuture<PlayerResult> send(HttpRequest.Builder builder) {
+        HttpRequest request = builder.build();
+        long start = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    long timeMillis = (System.nanoTime() - start) / 1_000_000;
+                    logger.info("{} {} response status: {}", request.method(), request.uri().getPath(), response.statusCode());
+                    return new PlayerResult(response.statusCode(), response.body(), response.headers().map(), timeMillis);
+                });
+    }
+
+    private static void appendParam(StringBuilder query, String name, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (query.length() > 0) {
+            query.append('&');
+        }
+        query.append(name).append('=').append(encode(value));
+    }
+
+    private static String encode(Object value) {
+        return URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8);
+    }
+}
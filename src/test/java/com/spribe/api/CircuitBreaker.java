@@ -0,0 +1,144 @@
+package com.spribe.api;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Circuit breaker for the service under test. Opens after a run of consecutive transport failures
+ * or 5xx responses and rejects calls until the open period ends; then a single probe call decides
+ * whether it closes again or stays open for another period.
+ * <p>
+ * Every allowed call gets a permit naming the generation it started in; each trip, probe and close starts a
+ * new generation. Results are reported with the permit, and a result from an older generation is ignored,
+ * so a slow call that started before a trip can neither close the circuit nor trip it again. While open,
+ * only the probe's own result moves the circuit.
+ */
+public class CircuitBreaker {
+    /** Returned by {@link #allowRequest()} when the call must not go out */
+    public static final long REJECTED = -1;
+
+    private static final Logger logger = LogManager.getLogger(CircuitBreaker.class);
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    // open is written before generation, so a reader that sees a new generation also sees its state
+    private volatile boolean open;
+    private volatile long generation;
+    private volatile long openUntilNanos;
+    private long probePermit = REJECTED;
+
+    /**
+     * @param failureThreshold consecutive failures that open the circuit, 0 disables the breaker
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+    }
+
+    /**
+     * Permit for a call that may go out now, or {@link #REJECTED}; in half-open state only one caller gets
+     * the probe permit
+     */
+    public long allowRequest() {
+        long current = generation;
+        if (!open) {
+            return current << 1;
+        }
+        synchronized (this) {
+            if (!open) {
+                return generation << 1;
+            }
+            if (System.nanoTime() - openUntilNanos < 0 || probePermit != REJECTED) {
+                return REJECTED;
+            }
+            generation++;
+            probePermit = generation << 1 | 1;
+            return probePermit;
+        }
+    }
+
+    public void onSuccess(long permit) {
+        if (isProbe(permit)) {
+            synchronized (this) {
+                if (permit == probePermit) {
+                    close();
+                }
+            }
+            return;
+        }
+        if (permit >> 1 == generation && !open) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    public void onFailure(long permit) {
+        if (failureThreshold <= 0) {
+            return;
+        }
+        if (isProbe(permit)) {
+            synchronized (this) {
+                if (permit == probePermit) {
+                    trip("probe failed");
+                }
+            }
+            return;
+        }
+        if (permit >> 1 != generation || open) {
+            return;
+        }
+        int failures = consecutiveFailures.incrementAndGet();
+        if (failures >= failureThreshold) {
+            synchronized (this) {
+                if (permit >> 1 == generation && !open) {
+                    trip(failures + " consecutive failures");
+                }
+            }
+        }
+    }
+
+    /**
+     * Lets another caller probe when the probe call failed without reaching the target
+     */
+    public synchronized void releaseProbe(long permit) {
+        if (permit == probePermit) {
+            probePermit = REJECTED;
+        }
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    private static boolean isProbe(long permit) {
+        return permit != REJECTED && (permit & 1) == 1;
+    }
+
+    private void trip(String reason) {
+        openUntilNanos = System.nanoTime() + openNanos;
+        probePermit = REJECTED;
+        open = true;
+        generation++;
+        logger.warn("Circuit opened for {} ms after {}", TimeUnit.NANOSECONDS.toMillis(openNanos), reason);
+    }
+
+    private void close() {
+        consecutiveFailures.set(0);
+        probePermit = REJECTED;
+        open = false;
+        generation++;
+        logger.info("Circuit closed, target is responding again");
+    }
+
+    /**
+     * Thrown instead of calling the target while the circuit is open
+     */
+    public static class CircuitOpenException extends RuntimeException {
+        public CircuitOpenException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.spribe.api;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * State transitions of {@link CircuitBreaker}; an open period of 0 ms lets the probe go out at once
+ */
+@Epic("Player Management")
+@Feature("Retry Policy")
+public class CircuitBreakerTest {
+
+    @Test(description = "Consecutive failures open the circuit")
+    @Description("The threshold-th consecutive failure trips the breaker and further calls are rejected")
+    public void testOpensAfterConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 60_000);
+
+        breaker.onFailure(breaker.allowRequest());
+        assertFalse(breaker.isOpen(), "One failure is below the threshold");
+        breaker.onFailure(breaker.allowRequest());
+
+        assertTrue(breaker.isOpen(), "Circuit should be open");
+        assertEquals(breaker.allowRequest(), CircuitBreaker.REJECTED, "Calls are rejected while open");
+    }
+
+    @Test(description = "A late success from before the trip does not close the circuit")
+    @Description("Only the probe's own result may leave OPEN; calls started before the trip are ignored")
+    public void testLateSuccessIgnoredWhileOpen() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 0);
+        long slowCall = breaker.allowRequest();
+        breaker.onFailure(breaker.allowRequest());
+        breaker.onFailure(breaker.allowRequest());
+        long probe = breaker.allowRequest();
+
+        breaker.onSuccess(slowCall);
+
+        assertTrue(breaker.isOpen(), "A pre-trip success must not close the circuit");
+        assertNotEquals(probe, CircuitBreaker.REJECTED, "The probe should have been granted");
+        assertEquals(breaker.allowRequest(), CircuitBreaker.REJECTED, "Only one probe at a time");
+        breaker.onSuccess(probe);
+        assertFalse(breaker.isOpen(), "The probe's success closes the circuit");
+    }
+
+    @Test(description = "A late failure from before the trip does not re-trip the circuit")
+    @Description("A stale failure neither re-opens a closed circuit nor counts towards the next trip")
+    public void testLateFailureIgnoredAfterClose() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 0);
+        long slowCall = breaker.allowRequest();
+        breaker.onFailure(breaker.allowRequest());
+        breaker.onFailure(breaker.allowRequest());
+        breaker.onSuccess(breaker.allowRequest());
+        assertFalse(breaker.isOpen(), "The probe should have closed the circuit");
+
+        breaker.onFailure(slowCall);
+        breaker.onFailure(breaker.allowRequest());
+
+        assertFalse(breaker.isOpen(), "Only failures of the current generation count");
+    }
+
+    @Test(description = "A failed probe re-opens the circuit and its later result is ignored")
+    @Description("After the probe fails, a duplicate report of that probe cannot close the new open period")
+    public void testFailedProbeReopens() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0);
+        breaker.onFailure(breaker.allowRequest());
+        long probe = breaker.allowRequest();
+
+        breaker.onFailure(probe);
+        assertTrue(breaker.isOpen(), "A failed probe keeps the circuit open");
+        breaker.onSuccess(probe);
+
+        assertTrue(breaker.isOpen(), "The old probe's permit is no longer valid");
+    }
+
+    @Test(description = "A released probe lets another caller probe")
+    @Description("A probe that never reached the target hands the half-open slot back")
+    public void testReleasedProbe() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0);
+        breaker.onFailure(breaker.allowRequest());
+        long probe = breaker.allowRequest();
+
+        breaker.releaseProbe(probe);
+        long nextProbe = breaker.allowRequest();
+
+        assertNotEquals(nextProbe, CircuitBreaker.REJECTED, "Another caller should get the probe");
+        breaker.onSuccess(probe);
+        assertTrue(breaker.isOpen(), "The released probe no longer decides");
+        breaker.onSuccess(nextProbe);
+        assertFalse(breaker.isOpen(), "The current probe closes the circuit");
+    }
+}
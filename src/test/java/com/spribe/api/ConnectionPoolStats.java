@@ -0,0 +1,60 @@
+package com.spribe.api;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lease statistics for the pooled HTTP transport.
+ * A hit is a lease served by an already open pooled connection, a miss is a lease that has to open a new one.
+ */
+public class ConnectionPoolStats {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder leaseWaitNanos = new LongAdder();
+    private final LongAccumulator maxLeaseWaitNanos = new LongAccumulator(Math::max, 0L);
+
+    void recordLease(boolean reused, long waitNanos) {
+        if (reused) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        leaseWaitNanos.add(waitNanos);
+        maxLeaseWaitNanos.accumulate(waitNanos);
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getLeases() {
+        return getHits() + getMisses();
+    }
+
+    public double getHitRatio() {
+        long leases = getLeases();
+        return leases == 0 ? 0.0 : (double) getHits() / leases;
+    }
+
+    public double getAverageLeaseWaitMillis() {
+        long leases = getLeases();
+        return leases == 0 ? 0.0 : leaseWaitNanos.sum() / (double) leases / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getMaxLeaseWaitMillis() {
+        return maxLeaseWaitNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionPoolStats{leases=%d, hits=%d, misses=%d, hitRatio=%.2f, "
+                        + "avgLeaseWaitMs=%.3f, maxLeaseWaitMs=%.3f}",
+                getLeases(), getHits(), getMisses(), getHitRatio(),
+                getAverageLeaseWaitMillis(), getMaxLeaseWaitMillis());
+    }
+}
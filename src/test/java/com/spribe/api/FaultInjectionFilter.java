@@ -0,0 +1,163 @@
+package com.spribe.api;
+
+import com.spribe.server.LocalPlayerServer;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Applies the current thread's {@link FaultProfile} through the local server. Runs as the innermost filter and
+ * draws this request's fault from the profile: latency, an error status or a dropped connection, plus the
+ * bandwidth cap. The fault is sent as X-Fault-* headers and {@link LocalPlayerServer} enacts it, so the client
+ * sees real socket timeouts and connection failures. Requires api.target=local; see
+ * {@link ApiClient#isFaultInjectionEnabled()}.
+ */
+public class FaultInjectionFilter implements OrderedFilter {
+    private static final Logger logger = LogManager.getLogger(FaultInjectionFilter.class);
+    private static final ThreadLocal<FaultProfile> current = new ThreadLocal<>();
+    private static final LongAdder delayed = new LongAdder();
+    private static final LongAdder delayMillis = new LongAdder();
+    private static final LongAdder dropped = new LongAdder();
+    private static final LongAdder errors = new LongAdder();
+
+    private final FaultProfile defaultProfile;
+
+    /**
+     * @param defaultProfile profile for threads that have not selected one, such as cleanup workers
+     */
+    public FaultInjectionFilter(FaultProfile defaultProfile) {
+        this.defaultProfile = defaultProfile;
+    }
+
+    /**
+     * Parses fault.groups, a comma separated list of group:profile pairs
+     */
+    public static Map<String, FaultProfile> parseGroups(String groups) {
+        if (groups == null || groups.trim().isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, FaultProfile> result = new HashMap<>();
+        for (String pair : groups.split(",")) {
+            int colon = pair.indexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Invalid fault.groups entry '" + pair.trim()
+                        + "' (expected <group>:<profile>)");
+            }
+            result.put(pair.substring(0, colon).trim(), FaultProfile.forName(pair.substring(colon + 1)));
+        }
+        return result;
+    }
+
+    /**
+     * Selects the profile of the first mapped group for requests made by the current thread;
+     * without a mapped group the thread falls back to the default profile
+     */
+    public static void selectForGroups(String[] groups, Map<String, FaultProfile> groupProfiles) {
+        for (String group : groups) {
+            FaultProfile profile = groupProfiles.get(group);
+            if (profile != null) {
+                current.set(profile);
+                logger.debug("Fault profile {} selected for group {}", profile.getName(), group);
+                return;
+            }
+        }
+        current.remove();
+    }
+
+    public static void clear() {
+        current.remove();
+    }
+
+    /**
+     * Runs a task, such as fixture setup, without any fault profile
+     */
+    public static <T> T withoutFaults(Supplier<T> task) {
+        FaultProfile previous = current.get();
+        current.set(FaultProfile.NONE);
+        try {
+            return task.get();
+        } finally {
+            setCurrent(previous);
+        }
+    }
+
+    /**
+     * Wraps a task so that it runs with the calling thread's fault profile
+     */
+    public static <T> Callable<T> inCurrentProfile(Callable<T> task) {
+        FaultProfile profile = current.get();
+        return () -> {
+            FaultProfile previous = current.get();
+            setCurrent(profile);
+            try {
+                return task.call();
+            } finally {
+                setCurrent(previous);
+            }
+        };
+    }
+
+    private static void setCurrent(FaultProfile profile) {
+        if (profile == null) {
+            current.remove();
+        } else {
+            current.set(profile);
+        }
+    }
+
+    public static String stats() {
+        return String.format("FaultInjectionStats{delayed=%d, delayMs=%d, dropped=%d, errors=%d}",
+                delayed.sum(), delayMillis.sum(), dropped.sum(), errors.sum());
+    }
+
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        FaultProfile profile = current.get();
+        if (profile == null) {
+            profile = defaultProfile;
+        }
+        if (!profile.isActive()) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+        requestSpec.header(LocalPlayerServer.FAULT_PROFILE_HEADER, profile.getName());
+        long latency = profile.sampleLatencyMillis();
+        if (latency > 0) {
+            delayed.increment();
+            delayMillis.add(latency);
+            requestSpec.header(LocalPlayerServer.FAULT_DELAY_HEADER, latency);
+        }
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < profile.getErrorRate()) {
+            errors.increment();
+            logger.debug("Injecting {} for {} {}", profile.getErrorStatus(), requestSpec.getMethod(), requestSpec.getURI());
+            requestSpec.header(LocalPlayerServer.FAULT_STATUS_HEADER, profile.getErrorStatus());
+        } else if (roll < profile.getErrorRate() + profile.getDropRate()) {
+            dropped.increment();
+            logger.debug("Injecting connection drop for {} {}", requestSpec.getMethod(), requestSpec.getURI());
+            requestSpec.header(LocalPlayerServer.FAULT_DROP_HEADER, true);
+        }
+        if (profile.getBandwidthBytesPerSecond() > 0) {
+            requestSpec.header(LocalPlayerServer.FAULT_BANDWIDTH_HEADER, profile.getBandwidthBytesPerSecond());
+        }
+        return ctx.next(requestSpec, responseSpec);
+    }
+}
@@ -0,0 +1,173 @@
+package com.spribe.api;
+
+import com.spribe.config.ConfigManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Degradation requested by {@link FaultInjectionFilter} and applied by the local server: added latency, dropped
+ * connections, 5xx responses and a bandwidth cap. Profiles are read from the fault.profile.&lt;name&gt;.*
+ * properties and parsed once per name.
+ */
+public final class FaultProfile {
+    public static final String NONE_NAME = "none";
+    public static final FaultProfile NONE = new FaultProfile(NONE_NAME, Latency.NONE, 0.0, 0.0, 503, 0L);
+    private static final ConcurrentMap<String, FaultProfile> profiles = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final Latency latency;
+    private final double dropRate;
+    private final double errorRate;
+    private final int errorStatus;
+    private final long bandwidthBytesPerSecond;
+
+    FaultProfile(String name, Latency latency, double dropRate, double errorRate, int errorStatus,
+                 long bandwidthBytesPerSecond) {
+        this.name = name;
+        this.latency = latency;
+        this.dropRate = dropRate;
+        this.errorRate = errorRate;
+        this.errorStatus = errorStatus;
+        this.bandwidthBytesPerSecond = bandwidthBytesPerSecond;
+    }
+
+    public static FaultProfile forName(String name) {
+        if (name == null || name.trim().isEmpty() || NONE_NAME.equalsIgnoreCase(name.trim())) {
+            return NONE;
+        }
+        return profiles.computeIfAbsent(name.trim(), key -> fromConfig(ConfigManager.getInstance(), key));
+    }
+
+    /**
+     * Rates and status are validated with the configuration snapshot; the latency spec is parsed here
+     */
+    static FaultProfile fromConfig(ConfigManager config, String name) {
+        return new FaultProfile(name, Latency.parse(config.getFaultLatency(name)), config.getFaultDropRate(name),
+                config.getFaultErrorRate(name), config.getFaultErrorStatus(name),
+                config.getFaultBandwidthBytesPerSecond(name));
+    }
+
+    public boolean isActive() {
+        return this != NONE;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long sampleLatencyMillis() {
+        return latency.sampleMillis(ThreadLocalRandom.current());
+    }
+
+    public double getDropRate() {
+        return dropRate;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public int getErrorStatus() {
+        return errorStatus;
+    }
+
+    /**
+     * Bandwidth of the simulated link in bytes per second, 0 when uncapped
+     */
+    public long getBandwidthBytesPerSecond() {
+        return bandwidthBytesPerSecond;
+    }
+
+    @Override
+    public String toString() {
+        return "FaultProfile{name=" + name + ", latency=" + latency + ", dropRate=" + dropRate
+                + ", errorRate=" + errorRate + ", errorStatus=" + errorStatus
+                + ", bandwidthBytesPerSecond=" + bandwidthBytesPerSecond + '}';
+    }
+
+    /**
+     * Added latency: none, fixed:&lt;ms&gt;, uniform:&lt;min&gt;-&lt;max&gt; or longtail:&lt;median&gt;-&lt;p99&gt;.
+     * The long tail is a log-normal distribution fitted to the given median and 99th percentile.
+     */
+    static final class Latency {
+        static final Latency NONE = new Latency("none", 0, 0, 0.0);
+        private static final double Z_99 = 2.3263478740408408;
+
+        private final String spec;
+        private final long first;
+        private final long second;
+        private final double sigma;
+
+        private Latency(String spec, long first, long second, double sigma) {
+            this.spec = spec;
+            this.first = first;
+            this.second = second;
+            this.sigma = sigma;
+        }
+
+        static Latency parse(String spec) {
+            String value = spec == null ? "" : spec.trim().toLowerCase();
+            if (value.isEmpty() || value.equals("none")) {
+                return NONE;
+            }
+            try {
+                int colon = value.indexOf(':');
+                String kind = colon < 0 ? value : value.substring(0, colon);
+                String args = colon < 0 ? "" : value.substring(colon + 1);
+                switch (kind) {
+                    case "fixed":
+                        return new Latency(value, Long.parseLong(args), 0, 0.0);
+                    case "uniform": {
+                        long[] range = range(args);
+                        return new Latency(value, range[0], range[1], 0.0);
+                    }
+                    case "longtail": {
+                        long[] range = range(args);
+                        if (range[0] <= 0) {
+                            throw new IllegalArgumentException("median must be positive");
+                        }
+                        return new Latency(value, range[0], range[1], Math.log((double) range[1] / range[0]) / Z_99);
+                    }
+                    default:
+                        throw new IllegalArgumentException("unknown distribution " + kind);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid fault latency '" + spec
+                        + "' (expected none, fixed:<ms>, uniform:<min>-<max> or longtail:<median>-<p99>)", e);
+            }
+        }
+
+        private static long[] range(String args) {
+            int dash = args.indexOf('-');
+            if (dash < 0) {
+                throw new IllegalArgumentException("expected <low>-<high>");
+            }
+            long low = Long.parseLong(args.substring(0, dash).trim());
+            long high = Long.parseLong(args.substring(dash + 1).trim());
+            if (low < 0 || high < low) {
+                throw new IllegalArgumentException("expected 0 <= low <= high");
+            }
+            return new long[]{low, high};
+        }
+
+        long sampleMillis(ThreadLocalRandom random) {
+            if (this == NONE) {
+                return 0;
+            }
+            if (second == 0 && sigma == 0.0) {
+                return first;
+            }
+            if (sigma == 0.0) {
+                return first == second ? first : random.nextLong(first, second + 1);
+            }
+            return Math.round(first * Math.exp(sigma * random.nextGaussian()));
+        }
+
+        @Override
+        public String toString() {
+            return spec;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.spribe.api;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Logs HTTP exchanges through log4j according to the configured {@link LoggingTier}.
+ * In FAILURES tier nothing is formatted on the happy path: exchanges are kept per thread
+ * and written only by {@link #flushFailedTest(String)}.
+ */
+public class HttpExchangeLoggingFilter implements Filter {
+    private static final Logger logger = LogManager.getLogger(HttpExchangeLoggingFilter.class);
+    private static final ThreadLocal<Deque<Exchange>> buffer = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final LoggingTier tier;
+    private final int bufferSize;
+
+    public HttpExchangeLoggingFilter(LoggingTier tier, int bufferSize) {
+        this.tier = tier;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+        Exchange exchange = new Exchange(requestSpec.getMethod(), requestSpec.getURI(),
+                requestSpec.getHeaders(), requestSpec.getBody(), response);
+        switch (tier) {
+            case FAILURES:
+                Deque<Exchange> exchanges = buffer.get();
+                if (exchanges.size() >= bufferSize) {
+                    exchanges.removeFirst();
+                }
+                exchanges.addLast(exchange);
+                break;
+            case HEADERS:
+                logger.info("{}", exchange.format(false));
+                break;
+            case FULL:
+                logger.info("{}", exchange.format(true));
+                break;
+            default:
+                break;
+        }
+        return response;
+    }
+
+    /**
+     * Drops exchanges buffered by the current thread
+     */
+    public static void discardBuffered() {
+        buffer.get().clear();
+    }
+
+    /**
+     * Writes and clears exchanges buffered by the current thread
+     */
+    public static void flushFailedTest(String testName) {
+        Deque<Exchange> exchanges = buffer.get();
+        if (exchanges.isEmpty()) {
+            return;
+        }
+        logger.error("Test {} failed, {} buffered HTTP exchange(s):", testName, exchanges.size());
+        for (Exchange exchange : exchanges) {
+            logger.error("{}", exchange.format(true));
+        }
+        exchanges.clear();
+    }
+
+    private static final class Exchange {
+        private final String method;
+        private final String uri;
+        private final Headers requestHeaders;
+        private final Object requestBody;
+        private final Response response;
+
+        Exchange(String method, String uri, Headers requestHeaders, Object requestBody, Response response) {
+            this.method = method;
+            this.uri = uri;
+            this.requestHeaders = requestHeaders;
+            this.requestBody = requestBody;
+            this.response = response;
+        }
+
+        String format(boolean includeBodies) {
+            StringBuilder sb = new StringBuilder(256);
+            sb.append(method).append(' ').append(uri).append(" -> ").append(response.getStatusLine())
+                    .append(" (").append(response.getTime()).append(" ms)");
+            appendHeaders(sb, "Request headers", requestHeaders);
+            if (includeBodies && requestBody != null) {
+                sb.append(System.lineSeparator()).append("Request body: ").append(requestBody);
+            }
+            appendHeaders(sb, "Response headers", response.getHeaders());
+            if (includeBodies) {
+                sb.append(System.lineSeparator()).append("Response body: ").append(response.asString());
+            }
+            return sb.toString();
+        }
+
+        private static void appendHeaders(StringBuilder sb, String title, Headers headers) {
+            sb.append(System.lineSeparator()).append(title).append(':');
+            for (Header header : headers) {
+                sb.append(System.lineSeparator()).append("    ").append(header.getName()).append('=').append(header.getValue());
+            }
+        }
+    }
+}
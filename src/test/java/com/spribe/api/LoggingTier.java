@@ -0,0 +1,27 @@
+package com.spribe.api;
+
+/**
+ * Request/response logging tiers selectable through the http.logging property
+ */
+public enum LoggingTier {
+    /** No exchange logging at all */
+    OFF,
+    /** Exchanges are buffered per test and only written when the test fails */
+    FAILURES,
+    /** Request line, status and headers of every exchange */
+    HEADERS,
+    /** Headers and bodies of every exchange */
+    FULL;
+
+    public static LoggingTier fromConfig(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return FAILURES;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown http.logging tier: " + value
+                    + " (expected off, failures, headers or full)", e);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.spribe.api;
+
+import com.spribe.config.ConfigManager;
+import com.spribe.impact.ImpactRecorder;
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cleanup engine that deletes test players concurrently with a bounded number of workers.
+ * Transient failures (I/O errors, 429 and 5xx) are retried by {@link RetryPolicy#forCleanup()}. In deferred mode
+ * deletes are queued to the background sweeper and awaited once at suite end instead of after every test.
+ * Every request times out on its own after cleanup.request.timeout.seconds, so waiting for the deletes always
+ * ends and each one is counted once it has finished.
+ */
+public class PlayerCleaner {
+    private static final Logger logger = LogManager.getLogger(PlayerCleaner.class);
+    private static final String DEFERRED_MODE = "deferred";
+
+    private final PlayerService playerService = new PlayerService(RetryPolicy.forCleanup());
+    private final ExecutorService executor;
+    private final boolean deferred;
+    private final Queue<CompletableFuture<Boolean>> pending = new ConcurrentLinkedQueue<>();
+
+    private PlayerCleaner(ConfigManager config) {
+        int parallelism = config.getCleanupParallelism();
+        deferred = DEFERRED_MODE.equalsIgnoreCase(config.getCleanupMode());
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "player-cleanup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static class Holder {
+        private static final PlayerCleaner INSTANCE = new PlayerCleaner(ConfigManager.getInstance());
+    }
+
+    public static PlayerCleaner getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Deletes the players inline or hands them to the sweeper, depending on cleanup.mode
+     */
+    public void cleanup(int[] playerIds, String editor) {
+        if (deferred) {
+            retire(playerIds, editor);
+        } else {
+            deleteAll(playerIds, editor);
+        }
+    }
+
+    /**
+     * Queues the players to the sweeper whatever the cleanup mode; the deletes are awaited by {@link #awaitPending()}
+     */
+    public void retire(int[] playerIds, String editor) {
+        for (int playerId : playerIds) {
+            pending.add(submit(playerId, editor));
+        }
+        logger.info("Deferred cleanup of {} player(s) to suite sweeper", playerIds.length);
+    }
+
+    /**
+     * Deletes all players concurrently and waits for the result.
+     *
+     * @return number of players that could not be deleted
+     */
+    public int deleteAll(int[] playerIds, String editor) {
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(playerIds.length);
+        for (int playerId : playerIds) {
+            futures.add(submit(playerId, editor));
+        }
+        return awaitAll(futures);
+    }
+
+    /**
+     * Waits for all deferred deletes; called once at suite end
+     */
+    public int awaitPending() {
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        CompletableFuture<Boolean> future;
+        while ((future = pending.poll()) != null) {
+            futures.add(future);
+        }
+        if (futures.isEmpty()) {
+            return 0;
+        }
+        logger.info("Sweeping {} deferred player cleanup(s)", futures.size());
+        return awaitAll(futures);
+    }
+
+    private CompletableFuture<Boolean> submit(int playerId, String editor) {
+        return CompletableFuture.supplyAsync(() -> deleteWithRetry(playerId, editor),
+                task -> executor.execute(ImpactRecorder.onBehalfOf(PlayerCleaner.class, task)));
+    }
+
+    private int awaitAll(List<CompletableFuture<Boolean>> futures) {
+        int failures = 0;
+        for (CompletableFuture<Boolean> future : futures) {
+            try {
+                if (!future.get()) {
+                    failures++;
+                }
+            } catch (ExecutionException e) {
+                failures++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures++;
+                break;
+            }
+        }
+        if (failures > 0) {
+            logger.warn("Failed to cleanup {} of {} player(s)", failures, futures.size());
+        }
+        return failures;
+    }
+
+    private boolean deleteWithRetry(int playerId, String editor) {
+        try {
+            Response response = playerService.deletePlayerUnreported(playerId, editor);
+            int status = response.getStatusCode();
+            if (status < 300 || status == 404) {
+                logger.info("Cleaned up player with id: {}", playerId);
+                return true;
+            }
+            logger.warn("Cleanup of player {} returned status {}", playerId, status);
+        } catch (Exception e) {
+            logger.warn("Failed to cleanup player with id: {}", playerId, e);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,175 @@
+package com.spribe.api;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.spribe.models.Player;
+import io.restassured.response.ResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Streaming JSON codec for {@link Player} on a single shared JsonFactory.
+ * Reads straight from the response bytes, takes only the Player fields and skips everything else,
+ * as the @JsonIgnoreProperties(ignoreUnknown = true) contract allows. Field types are coerced the way
+ * Jackson-databind coerces them ("12" and 12.0 read as 12, a number reads as text) and a value that does not fit,
+ * such as a non-numeric id, fails the read. Writes non-null fields only, matching @JsonInclude(NON_NULL).
+ */
+public final class PlayerCodec {
+    private static final JsonFactory factory = JsonFactory.builder()
+            .disable(JsonFactory.Feature.INTERN_FIELD_NAMES)
+            .build();
+
+    private PlayerCodec() {
+    }
+
+    /**
+     * Replacement for response.as(Player.class); never returns null, an empty body or anything but a player
+     * object throws {@link UncheckedIOException}
+     */
+    public static Player read(ResponseBody<?> response) {
+        return read(response.asByteArray());
+    }
+
+    public static Player read(byte[] json) {
+        if (json == null || json.length == 0) {
+            throw emptyBody();
+        }
+        try (JsonParser parser = factory.createParser(json)) {
+            return read(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read player from response body", e);
+        }
+    }
+
+    public static Player read(String json) {
+        if (json == null || json.isEmpty()) {
+            throw emptyBody();
+        }
+        try (JsonParser parser = factory.createParser(json)) {
+            return read(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read player from response body", e);
+        }
+    }
+
+    public static Player read(InputStream json) {
+        try (JsonParser parser = factory.createParser(json)) {
+            return read(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read player from response body", e);
+        }
+    }
+
+    public static byte[] write(Player player) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(160);
+        try (JsonGenerator generator = factory.createGenerator(out)) {
+            generator.writeStartObject();
+            if (player.getId() != null) {
+                generator.writeNumberField("id", player.getId());
+            }
+            writeString(generator, "screenName", player.getScreenName());
+            writeString(generator, "gender", player.getGender());
+            if (player.getAge() != null) {
+                generator.writeNumberField("age", player.getAge());
+            }
+            writeString(generator, "role", player.getRole());
+            writeString(generator, "login", player.getLogin());
+            writeString(generator, "password", player.getPassword());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write player", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static UncheckedIOException emptyBody() {
+        return new UncheckedIOException(new IOException("Empty response body, expected a player"));
+    }
+
+    private static Player read(JsonParser parser) throws IOException {
+        JsonToken start = parser.nextToken();
+        if (start == null) {
+            throw new IOException("Empty response body, expected a player");
+        }
+        if (start != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a player object but got " + start);
+        }
+        Player player = new Player();
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id":
+                    player.setId(readInteger(parser, field, value));
+                    break;
+                case "age":
+                    player.setAge(readInteger(parser, field, value));
+                    break;
+                case "screenName":
+                    player.setScreenName(readString(parser, field, value));
+                    break;
+                case "gender":
+                    player.setGender(readString(parser, field, value));
+                    break;
+                case "role":
+                    player.setRole(readString(parser, field, value));
+                    break;
+                case "login":
+                    player.setLogin(readString(parser, field, value));
+                    break;
+                case "password":
+                    player.setPassword(readString(parser, field, value));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return player;
+    }
+
+    private static Integer readInteger(JsonParser parser, String field, JsonToken value) throws IOException {
+        switch (value) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_NUMBER_INT:
+                return parser.getIntValue();
+            case VALUE_NUMBER_FLOAT:
+                return (int) parser.getDoubleValue();
+            case VALUE_STRING:
+                String text = parser.getText().trim();
+                if (text.isEmpty()) {
+                    return null;
+                }
+                try {
+                    return Integer.valueOf(text);
+                } catch (NumberFormatException e) {
+                    throw new JsonParseException(parser, "Field '" + field + "' is not an integer: \"" + text + "\"");
+                }
+            default:
+                throw new JsonParseException(parser, "Field '" + field + "' expects an integer but got " + value);
+        }
+    }
+
+    private static String readString(JsonParser parser, String field, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!value.isScalarValue()) {
+            throw new JsonParseException(parser, "Field '" + field + "' expects text but got " + value);
+        }
+        return parser.getText();
+    }
+
+    private static void writeString(JsonGenerator generator, String name, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(name, value);
+        }
+    }
+}
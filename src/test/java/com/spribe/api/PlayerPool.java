@@ -0,0 +1,228 @@
+package com.spribe.api;
+
+import com.spribe.config.ConfigManager;
+import com.spribe.impact.ImpactRecorder;
+import com.spribe.models.Player;
+import com.spribe.utils.TestDataGenerator;
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixture pool of players created ahead of time in the background, with one stock per role.
+ * When a role's stock of ready and in-flight players drops below the low watermark, it is topped up to the
+ * high watermark by up to pool.provision.parallelism concurrent creates. A leased player belongs to the test
+ * that leased it and is retired through the {@link PlayerCleaner} sweeper afterwards, off the test's critical path.
+ */
+public class PlayerPool {
+    private static final Logger logger = LogManager.getLogger(PlayerPool.class);
+
+    private final boolean enabled;
+    private final int lowWatermark;
+    private final int highWatermark;
+    private final long shutdownTimeoutMillis;
+    private final String editor;
+    private final Map<String, Stock> stocks = new LinkedHashMap<>();
+    private final Set<Integer> leased = ConcurrentHashMap.newKeySet();
+    private final PlayerService playerService = new PlayerService();
+    private final ExecutorService provisioner;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder provisioned = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private PlayerPool(ConfigManager config) {
+        enabled = config.isPoolEnabled();
+        lowWatermark = config.getPoolLowWatermark();
+        highWatermark = config.getPoolHighWatermark();
+        if (lowWatermark < 0 || highWatermark < lowWatermark) {
+            throw new IllegalArgumentException("Player pool watermarks must satisfy 0 <= pool.low.watermark <= "
+                    + "pool.high.watermark, got " + lowWatermark + " and " + highWatermark);
+        }
+        shutdownTimeoutMillis = TimeUnit.SECONDS.toMillis(config.getCleanupRequestTimeoutSeconds());
+        editor = config.getSupervisorLogin();
+        for (String role : config.getPoolRoles().split(",")) {
+            if (!role.trim().isEmpty()) {
+                stocks.put(role.trim(), new Stock(role.trim()));
+            }
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        provisioner = Executors.newFixedThreadPool(config.getPoolProvisionParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, "player-pool-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static class Holder {
+        private static final PlayerPool INSTANCE = new PlayerPool(ConfigManager.getInstance());
+    }
+
+    public static PlayerPool getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts provisioning every role up to the high watermark; later calls do nothing
+     */
+    public void warmUp() {
+        if (!enabled || !started.compareAndSet(false, true)) {
+            return;
+        }
+        logger.info("Warming player pool for roles {} (low watermark {}, high watermark {})",
+                stocks.keySet(), lowWatermark, highWatermark);
+        for (Stock stock : stocks.values()) {
+            refill(stock);
+        }
+    }
+
+    /**
+     * Takes a ready player of the role without waiting.
+     *
+     * @return the player, or null when the pool is disabled, does not stock the role or has none ready
+     */
+    public Player lease(String role) {
+        Stock stock = enabled ? stocks.get(role) : null;
+        if (stock == null) {
+            return null;
+        }
+        warmUp();
+        Player player = stock.ready.poll();
+        if (player == null) {
+            misses.increment();
+        } else {
+            stock.level.decrementAndGet();
+            leased.add(player.getId());
+            hits.increment();
+        }
+        if (stock.level.get() < lowWatermark) {
+            refill(stock);
+        }
+        return player;
+    }
+
+    /**
+     * Queues the leased players among the ids for deletion by the cleanup sweeper.
+     *
+     * @return the ids that were not leased from the pool
+     */
+    public int[] retire(int[] playerIds) {
+        if (leased.isEmpty()) {
+            return playerIds;
+        }
+        int[] retired = new int[playerIds.length];
+        int[] others = new int[playerIds.length];
+        int retiredCount = 0;
+        int otherCount = 0;
+        for (int playerId : playerIds) {
+            if (leased.remove(playerId)) {
+                retired[retiredCount++] = playerId;
+            } else {
+                others[otherCount++] = playerId;
+            }
+        }
+        if (retiredCount > 0) {
+            PlayerCleaner.getInstance().retire(Arrays.copyOf(retired, retiredCount), editor);
+        }
+        return Arrays.copyOf(others, otherCount);
+    }
+
+    /**
+     * Stops provisioning, waits for creates in flight and queues the players never leased for deletion;
+     * called once at suite end before the cleanup sweep
+     */
+    public void shutdown() {
+        if (!closed.compareAndSet(false, true) || !started.get()) {
+            return;
+        }
+        provisioner.shutdown();
+        try {
+            if (!provisioner.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                logger.warn("Player pool provisioning did not finish within {} ms", shutdownTimeoutMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int[] unused = stocks.values().stream()
+                .flatMap(stock -> stock.ready.stream())
+                .mapToInt(Player::getId)
+                .toArray();
+        stocks.values().forEach(stock -> stock.ready.clear());
+        if (unused.length > 0) {
+            PlayerCleaner.getInstance().retire(unused, editor);
+        }
+        leased.clear();
+        logger.info("Player pool: {} lease(s) served from stock, {} miss(es), {} player(s) provisioned, "
+                + "{} failed, {} unused", hits.sum(), misses.sum(), provisioned.sum(), failed.sum(), unused.length);
+    }
+
+    private void refill(Stock stock) {
+        int level;
+        while (!closed.get() && (level = stock.level.get()) < highWatermark) {
+            if (!stock.level.compareAndSet(level, level + 1)) {
+                continue;
+            }
+            try {
+                provisioner.execute(ImpactRecorder.onBehalfOf(PlayerPool.class, () -> provision(stock)));
+            } catch (RejectedExecutionException e) {
+                stock.level.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private void provision(Stock stock) {
+        try {
+            Response response = playerService.createPlayerUnreported(
+                    TestDataGenerator.createValidPlayerWithRole(stock.role), editor);
+            int status = response.getStatusCode();
+            if (status == 200 || status == 201) {
+                Player player = PlayerCodec.read(response);
+                if (player.getId() != null) {
+                    stock.ready.add(player);
+                    provisioned.increment();
+                    logger.debug("Provisioned {} player with id: {}", stock.role, player.getId());
+                    return;
+                }
+            }
+            logger.warn("Provisioning {} player returned status {}", stock.role, status);
+        } catch (Exception e) {
+            logger.warn("Failed to provision {} player", stock.role, e);
+        }
+        // Not retried here: the next lease below the low watermark tries again
+        stock.level.decrementAndGet();
+        failed.increment();
+    }
+
+    private static final class Stock {
+        private final String role;
+        private final Queue<Player> ready = new ConcurrentLinkedQueue<>();
+        /** Ready plus in-flight players */
+        private final AtomicInteger level = new AtomicInteger();
+
+        Stock(String role) {
+            this.role = role;
+        }
+    }
+}
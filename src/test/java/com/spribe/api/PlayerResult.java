@@ -0,0 +1,55 @@
+package com.spribe.api;
+
+import com.spribe.models.Player;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materialized response of an {@link AsyncPlayerService} call
+ */
+public class PlayerResult {
+    private final int statusCode;
+    private final String body;
+    private final Map<String, List<String>> headers;
+    private final long timeMillis;
+
+    public PlayerResult(int statusCode, String body, Map<String, List<String>> headers, long timeMillis) {
+        this.statusCode = statusCode;
+        this.body = body;
+        this.headers = headers;
+        this.timeMillis = timeMillis;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * Body mapped to a Player; an empty or malformed body throws {@link java.io.UncheckedIOException}
+     */
+    public Player getPlayer() {
+        return PlayerCodec.read(body);
+    }
+
+    @Override
+    public String toString() {
+        return "PlayerResult{status=" + statusCode + ", timeMillis=" + timeMillis + ", body=" + body + '}';
+    }
+}
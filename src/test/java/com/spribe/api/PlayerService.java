@@ -1,15 +1,19 @@
 package com.spribe.api;
 
+import com.spribe.metrics.ApiMetrics;
+import com.spribe.metrics.ExchangeTiming;
 import com.spribe.models.Player;
 import io.qameta.allure.Step;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import static io.restassured.RestAssured.given;
 
 /**
- * Service class for Player API operations
+ * Service class for Player API operations.
+ * Calls go through a {@link RetryPolicy}, which decides per operation whether failures are retried.
  */
 public class PlayerService {
     private static final Logger logger = LogManager.getLogger(PlayerService.class);
@@ -17,15 +21,41 @@ public class PlayerService {
     private static final String PLAYER_DELETE_PATH = "/player/delete/{editor}";
     private static final String PLAYER_GET_PATH = "/player/get";
     private static final String PLAYER_UPDATE_PATH = "/player/update/{editor}/{id}";
+    private static final String CREATE_ENDPOINT = "GET " + PLAYER_CREATE_PATH;
+    private static final String DELETE_ENDPOINT = "DELETE " + PLAYER_DELETE_PATH;
+    private static final String GET_ENDPOINT = "POST " + PLAYER_GET_PATH;
+    private static final String UPDATE_ENDPOINT = "PATCH " + PLAYER_UPDATE_PATH;
+
+    private final RetryPolicy retryPolicy;
+    private final ApiMetrics metrics = ApiMetrics.getInstance();
+
+    public PlayerService() {
+        this(RetryPolicy.getDefault());
+    }
+
+    public PlayerService(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+    }
 
     @Step("Create player with editor: {editor}")
     public Response createPlayer(Player player, String editor) {
+        return sendCreate(ApiClient.getRequestSpec(), player, editor);
+    }
+
+    /**
+     * Create without Allure step and attachments, used by the fixture pool's background provisioning threads
+     */
+    public Response createPlayerUnreported(Player player, String editor) {
+        return sendCreate(ApiClient.getUnreportedRequestSpec(), player, editor);
+    }
+
+    private Response sendCreate(RequestSpecification spec, Player player, String editor) {
         logger.info("Creating player with editor: {}, player: {}", editor, player);
         
         // BUG: API uses GET instead of POST (REST violation)
         // BUG: API requires query parameters instead of JSON body
-        Response response = given()
-                .spec(ApiClient.getRequestSpec())
+        Response response = retryPolicy.execute(RetryPolicy.Operation.CREATE, () -> metrics.time(CREATE_ENDPOINT, editor, () -> given()
+                .spec(spec)
                 .pathParam("editor", editor)
                 .queryParam("age", player.getAge())
                 .queryParam("gender", player.getGender())
@@ -34,22 +64,37 @@ public class PlayerService {
                 .queryParam("role", player.getRole())
                 .queryParam("screenName", player.getScreenName())
                 .when()
-                .get(PLAYER_CREATE_PATH);
+                .get(PLAYER_CREATE_PATH)));
         
+        if (response.getStatusCode() == 200 || response.getStatusCode() == 201) {
+            metrics.rememberRole(player.getLogin(), player.getRole());
+        }
         logger.info("Create player response status: {}", response.getStatusCode());
         return response;
     }
 
     @Step("Delete player with id: {playerId} by editor: {editor}")
     public Response deletePlayer(int playerId, String editor) {
+        return sendDelete(ApiClient.getRequestSpec(), playerId, editor);
+    }
+
+    /**
+     * Delete without Allure step and attachments, used by background cleanup threads that have no test context;
+     * each attempt times out after cleanup.request.timeout.seconds
+     */
+    public Response deletePlayerUnreported(int playerId, String editor) {
+        return sendDelete(ApiClient.getCleanupRequestSpec(), playerId, editor);
+    }
+
+    private Response sendDelete(RequestSpecification spec, int playerId, String editor) {
         logger.info("Deleting player with id: {} by editor: {}", playerId, editor);
         
-        Response response = given()
-                .spec(ApiClient.getRequestSpec())
+        Response response = retryPolicy.execute(RetryPolicy.Operation.DELETE, () -> metrics.time(DELETE_ENDPOINT, editor, () -> given()
+                .spec(spec)
                 .pathParam("editor", editor)
                 .queryParam("playerId", playerId)
                 .when()
-                .delete(PLAYER_DELETE_PATH);
+                .delete(PLAYER_DELETE_PATH)));
         
         logger.info("Delete player response status: {}", response.getStatusCode());
         return response;
@@ -62,11 +107,11 @@ public class PlayerService {
         // BUG: API uses POST instead of GET (REST violation)
         // BUG: API requires JSON body instead of query parameter
         String requestBody = "{\"playerId\": " + playerId + "}";
-        Response response = given()
+        Response response = retryPolicy.execute(RetryPolicy.Operation.GET, () -> metrics.time(GET_ENDPOINT, null, () -> given()
                 .spec(ApiClient.getRequestSpec())
                 .body(requestBody)
                 .when()
-                .post(PLAYER_GET_PATH);
+                .post(PLAYER_GET_PATH)));
         
         logger.info("Get player response status: {}", response.getStatusCode());
         return response;
@@ -76,15 +121,25 @@ public class PlayerService {
     public Response updatePlayer(Player player, String editor, int id) {
         logger.info("Updating player with id: {} by editor: {}, updates: {}", id, editor, player);
         
-        Response response = given()
+        Response response = retryPolicy.execute(RetryPolicy.Operation.UPDATE, () -> metrics.time(UPDATE_ENDPOINT, editor, () -> given()
                 .spec(ApiClient.getRequestSpec())
                 .pathParam("editor", editor)
                 .pathParam("id", id)
-                .body(player)
+                .body(serialize(player))
                 .when()
-                .patch(PLAYER_UPDATE_PATH);
+                .patch(PLAYER_UPDATE_PATH)));
         
         logger.info("Update player response status: {}", response.getStatusCode());
         return response;
     }
+
+    /**
+     * Serializes inside the timed attempt, so the time is reported as serialization overhead
+     */
+    private static byte[] serialize(Player player) {
+        long start = System.nanoTime();
+        byte[] body = PlayerCodec.write(player);
+        ExchangeTiming.current().recordSerialization(System.nanoTime() - start);
+        return body;
+    }
 }
@@ -0,0 +1,170 @@
+package com.spribe.api;
+
+import com.spribe.config.ConfigManager;
+import io.restassured.config.HttpClientConfig;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.client.DefaultHttpRequestRetryHandler;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared keep-alive HTTP transport backed by one connection pool per JVM.
+ * REST Assured casts its client to AbstractHttpClient, so the pool is built on the legacy
+ * DefaultHttpClient / PoolingClientConnectionManager pair.
+ */
+@SuppressWarnings("deprecation")
+public class PooledHttpTransport {
+    private static final Logger logger = LogManager.getLogger(PooledHttpTransport.class);
+
+    private final InstrumentedConnectionManager connectionManager;
+    private final DefaultHttpClient httpClient;
+    private final ConcurrentMap<Integer, DefaultHttpClient> timeoutClients = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService evictor;
+    private final ConnectionPoolStats stats = new ConnectionPoolStats();
+    private final int timeoutMillis;
+    private final long keepAliveMillis;
+
+    private PooledHttpTransport(ConfigManager config) {
+        timeoutMillis = (int) TimeUnit.SECONDS.toMillis(config.getTimeoutSeconds());
+        keepAliveMillis = TimeUnit.SECONDS.toMillis(config.getKeepAliveSeconds());
+        int idleTimeoutSeconds = config.getPoolIdleTimeoutSeconds();
+
+        connectionManager = new InstrumentedConnectionManager(stats);
+        connectionManager.setDefaultMaxPerRoute(config.getPoolMaxPerRoute());
+        connectionManager.setMaxTotal(config.getPoolMaxTotal());
+        httpClient = newClient(timeoutMillis);
+
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long evictionPeriod = Math.max(1, idleTimeoutSeconds / 2);
+        evictor.scheduleWithFixedDelay(() -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleTimeoutSeconds, TimeUnit.SECONDS);
+        }, evictionPeriod, evictionPeriod, TimeUnit.SECONDS);
+
+        logger.info("Pooled HTTP transport initialized: maxPerRoute={}, maxTotal={}, idleTimeout={}s, timeout={}ms",
+                config.getPoolMaxPerRoute(), config.getPoolMaxTotal(), idleTimeoutSeconds, timeoutMillis);
+    }
+
+    private static class Holder {
+        private static final PooledHttpTransport INSTANCE = new PooledHttpTransport(ConfigManager.getInstance());
+    }
+
+    public static PooledHttpTransport getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * REST Assured client config that always hands out the shared pooled client.
+     * Reuse must be enabled, otherwise REST Assured shuts the connection manager down after every request.
+     */
+    public HttpClientConfig httpClientConfig() {
+        return httpClientConfig(httpClient, timeoutMillis);
+    }
+
+    /**
+     * Client config with its own connect, socket and lease timeouts, on the same connection pool.
+     * REST Assured writes the params of a config into the client instance before every request, so each timeout
+     * gets a client of its own; setting them on the shared client would change the timeouts of other threads' calls.
+     */
+    public HttpClientConfig httpClientConfig(int timeoutMillis) {
+        if (timeoutMillis == this.timeoutMillis) {
+            return httpClientConfig();
+        }
+        return httpClientConfig(timeoutClients.computeIfAbsent(timeoutMillis, this::newClient), timeoutMillis);
+    }
+
+    private static HttpClientConfig httpClientConfig(DefaultHttpClient client, int timeoutMillis) {
+        return HttpClientConfig.httpClientConfig()
+                .reuseHttpClientInstance()
+                .httpClientFactory(() -> client)
+                .setParam("http.connection.timeout", timeoutMillis)
+                .setParam("http.socket.timeout", timeoutMillis)
+                .setParam("http.conn-manager.timeout", (long) timeoutMillis);
+    }
+
+    private DefaultHttpClient newClient(int timeoutMillis) {
+        HttpParams params = new BasicHttpParams();
+        HttpConnectionParams.setConnectionTimeout(params, timeoutMillis);
+        HttpConnectionParams.setSoTimeout(params, timeoutMillis);
+        HttpConnectionParams.setStaleCheckingEnabled(params, true);
+        DefaultHttpClient client = new DefaultHttpClient(connectionManager, params);
+        client.setKeepAliveStrategy(keepAliveStrategy(keepAliveMillis));
+        // Retries belong to RetryPolicy; HttpClient's handler would also resend the non-idempotent create (a GET)
+        client.setHttpRequestRetryHandler(new DefaultHttpRequestRetryHandler(0, false));
+        return client;
+    }
+
+    public ConnectionPoolStats getStats() {
+        return stats;
+    }
+
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    public void shutdown() {
+        evictor.shutdownNow();
+        connectionManager.shutdown();
+    }
+
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(long defaultKeepAliveMillis) {
+        return (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? serverKeepAlive : defaultKeepAliveMillis;
+        };
+    }
+
+    /**
+     * Connection manager that records whether each lease reused an open connection and how long it waited.
+     */
+    private static class InstrumentedConnectionManager extends PoolingClientConnectionManager {
+        private final ConnectionPoolStats stats;
+
+        InstrumentedConnectionManager(ConnectionPoolStats stats) {
+            super(SchemeRegistryFactory.createDefault());
+            this.stats = stats;
+        }
+
+        @Override
+        public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+            ClientConnectionRequest request = super.requestConnection(route, state);
+            return new ClientConnectionRequest() {
+                @Override
+                public ManagedClientConnection getConnection(long timeout, TimeUnit unit)
+                        throws InterruptedException, ConnectionPoolTimeoutException {
+                    long start = System.nanoTime();
+                    ManagedClientConnection connection = request.getConnection(timeout, unit);
+                    stats.recordLease(connection.isOpen(), System.nanoTime() - start);
+                    return connection;
+                }
+
+                @Override
+                public void abortRequest() {
+                    request.abortRequest();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.spribe.api;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of retries per suite and per test, so a degraded target shows up as failures
+ * instead of being absorbed by retries. The test budget is bound to the thread running the test;
+ * threads without one, such as cleanup workers, only draw from the suite budget.
+ */
+public class RetryBudget {
+    private static final ThreadLocal<AtomicInteger> testBudget = new ThreadLocal<>();
+
+    private final AtomicInteger suiteRemaining;
+    private final int perTest;
+
+    public RetryBudget(int perSuite, int perTest) {
+        this.suiteRemaining = new AtomicInteger(perSuite);
+        this.perTest = perTest;
+    }
+
+    public void beginTest() {
+        testBudget.set(new AtomicInteger(perTest));
+    }
+
+    public static void endTest() {
+        testBudget.remove();
+    }
+
+    /**
+     * Wraps a task so that its retries draw from the calling thread's test budget
+     */
+    public static <T> Callable<T> inCurrentTest(Callable<T> task) {
+        AtomicInteger budget = testBudget.get();
+        return () -> {
+            AtomicInteger previous = testBudget.get();
+            testBudget.set(budget);
+            try {
+                return task.call();
+            } finally {
+                if (previous == null) {
+                    testBudget.remove();
+                } else {
+                    testBudget.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * Takes one retry from the test and the suite budget, or none if either is spent
+     */
+    public boolean tryAcquire() {
+        AtomicInteger test = testBudget.get();
+        if (test != null && !take(test)) {
+            return false;
+        }
+        if (!take(suiteRemaining)) {
+            if (test != null) {
+                test.incrementAndGet();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    public int getSuiteRemaining() {
+        return Math.max(0, suiteRemaining.get());
+    }
+
+    private static boolean take(AtomicInteger remaining) {
+        int current;
+        do {
+            current = remaining.get();
+            if (current <= 0) {
+                return false;
+            }
+        } while (!remaining.compareAndSet(current, current - 1));
+        return true;
+    }
+}
@@ -0,0 +1,103 @@
+package com.spribe.api;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation retry counters. Attempt latency is recorded for every attempt, not per call,
+ * so slow responses stay visible even when a retry eventually succeeds.
+ */
+public class RetryMetrics {
+    private final Map<RetryPolicy.Operation, Counters> counters = new EnumMap<>(RetryPolicy.Operation.class);
+
+    public RetryMetrics() {
+        for (RetryPolicy.Operation operation : RetryPolicy.Operation.values()) {
+            counters.put(operation, new Counters());
+        }
+    }
+
+    void recordAttempt(RetryPolicy.Operation operation, long nanos) {
+        Counters c = counters.get(operation);
+        c.attempts.increment();
+        c.attemptNanos.add(nanos);
+        c.maxAttemptNanos.accumulate(nanos);
+    }
+
+    void recordCall(RetryPolicy.Operation operation, int attempts, boolean succeeded) {
+        Counters c = counters.get(operation);
+        c.calls.increment();
+        if (attempts > 1) {
+            if (succeeded) {
+                c.recovered.increment();
+            } else {
+                c.exhausted.increment();
+            }
+        }
+    }
+
+    void recordRetry(RetryPolicy.Operation operation, long backoffMillis) {
+        Counters c = counters.get(operation);
+        c.retries.increment();
+        c.backoffMillis.add(backoffMillis);
+    }
+
+    void recordBudgetDenied(RetryPolicy.Operation operation) {
+        counters.get(operation).budgetDenied.increment();
+    }
+
+    void recordCircuitRejected(RetryPolicy.Operation operation) {
+        counters.get(operation).circuitRejected.increment();
+    }
+
+    public long getRetries(RetryPolicy.Operation operation) {
+        return counters.get(operation).retries.sum();
+    }
+
+    public long getTotalRetries() {
+        long total = 0;
+        for (Counters c : counters.values()) {
+            total += c.retries.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("RetryMetrics{");
+        boolean first = true;
+        for (Map.Entry<RetryPolicy.Operation, Counters> entry : counters.entrySet()) {
+            Counters c = entry.getValue();
+            if (c.calls.sum() == 0 && c.circuitRejected.sum() == 0) {
+                continue;
+            }
+            if (!first) {
+                sb.append(", ");
+            }
+            first = false;
+            long attempts = c.attempts.sum();
+            sb.append(String.format("%s[calls=%d, attempts=%d, retries=%d, recovered=%d, exhausted=%d, "
+                            + "budgetDenied=%d, circuitRejected=%d, backoffMs=%d, avgAttemptMs=%.1f, maxAttemptMs=%.1f]",
+                    entry.getKey(), c.calls.sum(), attempts, c.retries.sum(), c.recovered.sum(), c.exhausted.sum(),
+                    c.budgetDenied.sum(), c.circuitRejected.sum(), c.backoffMillis.sum(),
+                    attempts == 0 ? 0.0 : c.attemptNanos.sum() / (double) attempts / TimeUnit.MILLISECONDS.toNanos(1),
+                    c.maxAttemptNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+        return sb.append('}').toString();
+    }
+
+    private static final class Counters {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder recovered = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+        private final LongAdder budgetDenied = new LongAdder();
+        private final LongAdder circuitRejected = new LongAdder();
+        private final LongAdder backoffMillis = new LongAdder();
+        private final LongAdder attemptNanos = new LongAdder();
+        private final LongAccumulator maxAttemptNanos = new LongAccumulator(Math::max, 0L);
+    }
+}
@@ -0,0 +1,227 @@
+package com.spribe.api;
+
+import com.spribe.config.ConfigManager;
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Retry policy for {@link PlayerService} operations. Only operations marked retryable are repeated,
+ * on I/O errors and retryable status codes, with exponential backoff and optional full jitter, as long
+ * as the shared {@link RetryBudget} allows it. Every call first passes the shared {@link CircuitBreaker}
+ * and every attempt is counted in the shared {@link RetryMetrics}.
+ */
+public class RetryPolicy {
+    private static final Logger logger = LogManager.getLogger(RetryPolicy.class);
+    private static final String FULL_JITTER = "full";
+
+    /**
+     * Player API operations; get and delete are idempotent, create is not
+     */
+    public enum Operation {
+        CREATE, GET, UPDATE, DELETE
+    }
+
+    private final Set<Operation> retryableOperations;
+    private final IntPredicate retryableStatus;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    private final long maxElapsedMillis;
+    private final boolean jitter;
+    private final RetryBudget budget;
+    private final CircuitBreaker circuitBreaker;
+    private final RetryMetrics metrics;
+
+    public RetryPolicy(Set<Operation> retryableOperations, IntPredicate retryableStatus, int maxAttempts,
+                       long backoffMillis, long maxBackoffMillis, long maxElapsedMillis, boolean jitter,
+                       RetryBudget budget, CircuitBreaker circuitBreaker, RetryMetrics metrics) {
+        this.retryableOperations = retryableOperations.isEmpty()
+                ? EnumSet.noneOf(Operation.class) : EnumSet.copyOf(retryableOperations);
+        this.retryableStatus = retryableStatus;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.maxElapsedMillis = maxElapsedMillis;
+        this.jitter = jitter;
+        this.budget = budget;
+        this.circuitBreaker = circuitBreaker;
+        this.metrics = metrics;
+    }
+
+    private static class Holder {
+        private static final ConfigManager config = ConfigManager.getInstance();
+        private static final RetryBudget BUDGET = new RetryBudget(config.getRetryBudgetPerSuite(),
+                config.getRetryBudgetPerTest());
+        private static final CircuitBreaker CIRCUIT_BREAKER = new CircuitBreaker(config.getCircuitFailureThreshold(),
+                TimeUnit.SECONDS.toMillis(config.getCircuitOpenSeconds()));
+        private static final RetryMetrics METRICS = new RetryMetrics();
+        private static final RetryPolicy DEFAULT = new RetryPolicy(parseOperations(config.getRetryOperations()),
+                parseStatuses(config.getRetryStatuses()), config.getRetryMaxAttempts(), config.getRetryBackoffMillis(),
+                config.getRetryMaxBackoffMillis(), 0, FULL_JITTER.equalsIgnoreCase(config.getRetryJitter()),
+                BUDGET, CIRCUIT_BREAKER, METRICS);
+        private static final RetryPolicy CLEANUP = new RetryPolicy(EnumSet.of(Operation.DELETE),
+                status -> status == 429 || status >= 500, config.getCleanupRetryAttempts(),
+                config.getCleanupRetryBackoffMillis(), Long.MAX_VALUE,
+                TimeUnit.SECONDS.toMillis(config.getCleanupRequestTimeoutSeconds()),
+                FULL_JITTER.equalsIgnoreCase(config.getRetryJitter()), BUDGET, CIRCUIT_BREAKER, METRICS);
+    }
+
+    /**
+     * Policy configured by the retry.* properties
+     */
+    public static RetryPolicy getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    /**
+     * Delete policy for background cleanup, configured by the cleanup.retry.* properties and bounded
+     * by cleanup.request.timeout.seconds; shares budget, circuit breaker and metrics with the default
+     */
+    public static RetryPolicy forCleanup() {
+        return Holder.CLEANUP;
+    }
+
+    public static RetryMetrics getMetrics() {
+        return Holder.METRICS;
+    }
+
+    public static RetryBudget getBudget() {
+        return Holder.BUDGET;
+    }
+
+    public Response execute(Operation operation, Supplier<Response> call) {
+        boolean retryable = retryableOperations.contains(operation);
+        long start = System.nanoTime();
+        for (int attempt = 1; ; attempt++) {
+            long permit = circuitBreaker.allowRequest();
+            if (permit == CircuitBreaker.REJECTED) {
+                metrics.recordCircuitRejected(operation);
+                throw new CircuitBreaker.CircuitOpenException("Circuit is open, " + operation
+                        + " rejected without calling the target");
+            }
+            long attemptStart = System.nanoTime();
+            Response response = null;
+            Exception failure = null;
+            try {
+                response = call.get();
+            } catch (Exception e) {
+                failure = e;
+            }
+            metrics.recordAttempt(operation, System.nanoTime() - attemptStart);
+
+            boolean transientFailure;
+            if (failure != null) {
+                if (!isTransportFailure(failure)) {
+                    circuitBreaker.releaseProbe(permit);
+                    metrics.recordCall(operation, attempt, false);
+                    throw sneakyThrow(failure);
+                }
+                circuitBreaker.onFailure(permit);
+                transientFailure = true;
+            } else {
+                int status = response.getStatusCode();
+                if (status >= 500) {
+                    circuitBreaker.onFailure(permit);
+                } else {
+                    circuitBreaker.onSuccess(permit);
+                }
+                transientFailure = retryableStatus.test(status);
+            }
+
+            long delay = transientFailure && retryable ? backoff(attempt) : 0;
+            if (!transientFailure || !shouldRetry(operation, retryable, attempt, start, delay)) {
+                metrics.recordCall(operation, attempt, !transientFailure);
+                if (failure != null) {
+                    throw sneakyThrow(failure);
+                }
+                return response;
+            }
+            logger.warn("{} attempt {} failed with {}, retrying in {} ms", operation, attempt,
+                    failure != null ? failure.toString() : "status " + response.getStatusCode(), delay);
+            metrics.recordRetry(operation, delay);
+            try {
+                TimeUnit.MILLISECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                metrics.recordCall(operation, attempt, false);
+                if (failure != null) {
+                    throw sneakyThrow(failure);
+                }
+                return response;
+            }
+        }
+    }
+
+    private boolean shouldRetry(Operation operation, boolean retryable, int attempt, long start, long delay) {
+        if (!retryable || attempt >= maxAttempts || circuitBreaker.isOpen()) {
+            return false;
+        }
+        if (maxElapsedMillis > 0
+                && TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + delay > maxElapsedMillis) {
+            return false;
+        }
+        if (!budget.tryAcquire()) {
+            metrics.recordBudgetDenied(operation);
+            logger.warn("Retry budget exhausted, not retrying {}", operation);
+            return false;
+        }
+        return true;
+    }
+
+    private long backoff(int attempt) {
+        long exponential = backoffMillis << Math.min(attempt - 1, 30);
+        long capped = exponential < 0 ? maxBackoffMillis : Math.min(maxBackoffMillis, exponential);
+        return jitter ? ThreadLocalRandom.current().nextLong(capped + 1) : capped;
+    }
+
+    private static boolean isTransportFailure(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static Set<Operation> parseOperations(String value) {
+        Set<Operation> operations = EnumSet.noneOf(Operation.class);
+        if (value == null || value.trim().isEmpty() || value.trim().equalsIgnoreCase("none")) {
+            return operations;
+        }
+        for (String name : value.split(",")) {
+            try {
+                operations.add(Operation.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown retry operation: " + name.trim()
+                        + " (expected create, get, update or delete)", e);
+            }
+        }
+        return operations;
+    }
+
+    static IntPredicate parseStatuses(String value) {
+        Set<Integer> statuses = new HashSet<>();
+        if (value != null && !value.trim().isEmpty()) {
+            for (String status : value.split(",")) {
+                statuses.add(Integer.parseInt(status.trim()));
+            }
+        }
+        return statuses::contains;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> RuntimeException sneakyThrow(Throwable throwable) throws E {
+        throw (E) throwable;
+    }
+}
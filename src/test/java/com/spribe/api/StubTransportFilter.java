@@ -0,0 +1,40 @@
+package com.spribe.api;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Transport selected with http.transport=stub: answers every request with a canned response instead of
+ * sending it, so the whole filter chain runs without a network. Used by the benchmarks to measure the
+ * framework's own cost per call. Each HTTP method maps to one PlayerController endpoint.
+ */
+public class StubTransportFilter implements OrderedFilter {
+    private static final byte[] PLAYER_JSON = ("{\"id\":1234567,\"screenName\":\"screen_1a2b3c4d\",\"gender\":\"male\","
+            + "\"age\":25,\"role\":\"user\",\"login\":\"user_5e6f7a8b\"}").getBytes(StandardCharsets.UTF_8);
+    private static final byte[] EMPTY = new byte[0];
+
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec,
+                           FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        boolean delete = "DELETE".equalsIgnoreCase(requestSpec.getMethod());
+        int status = delete ? 204 : 200;
+        return new ResponseBuilder()
+                .setStatusCode(status)
+                .setStatusLine("HTTP/1.1 " + status + (delete ? " No Content" : " OK"))
+                .setContentType("application/json")
+                .setBody(delete ? EMPTY : PLAYER_JSON)
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.spribe.benchmarks;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+/**
+ * Allure lifecycle for benchmarks. Attachments are rendered and read to the end, then discarded, so the
+ * reporting cost is measured without writing files; a test case per iteration keeps steps and attachments
+ * attached to a running test as in the suite.
+ */
+final class BenchmarkAllure {
+    private BenchmarkAllure() {
+    }
+
+    /**
+     * Must run before anything captures Allure.getLifecycle(), such as AsyncAttachmentWriter
+     */
+    static void install() {
+        Allure.setLifecycle(new AllureLifecycle(new DiscardingWriter()));
+    }
+
+    static String startTest(String name) {
+        String uuid = UUID.randomUUID().toString();
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        lifecycle.scheduleTestCase(new TestResult().setUuid(uuid).setName(name));
+        lifecycle.startTestCase(uuid);
+        return uuid;
+    }
+
+    /**
+     * Stops and writes the test case, which drops it and its steps from the lifecycle and clears the thread's
+     * step context, so the next iteration starts from an empty lifecycle
+     */
+    static void stopTest(String uuid) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        lifecycle.stopTestCase(uuid);
+        lifecycle.writeTestCase(uuid);
+        if (lifecycle.getCurrentTestCase().isPresent()) {
+            throw new IllegalStateException("Allure test case still running after iteration " + uuid);
+        }
+    }
+
+    private static final class DiscardingWriter implements AllureResultsWriter {
+        private final byte[] sink = new byte[8192];
+
+        @Override
+        public void write(TestResult testResult) {
+        }
+
+        @Override
+        public void write(TestResultContainer testResultContainer) {
+        }
+
+        @Override
+        public void write(String source, InputStream attachment) {
+            try (InputStream in = attachment) {
+                while (in.read(sink) >= 0) {
+                    // drained
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
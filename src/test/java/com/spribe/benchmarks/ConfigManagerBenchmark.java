@@ -0,0 +1,51 @@
+package com.spribe.benchmarks;
+
+import com.spribe.config.ConfigManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration lookups made on every call: a key from config.properties, a missing key with a default,
+ * and a typed getter, which returns its pre-parsed value. The threaded variant includes the lock-free
+ * getInstance().
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigManagerBenchmark {
+    private final ConfigManager config = ConfigManager.getInstance();
+
+    @Benchmark
+    public String presentKey() {
+        return config.getProperty("base.url");
+    }
+
+    @Benchmark
+    public String missingKeyWithDefault() {
+        return config.getProperty("benchmark.missing.key", "default");
+    }
+
+    @Benchmark
+    public int typedGetter() {
+        return config.getHttpLoggingBufferSize();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String getInstanceFourThreads() {
+        return ConfigManager.getInstance().getProperty("base.url");
+    }
+}
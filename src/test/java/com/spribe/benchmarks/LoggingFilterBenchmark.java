@@ -0,0 +1,76 @@
+package com.spribe.benchmarks;
+
+import com.spribe.api.HttpExchangeLoggingFilter;
+import com.spribe.api.LoggingTier;
+import com.spribe.api.StubTransportFilter;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.filter.log.LogDetail;
+import io.restassured.filter.log.RequestLoggingFilter;
+import io.restassured.filter.log.ResponseLoggingFilter;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Cost of exchange logging per call over the stub transport: each HttpExchangeLoggingFilter tier and
+ * REST Assured's own request/response logging filters (written to a discarding stream), against no logging.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.configurationFile=log4j2-benchmark.xml")
+public class LoggingFilterBenchmark {
+    private static final String BODY = "{\"playerId\": 1234567}";
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    @Param({"none", "failures", "headers", "full", "restassured"})
+    public String logging;
+
+    private RequestSpecification spec;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        RequestSpecBuilder builder = new RequestSpecBuilder()
+                .setBaseUri("http://stub.invalid")
+                .setContentType(ContentType.JSON)
+                .setAccept(ContentType.JSON);
+        if ("restassured".equals(logging)) {
+            builder.addFilter(new RequestLoggingFilter(LogDetail.ALL, DISCARD))
+                    .addFilter(new ResponseLoggingFilter(LogDetail.ALL, DISCARD));
+        } else if (!"none".equals(logging)) {
+            builder.addFilter(new HttpExchangeLoggingFilter(LoggingTier.fromConfig(logging), 50));
+        }
+        spec = builder.addFilter(new StubTransportFilter()).build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void discardBuffered() {
+        HttpExchangeLoggingFilter.discardBuffered();
+    }
+
+    @Benchmark
+    public Response call() {
+        return given().spec(spec).body(BODY).post("/player/get");
+    }
+}
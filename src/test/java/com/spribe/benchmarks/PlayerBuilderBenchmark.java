@@ -0,0 +1,46 @@
+package com.spribe.benchmarks;
+
+import com.spribe.models.Player;
+import com.spribe.models.PlayerBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test data generation: a full PlayerBuilder.aPlayer().build() with its random login, screen name and password,
+ * and the generators on their own. The threaded variant shows contention on shared random state.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerBuilderBenchmark {
+    @Benchmark
+    public Player build() {
+        return PlayerBuilder.aPlayer().build();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Player buildFourThreads() {
+        return PlayerBuilder.aPlayer().build();
+    }
+
+    @Benchmark
+    public String randomLogin() {
+        return PlayerBuilder.generateRandomLogin();
+    }
+
+    @Benchmark
+    public String validPassword() {
+        return PlayerBuilder.generateValidPassword();
+    }
+}
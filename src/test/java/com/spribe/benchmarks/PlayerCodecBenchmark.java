@@ -0,0 +1,63 @@
+package com.spribe.benchmarks;
+
+import com.spribe.api.PlayerCodec;
+import com.spribe.models.Player;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Player mapping from a buffered response: REST Assured's as(Player.class) versus the streaming PlayerCodec.
+ * Run with -prof gc to compare allocation per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerCodecBenchmark {
+    private static final String PLAYER_JSON = "{\"id\":1234567,\"screenName\":\"screen_1a2b3c4d\",\"gender\":\"male\","
+            + "\"age\":25,\"role\":\"user\",\"login\":\"user_5e6f7a8b\",\"password\":\"Ab3dEf9hK\","
+            + "\"createdAt\":\"2024-01-01T00:00:00Z\",\"extra\":{\"tags\":[\"a\",\"b\"]}}";
+
+    private Response response;
+    private Player player;
+
+    @Setup
+    public void setup() {
+        response = new ResponseBuilder()
+                .setStatusCode(200)
+                .setContentType(ContentType.JSON)
+                .setBody(PLAYER_JSON)
+                .build();
+        player = PlayerCodec.read(response);
+    }
+
+    @Benchmark
+    public Player restAssuredAs() {
+        return response.as(Player.class);
+    }
+
+    @Benchmark
+    public Player streamingRead() {
+        return PlayerCodec.read(response);
+    }
+
+    @Benchmark
+    public byte[] streamingWrite() {
+        return PlayerCodec.write(player);
+    }
+}
@@ -0,0 +1,106 @@
+package com.spribe.benchmarks;
+
+import com.spribe.api.ApiClient;
+import com.spribe.api.AsyncAttachmentWriter;
+import com.spribe.api.HttpExchangeLoggingFilter;
+import com.spribe.api.PlayerService;
+import com.spribe.api.RetryBudget;
+import com.spribe.api.RetryPolicy;
+import com.spribe.config.ConfigManager;
+import com.spribe.models.Player;
+import com.spribe.models.PlayerBuilder;
+import io.restassured.response.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Framework cost of a full PlayerService call over the stub transport: spec, retry policy, metrics,
+ * logging filter, Allure step and attachments, and request serialization, with no network.
+ * Every iteration is one test as in the suite: the per-test state starts fresh and is reset when the iteration
+ * ends, so no iteration carries steps, buffered exchanges or queued attachments of the previous one.
+ * Run with -prof gc to see allocation per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Dhttp.transport=stub", "-Dlog4j2.configurationFile=log4j2-benchmark.xml"})
+public class PlayerServiceBenchmark {
+    private static final String ASYNC_REPORTING = "async";
+
+    @Param({"off", "async", "allure"})
+    public String reporting;
+
+    private PlayerService playerService;
+    private Player player;
+    private String editor;
+    private String testUuid;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        System.setProperty("reporting.profile", reporting);
+        ConfigManager.reload();
+        BenchmarkAllure.install();
+        ApiClient.clearSpecCache();
+        playerService = new PlayerService();
+        player = PlayerBuilder.aPlayer().build();
+        editor = ConfigManager.getInstance().getSupervisorLogin();
+    }
+
+    @Setup(Level.Iteration)
+    public void startTest() {
+        RetryPolicy.getBudget().beginTest();
+        testUuid = BenchmarkAllure.startTest("PlayerServiceBenchmark");
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopTest() {
+        // Attachments still queued were made in this iteration; written during the next one they would bill it
+        if (ASYNC_REPORTING.equals(reporting)
+                && !AsyncAttachmentWriter.getInstance().flush(30, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Timed out flushing Allure attachments of the iteration");
+        }
+        HttpExchangeLoggingFilter.discardBuffered();
+        BenchmarkAllure.stopTest(testUuid);
+        RetryBudget.endTest();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ApiClient.flushReporting();
+    }
+
+    @Benchmark
+    public Response createPlayer() {
+        return playerService.createPlayer(player, editor);
+    }
+
+    @Benchmark
+    public Response getPlayer() {
+        return playerService.getPlayer(1234567);
+    }
+
+    @Benchmark
+    public Response updatePlayer() {
+        return playerService.updatePlayer(player, editor, 1234567);
+    }
+
+    @Benchmark
+    public Response deletePlayer() {
+        return playerService.deletePlayer(1234567, editor);
+    }
+}
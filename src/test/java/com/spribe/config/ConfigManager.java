@@ -3,84 +3,901 @@ package com.spribe.config;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Properties;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
- * Configuration manager for reading and providing application configuration
+ * Configuration manager for reading and providing application configuration. An instance is an immutable
+ * snapshot: every value is read from {@link ConfigSources}, parsed and validated once, and a snapshot with
+ * invalid values is rejected with all of its errors. {@link #getInstance()} returns the current snapshot without
+ * locking; {@link #reload()} (see {@link ConfigWatcher}) replaces it atomically, while code holding the previous
+ * snapshot keeps a consistent view.
  */
 public class ConfigManager {
     private static final Logger logger = LogManager.getLogger(ConfigManager.class);
-    private static final String CONFIG_FILE = "config.properties";
-    private static ConfigManager instance;
-    private Properties properties;
+    private static final String FAULT_PREFIX = "fault.profile.";
+    private static final String[] FAULT_ATTRIBUTES = {"latency", "drop.rate", "error.rate", "error.status",
+            "bandwidth.bytes.per.second"};
+    private static final AtomicReference<ConfigManager> current = new AtomicReference<>();
+    private static final List<Consumer<ConfigManager>> reloadListeners = new CopyOnWriteArrayList<>();
+    private static final Set<String> reportedMissingKeys = ConcurrentHashMap.newKeySet();
 
-    private ConfigManager() {
-        loadProperties();
+    private final Map<String, String> values;
+    private final Set<String> configKeys;
+    private final Map<String, String> systemOverrides;
+    private final List<Path> files;
+    private final String baseUrl;
+    private final String apiTarget;
+    private final int localServerPort;
+    private final int localServerThreads;
+    private final String swaggerPath;
+    private final int threadCount;
+    private final int timeoutSeconds;
+    private final String httpTransport;
+    private final int poolMaxPerRoute;
+    private final int poolMaxTotal;
+    private final int poolIdleTimeoutSeconds;
+    private final int keepAliveSeconds;
+    private final String httpLogging;
+    private final int httpLoggingBufferSize;
+    private final String reportingProfile;
+    private final int attachmentQueueCapacity;
+    private final int attachmentBatchSize;
+    private final int attachmentMaxBodyChars;
+    private final String attachmentOversizePolicy;
+    private final int attachmentCompressThresholdBytes;
+    private final String cleanupMode;
+    private final int cleanupParallelism;
+    private final int cleanupRequestTimeoutSeconds;
+    private final int cleanupRetryAttempts;
+    private final long cleanupRetryBackoffMillis;
+    private final boolean poolEnabled;
+    private final String poolRoles;
+    private final int poolLowWatermark;
+    private final int poolHighWatermark;
+    private final int poolProvisionParallelism;
+    private final boolean schedulerEnabled;
+    private final int schedulerMinThreads;
+    private final int schedulerMaxThreads;
+    private final int schedulerInitialThreads;
+    private final double schedulerLatencyTolerance;
+    private final boolean historyEnabled;
+    private final String historyFile;
+    private final int historyWindow;
+    private final String historyOrder;
+    private final String historyLanes;
+    private final long historySlowThresholdMillis;
+    private final int historySlowLaneThreads;
+    private final double historyFlakyThreshold;
+    private final int historyFlakyLaneThreads;
+    private final boolean historyStoreEnabled;
+    private final String historyStoreDir;
+    private final long historyRunId;
+    private final String impactMode;
+    private final String impactMapFile;
+    private final String impactBaseRef;
+    private final int impactFullRunEvery;
+    private final long impactFullRunMaxAgeHours;
+    private final String impactIgnore;
+    private final String impactReportFile;
+    private final int shardCount;
+    private final int shardIndex;
+    private final String shardGranularity;
+    private final String shardSuiteFile;
+    private final String shardDir;
+    private final String shardDurationsFile;
+    private final String shardJvmArgs;
+    private final int shardTimeoutMinutes;
+    private final String retryOperations;
+    private final String retryStatuses;
+    private final int retryMaxAttempts;
+    private final long retryBackoffMillis;
+    private final long retryMaxBackoffMillis;
+    private final String retryJitter;
+    private final int retryBudgetPerTest;
+    private final int retryBudgetPerSuite;
+    private final int circuitFailureThreshold;
+    private final int circuitOpenSeconds;
+    private final String loadModel;
+    private final String loadClient;
+    private final double loadTargetRate;
+    private final int loadConcurrency;
+    private final int loadMaxInFlight;
+    private final int loadWarmupSeconds;
+    private final int loadDurationSeconds;
+    private final double loadMaxErrorRate;
+    private final String loadReportDir;
+    private final String seedMode;
+    private final int seedCount;
+    private final String seedRole;
+    private final int seedMaxInFlight;
+    private final String seedCheckpointFile;
+    private final String scenarioThreads;
+    private final int scenarioMaxPlatformThreads;
+    private final String faultProfile;
+    private final String faultGroups;
+    private final Map<String, FaultSettings> faultProfiles;
+    private final boolean metricsEnabled;
+    private final String metricsReportDir;
+    private final String perfGateMode;
+    private final String perfGateBaselineFile;
+    private final boolean perfGateRebaseline;
+    private final double perfGateTolerance;
+    private final double perfGateConfidence;
+    private final int perfGateResamples;
+    private final int perfGateMinSamples;
+    private final int perfGateMaxSamples;
+    private final String dataSeed;
+    private final String dataRunPrefix;
+    private final boolean reloadEnabled;
+    private final String supervisorLogin;
+    private final String adminLogin;
+
+    private ConfigManager(ConfigSources sources) {
+        ConfigReader reader = new ConfigReader(sources);
+        baseUrl = reader.required("base.url");
+        apiTarget = reader.choice("api.target", "remote", "remote", "local");
+        localServerPort = reader.integer("api.local.port", 0, 0, 65535);
+        localServerThreads = reader.integer("api.local.threads", 4, 0);
+        swaggerPath = reader.required("swagger.path");
+        threadCount = reader.requiredInteger("thread.count", 1);
+        timeoutSeconds = reader.requiredInteger("timeout.seconds", 1);
+        httpTransport = reader.choice("http.transport", "default", "default", "pooled", "stub");
+        poolMaxPerRoute = reader.integer("http.pool.max.per.route", 20, 1);
+        poolMaxTotal = reader.integer("http.pool.max.total", 50, 1);
+        poolIdleTimeoutSeconds = reader.integer("http.pool.idle.timeout.seconds", 30, 0);
+        keepAliveSeconds = reader.integer("http.keep.alive.seconds", 60, 0);
+        httpLogging = reader.choice("http.logging", "failures", "off", "failures", "headers", "full");
+        httpLoggingBufferSize = reader.integer("http.logging.buffer.size", 50, 0);
+        reportingProfile = reader.choice("reporting.profile", "async", "allure", "async", "off");
+        attachmentQueueCapacity = reader.integer("reporting.attachment.queue.capacity", 1024, 1);
+        attachmentBatchSize = reader.integer("reporting.attachment.batch.size", 64, 1);
+        attachmentMaxBodyChars = reader.integer("reporting.attachment.max.body.chars", 262144, 0);
+        attachmentOversizePolicy = reader.choice("reporting.attachment.oversize.policy", "truncate",
+                "truncate", "drop");
+        attachmentCompressThresholdBytes = reader.integer("reporting.attachment.compress.threshold.bytes", 0, 0);
+        cleanupMode = reader.choice("cleanup.mode", "inline", "inline", "deferred");
+        cleanupParallelism = reader.integer("cleanup.parallelism", 4, 1);
+        cleanupRequestTimeoutSeconds = reader.integer("cleanup.request.timeout.seconds", 15, 1);
+        cleanupRetryAttempts = reader.integer("cleanup.retry.attempts", 3, 0);
+        cleanupRetryBackoffMillis = reader.number("cleanup.retry.backoff.millis", 200, 0);
+        poolEnabled = reader.bool("pool.enabled", true);
+        poolRoles = reader.string("pool.roles", "user,admin");
+        poolLowWatermark = reader.integer("pool.low.watermark", 2, 0);
+        poolHighWatermark = reader.integer("pool.high.watermark", 6, 0);
+        reader.check(poolLowWatermark <= poolHighWatermark,
+                "pool.low.watermark must not exceed pool.high.watermark");
+        poolProvisionParallelism = reader.integer("pool.provision.parallelism", 2, 1);
+        schedulerEnabled = reader.bool("scheduler.enabled", true);
+        schedulerMinThreads = reader.integer("scheduler.min.threads", 2, 1);
+        schedulerMaxThreads = reader.integer("scheduler.max.threads", 3, 1);
+        schedulerInitialThreads = reader.integer("scheduler.initial.threads", 3, 1);
+        reader.check(!schedulerEnabled
+                        || schedulerMinThreads <= schedulerInitialThreads && schedulerInitialThreads <= schedulerMaxThreads,
+                "scheduler.initial.threads must lie between scheduler.min.threads and scheduler.max.threads");
+        schedulerLatencyTolerance = reader.decimal("scheduler.latency.tolerance", 1.5, 1, Double.MAX_VALUE);
+        historyEnabled = reader.bool("history.enabled", true);
+        historyFile = reader.string("history.file", ".test-history/history.json");
+        historyWindow = reader.integer("history.window", 10, 1);
+        historyOrder = reader.choice("history.order", "longest", "longest", "suite");
+        historyLanes = reader.string("history.lanes", "");
+        historySlowThresholdMillis = reader.number("history.slow.threshold.millis", 5000, 0);
+        historySlowLaneThreads = reader.integer("history.slow.lane.threads", 2, 1);
+        historyFlakyThreshold = reader.decimal("history.flaky.threshold", 0.3, 0, 1);
+        historyFlakyLaneThreads = reader.integer("history.flaky.lane.threads", 1, 1);
+        historyStoreEnabled = reader.bool("history.store.enabled", true);
+        historyStoreDir = reader.string("history.store.dir", ".run-history");
+        historyRunId = reader.number("history.run.id", 0, 0);
+        impactMode = reader.choice("impact.mode", "off", "off", "record", "select");
+        impactMapFile = reader.string("impact.map.file", ".test-impact/impact-map.json");
+        impactBaseRef = reader.string("impact.base.ref", "");
+        impactFullRunEvery = reader.integer("impact.full.run.every", 20, 1);
+        impactFullRunMaxAgeHours = reader.number("impact.full.run.max.age.hours", 24, 0);
+        impactIgnore = reader.string("impact.ignore", "*.md,**/*.md,.gitignore");
+        impactReportFile = reader.string("impact.report.file", "target/test-impact/selection.txt");
+        shardCount = reader.integer("shard.count", 0, 0);
+        shardIndex = reader.integer("shard.index", 0, 0);
+        shardGranularity = reader.choice("shard.granularity", "method", "class", "method");
+        shardSuiteFile = reader.string("shard.suite.file", "src/test/resources/testng.xml");
+        shardDir = reader.string("shard.dir", "target/shards");
+        shardDurationsFile = reader.string("shard.durations.file", ".test-history/shard-durations.properties");
+        shardJvmArgs = reader.string("shard.jvm.args", "");
+        shardTimeoutMinutes = reader.integer("shard.timeout.minutes", 30, 1);
+        retryOperations = reader.string("retry.operations", "get,delete");
+        retryStatuses = reader.string("retry.statuses", "429,502,503,504");
+        retryMaxAttempts = reader.integer("retry.max.attempts", 3, 1);
+        retryBackoffMillis = reader.number("retry.backoff.millis", 100, 0);
+        retryMaxBackoffMillis = reader.number("retry.max.backoff.millis", 2000, 0);
+        retryJitter = reader.choice("retry.jitter", "full", "full", "none");
+        retryBudgetPerTest = reader.integer("retry.budget.per.test", 10, 0);
+        retryBudgetPerSuite = reader.integer("retry.budget.per.suite", 200, 0);
+        circuitFailureThreshold = reader.integer("circuit.failure.threshold", 5, 0);
+        circuitOpenSeconds = reader.integer("circuit.open.seconds", 10, 0);
+        loadModel = reader.choice("load.model", "closed", "open", "closed");
+        loadClient = reader.choice("load.client", "rest-assured", "rest-assured", "socket");
+        loadTargetRate = reader.decimal("load.target.rate", 20, 0, Double.MAX_VALUE);
+        reader.check(loadTargetRate > 0, "load.target.rate must be positive");
+        loadConcurrency = reader.integer("load.concurrency", 10, 1);
+        loadMaxInFlight = reader.integer("load.max.in.flight", 200, 1);
+        loadWarmupSeconds = reader.integer("load.warmup.seconds", 5, 0);
+        loadDurationSeconds = reader.integer("load.duration.seconds", 60, 0);
+        loadMaxErrorRate = reader.decimal("load.max.error.rate", 0.01, 0, 1);
+        loadReportDir = reader.string("load.report.dir", "target/load-reports");
+        seedMode = reader.choice("seed.mode", "create", "create", "delete");
+        seedCount = reader.integer("seed.count", 1000, 0);
+        seedRole = reader.string("seed.role", "user");
+        seedMaxInFlight = reader.integer("seed.max.in.flight", 64, 1);
+        seedCheckpointFile = reader.string("seed.checkpoint.file", ".seed/players.checkpoint");
+        scenarioThreads = reader.choice("scenario.threads", "virtual", "virtual", "platform");
+        scenarioMaxPlatformThreads = reader.integer("scenario.max.platform.threads", 256, 1);
+        faultProfile = reader.string("fault.profile", "none");
+        faultGroups = reader.string("fault.groups", "");
+        metricsEnabled = reader.bool("metrics.enabled", true);
+        metricsReportDir = reader.string("metrics.report.dir", "target/api-metrics");
+        perfGateMode = reader.choice("perf.gate.mode", "warn", "off", "warn", "fail");
+        perfGateBaselineFile = reader.string("perf.gate.baseline.file", "perf/baseline.json");
+        perfGateRebaseline = reader.bool("perf.gate.rebaseline", false);
+        perfGateTolerance = reader.decimal("perf.gate.tolerance", 0.2, 0, Double.MAX_VALUE);
+        perfGateConfidence = reader.decimal("perf.gate.confidence", 0.95, 0, 1);
+        perfGateResamples = reader.integer("perf.gate.resamples", 1000, 1);
+        perfGateMinSamples = reader.integer("perf.gate.min.samples", 20, 1);
+        perfGateMaxSamples = reader.integer("perf.gate.max.samples", 2000, 1);
+        reader.check(perfGateMinSamples <= perfGateMaxSamples,
+                "perf.gate.min.samples must not exceed perf.gate.max.samples");
+        dataSeed = reader.string("data.seed", "").trim();
+        dataRunPrefix = reader.string("data.run.prefix", "").trim();
+        reloadEnabled = reader.bool("config.reload.enabled", false);
+        supervisorLogin = reader.required("supervisor.login");
+        adminLogin = reader.required("admin.login");
+
+        Map<String, String> resolved = new HashMap<>();
+        for (String key : sources.keys()) {
+            resolved.put(key, sources.get(key));
+        }
+        Map<String, FaultSettings> profiles = new HashMap<>();
+        for (String name : faultProfileNames(resolved.keySet())) {
+            profiles.put(name, new FaultSettings(reader, name));
+        }
+        if (!reader.getErrors().isEmpty()) {
+            throw new ConfigurationException(reader.getErrors());
+        }
+        resolved.putAll(reader.getValues());
+        values = Collections.unmodifiableMap(resolved);
+        Set<String> keys = new TreeSet<>(sources.fileKeys());
+        keys.addAll(reader.getValues().keySet());
+        configKeys = Collections.unmodifiableSet(keys);
+        faultProfiles = Collections.unmodifiableMap(profiles);
+        systemOverrides = Collections.unmodifiableMap(sources.systemOverrides());
+        files = sources.getFiles();
     }
 
-    public static synchronized ConfigManager getInstance() {
-        if (instance == null) {
-            instance = new ConfigManager();
+    /**
+     * The current snapshot; the first call loads it, and concurrent first calls publish only one
+     */
+    public static ConfigManager getInstance() {
+        ConfigManager config = current.get();
+        if (config == null) {
+            ConfigManager loaded = load();
+            if (current.compareAndSet(null, loaded)) {
+                logger.info("Configuration loaded successfully from {}", loaded.describeSources());
+                return loaded;
+            }
+            config = current.get();
         }
-        return instance;
+        return config;
     }
 
-    private void loadProperties() {
-        properties = new Properties();
-        try (InputStream input = getClass().getClassLoader().getResourceAsStream(CONFIG_FILE)) {
-            if (input == null) {
-                logger.error("Unable to find {}", CONFIG_FILE);
-                throw new RuntimeException("Configuration file not found: " + CONFIG_FILE);
+    /**
+     * Reads every source again and publishes the new snapshot, then notifies the reload listeners. An invalid
+     * configuration throws {@link ConfigurationException} and the current snapshot stays in place.
+     */
+    public static ConfigManager reload() {
+        ConfigManager next = load();
+        ConfigManager previous = current.getAndSet(next);
+        logger.info("Configuration reloaded from {}; changed: {}", next.describeSources(),
+                previous == null ? "(first load)" : next.changesSince(previous));
+        for (Consumer<ConfigManager> listener : reloadListeners) {
+            try {
+                listener.accept(next);
+            } catch (RuntimeException e) {
+                logger.warn("Configuration reload listener failed", e);
             }
-            properties.load(input);
-            logger.info("Configuration loaded successfully from {}", CONFIG_FILE);
-        } catch (IOException e) {
-            logger.error("Error loading configuration file", e);
-            throw new RuntimeException("Error loading configuration file", e);
+        }
+        return next;
+    }
+
+    /**
+     * Called with each new snapshot after a reload, for components that can apply changes while running
+     */
+    public static void addReloadListener(Consumer<ConfigManager> listener) {
+        reloadListeners.add(listener);
+    }
+
+    public static void removeReloadListener(Consumer<ConfigManager> listener) {
+        reloadListeners.remove(listener);
+    }
+
+    private static ConfigManager load() {
+        try {
+            return new ConfigManager(ConfigSources.load());
+        } catch (ConfigurationException e) {
+            logger.error(e.getMessage());
+            throw e;
         }
     }
 
     public String getBaseUrl() {
-        return getProperty("base.url");
+        return baseUrl;
+    }
+
+    public String getApiTarget() {
+        return apiTarget;
+    }
+
+    public int getLocalServerPort() {
+        return localServerPort;
+    }
+
+    public int getLocalServerThreads() {
+        return localServerThreads;
     }
 
     public String getSwaggerPath() {
-        return getProperty("swagger.path");
+        return swaggerPath;
     }
 
     public int getThreadCount() {
-        String threadCount = getProperty("thread.count");
-        return Integer.parseInt(threadCount);
+        return threadCount;
     }
 
     public int getTimeoutSeconds() {
-        String timeout = getProperty("timeout.seconds");
-        return Integer.parseInt(timeout);
+        return timeoutSeconds;
+    }
+
+    public String getHttpTransport() {
+        return httpTransport;
+    }
+
+    public int getPoolMaxPerRoute() {
+        return poolMaxPerRoute;
+    }
+
+    public int getPoolMaxTotal() {
+        return poolMaxTotal;
+    }
+
+    public int getPoolIdleTimeoutSeconds() {
+        return poolIdleTimeoutSeconds;
+    }
+
+    public int getKeepAliveSeconds() {
+        return keepAliveSeconds;
+    }
+
+    public String getHttpLogging() {
+        return httpLogging;
+    }
+
+    public int getHttpLoggingBufferSize() {
+        return httpLoggingBufferSize;
+    }
+
+    public String getReportingProfile() {
+        return reportingProfile;
+    }
+
+    public int getAttachmentQueueCapacity() {
+        return attachmentQueueCapacity;
+    }
+
+    public int getAttachmentBatchSize() {
+        return attachmentBatchSize;
+    }
+
+    public int getAttachmentMaxBodyChars() {
+        return attachmentMaxBodyChars;
+    }
+
+    public String getAttachmentOversizePolicy() {
+        return attachmentOversizePolicy;
+    }
+
+    public int getAttachmentCompressThresholdBytes() {
+        return attachmentCompressThresholdBytes;
+    }
+
+    public String getCleanupMode() {
+        return cleanupMode;
+    }
+
+    public int getCleanupParallelism() {
+        return cleanupParallelism;
+    }
+
+    public int getCleanupRequestTimeoutSeconds() {
+        return cleanupRequestTimeoutSeconds;
+    }
+
+    public int getCleanupRetryAttempts() {
+        return cleanupRetryAttempts;
+    }
+
+    public long getCleanupRetryBackoffMillis() {
+        return cleanupRetryBackoffMillis;
+    }
+
+    public boolean isPoolEnabled() {
+        return poolEnabled;
+    }
+
+    public String getPoolRoles() {
+        return poolRoles;
+    }
+
+    public int getPoolLowWatermark() {
+        return poolLowWatermark;
+    }
+
+    public int getPoolHighWatermark() {
+        return poolHighWatermark;
+    }
+
+    public int getPoolProvisionParallelism() {
+        return poolProvisionParallelism;
+    }
+
+    public boolean isSchedulerEnabled() {
+        return schedulerEnabled;
+    }
+
+    public int getSchedulerMinThreads() {
+        return schedulerMinThreads;
+    }
+
+    public int getSchedulerMaxThreads() {
+        return schedulerMaxThreads;
+    }
+
+    public int getSchedulerInitialThreads() {
+        return schedulerInitialThreads;
+    }
+
+    public double getSchedulerLatencyTolerance() {
+        return schedulerLatencyTolerance;
+    }
+
+    public boolean isHistoryEnabled() {
+        return historyEnabled;
+    }
+
+    public String getHistoryFile() {
+        return historyFile;
+    }
+
+    public int getHistoryWindow() {
+        return historyWindow;
+    }
+
+    public String getHistoryOrder() {
+        return historyOrder;
+    }
+
+    public String getHistoryLanes() {
+        return historyLanes;
+    }
+
+    public long getHistorySlowThresholdMillis() {
+        return historySlowThresholdMillis;
+    }
+
+    public int getHistorySlowLaneThreads() {
+        return historySlowLaneThreads;
+    }
+
+    public double getHistoryFlakyThreshold() {
+        return historyFlakyThreshold;
+    }
+
+    public int getHistoryFlakyLaneThreads() {
+        return historyFlakyLaneThreads;
+    }
+
+    public boolean isHistoryStoreEnabled() {
+        return historyStoreEnabled;
+    }
+
+    public String getHistoryStoreDir() {
+        return historyStoreDir;
+    }
+
+    public long getHistoryRunId() {
+        return historyRunId;
+    }
+
+    public String getImpactMode() {
+        return impactMode;
+    }
+
+    public String getImpactMapFile() {
+        return impactMapFile;
+    }
+
+    public String getImpactBaseRef() {
+        return impactBaseRef;
+    }
+
+    public int getImpactFullRunEvery() {
+        return impactFullRunEvery;
+    }
+
+    public long getImpactFullRunMaxAgeHours() {
+        return impactFullRunMaxAgeHours;
+    }
+
+    public String getImpactIgnore() {
+        return impactIgnore;
+    }
+
+    public String getImpactReportFile() {
+        return impactReportFile;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    public String getShardGranularity() {
+        return shardGranularity;
+    }
+
+    public String getShardSuiteFile() {
+        return shardSuiteFile;
+    }
+
+    public String getShardDir() {
+        return shardDir;
+    }
+
+    public String getShardDurationsFile() {
+        return shardDurationsFile;
+    }
+
+    public String getShardJvmArgs() {
+        return shardJvmArgs;
+    }
+
+    public int getShardTimeoutMinutes() {
+        return shardTimeoutMinutes;
+    }
+
+    public String getRetryOperations() {
+        return retryOperations;
+    }
+
+    public String getRetryStatuses() {
+        return retryStatuses;
+    }
+
+    public int getRetryMaxAttempts() {
+        return retryMaxAttempts;
+    }
+
+    public long getRetryBackoffMillis() {
+        return retryBackoffMillis;
+    }
+
+    public long getRetryMaxBackoffMillis() {
+        return retryMaxBackoffMillis;
+    }
+
+    public String getRetryJitter() {
+        return retryJitter;
+    }
+
+    public int getRetryBudgetPerTest() {
+        return retryBudgetPerTest;
+    }
+
+    public int getRetryBudgetPerSuite() {
+        return retryBudgetPerSuite;
+    }
+
+    public int getCircuitFailureThreshold() {
+        return circuitFailureThreshold;
+    }
+
+    public int getCircuitOpenSeconds() {
+        return circuitOpenSeconds;
+    }
+
+    public String getLoadModel() {
+        return loadModel;
+    }
+
+    public String getLoadClient() {
+        return loadClient;
+    }
+
+    public double getLoadTargetRate() {
+        return loadTargetRate;
+    }
+
+    public int getLoadConcurrency() {
+        return loadConcurrency;
+    }
+
+    public int getLoadMaxInFlight() {
+        return loadMaxInFlight;
+    }
+
+    public int getLoadWarmupSeconds() {
+        return loadWarmupSeconds;
+    }
+
+    public int getLoadDurationSeconds() {
+        return loadDurationSeconds;
+    }
+
+    public double getLoadMaxErrorRate() {
+        return loadMaxErrorRate;
+    }
+
+    public String getLoadReportDir() {
+        return loadReportDir;
+    }
+
+    public String getSeedMode() {
+        return seedMode;
+    }
+
+    public int getSeedCount() {
+        return seedCount;
+    }
+
+    public String getSeedRole() {
+        return seedRole;
+    }
+
+    public int getSeedMaxInFlight() {
+        return seedMaxInFlight;
+    }
+
+    public String getSeedCheckpointFile() {
+        return seedCheckpointFile;
+    }
+
+    public String getScenarioThreads() {
+        return scenarioThreads;
+    }
+
+    public int getScenarioMaxPlatformThreads() {
+        return scenarioMaxPlatformThreads;
+    }
+
+    public String getFaultProfile() {
+        return faultProfile;
+    }
+
+    public String getFaultGroups() {
+        return faultGroups;
+    }
+
+    public String getFaultLatency(String profile) {
+        return faultSettings(profile).latency;
+    }
+
+    public double getFaultDropRate(String profile) {
+        return faultSettings(profile).dropRate;
+    }
+
+    public double getFaultErrorRate(String profile) {
+        return faultSettings(profile).errorRate;
+    }
+
+    public int getFaultErrorStatus(String profile) {
+        return faultSettings(profile).errorStatus;
+    }
+
+    public long getFaultBandwidthBytesPerSecond(String profile) {
+        return faultSettings(profile).bandwidthBytesPerSecond;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public String getMetricsReportDir() {
+        return metricsReportDir;
+    }
+
+    public String getPerfGateMode() {
+        return perfGateMode;
+    }
+
+    public String getPerfGateBaselineFile() {
+        return perfGateBaselineFile;
+    }
+
+    public boolean isPerfGateRebaseline() {
+        return perfGateRebaseline;
+    }
+
+    public double getPerfGateTolerance() {
+        return perfGateTolerance;
+    }
+
+    public double getPerfGateConfidence() {
+        return perfGateConfidence;
+    }
+
+    public int getPerfGateResamples() {
+        return perfGateResamples;
+    }
+
+    public int getPerfGateMinSamples() {
+        return perfGateMinSamples;
+    }
+
+    public int getPerfGateMaxSamples() {
+        return perfGateMaxSamples;
+    }
+
+    public String getDataSeed() {
+        return dataSeed;
+    }
+
+    public String getDataRunPrefix() {
+        return dataRunPrefix;
+    }
+
+    /**
+     * Whether long-running modes watch the configuration files and reload on change
+     */
+    public boolean isReloadEnabled() {
+        return reloadEnabled;
     }
 
     public String getSupervisorLogin() {
-        return getProperty("supervisor.login");
+        return supervisorLogin;
     }
 
     public String getAdminLogin() {
-        return getProperty("admin.login");
+        return adminLogin;
+    }
+
+    /**
+     * Keys of the configuration files that are overridden by a system property, with the overriding values; a
+     * copy the caller may add to
+     */
+    public Map<String, String> getSystemOverrides() {
+        return new TreeMap<>(systemOverrides);
+    }
+
+    /**
+     * The config.file this snapshot was read from, which a reload watches; classpath files are not watched
+     */
+    List<Path> getFiles() {
+        return files;
     }
 
     public String getProperty(String key) {
-        String value = System.getProperty(key);
-        if (value == null) {
-            value = properties.getProperty(key);
-        }
-        if (value == null) {
+        String value = values.get(key);
+        if (value == null && reportedMissingKeys.add(key)) {
             logger.warn("Property {} not found", key);
         }
         return value;
     }
 
     public String getProperty(String key, String defaultValue) {
-        String value = getProperty(key);
+        String value = values.get(key);
         return value != null ? value : defaultValue;
     }
+
+    private FaultSettings faultSettings(String profile) {
+        return faultProfiles.getOrDefault(profile, FaultSettings.DEFAULTS);
+    }
+
+    private String describeSources() {
+        return files.isEmpty() ? ConfigSources.BASE_FILE : files.toString();
+    }
+
+    /**
+     * Configuration keys whose value differs from the previous snapshot, with the new values; other system
+     * properties are left out
+     */
+    private Map<String, String> changesSince(ConfigManager previous) {
+        Set<String> keys = new TreeSet<>(configKeys);
+        keys.addAll(previous.configKeys);
+        Map<String, String> changes = new TreeMap<>();
+        for (String key : keys) {
+            if (!Objects.equals(values.get(key), previous.values.get(key))) {
+                changes.put(key, values.get(key));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Names of the fault profiles any fault.profile.&lt;name&gt;.&lt;attribute&gt; key configures
+     */
+    private static Set<String> faultProfileNames(Set<String> keys) {
+        Set<String> names = new TreeSet<>();
+        for (String key : keys) {
+            if (!key.startsWith(FAULT_PREFIX)) {
+                continue;
+            }
+            String rest = key.substring(FAULT_PREFIX.length());
+            for (String attribute : FAULT_ATTRIBUTES) {
+                if (rest.endsWith("." + attribute) && rest.length() > attribute.length() + 1) {
+                    names.add(rest.substring(0, rest.length() - attribute.length() - 1));
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * One fault profile's settings, parsed with the snapshot; profiles without keys use the defaults
+     */
+    private static final class FaultSettings {
+        static final FaultSettings DEFAULTS = new FaultSettings();
+
+        final String latency;
+        final double dropRate;
+        final double errorRate;
+        final int errorStatus;
+        final long bandwidthBytesPerSecond;
+
+        private FaultSettings() {
+            latency = "none";
+            dropRate = 0;
+            errorRate = 0;
+            errorStatus = 503;
+            bandwidthBytesPerSecond = 0;
+        }
+
+        FaultSettings(ConfigReader reader, String name) {
+            String prefix = FAULT_PREFIX + name + ".";
+            latency = reader.string(prefix + "latency", "none");
+            dropRate = reader.decimal(prefix + "drop.rate", 0, 0, 1);
+            errorRate = reader.decimal(prefix + "error.rate", 0, 0, 1);
+            reader.check(dropRate + errorRate <= 1,
+                    "Fault profile " + name + ": drop.rate and error.rate must add up to at most 1");
+            errorStatus = reader.integer(prefix + "error.status", 503, 500, 599);
+            bandwidthBytesPerSecond = reader.number(prefix + "bandwidth.bytes.per.second", 0, 0);
+        }
+    }
+
+    /**
+     * Thrown when a configuration snapshot has invalid values; lists all of them
+     */
+    public static class ConfigurationException extends RuntimeException {
+        private final List<String> errors;
+
+        public ConfigurationException(List<String> errors) {
+            super("Invalid configuration (" + errors.size() + (errors.size() == 1 ? " error" : " errors") + "):\n  "
+                    + String.join("\n  ", errors));
+            this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+    }
 }
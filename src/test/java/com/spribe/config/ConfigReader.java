@@ -0,0 +1,151 @@
+package com.spribe.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses typed values out of {@link ConfigSources} while a configuration snapshot is built. An invalid value
+ * is recorded as an error and the default is returned in its place, so every error of a snapshot is collected
+ * before it is rejected.
+ */
+final class ConfigReader {
+    private final ConfigSources sources;
+    private final List<String> errors = new ArrayList<>();
+    private final Map<String, String> values = new HashMap<>();
+
+    ConfigReader(ConfigSources sources) {
+        this.sources = sources;
+    }
+
+    String string(String key, String defaultValue) {
+        String value = sources.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        values.put(key, value);
+        return value;
+    }
+
+    String required(String key) {
+        String value = string(key, null);
+        if (value == null || value.trim().isEmpty()) {
+            errors.add(key + " is required");
+        }
+        return value;
+    }
+
+    /**
+     * One of the options, compared ignoring case; an empty value means the default
+     */
+    String choice(String key, String defaultValue, String... options) {
+        String value = string(key, defaultValue);
+        if (value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        for (String option : options) {
+            if (option.equalsIgnoreCase(value.trim())) {
+                return value.trim();
+            }
+        }
+        invalid(key, value, "expected one of " + String.join(", ", options));
+        return defaultValue;
+    }
+
+    boolean bool(String key, boolean defaultValue) {
+        String value = string(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        if ("true".equalsIgnoreCase(value.trim()) || "false".equalsIgnoreCase(value.trim())) {
+            return Boolean.parseBoolean(value.trim());
+        }
+        invalid(key, value, "expected true or false");
+        return defaultValue;
+    }
+
+    int integer(String key, int defaultValue, int min) {
+        return integer(key, defaultValue, min, Integer.MAX_VALUE);
+    }
+
+    int integer(String key, int defaultValue, int min, int max) {
+        return (int) number(key, defaultValue, min, max);
+    }
+
+    int requiredInteger(String key, int min) {
+        if (sources.get(key) == null) {
+            errors.add(key + " is required");
+            return min;
+        }
+        return integer(key, min, min);
+    }
+
+    long number(String key, long defaultValue, long min) {
+        return number(key, defaultValue, min, Long.MAX_VALUE);
+    }
+
+    double decimal(String key, double defaultValue, double min, double max) {
+        String value = string(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        double parsed;
+        try {
+            parsed = Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            invalid(key, value, "not a number");
+            return defaultValue;
+        }
+        if (Double.isNaN(parsed) || parsed < min || parsed > max) {
+            invalid(key, value, max == Double.MAX_VALUE ? "must be at least " + min
+                    : "must be between " + min + " and " + max);
+            return defaultValue;
+        }
+        return parsed;
+    }
+
+    /**
+     * Records an error spanning several keys, such as watermarks out of order, unless the condition holds
+     */
+    void check(boolean condition, String error) {
+        if (!condition) {
+            errors.add(error);
+        }
+    }
+
+    List<String> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Raw values of the keys read so far that were set by some layer
+     */
+    Map<String, String> getValues() {
+        return values;
+    }
+
+    private long number(String key, long defaultValue, long min, long max) {
+        String value = string(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        long parsed;
+        try {
+            parsed = Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            invalid(key, value, "not an integer");
+            return defaultValue;
+        }
+        if (parsed < min || parsed > max) {
+            invalid(key, value, max == Long.MAX_VALUE || max == Integer.MAX_VALUE ? "must be at least " + min
+                    : "must be between " + min + " and " + max);
+            return defaultValue;
+        }
+        return parsed;
+    }
+
+    private void invalid(String key, String value, String problem) {
+        errors.add(key + "='" + value + "' (" + sources.originOf(key) + "): " + problem);
+    }
+}
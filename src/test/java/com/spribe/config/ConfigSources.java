@@ -0,0 +1,160 @@
+package com.spribe.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The layers configuration values come from, lowest precedence first: config.properties on the classpath, the
+ * config-&lt;config.profile&gt;.properties profile file on the classpath, the file at config.file, environment
+ * variables (thread.count is THREAD_COUNT) and system properties. System properties and the environment are
+ * copied when the sources are loaded. Only the config.file layer is kept as a file to watch: the classpath files
+ * are build outputs, and an edit of their copy under target/ would be lost by the next build.
+ */
+final class ConfigSources {
+    static final String BASE_FILE = "config.properties";
+    static final String PROFILE_KEY = "config.profile";
+    static final String FILE_KEY = "config.file";
+
+    private final Map<String, String> fileValues = new HashMap<>();
+    private final Map<String, String> fileOrigins = new HashMap<>();
+    private final Map<String, String> system = new HashMap<>();
+    private final Map<String, String> environment;
+    private final List<Path> files = new ArrayList<>();
+
+    private ConfigSources(Map<String, String> environment) {
+        this.environment = environment;
+        Properties properties = System.getProperties();
+        for (String key : properties.stringPropertyNames()) {
+            system.put(key, properties.getProperty(key));
+        }
+    }
+
+    static ConfigSources load() {
+        ConfigSources sources = new ConfigSources(System.getenv());
+        sources.loadResource(BASE_FILE);
+        String profile = sources.get(PROFILE_KEY);
+        if (profile != null && !profile.trim().isEmpty()) {
+            sources.loadResource("config-" + profile.trim() + ".properties");
+        }
+        String file = sources.get(FILE_KEY);
+        if (file != null && !file.trim().isEmpty()) {
+            sources.loadFile(Paths.get(file.trim()));
+        }
+        return sources;
+    }
+
+    /**
+     * Value of the key from the highest layer that sets it, or null
+     */
+    String get(String key) {
+        String value = system.get(key);
+        if (value == null) {
+            value = environment.get(environmentName(key));
+        }
+        return value != null ? value : fileValues.get(key);
+    }
+
+    /**
+     * Which layer the value of the key comes from, for error messages
+     */
+    String originOf(String key) {
+        if (system.containsKey(key)) {
+            return "system property";
+        }
+        if (environment.containsKey(environmentName(key))) {
+            return "environment variable " + environmentName(key);
+        }
+        return fileOrigins.getOrDefault(key, "default");
+    }
+
+    /**
+     * Keys set by a configuration file
+     */
+    Set<String> fileKeys() {
+        return Collections.unmodifiableSet(fileValues.keySet());
+    }
+
+    /**
+     * Keys set by any file layer or system property
+     */
+    Set<String> keys() {
+        Set<String> keys = new TreeSet<>(fileValues.keySet());
+        keys.addAll(system.keySet());
+        return keys;
+    }
+
+    /**
+     * Keys of the configuration files, and the keys selecting them, that are overridden by a system property
+     */
+    Map<String, String> systemOverrides() {
+        Set<String> keys = new TreeSet<>(fileValues.keySet());
+        keys.add(PROFILE_KEY);
+        keys.add(FILE_KEY);
+        Map<String, String> overrides = new TreeMap<>();
+        for (String key : keys) {
+            String value = system.get(key);
+            if (value != null) {
+                overrides.put(key, value);
+            }
+        }
+        return overrides;
+    }
+
+    /**
+     * The config.file layer, the only file a reload watches; empty when config.file is not set
+     */
+    List<Path> getFiles() {
+        return Collections.unmodifiableList(files);
+    }
+
+    static String environmentName(String key) {
+        return key.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_');
+    }
+
+    private void loadResource(String name) {
+        URL resource = ConfigSources.class.getClassLoader().getResource(name);
+        if (resource == null) {
+            throw new RuntimeException("Configuration file not found: " + name);
+        }
+        try (InputStream input = resource.openStream()) {
+            load(input, name);
+        } catch (IOException e) {
+            throw new RuntimeException("Error loading configuration file " + name, e);
+        }
+    }
+
+    private void loadFile(Path file) {
+        if (!Files.isRegularFile(file)) {
+            throw new RuntimeException("Configuration file not found: " + file.toAbsolutePath());
+        }
+        try (InputStream input = Files.newInputStream(file)) {
+            load(input, file.toString());
+        } catch (IOException e) {
+            throw new RuntimeException("Error loading configuration file " + file, e);
+        }
+        files.add(file.toAbsolutePath());
+    }
+
+    private void load(InputStream input, String origin) throws IOException {
+        Properties properties = new Properties();
+        properties.load(input);
+        for (String key : properties.stringPropertyNames()) {
+            fileValues.put(key, properties.getProperty(key));
+            fileOrigins.put(key, origin);
+        }
+    }
+}
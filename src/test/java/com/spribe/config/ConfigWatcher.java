@@ -0,0 +1,127 @@
+package com.spribe.config;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads the configuration when the file at config.file changes, for long-running load runs with
+ * config.reload.enabled=true. The classpath files are not watched. Changes are picked up by components that read the current snapshot
+ * or register a reload listener; an invalid edit is logged with all of its errors and the running configuration
+ * stays in place.
+ */
+public final class ConfigWatcher implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(ConfigWatcher.class);
+    private static final long SETTLE_MILLIS = 200;
+
+    private final Set<Path> files = new LinkedHashSet<>();
+    private final WatchService watchService;
+    private final Thread thread;
+
+    private ConfigWatcher(ConfigManager config) throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        Set<Path> directories = new HashSet<>();
+        for (Path file : config.getFiles()) {
+            Path absolute = file.toAbsolutePath().normalize();
+            files.add(absolute);
+            if (directories.add(absolute.getParent())) {
+                absolute.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        }
+        thread = new Thread(this::watch, "config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Watching configuration files {} for changes", files);
+    }
+
+    /**
+     * Starts watching when the snapshot enables reloading; otherwise the returned watcher does nothing
+     */
+    public static ConfigWatcher start(ConfigManager config) {
+        if (!config.isReloadEnabled()) {
+            return new ConfigWatcher();
+        }
+        if (config.getFiles().isEmpty()) {
+            logger.warn("config.reload.enabled is set but config.file is not; there is no configuration file to watch");
+            return new ConfigWatcher();
+        }
+        try {
+            return new ConfigWatcher(config);
+        } catch (IOException e) {
+            logger.warn("Cannot watch configuration files, reloading is off: {}", e.getMessage());
+            return new ConfigWatcher();
+        }
+    }
+
+    private ConfigWatcher() {
+        watchService = null;
+        thread = null;
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = collect(key);
+                if (!changed) {
+                    continue;
+                }
+                // Editors write a file in several steps; wait for the last one before reading it
+                WatchKey next;
+                while ((next = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    collect(next);
+                }
+                reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    private boolean collect(WatchKey key) {
+        boolean changed = false;
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || files.contains(directory.resolve((Path) event.context()));
+        }
+        key.reset();
+        return changed;
+    }
+
+    private static void reload() {
+        try {
+            ConfigManager.reload();
+        } catch (ConfigManager.ConfigurationException e) {
+            logger.error("Keeping the current configuration, the changed one is invalid");
+        } catch (RuntimeException e) {
+            logger.error("Keeping the current configuration: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (thread == null) {
+            return;
+        }
+        thread.interrupt();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.debug("Error closing the configuration watcher", e);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.spribe.history;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Queries over the {@link RunHistoryStore}: recent runs, the trend of one test or endpoint, percentiles over
+ * the last runs and the tests or endpoints that slowed down the most. Only the names are read into memory;
+ * run records and the samples of the queried runs are read from memory-mapped windows of the files, so the
+ * cost of a query depends on the number of runs it looks at, not on the size of the history.
+ */
+public final class RunHistory {
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Path dir;
+    private final RunHistoryStore.Header header;
+    private final List<String> names;
+    private final ByteBuffer runRecords;
+
+    private RunHistory(Path dir, RunHistoryStore.Header header, List<String> names, ByteBuffer runRecords) {
+        this.dir = dir;
+        this.header = header;
+        this.names = names;
+        this.runRecords = runRecords;
+    }
+
+    /**
+     * Opens the history as committed at this moment; runs appended later are not seen
+     */
+    public static RunHistory open(Path dir) throws IOException {
+        Path runsFile = dir.resolve(RunHistoryStore.RUNS_FILE);
+        if (!Files.exists(runsFile)) {
+            return new RunHistory(dir, new RunHistoryStore.Header(0, 0, 0, 0, 0), Collections.emptyList(),
+                    ByteBuffer.allocate(0));
+        }
+        try (FileChannel runs = FileChannel.open(runsFile, StandardOpenOption.READ);
+             FileChannel names = FileChannel.open(dir.resolve(RunHistoryStore.NAMES_FILE), StandardOpenOption.READ);
+             FileLock ignored = runs.lock(0, Long.MAX_VALUE, true)) {
+            RunHistoryStore.Header header = RunHistoryStore.readHeader(runs, runsFile);
+            ByteBuffer records = RunHistoryStore.map(runs, RunHistoryStore.HEADER_BYTES,
+                    header.runs * RunHistoryStore.RUN_BYTES);
+            return new RunHistory(dir, header, RunHistoryStore.readNames(names, header), records);
+        }
+    }
+
+    /**
+     * The last runs, oldest first
+     */
+    public List<RunSummary> getRuns(int last) {
+        List<RunSummary> summaries = new ArrayList<>();
+        lastRuns(last).forEach(run -> summaries.add(run.summary));
+        return summaries;
+    }
+
+    /**
+     * A test's or endpoint's sample in each of the last runs it took part in, oldest first; the samples of an
+     * endpoint called from several shards are merged
+     */
+    public Map<RunSummary, RunSample> getTrend(String name, int last) throws IOException {
+        int nameId = names.indexOf(name);
+        Map<RunSummary, RunSample> trend = new LinkedHashMap<>();
+        if (nameId < 0) {
+            return trend;
+        }
+        forEachSample(lastRuns(last), nameId, null, (run, sample) -> trend.merge(run.summary, sample, RunHistory::merge));
+        return trend;
+    }
+
+    /**
+     * Latency of every test or endpoint over the last runs, in nanoseconds: for a test one value per run, for an
+     * endpoint every call
+     */
+    public Map<String, Histogram> getLatencies(RunSample.Kind kind, int last) throws IOException {
+        Map<String, Histogram> latencies = new TreeMap<>();
+        forEachSample(lastRuns(last), -1, kind, (run, sample) -> addTo(latencies, sample));
+        return latencies;
+    }
+
+    /**
+     * Tests or endpoints whose latency percentile grew the most between the older and the newer half of the last
+     * runs, largest growth first; those missing from either half are left out
+     */
+    public List<Mover> getSlowestMovers(RunSample.Kind kind, int last, double percentile, int limit)
+            throws IOException {
+        List<Run> runs = lastRuns(last);
+        if (runs.size() < 2) {
+            return Collections.emptyList();
+        }
+        List<Run> older = runs.subList(0, runs.size() / 2);
+        List<Run> newer = runs.subList(runs.size() / 2, runs.size());
+        Map<String, Histogram> before = new TreeMap<>();
+        Map<String, Histogram> after = new TreeMap<>();
+        forEachSample(older, -1, kind, (run, sample) -> addTo(before, sample));
+        forEachSample(newer, -1, kind, (run, sample) -> addTo(after, sample));
+        List<Mover> movers = new ArrayList<>();
+        before.forEach((name, latency) -> {
+            Histogram recent = after.get(name);
+            long baseline = latency.getValueAtPercentile(percentile);
+            if (recent != null && baseline > 0) {
+                movers.add(new Mover(name, baseline, recent.getValueAtPercentile(percentile)));
+            }
+        });
+        movers.sort(Comparator.comparingDouble(Mover::getRatio).reversed());
+        return movers.subList(0, Math.min(limit, movers.size()));
+    }
+
+    /**
+     * Number of JVM runs recorded; a sharded run counts once per shard
+     */
+    public long getRecordedRuns() {
+        return header.runs;
+    }
+
+    /**
+     * The last runs, oldest first, found by walking the run records back from the end
+     */
+    private List<Run> lastRuns(int last) {
+        Map<Long, Run> runs = new LinkedHashMap<>();
+        for (long index = header.runs - 1; index >= 0; index--) {
+            RunHistoryStore.Segment segment = RunHistoryStore.readSegment(runRecords, index, names);
+            Run run = runs.get(segment.run.getRunId());
+            if (run == null) {
+                if (runs.size() == last) {
+                    break;
+                }
+                run = new Run(segment.run);
+                runs.put(segment.run.getRunId(), run);
+            } else {
+                run.summary = run.summary.merge(segment.run);
+            }
+            run.segments.add(segment);
+        }
+        List<Run> ordered = new ArrayList<>(runs.values());
+        Collections.reverse(ordered);
+        return ordered;
+    }
+
+    /**
+     * Decodes the samples of the runs, optionally only those of one name or one kind; the runs' samples are at
+     * the tail of the samples file, which is mapped from the first of them on
+     */
+    private void forEachSample(List<Run> runs, int nameId, RunSample.Kind kind, BiConsumer<Run, RunSample> action)
+            throws IOException {
+        long first = Long.MAX_VALUE;
+        long end = 0;
+        for (Run run : runs) {
+            for (RunHistoryStore.Segment segment : run.segments) {
+                first = Math.min(first, segment.firstSample);
+                end = Math.max(end, segment.firstSample + segment.sampleCount);
+            }
+        }
+        if (end <= first) {
+            return;
+        }
+        try (FileChannel sampleFile = FileChannel.open(dir.resolve(RunHistoryStore.SAMPLES_FILE),
+                StandardOpenOption.READ);
+             FileChannel blobFile = FileChannel.open(dir.resolve(RunHistoryStore.BLOBS_FILE),
+                     StandardOpenOption.READ)) {
+            ByteBuffer samples = RunHistoryStore.map(sampleFile, first * RunHistoryStore.SAMPLE_BYTES,
+                    (end - first) * RunHistoryStore.SAMPLE_BYTES);
+            long blobBase = header.blobBytes;
+            for (int i = 0; i < end - first; i++) {
+                long offset = RunHistoryStore.sampleBlobOffset(samples, i);
+                if (offset >= 0 && matches(samples, i, nameId, kind)) {
+                    blobBase = Math.min(blobBase, offset);
+                }
+            }
+            ByteBuffer blobs = RunHistoryStore.map(blobFile, blobBase, header.blobBytes - blobBase);
+            for (Run run : runs) {
+                for (RunHistoryStore.Segment segment : run.segments) {
+                    for (int i = 0; i < segment.sampleCount; i++) {
+                        int index = Math.toIntExact(segment.firstSample - first + i);
+                        if (matches(samples, index, nameId, kind)) {
+                            action.accept(run, RunHistoryStore.readSample(samples, index, names, blobs, blobBase));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean matches(ByteBuffer samples, int index, int nameId, RunSample.Kind kind) {
+        return (nameId < 0 || RunHistoryStore.sampleNameId(samples, index) == nameId)
+                && (kind == null || RunHistoryStore.sampleKind(samples, index) == kind);
+    }
+
+    private static void addTo(Map<String, Histogram> latencies, RunSample sample) {
+        Histogram latency = latencies.computeIfAbsent(sample.getName(), name -> new Histogram(SIGNIFICANT_DIGITS));
+        if (sample.getKind() == RunSample.Kind.TEST) {
+            latency.recordValue(sample.getDurationNanos());
+        } else {
+            latency.add(sample.getLatency());
+        }
+    }
+
+    private static RunSample merge(RunSample first, RunSample second) {
+        if (first.getKind() == RunSample.Kind.TEST) {
+            TestOutcome outcome = first.getOutcome() == TestOutcome.FAIL ? first.getOutcome() : second.getOutcome();
+            return RunSample.test(first.getName(), outcome, first.getDurationNanos() + second.getDurationNanos(),
+                    first.getCount() + second.getCount());
+        }
+        Histogram latency = new Histogram(SIGNIFICANT_DIGITS);
+        latency.add(first.getLatency());
+        latency.add(second.getLatency());
+        return RunSample.endpoint(first.getName(), first.getErrors() + second.getErrors(), latency);
+    }
+
+    /**
+     * A run and the records its shards wrote
+     */
+    private static final class Run {
+        private RunSummary summary;
+        private final List<RunHistoryStore.Segment> segments = new ArrayList<>();
+
+        Run(RunSummary summary) {
+            this.summary = summary;
+        }
+    }
+
+    /**
+     * Latency percentile of a test or endpoint in the older and the newer half of the queried runs
+     */
+    public static final class Mover {
+        private final String name;
+        private final long baselineNanos;
+        private final long recentNanos;
+
+        Mover(String name, long baselineNanos, long recentNanos) {
+            this.name = name;
+            this.baselineNanos = baselineNanos;
+            this.recentNanos = recentNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getBaselineNanos() {
+            return baselineNanos;
+        }
+
+        public long getRecentNanos() {
+            return recentNanos;
+        }
+
+        public double getRatio() {
+            return (double) recentNanos / baselineNanos;
+        }
+    }
+}
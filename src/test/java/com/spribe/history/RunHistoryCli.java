@@ -0,0 +1,159 @@
+package com.spribe.history;
+
+import com.spribe.config.ConfigManager;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line queries over the run history (mvn test -Phistory -Dhistory.query="..."):
+ * <pre>
+ * runs [N]                             the last N runs
+ * trend NAME [N]                       a test (class#method) or endpoint over the last N runs
+ * percentiles tests|endpoints [N]      latency percentiles over the last N runs
+ * movers tests|endpoints [N] [LIMIT]   largest growth of the median between the older and newer half of N runs
+ * </pre>
+ * N defaults to 30 runs. Results are printed as plain tables on standard output.
+ */
+public final class RunHistoryCli {
+    private static final int DEFAULT_RUNS = 30;
+    private static final int DEFAULT_MOVERS = 10;
+    private static final double MOVER_PERCENTILE = 50;
+    private static final String USAGE = "Usage: runs [N] | trend NAME [N] | percentiles tests|endpoints [N]"
+            + " | movers tests|endpoints [N] [LIMIT]";
+
+    private final RunHistory history;
+    private final PrintStream out;
+
+    RunHistoryCli(RunHistory history, PrintStream out) {
+        this.history = history;
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(ConfigManager.getInstance().getHistoryStoreDir());
+        new RunHistoryCli(RunHistory.open(dir), System.out).run(args);
+    }
+
+    void run(String[] args) throws IOException {
+        String command = args.length > 0 ? args[0] : "runs";
+        switch (command) {
+            case "runs":
+                printRuns(intArg(args, 1, DEFAULT_RUNS));
+                break;
+            case "trend":
+                if (args.length < 2) {
+                    throw new IllegalArgumentException(USAGE);
+                }
+                printTrend(args[1], intArg(args, 2, DEFAULT_RUNS));
+                break;
+            case "percentiles":
+                printPercentiles(kindArg(args), intArg(args, 2, DEFAULT_RUNS));
+                break;
+            case "movers":
+                printMovers(kindArg(args), intArg(args, 2, DEFAULT_RUNS), intArg(args, 3, DEFAULT_MOVERS));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown command '" + command + "'. " + USAGE);
+        }
+    }
+
+    private void printRuns(int last) {
+        List<RunSummary> runs = history.getRuns(last);
+        out.printf(Locale.ROOT, "%d run(s) recorded, the last %d:%n", history.getRecordedRuns(), runs.size());
+        out.printf(Locale.ROOT, "%-15s %-24s %-8s %6s %6s %6s %6s %9s %6s%n", "run", "started", "target", "tests",
+                "passed", "failed", "skip", "seconds", "shards");
+        for (RunSummary run : runs) {
+            out.printf(Locale.ROOT, "%-15d %-24s %-8s %6d %6d %6d %6d %9.1f %6d%n", run.getRunId(),
+                    Instant.ofEpochMilli(run.getStartedAtMillis()), run.getLabel(), run.getTotal(), run.getPassed(),
+                    run.getFailed(), run.getSkipped(), run.getDurationMillis() / 1000.0, run.getShards());
+        }
+    }
+
+    private void printTrend(String name, int last) throws IOException {
+        Map<RunSummary, RunSample> trend = history.getTrend(name, last);
+        if (trend.isEmpty()) {
+            out.println("No samples of " + name + " in the last " + last + " run(s)");
+            return;
+        }
+        out.println(name + ":");
+        boolean test = trend.values().iterator().next().getKind() == RunSample.Kind.TEST;
+        if (test) {
+            out.printf(Locale.ROOT, "%-24s %-8s %10s %9s %7s%n", "started", "target", "ms", "api calls", "outcome");
+        } else {
+            out.printf(Locale.ROOT, "%-24s %-8s %8s %7s %9s %9s %9s %9s%n", "started", "target", "calls", "errors",
+                    "p50 ms", "p95 ms", "p99 ms", "max ms");
+        }
+        trend.forEach((run, sample) -> {
+            String started = Instant.ofEpochMilli(run.getStartedAtMillis()).toString();
+            if (test) {
+                out.printf(Locale.ROOT, "%-24s %-8s %10.1f %9d %7s%n", started, run.getLabel(),
+                        millis(sample.getDurationNanos()), sample.getCount(), sample.getOutcome());
+            } else {
+                Histogram latency = sample.getLatency();
+                out.printf(Locale.ROOT, "%-24s %-8s %8d %7d %9.1f %9.1f %9.1f %9.1f%n", started, run.getLabel(),
+                        sample.getCount(), sample.getErrors(), percentile(latency, 50), percentile(latency, 95),
+                        percentile(latency, 99), millis(latency.getMaxValue()));
+            }
+        });
+    }
+
+    private void printPercentiles(RunSample.Kind kind, int last) throws IOException {
+        Map<String, Histogram> latencies = history.getLatencies(kind, last);
+        out.printf(Locale.ROOT, "Latency over the last %d run(s)%s:%n", history.getRuns(last).size(),
+                kind == RunSample.Kind.TEST ? ", one sample per test and run" : "");
+        out.printf(Locale.ROOT, "%-72s %8s %9s %9s %9s %9s %9s%n", "name", "samples", "p50 ms", "p90 ms", "p95 ms",
+                "p99 ms", "max ms");
+        latencies.forEach((name, latency) -> out.printf(Locale.ROOT, "%-72s %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                name, latency.getTotalCount(), percentile(latency, 50), percentile(latency, 90),
+                percentile(latency, 95), percentile(latency, 99), millis(latency.getMaxValue())));
+    }
+
+    private void printMovers(RunSample.Kind kind, int last, int limit) throws IOException {
+        List<RunHistory.Mover> movers = history.getSlowestMovers(kind, last, MOVER_PERCENTILE, limit);
+        out.printf(Locale.ROOT, "Median latency, older vs newer half of the last %d run(s):%n", last);
+        out.printf(Locale.ROOT, "%-72s %11s %11s %7s%n", "name", "before ms", "after ms", "change");
+        for (RunHistory.Mover mover : movers) {
+            out.printf(Locale.ROOT, "%-72s %11.1f %11.1f %6.2fx%n", mover.getName(), millis(mover.getBaselineNanos()),
+                    millis(mover.getRecentNanos()), mover.getRatio());
+        }
+    }
+
+    private static double percentile(Histogram latency, double percentile) {
+        return millis(latency.getValueAtPercentile(percentile));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static RunSample.Kind kindArg(String[] args) {
+        String kind = args.length > 1 ? args[1] : "tests";
+        switch (kind) {
+            case "tests":
+                return RunSample.Kind.TEST;
+            case "endpoints":
+                return RunSample.Kind.ENDPOINT;
+            default:
+                throw new IllegalArgumentException("Expected tests or endpoints but found '" + kind + "'. " + USAGE);
+        }
+    }
+
+    private static int intArg(String[] args, int index, int defaultValue) {
+        if (args.length <= index) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(args[index]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected a number but found '" + args[index] + "'. " + USAGE, e);
+        }
+    }
+}
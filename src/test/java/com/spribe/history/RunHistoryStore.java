@@ -0,0 +1,285 @@
+package com.spribe.history;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+
+/**
+ * Binary, append-only layout of the run history, written and read through memory-mapped buffers:
+ * <ul>
+ *     <li>runs.bin - a header with the committed size of every file, then one record per recorded suite run</li>
+ *     <li>samples.bin - one record per test and per endpoint of a run, stored after the run's earlier samples</li>
+ *     <li>blobs.bin - the compressed latency histogram of every endpoint sample</li>
+ *     <li>names.bin - every test key, endpoint name and label, stored once and referenced by number</li>
+ * </ul>
+ * An append writes past the committed ends under an exclusive lock on runs.bin and moves the ends in the header
+ * last, so readers never see a half-written run and a crash mid-append loses only that run.
+ */
+final class RunHistoryStore {
+    static final String RUNS_FILE = "runs.bin";
+    static final String SAMPLES_FILE = "samples.bin";
+    static final String BLOBS_FILE = "blobs.bin";
+    static final String NAMES_FILE = "names.bin";
+
+    static final int HEADER_BYTES = 64;
+    static final int RUN_BYTES = 64;
+    static final int SAMPLE_BYTES = 48;
+    private static final int MAGIC = 0x53505248;
+    private static final int VERSION = 1;
+    private static final int NO_OUTCOME = 0;
+
+    private RunHistoryStore() {
+    }
+
+    /**
+     * Committed size of the files, in records, bytes and names
+     */
+    static final class Header {
+        final long runs;
+        final long samples;
+        final long blobBytes;
+        final long names;
+        final long nameBytes;
+
+        Header(long runs, long samples, long blobBytes, long names, long nameBytes) {
+            this.runs = runs;
+            this.samples = samples;
+            this.blobBytes = blobBytes;
+            this.names = names;
+            this.nameBytes = nameBytes;
+        }
+    }
+
+    /**
+     * One shard's record of a run and where its samples are
+     */
+    static final class Segment {
+        final RunSummary run;
+        final long firstSample;
+        final int sampleCount;
+
+        Segment(RunSummary run, long firstSample, int sampleCount) {
+            this.run = run;
+            this.firstSample = firstSample;
+            this.sampleCount = sampleCount;
+        }
+    }
+
+    /**
+     * Adds one run, as recorded by one JVM, with its samples
+     */
+    static void append(Path dir, RunSummary run, int shardIndex, List<RunSample> samples) throws IOException {
+        Files.createDirectories(dir);
+        try (FileChannel runs = openForWrite(dir.resolve(RUNS_FILE));
+             FileChannel sampleFile = openForWrite(dir.resolve(SAMPLES_FILE));
+             FileChannel blobFile = openForWrite(dir.resolve(BLOBS_FILE));
+             FileChannel nameFile = openForWrite(dir.resolve(NAMES_FILE));
+             FileLock ignored = runs.lock()) {
+            Header header = readHeader(runs, dir.resolve(RUNS_FILE));
+            NameTable names = new NameTable(readNames(nameFile, header));
+
+            ByteArrayOutputStream blobs = new ByteArrayOutputStream();
+            ByteBuffer sampleRecords = ByteBuffer.allocate(samples.size() * SAMPLE_BYTES);
+            for (RunSample sample : samples) {
+                long blobOffset = -1;
+                byte[] encoded = new byte[0];
+                if (sample.getLatency() != null) {
+                    encoded = encode(sample.getLatency());
+                    blobOffset = header.blobBytes + blobs.size();
+                    blobs.write(encoded);
+                }
+                sampleRecords.putInt(names.idOf(sample.getName()))
+                        .put((byte) sample.getKind().ordinal())
+                        .put(sample.getOutcome() != null ? (byte) sample.getOutcome().getCode() : NO_OUTCOME)
+                        .putShort((short) 0)
+                        .putLong(TimeUnit.NANOSECONDS.toMicros(sample.getDurationNanos()))
+                        .putLong(sample.getCount())
+                        .putLong(sample.getErrors())
+                        .putLong(blobOffset)
+                        .putInt(encoded.length)
+                        .putInt(0);
+            }
+            ByteBuffer runRecord = ByteBuffer.allocate(RUN_BYTES)
+                    .putLong(run.getRunId())
+                    .putLong(run.getStartedAtMillis())
+                    .putLong(run.getDurationMillis())
+                    .putInt(shardIndex)
+                    .putInt(names.idOf(run.getLabel()))
+                    .putInt(run.getTotal())
+                    .putInt(run.getPassed())
+                    .putInt(run.getFailed())
+                    .putInt(run.getSkipped())
+                    .putLong(header.samples)
+                    .putInt(samples.size())
+                    .putInt(0);
+
+            write(nameFile, header.nameBytes, names.added.toByteArray());
+            write(blobFile, header.blobBytes, blobs.toByteArray());
+            write(sampleFile, header.samples * SAMPLE_BYTES, sampleRecords.array());
+            write(runs, HEADER_BYTES + header.runs * RUN_BYTES, runRecord.array());
+            MappedByteBuffer committed = runs.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            committed.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(header.runs + 1)
+                    .putLong(header.samples + samples.size())
+                    .putLong(header.blobBytes + blobs.size())
+                    .putLong(names.size())
+                    .putLong(header.nameBytes + names.added.size());
+            committed.force();
+        }
+    }
+
+    static Header readHeader(FileChannel runs, Path file) throws IOException {
+        if (runs.size() == 0) {
+            return new Header(0, 0, 0, 0, 0);
+        }
+        if (runs.size() < HEADER_BYTES) {
+            throw new IllegalStateException("Truncated run history " + file);
+        }
+        ByteBuffer header = runs.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        if (header.getInt() != MAGIC) {
+            throw new IllegalStateException("Not a run history file: " + file);
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported run history version " + version + " in " + file);
+        }
+        return new Header(header.getLong(), header.getLong(), header.getLong(), header.getLong(), header.getLong());
+    }
+
+    static List<String> readNames(FileChannel names, Header header) throws IOException {
+        List<String> list = new ArrayList<>((int) header.names);
+        if (header.nameBytes == 0) {
+            return list;
+        }
+        ByteBuffer buffer = map(names, 0, header.nameBytes);
+        for (long i = 0; i < header.names; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            list.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return list;
+    }
+
+    static Segment readSegment(ByteBuffer runs, long index, List<String> names) {
+        int at = Math.toIntExact(index * RUN_BYTES);
+        long runId = runs.getLong(at);
+        long startedAt = runs.getLong(at + 8);
+        long duration = runs.getLong(at + 16);
+        String label = names.get(runs.getInt(at + 28));
+        RunSummary run = new RunSummary(runId, startedAt, duration, label, 1, runs.getInt(at + 32),
+                runs.getInt(at + 36), runs.getInt(at + 40), runs.getInt(at + 44));
+        return new Segment(run, runs.getLong(at + 48), runs.getInt(at + 56));
+    }
+
+    static int sampleNameId(ByteBuffer samples, int index) {
+        return samples.getInt(index * SAMPLE_BYTES);
+    }
+
+    static RunSample.Kind sampleKind(ByteBuffer samples, int index) {
+        return RunSample.Kind.values()[samples.get(index * SAMPLE_BYTES + 4)];
+    }
+
+    static long sampleBlobOffset(ByteBuffer samples, int index) {
+        return samples.getLong(index * SAMPLE_BYTES + 32);
+    }
+
+    /**
+     * Decodes a sample; blobs holds the blobs file from blobBase on
+     */
+    static RunSample readSample(ByteBuffer samples, int index, List<String> names, ByteBuffer blobs, long blobBase) {
+        int at = index * SAMPLE_BYTES;
+        String name = names.get(samples.getInt(at));
+        long count = samples.getLong(at + 16);
+        if (sampleKind(samples, index) == RunSample.Kind.TEST) {
+            TestOutcome outcome = TestOutcome.fromCode((char) samples.get(at + 5));
+            return RunSample.test(name, outcome, TimeUnit.MICROSECONDS.toNanos(samples.getLong(at + 8)), count);
+        }
+        ByteBuffer blob = blobs.duplicate();
+        int offset = Math.toIntExact(samples.getLong(at + 32) - blobBase);
+        blob.position(offset).limit(offset + samples.getInt(at + 40));
+        try {
+            return RunSample.endpoint(name, samples.getLong(at + 24),
+                    Histogram.decodeFromCompressedByteBuffer(blob.slice(), 0));
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt latency histogram of " + name + " in the run history", e);
+        }
+    }
+
+    /**
+     * Maps a read-only window of a file; queries only map the tail they need
+     */
+    static ByteBuffer map(FileChannel channel, long offset, long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Run history window of " + length + " bytes is too large, query fewer runs");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+    }
+
+    private static FileChannel openForWrite(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static void write(FileChannel channel, long offset, byte[] bytes) throws IOException {
+        if (bytes.length == 0) {
+            return;
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, offset, bytes.length);
+        buffer.put(bytes);
+        buffer.force();
+    }
+
+    private static byte[] encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Arrays.copyOf(buffer.array(), length);
+    }
+
+    /**
+     * Numbers of the stored names, and the encoding of the names added by this append
+     */
+    private static final class NameTable {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final ByteArrayOutputStream added = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(added);
+
+        NameTable(List<String> names) {
+            for (int i = 0; i < names.size(); i++) {
+                ids.put(names.get(i), i);
+            }
+        }
+
+        int idOf(String name) throws IOException {
+            Integer id = ids.get(name);
+            if (id == null) {
+                id = ids.size();
+                ids.put(name, id);
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            return id;
+        }
+
+        int size() {
+            return ids.size();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.spribe.history;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import org.HdrHistogram.Histogram;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Appends runs to a {@link RunHistoryStore} in a temporary directory and reads them back through {@link RunHistory}
+ */
+@Epic("Player Management")
+@Feature("Run History")
+public class RunHistoryStoreTest {
+    private static final String TEST_KEY = "com.spribe.tests.GetPlayerTest#testGetPlayerByValidId";
+    private static final String ENDPOINT = "POST /player/get";
+
+    @Test(description = "Appended runs read back the same after reopening")
+    @Description("Runs, a test's trend and endpoint latency survive append and reopen; shards of a run are merged")
+    public void testAppendReopenRoundTrip() throws IOException {
+        Path dir = Files.createTempDirectory("run-history");
+        try {
+            RunHistoryStore.append(dir, run(1, 2, 0), 0, samples(TestOutcome.PASS, 40, 5, 10));
+            RunHistoryStore.append(dir, run(2, 1, 1), 0, samples(TestOutcome.FAIL, 60, 5, 20));
+            RunHistoryStore.append(dir, run(2, 3, 0), 1, samples(TestOutcome.PASS, 50, 5, 30));
+
+            RunHistory history = RunHistory.open(dir);
+
+            assertEquals(history.getRecordedRuns(), 3L, "One record per shard");
+            List<RunSummary> runs = history.getRuns(10);
+            assertEquals(runs.stream().map(RunSummary::getRunId).collect(Collectors.toList()), Arrays.asList(1L, 2L),
+                    "Runs, oldest first");
+            assertEquals(runs.get(1).getShards(), 2, "Shards of the second run");
+            assertEquals(runs.get(1).getPassed(), 4, "Passed tests summed over the shards");
+            assertEquals(runs.get(1).getFailed(), 1, "Failed tests summed over the shards");
+            assertEquals(history.getRuns(1).get(0).getRunId(), 2L, "Only the last run");
+
+            List<RunSample> trend = new ArrayList<>(history.getTrend(TEST_KEY, 10).values());
+            assertEquals(trend.size(), 2, "One sample per run");
+            assertEquals(trend.get(0).getOutcome(), TestOutcome.PASS);
+            assertEquals(trend.get(0).getDurationNanos(), TimeUnit.MILLISECONDS.toNanos(40));
+            assertEquals(trend.get(1).getOutcome(), TestOutcome.FAIL, "A failure in any shard fails the run");
+            assertEquals(trend.get(1).getCount(), 10L, "API calls summed over the shards");
+
+            Map<String, Histogram> latencies = history.getLatencies(RunSample.Kind.ENDPOINT, 10);
+            assertEquals(latencies.keySet(), Collections.singleton(ENDPOINT));
+            assertEquals(latencies.get(ENDPOINT).getTotalCount(), 60L, "Every call of every run");
+            assertEquals(history.getLatencies(RunSample.Kind.ENDPOINT, 1).get(ENDPOINT).getTotalCount(), 50L,
+                    "Calls of the last run, from both shards");
+            assertTrue(history.getTrend("no such test", 10).isEmpty(), "Unknown names have no trend");
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test(description = "A partially written tail is ignored and overwritten")
+    @Description("Bytes past the committed ends, as left by a crash mid-append, are not read and the next append "
+            + "writes over them")
+    public void testPartiallyWrittenTailIgnored() throws IOException {
+        Path dir = Files.createTempDirectory("run-history");
+        try {
+            RunHistoryStore.append(dir, run(1, 2, 0), 0, samples(TestOutcome.PASS, 40, 5, 10));
+            byte[] garbage = new byte[100];
+            Arrays.fill(garbage, (byte) 0x7f);
+            for (String file : Arrays.asList(RunHistoryStore.RUNS_FILE, RunHistoryStore.SAMPLES_FILE,
+                    RunHistoryStore.BLOBS_FILE, RunHistoryStore.NAMES_FILE)) {
+                Files.write(dir.resolve(file), garbage, StandardOpenOption.APPEND);
+            }
+
+            RunHistory crashed = RunHistory.open(dir);
+            assertEquals(crashed.getRecordedRuns(), 1L, "Only the committed run");
+            assertEquals(crashed.getLatencies(RunSample.Kind.ENDPOINT, 10).get(ENDPOINT).getTotalCount(), 10L);
+
+            RunHistoryStore.append(dir, run(2, 1, 0), 0, samples(TestOutcome.SKIP, 70, 5, 20));
+            RunHistory history = RunHistory.open(dir);
+
+            assertEquals(history.getRecordedRuns(), 2L, "The next append commits over the tail");
+            List<RunSample> trend = new ArrayList<>(history.getTrend(TEST_KEY, 10).values());
+            assertEquals(trend.get(1).getOutcome(), TestOutcome.SKIP);
+            assertEquals(trend.get(1).getDurationNanos(), TimeUnit.MILLISECONDS.toNanos(70));
+            assertEquals(history.getLatencies(RunSample.Kind.ENDPOINT, 1).get(ENDPOINT).getTotalCount(), 20L);
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test(description = "A run file shorter than its header is rejected")
+    @Description("runs.bin cut inside the header fails with a clear error instead of reading garbage")
+    public void testTruncatedHeaderRejected() throws IOException {
+        Path dir = Files.createTempDirectory("run-history");
+        try {
+            RunHistoryStore.append(dir, run(1, 2, 0), 0, samples(TestOutcome.PASS, 40, 5, 10));
+            byte[] runs = Files.readAllBytes(dir.resolve(RunHistoryStore.RUNS_FILE));
+            Files.write(dir.resolve(RunHistoryStore.RUNS_FILE), Arrays.copyOf(runs, RunHistoryStore.HEADER_BYTES / 2));
+
+            IllegalStateException e = expectThrows(IllegalStateException.class, () -> RunHistory.open(dir));
+
+            assertTrue(e.getMessage().startsWith("Truncated run history"), e.getMessage());
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test(description = "A missing history is empty")
+    @Description("Opening a directory without history files gives no runs rather than an error")
+    public void testMissingHistoryIsEmpty() throws IOException {
+        Path dir = Files.createTempDirectory("run-history");
+        try {
+            RunHistory history = RunHistory.open(dir);
+
+            assertEquals(history.getRecordedRuns(), 0L);
+            assertTrue(history.getRuns(10).isEmpty(), "No runs");
+            assertTrue(history.getLatencies(RunSample.Kind.TEST, 10).isEmpty(), "No latencies");
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private static RunSummary run(long runId, int passed, int failed) {
+        return new RunSummary(runId, runId * 1000, 500, "main", 1, passed + failed, passed, failed, 0);
+    }
+
+    /**
+     * One test sample and one endpoint sample whose calls took 1, 2, 3... ms
+     */
+    private static List<RunSample> samples(TestOutcome outcome, long testMillis, long apiCalls, int calls) {
+        Histogram latency = new Histogram(3);
+        for (int i = 0; i < calls; i++) {
+            latency.recordValue(TimeUnit.MILLISECONDS.toNanos(1 + i));
+        }
+        return Arrays.asList(
+                RunSample.test(TEST_KEY, outcome, TimeUnit.MILLISECONDS.toNanos(testMillis), apiCalls),
+                RunSample.endpoint(ENDPOINT, 0, latency));
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.spribe.history;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * What one test or one endpoint did in one run, as kept in the {@link RunHistoryStore}. A test has its wall
+ * time, API calls and outcome; an endpoint has its call count, errors and latency histogram in nanoseconds.
+ */
+public final class RunSample {
+    public enum Kind {
+        TEST, ENDPOINT
+    }
+
+    private final Kind kind;
+    private final String name;
+    private final TestOutcome outcome;
+    private final long count;
+    private final long errors;
+    private final long durationNanos;
+    private final Histogram latency;
+
+    private RunSample(Kind kind, String name, TestOutcome outcome, long count, long errors, long durationNanos,
+                      Histogram latency) {
+        this.kind = kind;
+        this.name = name;
+        this.outcome = outcome;
+        this.count = count;
+        this.errors = errors;
+        this.durationNanos = durationNanos;
+        this.latency = latency;
+    }
+
+    public static RunSample test(String key, TestOutcome outcome, long durationNanos, long apiCalls) {
+        return new RunSample(Kind.TEST, key, outcome, apiCalls, 0, durationNanos, null);
+    }
+
+    public static RunSample endpoint(String endpoint, long errors, Histogram latency) {
+        return new RunSample(Kind.ENDPOINT, endpoint, null, latency.getTotalCount(), errors, 0, latency);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Test key (class#method) or endpoint name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Outcome of a test, null for an endpoint
+     */
+    public TestOutcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * API calls made by a test, or calls made to an endpoint
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Calls to an endpoint that threw or answered 5xx; always 0 for a test
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * Wall time of a test, 0 for an endpoint
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Latency of an endpoint's calls, null for a test
+     */
+    public Histogram getLatency() {
+        return latency;
+    }
+}
@@ -0,0 +1,90 @@
+package com.spribe.history;
+
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * One suite run in the {@link RunHistoryStore}; a sharded run is recorded by every shard JVM under the same run
+ * id and summarised here as one run
+ */
+public final class RunSummary {
+    private final long runId;
+    private final long startedAtMillis;
+    private final long durationMillis;
+    private final String label;
+    private final int shards;
+    private final int total;
+    private final int passed;
+    private final int failed;
+    private final int skipped;
+
+    public RunSummary(long runId, long startedAtMillis, long durationMillis, String label, int shards, int total,
+                      int passed, int failed, int skipped) {
+        this.runId = runId;
+        this.startedAtMillis = startedAtMillis;
+        this.durationMillis = durationMillis;
+        this.label = label;
+        this.shards = shards;
+        this.total = total;
+        this.passed = passed;
+        this.failed = failed;
+        this.skipped = skipped;
+    }
+
+    /**
+     * Folds in another shard of the same run: earliest start, latest finish, counts summed
+     */
+    RunSummary merge(RunSummary shard) {
+        long started = Math.min(startedAtMillis, shard.startedAtMillis);
+        long finished = Math.max(startedAtMillis + durationMillis, shard.startedAtMillis + shard.durationMillis);
+        return new RunSummary(runId, started, finished - started, label, shards + shard.shards,
+                total + shard.total, passed + shard.passed, failed + shard.failed, skipped + shard.skipped);
+    }
+
+    public long getRunId() {
+        return runId;
+    }
+
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * API target the run tested, such as local or remote
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getPassed() {
+        return passed;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    @Override
+    public String toString() {
+        return Instant.ofEpochMilli(startedAtMillis) + " " + label + " " + total + " test(s), " + passed
+                + " passed, " + failed + " failed, " + skipped + " skipped in "
+                + String.format(Locale.ROOT, "%.1f", durationMillis / 1000.0) + " s"
+                + (shards > 1 ? " on " + shards + " shard(s)" : "");
+    }
+}
@@ -0,0 +1,213 @@
+package com.spribe.history;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.ITestNGMethod;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-test history of earlier runs, keyed by class#method and stored as JSON. Runs are added under an
+ * exclusive file lock, re-reading the file first, so JVMs of a sharded run can record into the same history.
+ */
+public final class TestHistory {
+    private static final Logger logger = LogManager.getLogger(TestHistory.class);
+    private static final JsonFactory factory = new JsonFactory();
+
+    private final Map<String, TestStats> tests;
+
+    private TestHistory(Map<String, TestStats> tests) {
+        this.tests = Collections.unmodifiableMap(tests);
+    }
+
+    /**
+     * Key of a test method in the history: its class name and method name joined by '#'
+     */
+    public static String keyOf(ITestNGMethod method) {
+        return method.getRealClass().getName() + "#" + method.getMethodName();
+    }
+
+    public static TestHistory empty() {
+        return new TestHistory(new TreeMap<>());
+    }
+
+    /**
+     * Reads the history, or returns an empty one when the file does not exist or cannot be read; a broken
+     * history only costs the ordering, so it does not fail the run
+     */
+    public static TestHistory load(Path file) {
+        if (!Files.exists(file)) {
+            return empty();
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            return new TestHistory(read(in, file));
+        } catch (IOException | IllegalStateException e) {
+            logger.warn("Ignoring test history {}: {}", file, e.getMessage());
+            return empty();
+        }
+    }
+
+    /**
+     * Adds the runs to the history in the file, keeping the last window outcomes of each test
+     */
+    public static TestHistory record(Path file, Collection<TestRun> runs, int window) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            Map<String, TestStats> tests = new TreeMap<>();
+            if (channel.size() > 0) {
+                ByteBuffer content = ByteBuffer.allocate((int) channel.size());
+                while (content.hasRemaining() && channel.read(content, content.position()) >= 0) {
+                    // read until the buffer holds the whole file
+                }
+                try {
+                    tests.putAll(read(new ByteArrayInputStream(content.array()), file));
+                } catch (IllegalStateException e) {
+                    logger.warn("Replacing unreadable test history {}: {}", file, e.getMessage());
+                }
+            }
+            for (TestRun run : runs) {
+                tests.put(run.getKey(), tests.getOrDefault(run.getKey(), new TestStats(0, 0, 0, ""))
+                        .with(run, window));
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            write(tests, out);
+            channel.truncate(0);
+            channel.write(ByteBuffer.wrap(out.toByteArray()), 0);
+            return new TestHistory(tests);
+        }
+    }
+
+    public boolean isEmpty() {
+        return tests.isEmpty();
+    }
+
+    public Map<String, TestStats> getTests() {
+        return tests;
+    }
+
+    /**
+     * History of a test, or null when it has never run
+     */
+    public TestStats get(String key) {
+        return tests.get(key);
+    }
+
+    /**
+     * Recorded duration of a test, or the median of all recorded tests when it has never run
+     */
+    public long estimateMillis(String key) {
+        TestStats stats = tests.get(key);
+        if (stats != null) {
+            return stats.getDurationMillis();
+        }
+        if (tests.isEmpty()) {
+            return 0;
+        }
+        List<Long> durations = new ArrayList<>();
+        tests.values().forEach(known -> durations.add(known.getDurationMillis()));
+        Collections.sort(durations);
+        return durations.get(durations.size() / 2);
+    }
+
+    private static Map<String, TestStats> read(InputStream in, Path file) throws IOException {
+        Map<String, TestStats> tests = new TreeMap<>();
+        try (JsonParser parser = factory.createParser(in)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT, file);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("tests".equals(field)) {
+                    expect(parser.currentToken(), JsonToken.START_OBJECT, file);
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String key = parser.getCurrentName();
+                        parser.nextToken();
+                        tests.put(key, readStats(parser, file));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return tests;
+    }
+
+    private static TestStats readStats(JsonParser parser, Path file) throws IOException {
+        expect(parser.currentToken(), JsonToken.START_OBJECT, file);
+        int runs = 0;
+        long durationMillis = 0;
+        double apiCalls = 0;
+        String outcomes = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "runs":
+                    runs = parser.getIntValue();
+                    break;
+                case "durationMs":
+                    durationMillis = parser.getLongValue();
+                    break;
+                case "apiCalls":
+                    apiCalls = parser.getDoubleValue();
+                    break;
+                case "outcomes":
+                    outcomes = parser.getText();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        return new TestStats(runs, durationMillis, apiCalls, outcomes);
+    }
+
+    private static void write(Map<String, TestStats> tests, ByteArrayOutputStream out) throws IOException {
+        try (JsonGenerator generator = factory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("tests");
+            for (Map.Entry<String, TestStats> entry : tests.entrySet()) {
+                TestStats stats = entry.getValue();
+                generator.writeObjectFieldStart(entry.getKey());
+                generator.writeNumberField("runs", stats.getRuns());
+                generator.writeNumberField("durationMs", stats.getDurationMillis());
+                generator.writeNumberField("apiCalls", stats.getApiCalls());
+                generator.writeStringField("outcomes", stats.getOutcomes());
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected, Path file) {
+        if (actual != expected) {
+            throw new IllegalStateException("Malformed test history " + file + ": expected " + expected
+                    + " but found " + actual);
+        }
+    }
+}
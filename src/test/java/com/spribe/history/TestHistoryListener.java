@@ -0,0 +1,236 @@
+package com.spribe.history;
+
+import com.spribe.config.ConfigManager;
+import com.spribe.metrics.ApiMetrics;
+import com.spribe.metrics.ApiMetricsReport;
+import com.spribe.metrics.OperationSummary;
+import org.HdrHistogram.Histogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IConfigurationListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every test of the suite into the {@link TestHistory}: the wall time of its @BeforeMethod, test and
+ * @AfterMethod invocations, the API calls made on the test's thread during them, and the outcome. The history
+ * is written once the suite has finished, and the run, its tests and the latency of every endpoint are also
+ * appended to the {@link RunHistoryStore}. Times are taken by this listener rather than from the test results,
+ * so when it is registered after the test scheduler, time spent waiting for a slot is not counted.
+ */
+public class TestHistoryListener implements IConfigurationListener, IInvokedMethodListener, ITestListener,
+        ISuiteListener {
+    private static final Logger logger = LogManager.getLogger(TestHistoryListener.class);
+
+    private static final int SERVER_ERROR = 500;
+
+    private final boolean enabled;
+    private final Path file;
+    private final int window;
+    private final boolean storeEnabled;
+    private final Path storeDir;
+    private volatile long startedAtMillis;
+    private final Map<String, Usage> usage = new ConcurrentHashMap<>();
+    private final ThreadLocal<long[]> started = new ThreadLocal<>();
+
+    public TestHistoryListener() {
+        ConfigManager config = ConfigManager.getInstance();
+        enabled = config.isHistoryEnabled();
+        file = Paths.get(config.getHistoryFile());
+        window = config.getHistoryWindow();
+        storeEnabled = config.isHistoryStoreEnabled();
+        storeDir = Paths.get(config.getHistoryStoreDir());
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        startedAtMillis = System.currentTimeMillis();
+    }
+
+    @Override
+    public void beforeConfiguration(ITestResult result, ITestNGMethod testMethod) {
+        if (enabled && isPerTest(result, testMethod)) {
+            start();
+        }
+    }
+
+    @Override
+    public void onConfigurationSuccess(ITestResult result, ITestNGMethod testMethod) {
+        addConfiguration(result, testMethod);
+    }
+
+    @Override
+    public void onConfigurationFailure(ITestResult result, ITestNGMethod testMethod) {
+        addConfiguration(result, testMethod);
+    }
+
+    @Override
+    public void onConfigurationSkip(ITestResult result, ITestNGMethod testMethod) {
+        addConfiguration(result, testMethod);
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (enabled && method.isTestMethod()) {
+            start();
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (enabled && method.isTestMethod()) {
+            Usage test = usageOf(testResult.getMethod());
+            finish(test);
+            test.outcome = TestOutcome.of(testResult);
+        }
+    }
+
+    /**
+     * Tests skipped because their setup failed are never invoked, so they are recorded here
+     */
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        if (enabled) {
+            Usage skipped = usageOf(result.getMethod());
+            if (skipped.outcome == null) {
+                skipped.outcome = TestOutcome.SKIP;
+            }
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (!enabled || usage.isEmpty()) {
+            return;
+        }
+        List<TestRun> runs = new ArrayList<>();
+        usage.forEach((key, recorded) -> runs.add(recorded.toRun(key)));
+        try {
+            TestHistory history = TestHistory.record(file, runs, window);
+            logger.info("Recorded {} test(s) into the test history {} ({} test(s) known)", runs.size(), file,
+                    history.getTests().size());
+        } catch (IOException e) {
+            logger.warn("Could not record test history {}: {}", file, e.getMessage());
+        }
+        if (storeEnabled) {
+            appendToStore(runs);
+        }
+    }
+
+    /**
+     * Appends the run; a sharded run is appended by every shard under the run id the shard runner hands out
+     */
+    private void appendToStore(List<TestRun> runs) {
+        ConfigManager config = ConfigManager.getInstance();
+        long finishedAtMillis = System.currentTimeMillis();
+        long runId = config.getHistoryRunId() != 0 ? config.getHistoryRunId() : startedAtMillis;
+        int[] outcomes = new int[TestOutcome.values().length];
+        List<RunSample> samples = new ArrayList<>();
+        for (TestRun run : runs) {
+            outcomes[run.getOutcome().ordinal()]++;
+            samples.add(RunSample.test(run.getKey(), run.getOutcome(), usage.get(run.getKey()).nanos(),
+                    run.getApiCalls()));
+        }
+        samples.addAll(endpointSamples());
+        RunSummary summary = new RunSummary(runId, startedAtMillis, finishedAtMillis - startedAtMillis,
+                config.getApiTarget(), 1, runs.size(), outcomes[TestOutcome.PASS.ordinal()],
+                outcomes[TestOutcome.FAIL.ordinal()], outcomes[TestOutcome.SKIP.ordinal()]);
+        try {
+            RunHistoryStore.append(storeDir, summary, config.getShardIndex(), samples);
+            logger.info("Appended the run to the run history {}", storeDir);
+        } catch (IOException | IllegalStateException e) {
+            logger.warn("Could not append to run history {}: {}", storeDir, e.getMessage());
+        }
+    }
+
+    /**
+     * Latency of every endpoint with all editor roles merged; exceptions and 5xx answers count as errors
+     */
+    private static List<RunSample> endpointSamples() {
+        ApiMetrics metrics = ApiMetrics.getInstance();
+        if (!metrics.isEnabled()) {
+            return new ArrayList<>();
+        }
+        ApiMetricsReport report = metrics.report();
+        Map<String, long[]> errors = new TreeMap<>();
+        for (OperationSummary summary : report.getSummaries()) {
+            long failed = summary.getExceptions();
+            for (Map.Entry<Integer, Long> status : summary.getStatusCounts().entrySet()) {
+                if (status.getKey() >= SERVER_ERROR) {
+                    failed += status.getValue();
+                }
+            }
+            errors.computeIfAbsent(summary.getEndpoint(), key -> new long[1])[0] += failed;
+        }
+        List<RunSample> samples = new ArrayList<>();
+        for (Map.Entry<String, Histogram> latency : report.getLatencyByEndpoint().entrySet()) {
+            samples.add(RunSample.endpoint(latency.getKey(), errors.get(latency.getKey())[0], latency.getValue()));
+        }
+        return samples;
+    }
+
+    private void addConfiguration(ITestResult result, ITestNGMethod testMethod) {
+        if (enabled && isPerTest(result, testMethod)) {
+            finish(usageOf(testMethod));
+        }
+    }
+
+    private static boolean isPerTest(ITestResult result, ITestNGMethod testMethod) {
+        return testMethod != null && (result.getMethod().isBeforeMethodConfiguration()
+                || result.getMethod().isAfterMethodConfiguration());
+    }
+
+    private void start() {
+        started.set(new long[]{System.nanoTime(), ApiMetrics.getCallsOnCurrentThread()});
+    }
+
+    /**
+     * Adds the invocation that started on this thread; skipped configurations never started and add nothing
+     */
+    private void finish(Usage target) {
+        long[] start = started.get();
+        if (start != null) {
+            started.remove();
+            target.add(System.nanoTime() - start[0], ApiMetrics.getCallsOnCurrentThread() - start[1]);
+        }
+    }
+
+    private Usage usageOf(ITestNGMethod method) {
+        return usage.computeIfAbsent(TestHistory.keyOf(method), key -> new Usage());
+    }
+
+    private static final class Usage {
+        private long nanos;
+        private long calls;
+        private volatile TestOutcome outcome;
+
+        synchronized void add(long elapsedNanos, long apiCalls) {
+            nanos += elapsedNanos;
+            calls += apiCalls;
+        }
+
+        synchronized long nanos() {
+            return nanos;
+        }
+
+        synchronized TestRun toRun(String key) {
+            return new TestRun(key, TimeUnit.NANOSECONDS.toMillis(nanos), calls,
+                    outcome != null ? outcome : TestOutcome.SKIP);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.spribe.history;
+
+import org.testng.ITestResult;
+
+/**
+ * Result of one run of a test, stored in the history as a single letter
+ */
+public enum TestOutcome {
+    PASS('P'), FAIL('F'), SKIP('S');
+
+    private final char code;
+
+    TestOutcome(char code) {
+        this.code = code;
+    }
+
+    public char getCode() {
+        return code;
+    }
+
+    public static TestOutcome of(ITestResult result) {
+        switch (result.getStatus()) {
+            case ITestResult.SUCCESS:
+                return PASS;
+            case ITestResult.SKIP:
+                return SKIP;
+            default:
+                return FAIL;
+        }
+    }
+
+    public static TestOutcome fromCode(char code) {
+        for (TestOutcome outcome : values()) {
+            if (outcome.code == code) {
+                return outcome;
+            }
+        }
+        throw new IllegalArgumentException("Unknown test outcome code '" + code + "'");
+    }
+}
@@ -0,0 +1,43 @@
+package com.spribe.history;
+
+/**
+ * What one test did in one run: wall time of its @BeforeMethod, test and @AfterMethod invocations, API calls
+ * made on its thread, and the outcome
+ */
+public final class TestRun {
+    private final String key;
+    private final long durationMillis;
+    private final long apiCalls;
+    private final TestOutcome outcome;
+
+    public TestRun(String key, long durationMillis, long apiCalls, TestOutcome outcome) {
+        this.key = key;
+        this.durationMillis = durationMillis;
+        this.apiCalls = apiCalls;
+        this.outcome = outcome;
+    }
+
+    /**
+     * Class name and method name joined by '#'
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public long getApiCalls() {
+        return apiCalls;
+    }
+
+    public TestOutcome getOutcome() {
+        return outcome;
+    }
+
+    @Override
+    public String toString() {
+        return key + " " + durationMillis + " ms, " + apiCalls + " call(s), " + outcome;
+    }
+}
@@ -0,0 +1,81 @@
+package com.spribe.history;
+
+import java.util.Locale;
+
+/**
+ * History of one test over the recorded runs: smoothed duration and API call count, and the most recent
+ * outcomes, oldest first
+ */
+public final class TestStats {
+    private final int runs;
+    private final long durationMillis;
+    private final double apiCalls;
+    private final String outcomes;
+
+    TestStats(int runs, long durationMillis, double apiCalls, String outcomes) {
+        this.runs = runs;
+        this.durationMillis = durationMillis;
+        this.apiCalls = apiCalls;
+        this.outcomes = outcomes;
+    }
+
+    /**
+     * Folds one more run in; the new run weighs as much as all earlier ones together
+     */
+    TestStats with(TestRun run, int window) {
+        String recent = outcomes + run.getOutcome().getCode();
+        if (recent.length() > window) {
+            recent = recent.substring(recent.length() - window);
+        }
+        if (runs == 0) {
+            return new TestStats(1, run.getDurationMillis(), run.getApiCalls(), recent);
+        }
+        return new TestStats(runs + 1, Math.round((durationMillis + run.getDurationMillis()) / 2.0),
+                (apiCalls + run.getApiCalls()) / 2.0, recent);
+    }
+
+    public int getRuns() {
+        return runs;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public double getApiCalls() {
+        return apiCalls;
+    }
+
+    public String getOutcomes() {
+        return outcomes;
+    }
+
+    /**
+     * Share of consecutive recent runs whose outcome changed between pass and fail; 0 for a test that always
+     * passes or always fails, 1 for one that alternates
+     */
+    public double getFlakiness() {
+        int flips = 0;
+        int pairs = 0;
+        char previous = 0;
+        for (char code : outcomes.toCharArray()) {
+            if (code == TestOutcome.SKIP.getCode()) {
+                continue;
+            }
+            if (previous != 0) {
+                pairs++;
+                if (code != previous) {
+                    flips++;
+                }
+            }
+            previous = code;
+        }
+        return pairs == 0 ? 0.0 : (double) flips / pairs;
+    }
+
+    @Override
+    public String toString() {
+        return durationMillis + " ms, " + String.format(Locale.ROOT, "%.1f", apiCalls) + " call(s), "
+                + runs + " run(s), recent " + outcomes;
+    }
+}
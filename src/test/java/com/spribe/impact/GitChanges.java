@@ -0,0 +1,67 @@
+package com.spribe.impact;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asks git which files changed; paths are relative to the working directory, the project root
+ */
+final class GitChanges {
+    private static final long TIMEOUT_SECONDS = 30;
+
+    private GitChanges() {
+    }
+
+    static String head() throws IOException {
+        return git("rev-parse", "HEAD").get(0);
+    }
+
+    /**
+     * Files changed since the commit: committed, staged and unstaged changes, and new untracked files
+     */
+    static List<String> changedSince(String base) throws IOException {
+        TreeSet<String> files = new TreeSet<>(git("diff", "--name-only", "--relative", base));
+        files.addAll(git("ls-files", "--others", "--exclude-standard"));
+        return new ArrayList<>(files);
+    }
+
+    private static List<String> git(String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output;
+        try (InputStream in = process.getInputStream()) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            in.transferTo(bytes);
+            output = bytes.toString(StandardCharsets.UTF_8);
+        }
+        try {
+            if (!process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                throw new IOException("git " + String.join(" ", args) + " timed out");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+            throw new IOException("Interrupted while running git", e);
+        }
+        if (process.exitValue() != 0) {
+            throw new IOException("git " + String.join(" ", args) + " failed: " + output.trim());
+        }
+        List<String> lines = new ArrayList<>();
+        for (String line : output.split("\n")) {
+            if (!line.trim().isEmpty()) {
+                lines.add(line.trim());
+            }
+        }
+        return lines;
+    }
+}
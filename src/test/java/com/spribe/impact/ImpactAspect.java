@@ -0,0 +1,25 @@
+package com.spribe.impact;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.annotation.Pointcut;
+
+/**
+ * Woven at load time by the AspectJ agent that already weaves the Allure steps (META-INF/aop.xml); reports
+ * the class of every executed method and constructor of the com.spribe packages while impact recording is on
+ */
+@Aspect
+public class ImpactAspect {
+
+    @Pointcut("if()")
+    public static boolean recording() {
+        return ImpactRecorder.isRecording();
+    }
+
+    @Before("recording() && (execution(* com.spribe..*(..)) || execution(com.spribe..*.new(..)))"
+            + " && within(com.spribe..*) && !within(com.spribe.impact..*)")
+    public void touch(JoinPoint.StaticPart joinPoint) {
+        ImpactRecorder.touch(joinPoint.getSignature().getDeclaringType());
+    }
+}
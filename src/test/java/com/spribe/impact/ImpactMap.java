@@ -0,0 +1,278 @@
+package com.spribe.impact;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Framework classes each test exercised, by context (see {@link ImpactRecorder}), the tests that did not pass
+ * in their last run, and when the suite last ran in full. Stored as JSON outside target/ and updated under an
+ * exclusive file lock, so shard JVMs can share it.
+ */
+final class ImpactMap {
+    private static final Logger logger = LogManager.getLogger(ImpactMap.class);
+    private static final JsonFactory factory = new JsonFactory();
+
+    private final String baseCommit;
+    private final long fullRunAtMillis;
+    private final int runsSinceFullRun;
+    private final long lastRunId;
+    private final Map<String, Set<String>> contexts;
+    private final Set<String> failing;
+
+    private ImpactMap(String baseCommit, long fullRunAtMillis, int runsSinceFullRun, long lastRunId,
+                      Map<String, Set<String>> contexts, Set<String> failing) {
+        this.baseCommit = baseCommit;
+        this.fullRunAtMillis = fullRunAtMillis;
+        this.runsSinceFullRun = runsSinceFullRun;
+        this.lastRunId = lastRunId;
+        this.contexts = Collections.unmodifiableMap(contexts);
+        this.failing = Collections.unmodifiableSet(failing);
+    }
+
+    static ImpactMap empty() {
+        return new ImpactMap("", 0, 0, 0, new TreeMap<>(), new TreeSet<>());
+    }
+
+    /**
+     * Reads the map, or returns an empty one when it does not exist or cannot be read; an empty map selects
+     * the full suite
+     */
+    static ImpactMap load(Path file) {
+        if (!Files.exists(file)) {
+            return empty();
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in, file);
+        } catch (IOException | IllegalStateException e) {
+            logger.warn("Ignoring test impact map {}: {}", file, e.getMessage());
+            return empty();
+        }
+    }
+
+    /**
+     * Merges the recorded contexts and test outcomes into the map in the file; a full run at a known commit
+     * becomes the new base that changes are compared against. Runs of the same non-zero run id, i.e. the shards
+     * of one run, count once.
+     */
+    static ImpactMap record(Path file, Map<String, Set<String>> recorded, Map<String, Boolean> passed,
+                            boolean fullRun, String headCommit, long runId) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            ImpactMap current = empty();
+            if (channel.size() > 0) {
+                ByteBuffer content = ByteBuffer.allocate((int) channel.size());
+                while (content.hasRemaining() && channel.read(content, content.position()) >= 0) {
+                    // read until the buffer holds the whole file
+                }
+                try {
+                    current = read(new ByteArrayInputStream(content.array()), file);
+                } catch (IllegalStateException e) {
+                    logger.warn("Replacing unreadable test impact map {}: {}", file, e.getMessage());
+                }
+            }
+            Map<String, Set<String>> contexts = new TreeMap<>(current.contexts);
+            recorded.forEach((context, classes) -> {
+                if (ImpactRecorder.GLOBAL.equals(context)) {
+                    // Suite-level code differs between partial runs, so what it ever exercised is kept
+                    Set<String> global = new TreeSet<>(contexts.getOrDefault(context, Collections.emptySet()));
+                    global.addAll(classes);
+                    contexts.put(context, global);
+                } else {
+                    contexts.put(context, classes);
+                }
+            });
+            Set<String> failing = new TreeSet<>(current.failing);
+            passed.forEach((key, pass) -> {
+                if (pass) {
+                    failing.remove(key);
+                } else {
+                    failing.add(key);
+                }
+            });
+            boolean sameRun = runId != 0 && runId == current.lastRunId;
+            ImpactMap updated;
+            if (fullRun && headCommit != null) {
+                updated = new ImpactMap(headCommit, System.currentTimeMillis(), 0, runId, contexts, failing);
+            } else {
+                updated = new ImpactMap(current.baseCommit, current.fullRunAtMillis,
+                        current.runsSinceFullRun + (sameRun ? 0 : 1), runId, contexts, failing);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            updated.write(out);
+            channel.truncate(0);
+            channel.write(ByteBuffer.wrap(out.toByteArray()), 0);
+            return updated;
+        }
+    }
+
+    boolean isEmpty() {
+        return contexts.isEmpty();
+    }
+
+    /**
+     * Commit of the last full run, empty when there was none
+     */
+    String getBaseCommit() {
+        return baseCommit;
+    }
+
+    long getFullRunAtMillis() {
+        return fullRunAtMillis;
+    }
+
+    int getRunsSinceFullRun() {
+        return runsSinceFullRun;
+    }
+
+    /**
+     * Whether the test failed or was skipped in the last run it took part in
+     */
+    boolean isFailing(String testKey) {
+        return failing.contains(testKey);
+    }
+
+    boolean isRecorded(String context) {
+        return contexts.containsKey(context);
+    }
+
+    Set<String> getGlobal() {
+        return contexts.getOrDefault(ImpactRecorder.GLOBAL, Collections.emptySet());
+    }
+
+    /**
+     * Whether any context exercised the class
+     */
+    boolean isExercised(String className) {
+        return contexts.values().stream().anyMatch(classes -> classes.contains(className));
+    }
+
+    /**
+     * Classes a test exercised, together with those exercised on behalf of them: at class level by the
+     * test's class, or in the background by a class such as the player pool
+     */
+    Set<String> classesOf(String testKey) {
+        Set<String> classes = new TreeSet<>();
+        Deque<String> pending = new ArrayDeque<>(contexts.getOrDefault(testKey, Collections.emptySet()));
+        while (!pending.isEmpty()) {
+            String type = pending.pop();
+            if (classes.add(type)) {
+                pending.addAll(contexts.getOrDefault(type, Collections.emptySet()));
+            }
+        }
+        return classes;
+    }
+
+    private static ImpactMap read(InputStream in, Path file) throws IOException {
+        String baseCommit = "";
+        long fullRunAt = 0;
+        int runsSince = 0;
+        long lastRunId = 0;
+        Map<String, Set<String>> contexts = new TreeMap<>();
+        Set<String> failing = new TreeSet<>();
+        try (JsonParser parser = factory.createParser(in)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT, file);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "baseCommit":
+                        baseCommit = parser.getText();
+                        break;
+                    case "fullRunAt":
+                        fullRunAt = parser.getLongValue();
+                        break;
+                    case "runsSinceFullRun":
+                        runsSince = parser.getIntValue();
+                        break;
+                    case "lastRunId":
+                        lastRunId = parser.getLongValue();
+                        break;
+                    case "contexts":
+                        expect(parser.currentToken(), JsonToken.START_OBJECT, file);
+                        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                            String context = parser.getCurrentName();
+                            parser.nextToken();
+                            contexts.put(context, readNames(parser, file));
+                        }
+                        break;
+                    case "failing":
+                        failing = readNames(parser, file);
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+        return new ImpactMap(baseCommit, fullRunAt, runsSince, lastRunId, contexts, failing);
+    }
+
+    private static Set<String> readNames(JsonParser parser, Path file) throws IOException {
+        expect(parser.currentToken(), JsonToken.START_ARRAY, file);
+        Set<String> names = new TreeSet<>();
+        while (parser.nextToken() == JsonToken.VALUE_STRING) {
+            names.add(parser.getText());
+        }
+        return names;
+    }
+
+    private void write(ByteArrayOutputStream out) throws IOException {
+        try (JsonGenerator generator = factory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+            generator.writeStringField("baseCommit", baseCommit);
+            generator.writeNumberField("fullRunAt", fullRunAtMillis);
+            generator.writeNumberField("runsSinceFullRun", runsSinceFullRun);
+            generator.writeNumberField("lastRunId", lastRunId);
+            writeNames(generator, "failing", failing);
+            generator.writeObjectFieldStart("contexts");
+            for (Map.Entry<String, Set<String>> entry : contexts.entrySet()) {
+                writeNames(generator, entry.getKey(), entry.getValue());
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+    }
+
+    private static void writeNames(JsonGenerator generator, String field, Set<String> names) throws IOException {
+        generator.writeArrayFieldStart(field);
+        for (String name : names) {
+            generator.writeString(name);
+        }
+        generator.writeEndArray();
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected, Path file) {
+        if (actual != expected) {
+            throw new IllegalStateException("Malformed test impact map " + file + ": expected " + expected
+                    + " but found " + actual);
+        }
+    }
+}
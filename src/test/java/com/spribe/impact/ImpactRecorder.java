@@ -0,0 +1,125 @@
+package com.spribe.impact;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Framework classes exercised per context while the test impact mode is on. A context is a test (class#method),
+ * a test class for its @BeforeClass and @AfterClass methods, or a class that does background work for the
+ * tests using it, such as the player pool. Code running outside any context is recorded as global.
+ * {@link ImpactAspect} reports every executed method and constructor of the com.spribe packages here.
+ */
+public final class ImpactRecorder {
+    public static final String GLOBAL = "*";
+
+    private static final Map<String, Set<String>> classesByContext = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Set<String>> current = new ThreadLocal<>();
+    private static volatile boolean recording;
+    private static volatile boolean woven;
+
+    private ImpactRecorder() {
+    }
+
+    static void start() {
+        recording = true;
+    }
+
+    public static boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Whether the aspect has reported anything, i.e. the AspectJ agent is attached
+     */
+    static boolean isWoven() {
+        return woven;
+    }
+
+    static void touch(Class<?> type) {
+        woven = true;
+        Set<String> classes = current.get();
+        (classes != null ? classes : classesOf(GLOBAL)).add(topLevelName(type));
+    }
+
+    static void enter(String context) {
+        current.set(classesOf(context));
+    }
+
+    static void exit() {
+        current.remove();
+    }
+
+    /**
+     * Runs the task in the context of the test that wraps it, so classes a forked task exercises count for the
+     * test
+     */
+    public static <T> Callable<T> inCurrentTest(Callable<T> task) {
+        if (!recording) {
+            return task;
+        }
+        Set<String> classes = current.get();
+        return () -> {
+            Set<String> previous = switchTo(classes);
+            try {
+                return task.call();
+            } finally {
+                switchTo(previous);
+            }
+        };
+    }
+
+    /**
+     * Runs the task in the context of the owner class; tests that exercise the owner are impacted by everything
+     * the task exercises
+     */
+    public static Runnable onBehalfOf(Class<?> owner, Runnable task) {
+        if (!recording) {
+            return task;
+        }
+        Set<String> classes = classesOf(owner.getName());
+        return () -> {
+            Set<String> previous = switchTo(classes);
+            try {
+                task.run();
+            } finally {
+                switchTo(previous);
+            }
+        };
+    }
+
+    /**
+     * Classes recorded so far, by context
+     */
+    static Map<String, Set<String>> snapshot() {
+        Map<String, Set<String>> snapshot = new TreeMap<>();
+        classesByContext.forEach((context, classes) -> snapshot.put(context, new TreeSet<>(classes)));
+        return snapshot;
+    }
+
+    private static Set<String> switchTo(Set<String> classes) {
+        Set<String> previous = current.get();
+        if (classes == null) {
+            current.remove();
+        } else {
+            current.set(classes);
+        }
+        return previous;
+    }
+
+    private static Set<String> classesOf(String context) {
+        return classesByContext.computeIfAbsent(context, key -> ConcurrentHashMap.newKeySet());
+    }
+
+    /**
+     * Nested, anonymous and lambda classes live in the source file of their top-level class
+     */
+    private static String topLevelName(Class<?> type) {
+        String name = type.getName();
+        int nested = name.indexOf('$');
+        return nested < 0 ? name : name.substring(0, nested);
+    }
+}
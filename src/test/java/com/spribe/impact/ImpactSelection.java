@@ -0,0 +1,127 @@
+package com.spribe.impact;
+
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Which tests a set of changed files impacts, and why. A test runs when it exercised a changed class, directly
+ * or through work done on its behalf, when it did not pass in its last run, or when it has never been recorded.
+ * The whole suite runs when a change cannot be traced: a file that is not test source, a class no recorded test
+ * exercised, or a class that also runs outside tests (suite setup, listeners, background threads).
+ */
+final class ImpactSelection {
+    private static final String SOURCE_ROOT = "src/test/java/";
+    private static final String SOURCE_SUFFIX = ".java";
+
+    private final String fullRunReason;
+    private final Set<String> changedClasses;
+    private final Map<String, String> runReasons;
+    private final Map<String, String> skipReasons;
+
+    private ImpactSelection(String fullRunReason, Set<String> changedClasses, Map<String, String> runReasons,
+                            Map<String, String> skipReasons) {
+        this.fullRunReason = fullRunReason;
+        this.changedClasses = changedClasses;
+        this.runReasons = runReasons;
+        this.skipReasons = skipReasons;
+    }
+
+    /**
+     * Runs every test for the given reason
+     */
+    static ImpactSelection fullRun(String reason, Collection<String> testKeys) {
+        Map<String, String> run = new LinkedHashMap<>();
+        testKeys.forEach(key -> run.put(key, "full run"));
+        return new ImpactSelection(reason, new TreeSet<>(), run, new LinkedHashMap<>());
+    }
+
+    static ImpactSelection select(ImpactMap map, List<String> changedFiles, Collection<String> testKeys,
+                                  Set<String> testClasses, List<String> ignoredPatterns) {
+        List<PathMatcher> ignored = new ArrayList<>();
+        for (String pattern : ignoredPatterns) {
+            ignored.add(FileSystems.getDefault().getPathMatcher("glob:" + pattern));
+        }
+        Set<String> changed = new TreeSet<>();
+        for (String file : changedFiles) {
+            if (ignored.stream().anyMatch(matcher -> matcher.matches(Paths.get(file)))) {
+                continue;
+            }
+            if (!file.startsWith(SOURCE_ROOT) || !file.endsWith(SOURCE_SUFFIX)) {
+                return fullRun(file + " changed and is not test source", testKeys);
+            }
+            String className = file.substring(SOURCE_ROOT.length(), file.length() - SOURCE_SUFFIX.length())
+                    .replace('/', '.');
+            // Test classes are also instantiated outside tests, but only their own tests depend on them
+            if (!testClasses.contains(className)) {
+                if (map.getGlobal().contains(className)) {
+                    return fullRun(className + " changed and also runs outside tests", testKeys);
+                }
+                if (!map.isExercised(className)) {
+                    return fullRun(className + " changed and no recorded test exercised it", testKeys);
+                }
+            }
+            changed.add(className);
+        }
+        Map<String, String> run = new LinkedHashMap<>();
+        Map<String, String> skip = new LinkedHashMap<>();
+        for (String key : testKeys) {
+            if (!map.isRecorded(key)) {
+                run.put(key, "not recorded yet");
+                continue;
+            }
+            if (map.isFailing(key)) {
+                run.put(key, "did not pass in its last run");
+                continue;
+            }
+            Set<String> hits = new TreeSet<>(map.classesOf(key));
+            hits.retainAll(changed);
+            if (hits.isEmpty()) {
+                skip.put(key, "exercises none of the changed classes");
+            } else {
+                run.put(key, "exercises " + String.join(", ", hits));
+            }
+        }
+        return new ImpactSelection(null, changed, run, skip);
+    }
+
+    boolean isFullRun() {
+        return fullRunReason != null;
+    }
+
+    /**
+     * Why every test runs, null when tests were selected
+     */
+    String getFullRunReason() {
+        return fullRunReason;
+    }
+
+    Set<String> getChangedClasses() {
+        return changedClasses;
+    }
+
+    boolean isSelected(String testKey) {
+        return !skipReasons.containsKey(testKey);
+    }
+
+    /**
+     * Tests that run, with the reason
+     */
+    Map<String, String> getRunReasons() {
+        return runReasons;
+    }
+
+    /**
+     * Tests that are left out, with the reason
+     */
+    Map<String, String> getSkipReasons() {
+        return skipReasons;
+    }
+}
@@ -0,0 +1,239 @@
+package com.spribe.impact;
+
+import com.spribe.config.ConfigManager;
+import com.spribe.history.TestHistory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IConfigurationListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Test impact analysis. With impact.mode=record every test runs and the framework classes it exercises are
+ * recorded into the impact map; with impact.mode=select only the tests impacted by the files changed since the
+ * last full run are kept (see {@link ImpactSelection}), and those are recorded again. Every
+ * impact.full.run.every-th run, a map older than impact.full.run.max.age.hours, or an untraceable change runs
+ * the whole suite. Decisions are logged and written with their reasons to impact.report.file. Registered before
+ * the test scheduler, so the scheduler orders only the selected tests.
+ */
+public class TestImpactListener implements IMethodInterceptor, IConfigurationListener, IInvokedMethodListener,
+        ITestListener, ISuiteListener {
+    private static final Logger logger = LogManager.getLogger(TestImpactListener.class);
+    private static final String MODE_OFF = "off";
+    private static final String MODE_RECORD = "record";
+    private static final String MODE_SELECT = "select";
+
+    private final ConfigManager config;
+    private final String mode;
+    private final Path mapFile;
+    private volatile String headCommit;
+    private volatile boolean fullRun = true;
+    private final Map<String, Boolean> passed = new ConcurrentHashMap<>();
+
+    public TestImpactListener() {
+        config = ConfigManager.getInstance();
+        mode = config.getImpactMode().toLowerCase(Locale.ROOT);
+        mapFile = Paths.get(config.getImpactMapFile());
+    }
+
+    @Override
+    public void onStart(ISuite suite) {
+        if (!MODE_OFF.equals(mode)) {
+            ImpactRecorder.start();
+        }
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!MODE_SELECT.equals(mode)) {
+            if (MODE_RECORD.equals(mode)) {
+                headCommit = headOrNull();
+            }
+            return methods;
+        }
+        Set<String> keys = new LinkedHashSet<>();
+        Set<String> testClasses = new TreeSet<>();
+        for (IMethodInstance method : methods) {
+            keys.add(TestHistory.keyOf(method.getMethod()));
+            testClasses.add(method.getMethod().getRealClass().getName());
+        }
+        ImpactSelection selection = select(keys, testClasses);
+        fullRun = selection.getSkipReasons().isEmpty();
+        report(context.getName(), selection);
+        if (fullRun) {
+            return methods;
+        }
+        return methods.stream()
+                .filter(method -> selection.isSelected(TestHistory.keyOf(method.getMethod())))
+                .collect(Collectors.toList());
+    }
+
+    private ImpactSelection select(Set<String> keys, Set<String> testClasses) {
+        ImpactMap map = ImpactMap.load(mapFile);
+        headCommit = headOrNull();
+        String base = config.getImpactBaseRef().isEmpty() ? map.getBaseCommit() : config.getImpactBaseRef();
+        if (map.isEmpty() || base.isEmpty()) {
+            return ImpactSelection.fullRun("no impact map recorded by a full run yet (" + mapFile + ")", keys);
+        }
+        if (map.getRunsSinceFullRun() + 1 >= config.getImpactFullRunEvery()) {
+            return ImpactSelection.fullRun("every " + config.getImpactFullRunEvery()
+                    + " run(s) the whole suite runs", keys);
+        }
+        long ageHours = TimeUnit.MILLISECONDS.toHours(System.currentTimeMillis() - map.getFullRunAtMillis());
+        if (ageHours >= config.getImpactFullRunMaxAgeHours()) {
+            return ImpactSelection.fullRun("the last full run was " + ageHours + " hour(s) ago", keys);
+        }
+        List<String> changed;
+        try {
+            changed = GitChanges.changedSince(base);
+        } catch (IOException e) {
+            return ImpactSelection.fullRun("changes since " + base + " are unknown: " + e.getMessage(), keys);
+        }
+        logger.info("Test impact: {} file(s) changed since {}", changed.size(), base);
+        return ImpactSelection.select(map, changed, keys, testClasses,
+                Arrays.asList(config.getImpactIgnore().split("\\s*,\\s*")));
+    }
+
+    /**
+     * Logs the decision and writes every test's decision with its reason
+     */
+    private void report(String testName, ImpactSelection selection) {
+        Map<String, String> skipped = selection.getSkipReasons();
+        if (selection.isFullRun()) {
+            logger.info("Test impact: running all {} test(s) of '{}': {}", selection.getRunReasons().size(),
+                    testName, selection.getFullRunReason());
+        } else {
+            logger.info("Test impact: running {} of {} test(s) of '{}' for changed {}; skipped: {}",
+                    selection.getRunReasons().size(), selection.getRunReasons().size() + skipped.size(), testName,
+                    selection.getChangedClasses().isEmpty() ? "(nothing)" : selection.getChangedClasses(),
+                    skipped.isEmpty() ? "none" : String.join(", ", skipped.keySet()));
+        }
+        List<String> lines = new ArrayList<>();
+        lines.add("# Test impact selection of '" + testName + "' at " + Instant.now() + ", head " + headCommit);
+        lines.add(selection.isFullRun() ? "# Full run: " + selection.getFullRunReason()
+                : "# Changed classes: " + selection.getChangedClasses());
+        selection.getRunReasons().forEach((key, reason) -> lines.add("RUN  " + key + " - " + reason));
+        skipped.forEach((key, reason) -> lines.add("SKIP " + key + " - " + reason));
+        Path file = Paths.get(config.getImpactReportFile());
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("Could not write test impact report {}: {}", file, e.getMessage());
+        }
+    }
+
+    @Override
+    public void beforeConfiguration(ITestResult result, ITestNGMethod testMethod) {
+        if (MODE_OFF.equals(mode)) {
+            return;
+        }
+        ITestNGMethod method = result.getMethod();
+        if (testMethod != null && (method.isBeforeMethodConfiguration() || method.isAfterMethodConfiguration())) {
+            ImpactRecorder.enter(TestHistory.keyOf(testMethod));
+        } else if (method.isBeforeClassConfiguration() || method.isAfterClassConfiguration()) {
+            // Class-level setup counts for every test of the class, which exercises the class itself; inherited
+            // setup methods are keyed by the test class, not the base class declaring them
+            ImpactRecorder.enter(result.getTestClass().getRealClass().getName());
+        } else {
+            ImpactRecorder.exit();
+        }
+    }
+
+    @Override
+    public void onConfigurationSuccess(ITestResult result, ITestNGMethod testMethod) {
+        ImpactRecorder.exit();
+    }
+
+    @Override
+    public void onConfigurationFailure(ITestResult result, ITestNGMethod testMethod) {
+        ImpactRecorder.exit();
+    }
+
+    @Override
+    public void onConfigurationSkip(ITestResult result, ITestNGMethod testMethod) {
+        ImpactRecorder.exit();
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!MODE_OFF.equals(mode) && method.isTestMethod()) {
+            ImpactRecorder.enter(TestHistory.keyOf(testResult.getMethod()));
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            ImpactRecorder.exit();
+            // A retried test that passes in the end passes; one failed attempt is enough to fail otherwise
+            passed.merge(TestHistory.keyOf(testResult.getMethod()), testResult.isSuccess(), (was, now) -> now);
+        }
+    }
+
+    /**
+     * Tests skipped because their setup failed are never invoked, and count as not passed
+     */
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        passed.putIfAbsent(TestHistory.keyOf(result.getMethod()), false);
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (MODE_OFF.equals(mode)) {
+            return;
+        }
+        if (!ImpactRecorder.isWoven()) {
+            logger.warn("Test impact: nothing was recorded, the AspectJ agent is not attached; {} is unchanged",
+                    mapFile);
+            return;
+        }
+        try {
+            ImpactMap map = ImpactMap.record(mapFile, ImpactRecorder.snapshot(), passed, fullRun, headCommit,
+                    config.getHistoryRunId());
+            logger.info("Test impact: recorded {} into {}; {} run(s) since the full run at {}",
+                    fullRun ? "a full run" : "the selected tests", mapFile, map.getRunsSinceFullRun(),
+                    map.getBaseCommit().isEmpty() ? "(none)" : map.getBaseCommit());
+        } catch (IOException e) {
+            logger.warn("Could not record test impact map {}: {}", mapFile, e.getMessage());
+        }
+    }
+
+    private static String headOrNull() {
+        try {
+            return GitChanges.head();
+        } catch (IOException e) {
+            logger.warn("Test impact: current commit is unknown, the map keeps its base: {}", e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.spribe.load;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only progress file of a bulk operation: a header naming the operation, then one
+ * "index playerId checksum" line per completed item. Reopening the file restores the completed items so an
+ * interrupted run skips them. Each line is flushed as soon as its item completes, so a killed run loses none of
+ * them. A partial last line left by a crash is cut off on open. Lines whose checksum does not match are
+ * rejected instead of being read as a wrong id.
+ * Requests still in flight when a run dies are not recorded. A create among them may have succeeded, and that
+ * player is not known to the checkpoint; there are at most the configured max in flight of these.
+ */
+public class BulkCheckpoint implements Closeable {
+    private static final Logger logger = LogManager.getLogger(BulkCheckpoint.class);
+    private static final String HEADER_PREFIX = "# bulk ";
+
+    private final Path file;
+    private final BitSet completed = new BitSet();
+    private int[] playerIds = new int[64];
+    private int count;
+    private BufferedWriter writer;
+
+    private BulkCheckpoint(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens the checkpoint for the operation, restoring progress recorded by an earlier run
+     *
+     * @throws IllegalStateException if the file records a different operation
+     */
+    public static BulkCheckpoint open(Path file, String operation) {
+        BulkCheckpoint checkpoint = new BulkCheckpoint(file);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            boolean resumed = Files.exists(file) && repair(file);
+            if (resumed) {
+                checkpoint.load(operation);
+            }
+            checkpoint.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (resumed) {
+                logger.info("Resuming {} from checkpoint {} with {} completed item(s)", operation, file, checkpoint.count);
+            } else {
+                checkpoint.writer.write(HEADER_PREFIX + operation);
+                checkpoint.writer.newLine();
+                checkpoint.writer.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open bulk checkpoint " + file, e);
+        }
+        return checkpoint;
+    }
+
+    private void load(String operation) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (!(HEADER_PREFIX + operation).equals(header)) {
+                throw new IllegalStateException("Checkpoint " + file + " belongs to another operation: " + header
+                        + " (expected " + HEADER_PREFIX + operation + ")");
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(" ");
+                try {
+                    if (fields.length != 3 || !checksum(fields[0] + " " + fields[1]).equals(fields[2])) {
+                        throw new IllegalArgumentException("bad field count or checksum");
+                    }
+                    add(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]));
+                } catch (RuntimeException e) {
+                    logger.warn("Rejecting corrupt line in checkpoint {}: {}", file, line);
+                }
+            }
+        }
+    }
+
+    /**
+     * Cuts the file back to its last complete line
+     *
+     * @return whether a complete line, i.e. at least the header, is left
+     */
+    static boolean repair(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long end = size;
+            ByteBuffer last = ByteBuffer.allocate(1);
+            while (end > 0) {
+                last.clear();
+                channel.read(last, end - 1);
+                if (last.get(0) == '\n') {
+                    break;
+                }
+                end--;
+            }
+            if (end < size) {
+                logger.warn("Cutting a partial last line of {} bytes off checkpoint {}", size - end, file);
+                channel.truncate(end);
+            }
+            return end > 0;
+        }
+    }
+
+    private static String checksum(String record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public synchronized boolean isCompleted(int index) {
+        return completed.get(index);
+    }
+
+    public synchronized int getCompletedCount() {
+        return count;
+    }
+
+    /**
+     * Ids of the players recorded so far, in completion order
+     */
+    public synchronized int[] getPlayerIds() {
+        return Arrays.copyOf(playerIds, count);
+    }
+
+    public synchronized void record(int index, int playerId) {
+        if (completed.get(index)) {
+            return;
+        }
+        add(index, playerId);
+        String record = index + " " + playerId;
+        try {
+            writer.write(record + " " + checksum(record));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write bulk checkpoint " + file, e);
+        }
+    }
+
+    private void add(int index, int playerId) {
+        if (completed.get(index)) {
+            return;
+        }
+        completed.set(index);
+        if (count == playerIds.length) {
+            playerIds = Arrays.copyOf(playerIds, count * 2);
+        }
+        playerIds[count++] = playerId;
+    }
+
+    public synchronized void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
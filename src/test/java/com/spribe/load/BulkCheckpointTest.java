@@ -0,0 +1,138 @@
+package com.spribe.load;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Resuming a {@link BulkCheckpoint} from files left by complete, crashed and corrupted runs
+ */
+@Epic("Player Management")
+@Feature("Bulk Operations")
+public class BulkCheckpointTest {
+    private static final String OPERATION = "create";
+
+    @Test(description = "Reopening a checkpoint restores the completed items")
+    @Description("Recorded items are completed after reopen, with their player ids in completion order")
+    public void testResumeRestoresCompletedItems() throws IOException {
+        Path file = Files.createTempFile("bulk", ".checkpoint");
+        Files.delete(file);
+        try {
+            try (BulkCheckpoint checkpoint = BulkCheckpoint.open(file, OPERATION)) {
+                checkpoint.record(3, 103);
+                checkpoint.record(0, 100);
+                checkpoint.record(3, 999);
+            }
+
+            try (BulkCheckpoint resumed = BulkCheckpoint.open(file, OPERATION)) {
+                assertEquals(resumed.getCompletedCount(), 2, "A repeated index is recorded once");
+                assertTrue(resumed.isCompleted(0) && resumed.isCompleted(3), "Recorded items");
+                assertFalse(resumed.isCompleted(1), "Unrecorded item");
+                assertEquals(resumed.getPlayerIds(), new int[]{103, 100}, "Player ids in completion order");
+                resumed.record(1, 101);
+            }
+
+            try (BulkCheckpoint again = BulkCheckpoint.open(file, OPERATION)) {
+                assertEquals(again.getPlayerIds(), new int[]{103, 100, 101}, "Items recorded after resuming");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(description = "A partial last line is cut off on open")
+    @Description("A line cut short by a crash is removed and the next record starts on a fresh line")
+    public void testPartialLastLineCut() throws IOException {
+        Path file = Files.createTempFile("bulk", ".checkpoint");
+        Files.delete(file);
+        try {
+            try (BulkCheckpoint checkpoint = BulkCheckpoint.open(file, OPERATION)) {
+                checkpoint.record(0, 100);
+            }
+            Files.write(file, "1 10".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+            try (BulkCheckpoint resumed = BulkCheckpoint.open(file, OPERATION)) {
+                assertEquals(resumed.getCompletedCount(), 1, "Only the complete line");
+                assertFalse(resumed.isCompleted(1), "The partial line is not an item");
+                resumed.record(1, 101);
+            }
+
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            assertEquals(lines.size(), 3, "Header and two items: " + lines);
+            assertTrue(lines.get(2).startsWith("1 101 "), "The new record replaces the partial line: " + lines);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(description = "repair() keeps complete lines and reports whether any are left")
+    @Description("A file without a single newline is cut to nothing and counts as not started")
+    public void testRepair() throws IOException {
+        Path file = Files.createTempFile("bulk", ".checkpoint");
+        try {
+            Files.write(file, "# bulk create\n0 100 abc\n1 1".getBytes(StandardCharsets.UTF_8));
+            assertTrue(BulkCheckpoint.repair(file), "The header is complete");
+            assertEquals(Files.readString(file), "# bulk create\n0 100 abc\n");
+            assertTrue(BulkCheckpoint.repair(file), "An intact file");
+            assertEquals(Files.size(file), 24L, "An intact file is left as is");
+
+            Files.write(file, "# bulk cr".getBytes(StandardCharsets.UTF_8));
+            assertFalse(BulkCheckpoint.repair(file), "No complete line");
+            assertEquals(Files.size(file), 0L, "The partial header is cut");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(description = "Lines with a wrong checksum are rejected")
+    @Description("A corrupted id is skipped instead of being restored as a wrong player")
+    public void testBadChecksumRejected() throws IOException {
+        Path file = Files.createTempFile("bulk", ".checkpoint");
+        Files.delete(file);
+        try {
+            try (BulkCheckpoint checkpoint = BulkCheckpoint.open(file, OPERATION)) {
+                checkpoint.record(0, 100);
+                checkpoint.record(1, 101);
+            }
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            lines.set(2, lines.get(2).replace("1 101 ", "1 707 "));
+            lines.add("2 102");
+            Files.write(file, lines, StandardCharsets.UTF_8);
+
+            try (BulkCheckpoint resumed = BulkCheckpoint.open(file, OPERATION)) {
+                assertEquals(resumed.getPlayerIds(), new int[]{100}, "Only the intact line");
+                assertFalse(resumed.isCompleted(1), "The corrupted item is done again");
+                assertFalse(resumed.isCompleted(2), "A line without checksum is rejected");
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test(description = "A checkpoint of another operation is not resumed")
+    @Description("Opening a create checkpoint for a delete fails instead of skipping the wrong items")
+    public void testOtherOperationRejected() throws IOException {
+        Path file = Files.createTempFile("bulk", ".checkpoint");
+        Files.delete(file);
+        try {
+            BulkCheckpoint.open(file, OPERATION).close();
+
+            expectThrows(IllegalStateException.class, () -> BulkCheckpoint.open(file, "delete"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
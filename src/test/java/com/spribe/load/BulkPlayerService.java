@@ -0,0 +1,220 @@
+package com.spribe.load;
+
+import com.spribe.api.AsyncPlayerService;
+import com.spribe.api.PlayerResult;
+import com.spribe.models.Player;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Bulk create and delete of players for seeding and tearing down large datasets.
+ * Requests are pipelined on {@link AsyncPlayerService} with at most maxInFlight outstanding; the input stream
+ * is consumed only as permits free up, so it can be generated lazily. Each result is handed to the listener as
+ * soon as its request completes, on the HTTP client's thread, and completed items are recorded in an optional
+ * {@link BulkCheckpoint} so that a rerun with the same checkpoint file skips them.
+ */
+public class BulkPlayerService {
+    public static final String CREATE = "bulk-create";
+    public static final String DELETE = "bulk-delete";
+
+    private static final Logger logger = LogManager.getLogger(BulkPlayerService.class);
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final AsyncPlayerService playerService;
+    private final int maxInFlight;
+
+    public BulkPlayerService(AsyncPlayerService playerService, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.playerService = playerService;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public BulkReport createPlayers(Stream<Player> players, String editor) throws InterruptedException {
+        return createPlayers(players, editor, null, result -> { });
+    }
+
+    /**
+     * Creates the players; a 200 or 201 with a player id counts as success and is checkpointed with that id
+     *
+     * @param checkpoint progress file to skip and record completed items, or null
+     */
+    public BulkReport createPlayers(Stream<Player> players, String editor, BulkCheckpoint checkpoint,
+                                    Consumer<BulkResult> listener) throws InterruptedException {
+        Iterator<Player> iterator = players.iterator();
+        return run(CREATE, checkpoint, listener, new Source() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public CompletableFuture<BulkResult> send(int index, boolean skip) {
+                Player player = iterator.next();
+                if (skip) {
+                    return null;
+                }
+                return playerService.createPlayer(player, editor)
+                        .handle((result, error) -> createResult(index, result, error));
+            }
+        });
+    }
+
+    public BulkReport deletePlayers(IntStream playerIds, String editor) throws InterruptedException {
+        return deletePlayers(playerIds, editor, null, result -> { });
+    }
+
+    /**
+     * Deletes the players; a 2xx, or a 404 for a player that is already gone, counts as success
+     *
+     * @param checkpoint progress file to skip and record completed items, or null
+     */
+    public BulkReport deletePlayers(IntStream playerIds, String editor, BulkCheckpoint checkpoint,
+                                    Consumer<BulkResult> listener) throws InterruptedException {
+        PrimitiveIterator.OfInt iterator = playerIds.iterator();
+        return run(DELETE, checkpoint, listener, new Source() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public CompletableFuture<BulkResult> send(int index, boolean skip) {
+                int playerId = iterator.nextInt();
+                if (skip) {
+                    return null;
+                }
+                return playerService.deletePlayer(playerId, editor)
+                        .handle((result, error) -> deleteResult(index, playerId, result, error));
+            }
+        });
+    }
+
+    private BulkReport run(String operation, BulkCheckpoint checkpoint, Consumer<BulkResult> listener,
+                           Source source) throws InterruptedException {
+        EndpointStats stats = new EndpointStats(operation);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicLong completed = new AtomicLong();
+        AtomicLong nextProgress = new AtomicLong(System.nanoTime() + PROGRESS_INTERVAL_NANOS);
+        long skipped = 0;
+        long start = System.nanoTime();
+        logger.info("Starting {} with up to {} request(s) in flight", operation, maxInFlight);
+        try {
+            for (int index = 0; source.hasNext(); index++) {
+                boolean skip = checkpoint != null && checkpoint.isCompleted(index);
+                if (skip) {
+                    source.send(index, true);
+                    skipped++;
+                    continue;
+                }
+                inFlight.acquire();
+                int item = index;
+                long sent = System.nanoTime();
+                CompletableFuture<BulkResult> future;
+                try {
+                    future = source.send(index, false);
+                } catch (RuntimeException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                future.whenComplete((result, error) -> {
+                    try {
+                        BulkResult outcome = result != null ? result
+                                : new BulkResult(item, 0, BulkResult.NO_RESPONSE, 0, false, error);
+                        complete(outcome, System.nanoTime() - sent, stats, checkpoint, listener);
+                        reportProgress(operation, completed.incrementAndGet(), start, nextProgress);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            // Also on interrupt, so every request sent is recorded before the checkpoint is closed
+            inFlight.acquireUninterruptibly(maxInFlight);
+            inFlight.release(maxInFlight);
+        }
+        double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+        BulkReport report = new BulkReport(stats.snapshot(seconds), skipped);
+        logger.info("Finished {}: {}", operation, report);
+        return report;
+    }
+
+    private static void complete(BulkResult result, long latencyNanos, EndpointStats stats,
+                                 BulkCheckpoint checkpoint, Consumer<BulkResult> listener) {
+        if (result.isSuccessful()) {
+            stats.recordSuccess(latencyNanos);
+            if (checkpoint != null) {
+                try {
+                    checkpoint.record(result.getIndex(), result.getPlayerId());
+                } catch (UncheckedIOException e) {
+                    logger.error("Could not checkpoint {}", result, e);
+                }
+            }
+        } else {
+            stats.recordError(latencyNanos);
+            logger.debug("Bulk item failed: {}", result);
+        }
+        try {
+            listener.accept(result);
+        } catch (RuntimeException e) {
+            logger.warn("Bulk result listener failed for {}", result, e);
+        }
+    }
+
+    private static void reportProgress(String operation, long completed, long start, AtomicLong nextProgress) {
+        long now = System.nanoTime();
+        long due = nextProgress.get();
+        if (now >= due && nextProgress.compareAndSet(due, now + PROGRESS_INTERVAL_NANOS)) {
+            double seconds = (now - start) / (double) TimeUnit.SECONDS.toNanos(1);
+            logger.info("{}: {} item(s) completed, {}/s", operation, completed,
+                    String.format(Locale.ROOT, "%.1f", completed / seconds));
+        }
+    }
+
+    private static BulkResult createResult(int index, PlayerResult result, Throwable error) {
+        if (error != null) {
+            return new BulkResult(index, 0, BulkResult.NO_RESPONSE, 0, false, error);
+        }
+        int status = result.getStatusCode();
+        Integer playerId = null;
+        if (status == 200 || status == 201) {
+            try {
+                playerId = result.getPlayer().getId();
+            } catch (UncheckedIOException e) {
+                return new BulkResult(index, 0, status, result.getTimeMillis(), false, e);
+            }
+        }
+        return new BulkResult(index, playerId == null ? 0 : playerId, status, result.getTimeMillis(),
+                playerId != null, null);
+    }
+
+    private static BulkResult deleteResult(int index, int playerId, PlayerResult result, Throwable error) {
+        if (error != null) {
+            return new BulkResult(index, playerId, BulkResult.NO_RESPONSE, 0, false, error);
+        }
+        int status = result.getStatusCode();
+        return new BulkResult(index, playerId, status, result.getTimeMillis(), status < 300 || status == 404, null);
+    }
+
+    /**
+     * Input of a bulk run; send consumes the next item and, unless it is skipped, starts its request
+     */
+    private interface Source {
+        boolean hasNext();
+
+        CompletableFuture<BulkResult> send(int index, boolean skip);
+    }
+}
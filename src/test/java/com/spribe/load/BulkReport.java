@@ -0,0 +1,49 @@
+package com.spribe.load;
+
+import java.util.Locale;
+
+/**
+ * Results of one bulk operation: requests sent in this run with their latency and achieved throughput,
+ * and items skipped because a checkpoint already recorded them
+ */
+public class BulkReport {
+    private final EndpointResult result;
+    private final long skipped;
+
+    BulkReport(EndpointResult result, long skipped) {
+        this.result = result;
+        this.skipped = skipped;
+    }
+
+    public String getOperation() {
+        return result.getEndpoint();
+    }
+
+    public EndpointResult getResult() {
+        return result;
+    }
+
+    public long getSucceeded() {
+        return result.getRequests() - result.getErrors();
+    }
+
+    public long getFailed() {
+        return result.getErrors();
+    }
+
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Successful items per second over the whole run
+     */
+    public double getThroughput() {
+        return result.getThroughput();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s, %d skipped from checkpoint", result, skipped);
+    }
+}
@@ -0,0 +1,64 @@
+package com.spribe.load;
+
+/**
+ * Outcome of one item of a bulk operation, delivered as soon as its request completes
+ */
+public class BulkResult {
+    /** Status of an item whose request failed without a response */
+    public static final int NO_RESPONSE = -1;
+
+    private final int index;
+    private final int playerId;
+    private final int statusCode;
+    private final long timeMillis;
+    private final boolean successful;
+    private final Throwable error;
+
+    BulkResult(int index, int playerId, int statusCode, long timeMillis, boolean successful, Throwable error) {
+        this.index = index;
+        this.playerId = playerId;
+        this.statusCode = statusCode;
+        this.timeMillis = timeMillis;
+        this.successful = successful;
+        this.error = error;
+    }
+
+    /**
+     * Position of the item in the input stream
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Id of the created or deleted player; 0 when a create did not return one
+     */
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public boolean isSuccessful() {
+        return successful;
+    }
+
+    /**
+     * Cause of a request that failed without a response, or null
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkResult{index=" + index + ", playerId=" + playerId + ", status=" + statusCode
+                + ", timeMillis=" + timeMillis + (error == null ? "" : ", error=" + error) + '}';
+    }
+}
@@ -0,0 +1,78 @@
+package com.spribe.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency percentiles, throughput and error rate of one endpoint over a measurement window
+ */
+public class EndpointResult {
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final String endpoint;
+    private final Histogram histogram;
+    private final long successes;
+    private final long errors;
+    private final double measuredSeconds;
+
+    EndpointResult(String endpoint, Histogram histogram, long successes, long errors, double measuredSeconds) {
+        this.endpoint = endpoint;
+        this.histogram = histogram;
+        this.successes = successes;
+        this.errors = errors;
+        this.measuredSeconds = measuredSeconds;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public Histogram getHistogram() {
+        return histogram;
+    }
+
+    public long getRequests() {
+        return successes + errors;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getErrorRate() {
+        long requests = getRequests();
+        return requests == 0 ? 0.0 : (double) errors / requests;
+    }
+
+    public double getThroughput() {
+        return measuredSeconds <= 0 ? 0.0 : successes / measuredSeconds;
+    }
+
+    public double percentileMillis(double percentile) {
+        return histogram.getTotalCount() == 0 ? 0.0 : histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    public double maxMillis() {
+        return histogram.getTotalCount() == 0 ? 0.0 : histogram.getMaxValue() / NANOS_PER_MILLI;
+    }
+
+    public static String csvHeader() {
+        return "endpoint,requests,errors,error_rate,throughput_per_sec,p50_ms,p90_ms,p99_ms,p999_ms,max_ms";
+    }
+
+    public String toCsv() {
+        return String.format(Locale.ROOT, "%s,%d,%d,%.4f,%.2f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                endpoint, getRequests(), errors, getErrorRate(), getThroughput(),
+                percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(99.9), maxMillis());
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "%-10s requests=%-7d errors=%-5d (%.2f%%) throughput=%.1f/s p50=%.1fms p90=%.1fms p99=%.1fms p99.9=%.1fms max=%.1fms",
+                endpoint, getRequests(), errors, getErrorRate() * 100, getThroughput(),
+                percentileMillis(50), percentileMillis(90), percentileMillis(99), percentileMillis(99.9), maxMillis());
+    }
+}
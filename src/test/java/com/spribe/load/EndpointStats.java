@@ -0,0 +1,59 @@
+package com.spribe.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent latency and outcome recorder for one endpoint
+ */
+public class EndpointStats {
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final String name;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void recordSuccess(long latencyNanos) {
+        recorder.recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+        successes.increment();
+    }
+
+    public void recordError(long latencyNanos) {
+        recorder.recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+        errors.increment();
+    }
+
+    /** Errors that never reached the target, such as arrivals dropped at the in-flight limit */
+    public void recordError() {
+        errors.increment();
+    }
+
+    /**
+     * Discards everything recorded so far, used at the end of warmup
+     */
+    public void reset() {
+        recorder.getIntervalHistogram();
+        successes.sumThenReset();
+        errors.sumThenReset();
+    }
+
+    /**
+     * Takes the measurement window's results and starts a new window
+     */
+    public EndpointResult snapshot(double measuredSeconds) {
+        Histogram histogram = recorder.getIntervalHistogram();
+        return new EndpointResult(name, histogram, successes.sumThenReset(), errors.sumThenReset(), measuredSeconds);
+    }
+}
@@ -0,0 +1,39 @@
+package com.spribe.load;
+
+import com.spribe.api.ApiClient;
+import com.spribe.api.PlayerResult;
+import com.spribe.api.PlayerService;
+import com.spribe.config.ConfigManager;
+import com.spribe.models.Player;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The PlayerController calls a load lifecycle makes, selected with load.client.
+ * rest-assured goes through {@link PlayerService} like the tests do, so it measures the framework and the target
+ * together; socket speaks bare HTTP/1.1 over one keep-alive connection per worker thread, so it measures the target.
+ */
+public interface LoadClient extends AutoCloseable {
+    String REST_ASSURED = "rest-assured";
+    String SOCKET = "socket";
+
+    PlayerResult createPlayer(Player player, String editor);
+
+    PlayerResult getPlayer(int playerId);
+
+    PlayerResult updatePlayer(Player player, String editor, int id);
+
+    PlayerResult deletePlayer(int playerId, String editor);
+
+    @Override
+    default void close() {
+    }
+
+    static LoadClient create(LoadSettings settings) {
+        if (SOCKET.equalsIgnoreCase(settings.getClient())) {
+            int timeoutMillis = (int) TimeUnit.SECONDS.toMillis(ConfigManager.getInstance().getTimeoutSeconds());
+            return new SocketLoadClient(ApiClient.getBaseUrl(), timeoutMillis);
+        }
+        return new RestAssuredLoadClient(new PlayerService());
+    }
+}
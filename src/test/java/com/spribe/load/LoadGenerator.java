@@ -0,0 +1,220 @@
+package com.spribe.load;
+
+import com.spribe.api.PlayerResult;
+import com.spribe.config.ConfigManager;
+import com.spribe.models.Player;
+import com.spribe.models.PlayerBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives PlayerController with create/get/update/delete player lifecycles and records per-endpoint latencies.
+ * In the open model the lifecycle latency is measured from its scheduled start, so queueing caused by a slow
+ * target is not hidden (coordinated omission). Results cover exactly the configured measurement window; calls
+ * still in flight at its deadline finish afterwards and are reported as drained, not counted in the window.
+ */
+public class LoadGenerator {
+    public static final String CREATE = "create";
+    public static final String GET = "get";
+    public static final String UPDATE = "update";
+    public static final String DELETE = "delete";
+    public static final String LIFECYCLE = "lifecycle";
+
+    private static final Logger logger = LogManager.getLogger(LoadGenerator.class);
+
+    private final LoadClient client;
+    private final LoadSettings settings;
+    private final EndpointStats create = new EndpointStats(CREATE);
+    private final EndpointStats get = new EndpointStats(GET);
+    private final EndpointStats update = new EndpointStats(UPDATE);
+    private final EndpointStats delete = new EndpointStats(DELETE);
+    private final EndpointStats lifecycle = new EndpointStats(LIFECYCLE);
+
+    public LoadGenerator(LoadClient client, LoadSettings settings) {
+        this.client = client;
+        this.settings = settings;
+    }
+
+    public LoadReport run() throws InterruptedException {
+        logger.info("Starting load run: {}", settings);
+        long start = System.nanoTime();
+        long measureFrom = start + settings.getWarmup().toNanos();
+        long deadline = measureFrom + settings.getDuration().toNanos();
+
+        double measuredSeconds = settings.getDuration().toNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+        List<EndpointResult> results = new ArrayList<>();
+        Thread window = new Thread(() -> {
+            parkUntil(measureFrom);
+            for (EndpointStats stats : allStats()) {
+                stats.reset();
+            }
+            parkUntil(deadline);
+            for (EndpointStats stats : allStats()) {
+                results.add(stats.snapshot(measuredSeconds));
+            }
+        }, "load-window");
+        window.setDaemon(true);
+        window.start();
+
+        if (settings.getModel() == LoadModel.OPEN) {
+            runOpen(start, deadline);
+        } else {
+            runClosed(deadline);
+        }
+        window.join();
+
+        long drainedRequests = 0;
+        for (EndpointStats stats : Arrays.asList(create, get, update, delete)) {
+            drainedRequests += stats.snapshot(measuredSeconds).getRequests();
+        }
+        LoadReport report = new LoadReport(settings, results, measuredSeconds, drainedRequests);
+        logger.info("Load run finished: {}", report);
+        return report;
+    }
+
+    /**
+     * Arrivals follow load.target.rate of the current configuration, so a reload changes the rate of a running
+     * open-model run from the next arrival on
+     */
+    private void runOpen(long start, long deadline) throws InterruptedException {
+        AtomicLong interval = new AtomicLong(intervalNanos(settings.getTargetRate()));
+        Consumer<ConfigManager> rateListener = config -> {
+            long changed = intervalNanos(config.getLoadTargetRate());
+            if (interval.getAndSet(changed) != changed) {
+                logger.info("Load target rate changed to {}/s", config.getLoadTargetRate());
+            }
+        };
+        ConfigManager.addReloadListener(rateListener);
+        Semaphore inFlight = new Semaphore(settings.getMaxInFlight());
+        ExecutorService executor = Executors.newCachedThreadPool(daemonThreads("load-open"));
+        try {
+            for (long next = start; next < deadline; next += interval.get()) {
+                long intendedStart = next;
+                parkUntil(intendedStart);
+                if (!inFlight.tryAcquire()) {
+                    lifecycle.recordError();
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        runLifecycle(intendedStart);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        } finally {
+            ConfigManager.removeReloadListener(rateListener);
+            executor.shutdown();
+            executor.awaitTermination(settings.getDuration().toMillis() + 60_000, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static long intervalNanos(double targetRate) {
+        return (long) (TimeUnit.SECONDS.toNanos(1) / targetRate);
+    }
+
+    private void runClosed(long deadline) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(settings.getConcurrency(), daemonThreads("load-closed"));
+        for (int i = 0; i < settings.getConcurrency(); i++) {
+            executor.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    runLifecycle(System.nanoTime());
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(settings.getDuration().toMillis() + settings.getWarmup().toMillis() + 60_000,
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void runLifecycle(long intendedStart) {
+        boolean ok = false;
+        try {
+            Player player = PlayerBuilder.aPlayer().build();
+            PlayerResult created = timed(create, 200, () -> client.createPlayer(player, settings.getEditor()));
+            if (created == null) {
+                return;
+            }
+            Integer id = created.getPlayer().getId();
+            if (id == null) {
+                return;
+            }
+            boolean readOk = timed(get, 200, () -> client.getPlayer(id)) != null;
+            Player updateData = new Player();
+            updateData.setAge(PlayerBuilder.generateValidAge());
+            boolean updateOk = timed(update, 200, () -> client.updatePlayer(updateData, settings.getEditor(), id)) != null;
+            boolean deleteOk = timed(delete, 204, () -> client.deletePlayer(id, settings.getEditor())) != null;
+            ok = readOk && updateOk && deleteOk;
+        } catch (RuntimeException e) {
+            logger.debug("Lifecycle failed", e);
+        } finally {
+            long latency = System.nanoTime() - intendedStart;
+            if (ok) {
+                lifecycle.recordSuccess(latency);
+            } else {
+                lifecycle.recordError(latency);
+            }
+        }
+    }
+
+    /**
+     * Runs one call and records it; returns null when it failed or answered with an unexpected status
+     */
+    private static PlayerResult timed(EndpointStats stats, int expectedStatus, Call call) {
+        long start = System.nanoTime();
+        try {
+            PlayerResult response = call.execute();
+            long latency = System.nanoTime() - start;
+            if (response.getStatusCode() == expectedStatus) {
+                stats.recordSuccess(latency);
+                return response;
+            }
+            stats.recordError(latency);
+            return null;
+        } catch (RuntimeException e) {
+            stats.recordError(System.nanoTime() - start);
+            return null;
+        }
+    }
+
+    /**
+     * parkNanos may return early, so park until the deadline has really passed
+     */
+    private static void parkUntil(long nanoTime) {
+        for (long wait = nanoTime - System.nanoTime(); wait > 0; wait = nanoTime - System.nanoTime()) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+
+    private List<EndpointStats> allStats() {
+        return Arrays.asList(create, get, update, delete, lifecycle);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        PlayerResult execute();
+    }
+}
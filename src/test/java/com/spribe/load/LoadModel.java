@@ -0,0 +1,19 @@
+package com.spribe.load;
+
+/**
+ * Workload model for the load generator
+ */
+public enum LoadModel {
+    /** Player lifecycles start at a fixed arrival rate regardless of how fast the target answers */
+    OPEN,
+    /** A fixed number of workers each run lifecycles back to back */
+    CLOSED;
+
+    public static LoadModel fromConfig(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Unknown load.model: " + value + " (expected open or closed)", e);
+        }
+    }
+}
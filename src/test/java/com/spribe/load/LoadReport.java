@@ -0,0 +1,77 @@
+package com.spribe.load;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Results of one load run
+ */
+public class LoadReport {
+    private final LoadSettings settings;
+    private final List<EndpointResult> results;
+    private final double measuredSeconds;
+    private final long drainedRequests;
+
+    LoadReport(LoadSettings settings, List<EndpointResult> results, double measuredSeconds, long drainedRequests) {
+        this.settings = settings;
+        this.results = results;
+        this.measuredSeconds = measuredSeconds;
+        this.drainedRequests = drainedRequests;
+    }
+
+    public LoadSettings getSettings() {
+        return settings;
+    }
+
+    public List<EndpointResult> getResults() {
+        return results;
+    }
+
+    public EndpointResult getResult(String endpoint) {
+        for (EndpointResult result : results) {
+            if (result.getEndpoint().equals(endpoint)) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("No results for endpoint: " + endpoint);
+    }
+
+    public double getMeasuredSeconds() {
+        return measuredSeconds;
+    }
+
+    /**
+     * Calls that were in flight at the end of the measurement window and completed after it; they are not
+     * part of any endpoint's results
+     */
+    public long getDrainedRequests() {
+        return drainedRequests;
+    }
+
+    public String toCsv() {
+        StringBuilder sb = new StringBuilder(EndpointResult.csvHeader()).append('\n');
+        for (EndpointResult result : results) {
+            sb.append(result.toCsv()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public void writeCsv(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, toCsv().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(settings).append(String.format(", measured %.1fs, %d requests drained after it",
+                measuredSeconds, drainedRequests));
+        for (EndpointResult result : results) {
+            sb.append(System.lineSeparator()).append("  ").append(result);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,85 @@
+package com.spribe.load;
+
+import com.spribe.config.ConfigManager;
+
+import java.time.Duration;
+
+/**
+ * Load generation parameters read from configuration
+ */
+public class LoadSettings {
+    private final LoadModel model;
+    private final String client;
+    private final double targetRate;
+    private final int concurrency;
+    private final int maxInFlight;
+    private final Duration warmup;
+    private final Duration duration;
+    private final String editor;
+
+    public LoadSettings(LoadModel model, String client, double targetRate, int concurrency, int maxInFlight,
+                        Duration warmup, Duration duration, String editor) {
+        this.model = model;
+        this.client = client;
+        this.targetRate = targetRate;
+        this.concurrency = concurrency;
+        this.maxInFlight = maxInFlight;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.editor = editor;
+    }
+
+    public static LoadSettings fromConfig(ConfigManager config) {
+        return new LoadSettings(
+                LoadModel.fromConfig(config.getLoadModel()),
+                config.getLoadClient(),
+                config.getLoadTargetRate(),
+                config.getLoadConcurrency(),
+                config.getLoadMaxInFlight(),
+                Duration.ofSeconds(config.getLoadWarmupSeconds()),
+                Duration.ofSeconds(config.getLoadDurationSeconds()),
+                config.getSupervisorLogin());
+    }
+
+    public LoadModel getModel() {
+        return model;
+    }
+
+    /** {@link LoadClient#REST_ASSURED} or {@link LoadClient#SOCKET} */
+    public String getClient() {
+        return client;
+    }
+
+    /** Player lifecycles started per second in the open model */
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    /** Number of workers in the closed model */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /** Upper bound of lifecycles running at once in the open model; arrivals beyond it are counted as dropped */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public String getEditor() {
+        return editor;
+    }
+
+    @Override
+    public String toString() {
+        return "LoadSettings{model=" + model + ", client=" + client + ", targetRate=" + targetRate + ", concurrency=" + concurrency
+                + ", maxInFlight=" + maxInFlight + ", warmup=" + warmup + ", duration=" + duration + '}';
+    }
+}
@@ -0,0 +1,49 @@
+package com.spribe.load;
+
+import com.spribe.api.ApiClient;
+import com.spribe.config.ConfigManager;
+import com.spribe.config.ConfigWatcher;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.annotations.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Load run against PlayerController, executed by the 'load' Maven profile through load-testng.xml
+ */
+@Epic("Player Management")
+@Feature("Load")
+public class PlayerLoadTest {
+    private static final Logger logger = LogManager.getLogger(PlayerLoadTest.class);
+
+    @Test(description = "Player lifecycle load run")
+    @Description("Drive create/get/update/delete lifecycles at the configured load and report latency percentiles")
+    public void testPlayerLifecycleLoad() throws Exception {
+        ConfigManager config = ConfigManager.getInstance();
+        ApiClient.setupRestAssured();
+        LoadSettings settings = LoadSettings.fromConfig(config);
+
+        LoadReport report;
+        try (ConfigWatcher ignored = ConfigWatcher.start(config);
+             LoadClient client = LoadClient.create(settings)) {
+            report = new LoadGenerator(client, settings).run();
+        }
+
+        Path csv = Paths.get(config.getLoadReportDir(), "load-" + System.currentTimeMillis() + ".csv");
+        report.writeCsv(csv);
+        logger.info("Load report written to {}", csv);
+        Allure.addAttachment("Load report", "text/csv", report.toCsv(), ".csv");
+
+        EndpointResult lifecycle = report.getResult(LoadGenerator.LIFECYCLE);
+        assertTrue(lifecycle.getErrorRate() <= config.getLoadMaxErrorRate(),
+                "Lifecycle error rate " + lifecycle.getErrorRate() + " exceeds " + config.getLoadMaxErrorRate());
+    }
+}
@@ -0,0 +1,86 @@
+package com.spribe.load;
+
+import com.spribe.api.ApiClient;
+import com.spribe.api.AsyncPlayerService;
+import com.spribe.config.ConfigManager;
+import com.spribe.models.Player;
+import com.spribe.models.PlayerBuilder;
+import io.qameta.allure.Allure;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Seeds or tears down a large player dataset, executed by the 'seed' Maven profile through seed-testng.xml.
+ * seed.mode=create creates seed.count players and records their ids in seed.checkpoint.file; rerunning after an
+ * interruption or with a higher count creates only the missing ones. seed.mode=delete deletes the recorded players.
+ */
+@Epic("Player Management")
+@Feature("Load")
+public class PlayerSeedTest {
+    private static final Logger logger = LogManager.getLogger(PlayerSeedTest.class);
+    private static final String DELETE_MODE = "delete";
+
+    @Test(description = "Bulk player seeding")
+    @Description("Create or delete the seeded player dataset with bounded concurrency, resuming from the checkpoint")
+    public void testSeedPlayers() throws Exception {
+        ConfigManager config = ConfigManager.getInstance();
+        ApiClient.setupRestAssured();
+        BulkPlayerService bulk = new BulkPlayerService(new AsyncPlayerService(), config.getSeedMaxInFlight());
+        Path checkpointFile = Paths.get(config.getSeedCheckpointFile());
+
+        BulkReport report = DELETE_MODE.equalsIgnoreCase(config.getSeedMode())
+                ? delete(bulk, checkpointFile, config.getSupervisorLogin())
+                : create(bulk, checkpointFile, config.getSupervisorLogin(), config.getSeedCount(), config.getSeedRole());
+        if (report == null) {
+            return;
+        }
+        Allure.addAttachment("Seed report", "text/plain", report.toString(), ".txt");
+
+        assertEquals(report.getFailed(), 0L, report.getFailed() + " item(s) failed; rerun to retry them from "
+                + checkpointFile);
+    }
+
+    private static BulkReport create(BulkPlayerService bulk, Path checkpointFile, String editor, int count, String role)
+            throws Exception {
+        try (BulkCheckpoint checkpoint = BulkCheckpoint.open(checkpointFile, BulkPlayerService.CREATE)) {
+            Stream<Player> players = Stream.generate(() -> PlayerBuilder.aPlayer().withRole(role).build()).limit(count);
+            BulkReport report = bulk.createPlayers(players, editor, checkpoint, result -> { });
+            logger.info("{} player(s) seeded, ids recorded in {}", checkpoint.getCompletedCount(), checkpointFile);
+            return report;
+        }
+    }
+
+    private static BulkReport delete(BulkPlayerService bulk, Path checkpointFile, String editor) throws Exception {
+        if (!Files.exists(checkpointFile)) {
+            logger.info("No seed checkpoint at {}, nothing to delete", checkpointFile);
+            return null;
+        }
+        int[] playerIds;
+        try (BulkCheckpoint created = BulkCheckpoint.open(checkpointFile, BulkPlayerService.CREATE)) {
+            playerIds = created.getPlayerIds();
+        }
+        Path deleteFile = Paths.get(checkpointFile + ".delete");
+        BulkReport report;
+        try (BulkCheckpoint deleted = BulkCheckpoint.open(deleteFile, BulkPlayerService.DELETE)) {
+            report = bulk.deletePlayers(IntStream.of(playerIds), editor, deleted, result -> { });
+        }
+        if (report.getFailed() == 0) {
+            // The dataset is gone, so the next seed starts from scratch
+            Files.delete(checkpointFile);
+            Files.delete(deleteFile);
+        }
+        return report;
+    }
+}
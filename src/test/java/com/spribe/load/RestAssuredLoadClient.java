@@ -0,0 +1,43 @@
+package com.spribe.load;
+
+import com.spribe.api.PlayerResult;
+import com.spribe.api.PlayerService;
+import com.spribe.models.Player;
+import io.restassured.response.Response;
+
+import java.util.Collections;
+
+/**
+ * Load calls through {@link PlayerService}, with its retry policy, metrics and filters; response headers are not copied
+ */
+final class RestAssuredLoadClient implements LoadClient {
+    private final PlayerService playerService;
+
+    RestAssuredLoadClient(PlayerService playerService) {
+        this.playerService = playerService;
+    }
+
+    @Override
+    public PlayerResult createPlayer(Player player, String editor) {
+        return result(playerService.createPlayer(player, editor));
+    }
+
+    @Override
+    public PlayerResult getPlayer(int playerId) {
+        return result(playerService.getPlayer(playerId));
+    }
+
+    @Override
+    public PlayerResult updatePlayer(Player player, String editor, int id) {
+        return result(playerService.updatePlayer(player, editor, id));
+    }
+
+    @Override
+    public PlayerResult deletePlayer(int playerId, String editor) {
+        return result(playerService.deletePlayer(playerId, editor));
+    }
+
+    private static PlayerResult result(Response response) {
+        return new PlayerResult(response.getStatusCode(), response.asString(), Collections.emptyMap(), response.getTime());
+    }
+}
@@ -0,0 +1,255 @@
+package com.spribe.load;
+
+import com.spribe.api.PlayerCodec;
+import com.spribe.api.PlayerResult;
+import com.spribe.models.Player;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Minimal HTTP/1.1 client for load runs: one keep-alive connection per worker thread, no retries, no pooling and
+ * no reporting, so the measured rate is what the target sustains. A failed exchange throws and drops its connection,
+ * and the next call on that thread connects again; a reset therefore shows up as an error in the load report.
+ */
+final class SocketLoadClient implements LoadClient {
+    private static final String JSON = "application/json";
+
+    private final String host;
+    private final int port;
+    private final String basePath;
+    private final int timeoutMillis;
+    private final ThreadLocal<Connection> connections = new ThreadLocal<>();
+    private final Queue<Connection> opened = new ConcurrentLinkedQueue<>();
+
+    SocketLoadClient(String baseUrl, int timeoutMillis) {
+        URI uri = URI.create(baseUrl);
+        if (!"http".equalsIgnoreCase(uri.getScheme()) || uri.getHost() == null) {
+            throw new IllegalArgumentException("load.client=socket needs an http:// base URL, got " + baseUrl);
+        }
+        this.host = uri.getHost();
+        this.port = uri.getPort() == -1 ? 80 : uri.getPort();
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        this.basePath = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public PlayerResult createPlayer(Player player, String editor) {
+        // BUG: API uses GET instead of POST and query parameters instead of JSON body
+        StringBuilder target = new StringBuilder("/player/create/").append(encode(editor)).append('?');
+        appendParam(target, "age", player.getAge());
+        appendParam(target, "gender", player.getGender());
+        appendParam(target, "login", player.getLogin());
+        appendParam(target, "password", player.getPassword());
+        appendParam(target, "role", player.getRole());
+        appendParam(target, "screenName", player.getScreenName());
+        return send("GET", target.toString(), null);
+    }
+
+    @Override
+    public PlayerResult getPlayer(int playerId) {
+        // BUG: API uses POST instead of GET and JSON body instead of query parameter
+        return send("POST", "/player/get", ("{\"playerId\": " + playerId + "}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public PlayerResult updatePlayer(Player player, String editor, int id) {
+        return send("PATCH", "/player/update/" + encode(editor) + "/" + id, PlayerCodec.write(player));
+    }
+
+    @Override
+    public PlayerResult deletePlayer(int playerId, String editor) {
+        return send("DELETE", "/player/delete/" + encode(editor) + "?playerId=" + playerId, null);
+    }
+
+    @Override
+    public void close() {
+        Connection connection;
+        while ((connection = opened.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    private PlayerResult send(String method, String target, byte[] body) {
+        long start = System.nanoTime();
+        Connection connection = connections.get();
+        try {
+            if (connection == null) {
+                connection = new Connection();
+                connections.set(connection);
+                opened.add(connection);
+            }
+            return connection.exchange(method, basePath + target, body, start);
+        } catch (IOException e) {
+            if (connection != null) {
+                connection.close();
+                opened.remove(connection);
+                connections.remove();
+            }
+            throw new UncheckedIOException(method + " " + target + " failed", e);
+        }
+    }
+
+    private static void appendParam(StringBuilder target, String name, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (target.charAt(target.length() - 1) != '?') {
+            target.append('&');
+        }
+        target.append(name).append('=').append(encode(value));
+    }
+
+    private static String encode(Object value) {
+        return URLEncoder.encode(String.valueOf(value), StandardCharsets.UTF_8);
+    }
+
+    private final class Connection {
+        private final Socket socket = new Socket();
+        private final InputStream in;
+        private final OutputStream out;
+
+        Connection() throws IOException {
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(timeoutMillis);
+            socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+            in = new BufferedInputStream(socket.getInputStream());
+            out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        PlayerResult exchange(String method, String target, byte[] body, long start) throws IOException {
+            StringBuilder head = new StringBuilder(256)
+                    .append(method).append(' ').append(target).append(" HTTP/1.1\r\n")
+                    .append("Host: ").append(host).append(':').append(port).append("\r\n")
+                    .append("Accept: ").append(JSON).append("\r\n");
+            if (body != null) {
+                head.append("Content-Type: ").append(JSON).append("\r\n")
+                        .append("Content-Length: ").append(body.length).append("\r\n");
+            }
+            out.write(head.append("\r\n").toString().getBytes(StandardCharsets.ISO_8859_1));
+            if (body != null) {
+                out.write(body);
+            }
+            out.flush();
+
+            String statusLine = readLine();
+            if (statusLine == null) {
+                throw new EOFException("Connection closed before the response");
+            }
+            if (!statusLine.startsWith("HTTP/1.") || statusLine.length() < 12) {
+                throw new IOException("Malformed status line: " + statusLine);
+            }
+            int status = Integer.parseInt(statusLine.substring(9, 12));
+            Map<String, List<String>> headers = new HashMap<>();
+            String line;
+            while ((line = readLine()) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    headers.computeIfAbsent(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), name -> new ArrayList<>(1))
+                            .add(line.substring(colon + 1).trim());
+                }
+            }
+            if (line == null) {
+                throw new EOFException("Connection closed inside the response headers");
+            }
+            byte[] responseBody = "chunked".equalsIgnoreCase(header(headers, "transfer-encoding"))
+                    ? readChunked()
+                    : readFixed(header(headers, "content-length"));
+            if ("close".equalsIgnoreCase(header(headers, "connection"))) {
+                close();
+                opened.remove(this);
+                connections.remove();
+            }
+            long timeMillis = (System.nanoTime() - start) / 1_000_000;
+            return new PlayerResult(status, new String(responseBody, StandardCharsets.UTF_8), headers, timeMillis);
+        }
+
+        private byte[] readFixed(String contentLength) throws IOException {
+            int length = contentLength == null ? 0 : Integer.parseInt(contentLength);
+            byte[] bytes = new byte[length];
+            readFully(bytes, length);
+            return bytes;
+        }
+
+        private byte[] readChunked() throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            while (true) {
+                String size = readLine();
+                if (size == null) {
+                    throw new EOFException("Connection closed inside a chunked body");
+                }
+                int semicolon = size.indexOf(';');
+                int length = Integer.parseInt((semicolon < 0 ? size : size.substring(0, semicolon)).trim(), 16);
+                if (length == 0) {
+                    while ((size = readLine()) != null && !size.isEmpty()) {
+                        // Trailers are not used
+                    }
+                    return bytes.toByteArray();
+                }
+                byte[] chunk = new byte[length];
+                readFully(chunk, length);
+                bytes.write(chunk, 0, length);
+                readLine();
+            }
+        }
+
+        private void readFully(byte[] bytes, int length) throws IOException {
+            int read = 0;
+            while (read < length) {
+                int n = in.read(bytes, read, length - read);
+                if (n < 0) {
+                    throw new EOFException("Connection closed after " + read + " of " + length + " body bytes");
+                }
+                read += n;
+            }
+        }
+
+        /**
+         * Reads one CRLF-terminated line as ISO-8859-1; null at end of stream before any byte
+         */
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder(64);
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b == '\n') {
+                    int end = line.length();
+                    return end > 0 && line.charAt(end - 1) == '\r' ? line.substring(0, end - 1) : line.toString();
+                }
+                line.append((char) b);
+            }
+            return line.length() == 0 ? null : line.toString();
+        }
+
+        private String header(Map<String, List<String>> headers, String name) {
+            List<String> values = headers.get(name);
+            return values == null ? null : values.get(0);
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.spribe.metrics;
+
+import com.spribe.config.ConfigManager;
+import io.restassured.response.Response;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Suite-wide instrumentation of PlayerService calls, keyed by endpoint and editor role.
+ * Each attempt is timed end to end; {@link ExchangeTiming} splits that time into network,
+ * filter chain (logging, Allure), request serialization and spec building.
+ */
+public class ApiMetrics {
+    private static final Logger logger = LogManager.getLogger(ApiMetrics.class);
+    private static final String NO_EDITOR = "none";
+    private static final String UNKNOWN_ROLE = "unknown";
+    private static final int MAX_KNOWN_LOGINS = 100_000;
+    private static final ThreadLocal<long[]> callsOnThread = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final boolean enabled;
+    private final String reportDir;
+    private final ConcurrentMap<String, String> rolesByLogin = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, ConcurrentMap<String, OperationStats>> stats = new ConcurrentHashMap<>();
+    private final List<LongConsumer> latencyObservers = new CopyOnWriteArrayList<>();
+    private final long startedNanos = System.nanoTime();
+
+    ApiMetrics(ConfigManager config) {
+        this.enabled = config.isMetricsEnabled();
+        this.reportDir = config.getMetricsReportDir();
+        rolesByLogin.put(config.getSupervisorLogin(), "supervisor");
+        rolesByLogin.put(config.getAdminLogin(), "admin");
+    }
+
+    private static class Holder {
+        private static final ApiMetrics INSTANCE = new ApiMetrics(ConfigManager.getInstance());
+    }
+
+    public static ApiMetrics getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs one call and records it under the endpoint and the role of the editor; null editor for calls without one
+     */
+    public Response time(String endpoint, String editor, Supplier<Response> call) {
+        callsOnThread.get()[0]++;
+        if (!enabled) {
+            return call.get();
+        }
+        ExchangeTiming timing = ExchangeTiming.current();
+        timing.reset();
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = call.get();
+        } catch (Throwable e) {
+            // REST Assured rethrows checked I/O exceptions undeclared, so they are caught here too
+            statsFor(endpoint, roleOf(editor)).recordException(System.nanoTime() - start,
+                    timing.getNetworkNanos(), timing.getSerializationNanos(), timing.getFilterChainNanos());
+            throw e;
+        }
+        long latencyNanos = System.nanoTime() - start;
+        statsFor(endpoint, roleOf(editor)).recordResponse(response.getStatusCode(), latencyNanos,
+                timing.getNetworkNanos(), timing.getSerializationNanos(), timing.getFilterChainNanos(),
+                timing.getRequestBytes(), timing.getResponseBytes());
+        for (LongConsumer observer : latencyObservers) {
+            observer.accept(timing.getNetworkNanos() > 0 ? timing.getNetworkNanos() : latencyNanos);
+        }
+        return response;
+    }
+
+    /**
+     * Number of calls made so far on the current thread, counted even when metrics are disabled; the difference
+     * between two readings is the number of calls a test made in between
+     */
+    public static long getCallsOnCurrentThread() {
+        return callsOnThread.get()[0];
+    }
+
+    /**
+     * Registers a callback for the network time of every call answered by the target; not called when
+     * metrics are disabled
+     */
+    public void addLatencyObserver(LongConsumer observer) {
+        latencyObservers.add(observer);
+    }
+
+    /**
+     * Remembers the role of a created player, so calls it later makes as an editor are attributed to that role
+     */
+    public void rememberRole(String login, String role) {
+        if (enabled && login != null && role != null && rolesByLogin.size() < MAX_KNOWN_LOGINS) {
+            rolesByLogin.putIfAbsent(login, role);
+        }
+    }
+
+    private String roleOf(String editor) {
+        if (editor == null) {
+            return NO_EDITOR;
+        }
+        return rolesByLogin.getOrDefault(editor, UNKNOWN_ROLE);
+    }
+
+    private OperationStats statsFor(String endpoint, String role) {
+        return stats.computeIfAbsent(endpoint, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(role, key -> new OperationStats(endpoint, role));
+    }
+
+    /**
+     * Summary of everything recorded so far; may be called more than once
+     */
+    public ApiMetricsReport report() {
+        List<OperationSummary> summaries = new ArrayList<>();
+        stats.values().forEach(byRole -> byRole.values().forEach(s -> summaries.add(s.snapshot())));
+        summaries.sort(Comparator.comparing(OperationSummary::getEndpoint).thenComparing(OperationSummary::getRole));
+        double elapsedSeconds = (System.nanoTime() - startedNanos) / 1e9;
+        return new ApiMetricsReport(summaries, elapsedSeconds);
+    }
+
+    /**
+     * Logs the summary and writes it as CSV, JSON and Allure environment entries
+     */
+    public void export() {
+        if (!enabled || stats.isEmpty()) {
+            return;
+        }
+        ApiMetricsReport report = report();
+        logger.info("API metrics:{}{}", System.lineSeparator(), report);
+        try {
+            report.writeFiles(Paths.get(reportDir));
+            report.writeAllureEnvironment(Paths.get(
+                    System.getProperty("allure.results.directory", "target/allure-results")));
+        } catch (IOException e) {
+            logger.warn("Could not write API metrics report: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.spribe.metrics;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * API metrics of one suite run, written as api-metrics.csv, api-metrics.json and Allure environment entries
+ */
+public class ApiMetricsReport {
+    private static final JsonFactory factory = new JsonFactory();
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9};
+
+    private final List<OperationSummary> summaries;
+    private final double elapsedSeconds;
+
+    ApiMetricsReport(List<OperationSummary> summaries, double elapsedSeconds) {
+        this.summaries = summaries;
+        this.elapsedSeconds = elapsedSeconds;
+    }
+
+    public List<OperationSummary> getSummaries() {
+        return summaries;
+    }
+
+    public double getElapsedSeconds() {
+        return elapsedSeconds;
+    }
+
+    public double getThroughput(OperationSummary summary) {
+        return elapsedSeconds == 0 ? 0.0 : summary.getCalls() / elapsedSeconds;
+    }
+
+    /**
+     * Latency of each endpoint with all editor roles merged
+     */
+    public Map<String, Histogram> getLatencyByEndpoint() {
+        Map<String, Histogram> latencies = new TreeMap<>();
+        for (OperationSummary summary : summaries) {
+            latencies.computeIfAbsent(summary.getEndpoint(), key -> new Histogram(summary.getLatency()))
+                    .add(summary.getLatency());
+        }
+        return latencies;
+    }
+
+    public String toCsv() {
+        StringBuilder sb = new StringBuilder(OperationSummary.csvHeader()).append(",throughput_rps\n");
+        for (OperationSummary summary : summaries) {
+            sb.append(summary.toCsv())
+                    .append(String.format(Locale.ROOT, ",%.3f", getThroughput(summary)))
+                    .append('\n');
+        }
+        return sb.toString();
+    }
+
+    public void writeFiles(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Files.write(dir.resolve("api-metrics.csv"), toCsv().getBytes(StandardCharsets.UTF_8));
+        try (OutputStream out = Files.newOutputStream(dir.resolve("api-metrics.json"));
+             JsonGenerator generator = factory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.useDefaultPrettyPrinter();
+            writeJson(generator);
+        }
+    }
+
+    private void writeJson(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("elapsedSeconds", elapsedSeconds);
+        generator.writeArrayFieldStart("operations");
+        for (OperationSummary summary : summaries) {
+            generator.writeStartObject();
+            generator.writeStringField("endpoint", summary.getEndpoint());
+            generator.writeStringField("role", summary.getRole());
+            generator.writeNumberField("calls", summary.getCalls());
+            generator.writeNumberField("exceptions", summary.getExceptions());
+            generator.writeNumberField("throughputRps", getThroughput(summary));
+            generator.writeObjectFieldStart("statuses");
+            for (Map.Entry<Integer, Long> entry : summary.getStatusCounts().entrySet()) {
+                generator.writeNumberField(String.valueOf(entry.getKey()), entry.getValue());
+            }
+            generator.writeEndObject();
+            writeHistogram(generator, "latencyMs", summary.getLatency());
+            writeHistogram(generator, "networkMs", summary.getNetwork());
+            writeHistogram(generator, "overheadMs", summary.getOverhead());
+            generator.writeObjectFieldStart("overheadTotalMs");
+            generator.writeNumberField("spec", summary.getSpecMillis());
+            generator.writeNumberField("serialization", summary.getSerializationMillis());
+            generator.writeNumberField("filters", summary.getFilterMillis());
+            generator.writeEndObject();
+            generator.writeNumberField("overheadShare", summary.getOverheadShare());
+            generator.writeNumberField("requestBytes", summary.getRequestBytes());
+            generator.writeNumberField("responseBytes", summary.getResponseBytes());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static void writeHistogram(JsonGenerator generator, String name, Histogram histogram) throws IOException {
+        generator.writeObjectFieldStart(name);
+        generator.writeNumberField("count", histogram.getTotalCount());
+        generator.writeNumberField("mean", OperationSummary.meanMillis(histogram));
+        for (double percentile : PERCENTILES) {
+            generator.writeNumberField("p" + formatPercentile(percentile),
+                    OperationSummary.percentileMillis(histogram, percentile));
+        }
+        generator.writeNumberField("max", OperationSummary.maxMillis(histogram));
+        // Percentiles cannot be combined, the encoded histogram lets reports of several JVMs be merged
+        generator.writeStringField("histogram", PerformanceBaseline.encode(histogram));
+        generator.writeEndObject();
+    }
+
+    /**
+     * Reads a report written by {@link #writeFiles(Path)} from its api-metrics.json
+     */
+    public static ApiMetricsReport read(Path file) throws IOException {
+        double elapsedSeconds = 0;
+        List<OperationSummary> summaries = new ArrayList<>();
+        try (InputStream in = Files.newInputStream(file);
+             JsonParser parser = factory.createParser(in)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT, file);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("elapsedSeconds".equals(field)) {
+                    elapsedSeconds = parser.getDoubleValue();
+                } else if ("operations".equals(field)) {
+                    expect(parser.currentToken(), JsonToken.START_ARRAY, file);
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        summaries.add(readOperation(parser, file));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return new ApiMetricsReport(summaries, elapsedSeconds);
+    }
+
+    private static OperationSummary readOperation(JsonParser parser, Path file) throws IOException {
+        String endpoint = null;
+        String role = null;
+        Histogram latency = null;
+        Histogram network = null;
+        Histogram overhead = null;
+        Map<Integer, Long> statuses = new TreeMap<>();
+        long exceptions = 0;
+        long requestBytes = 0;
+        long responseBytes = 0;
+        Map<String, Double> overheadMillis = new TreeMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case "endpoint":
+                    endpoint = parser.getText();
+                    break;
+                case "role":
+                    role = parser.getText();
+                    break;
+                case "exceptions":
+                    exceptions = parser.getLongValue();
+                    break;
+                case "requestBytes":
+                    requestBytes = parser.getLongValue();
+                    break;
+                case "responseBytes":
+                    responseBytes = parser.getLongValue();
+                    break;
+                case "statuses":
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        int status = Integer.parseInt(parser.getCurrentName());
+                        parser.nextToken();
+                        statuses.put(status, parser.getLongValue());
+                    }
+                    break;
+                case "overheadTotalMs":
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String part = parser.getCurrentName();
+                        parser.nextToken();
+                        overheadMillis.put(part, parser.getDoubleValue());
+                    }
+                    break;
+                case "latencyMs":
+                    latency = readHistogram(parser, file);
+                    break;
+                case "networkMs":
+                    network = readHistogram(parser, file);
+                    break;
+                case "overheadMs":
+                    overhead = readHistogram(parser, file);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+        if (endpoint == null || latency == null || network == null || overhead == null) {
+            throw new IllegalStateException("Operation without endpoint or histograms in " + file);
+        }
+        return new OperationSummary(endpoint, role, latency, network, overhead, statuses, exceptions, requestBytes,
+                responseBytes, nanos(overheadMillis.get("spec")), nanos(overheadMillis.get("serialization")),
+                nanos(overheadMillis.get("filters")));
+    }
+
+    private static Histogram readHistogram(JsonParser parser, Path file) throws IOException {
+        Histogram histogram = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("histogram".equals(field)) {
+                histogram = PerformanceBaseline.decode(parser.getText(), file);
+            }
+        }
+        if (histogram == null) {
+            throw new IllegalStateException("Metrics report " + file + " has no encoded histograms");
+        }
+        return histogram;
+    }
+
+    private static long nanos(Double millis) {
+        return millis == null ? 0 : Math.round(millis * 1e6);
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected, Path file) {
+        if (actual != expected) {
+            throw new IllegalStateException("Malformed metrics report " + file + ": expected " + expected
+                    + " but found " + actual);
+        }
+    }
+
+    /**
+     * One report for runs that went on side by side, such as the shards of a suite: operations with the same
+     * endpoint and role are combined, and the elapsed time is that of the longest run
+     */
+    public static ApiMetricsReport merge(List<ApiMetricsReport> reports) {
+        Map<String, OperationSummary> merged = new TreeMap<>();
+        double elapsedSeconds = 0;
+        for (ApiMetricsReport report : reports) {
+            elapsedSeconds = Math.max(elapsedSeconds, report.elapsedSeconds);
+            for (OperationSummary summary : report.summaries) {
+                merged.merge(summary.getEndpoint() + '\u0000' + summary.getRole(), summary, OperationSummary::merge);
+            }
+        }
+        return new ApiMetricsReport(new ArrayList<>(merged.values()), elapsedSeconds);
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((int) percentile)
+                : String.valueOf(percentile).replace('.', '_');
+    }
+
+    /**
+     * Adds one entry per endpoint and role to environment.properties, keeping entries written by others
+     */
+    public void writeAllureEnvironment(Path resultsDir) throws IOException {
+        Files.createDirectories(resultsDir);
+        Path file = resultsDir.resolve("environment.properties");
+        Properties environment = new Properties();
+        if (Files.exists(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                environment.load(in);
+            }
+        }
+        for (OperationSummary summary : summaries) {
+            environment.setProperty("api." + summary.getEndpoint() + " [" + summary.getRole() + "]",
+                    String.format(Locale.ROOT, "calls=%d p50=%.1fms p99=%.1fms network p50=%.1fms overhead=%.0f%% %.1f rps",
+                            summary.getCalls(),
+                            OperationSummary.percentileMillis(summary.getLatency(), 50),
+                            OperationSummary.percentileMillis(summary.getLatency(), 99),
+                            OperationSummary.percentileMillis(summary.getNetwork(), 50),
+                            summary.getOverheadShare() * 100, getThroughput(summary)));
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            environment.store(out, null);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "suite %.1fs", elapsedSeconds));
+        for (OperationSummary summary : summaries) {
+            sb.append(System.lineSeparator()).append("  ").append(summary)
+                    .append(String.format(Locale.ROOT, " %.1f rps", getThroughput(summary)));
+        }
+        return sb.toString();
+    }
+}
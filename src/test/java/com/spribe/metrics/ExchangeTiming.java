@@ -0,0 +1,64 @@
+package com.spribe.metrics;
+
+/**
+ * Per-thread measurements of the exchange in flight, written by the timing filters and read back by
+ * {@link ApiMetrics} when the call returns. REST Assured runs filters on the calling thread.
+ */
+public final class ExchangeTiming {
+    private static final ThreadLocal<ExchangeTiming> current = ThreadLocal.withInitial(ExchangeTiming::new);
+
+    private long filterChainNanos = -1;
+    private long networkNanos = -1;
+    private long serializationNanos;
+    private long requestBytes;
+    private long responseBytes;
+
+    private ExchangeTiming() {
+    }
+
+    public static ExchangeTiming current() {
+        return current.get();
+    }
+
+    void reset() {
+        filterChainNanos = -1;
+        networkNanos = -1;
+        serializationNanos = 0;
+        requestBytes = 0;
+        responseBytes = 0;
+    }
+
+    public void recordFilterChain(long nanos) {
+        filterChainNanos = nanos;
+    }
+
+    public void recordSerialization(long nanos) {
+        serializationNanos += nanos;
+    }
+
+    public void recordNetwork(long nanos, long requestBytes, long responseBytes) {
+        this.networkNanos = nanos;
+        this.requestBytes = requestBytes;
+        this.responseBytes = responseBytes;
+    }
+
+    long getFilterChainNanos() {
+        return filterChainNanos;
+    }
+
+    long getNetworkNanos() {
+        return networkNanos;
+    }
+
+    long getSerializationNanos() {
+        return serializationNanos;
+    }
+
+    long getRequestBytes() {
+        return requestBytes;
+    }
+
+    long getResponseBytes() {
+        return responseBytes;
+    }
+}
@@ -0,0 +1,81 @@
+package com.spribe.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent recorder for one endpoint and editor role. Latency, network time and framework
+ * overhead go into HdrHistogram recorders; snapshots accumulate, so they can be taken more than once.
+ */
+public class OperationStats {
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final String endpoint;
+    private final String role;
+    private final Recorder latency = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+    private final Recorder network = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+    private final Recorder overhead = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+    private final ConcurrentMap<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder exceptions = new LongAdder();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final LongAdder specNanos = new LongAdder();
+    private final LongAdder serializationNanos = new LongAdder();
+    private final LongAdder filterNanos = new LongAdder();
+    private final Histogram latencyTotal = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+    private final Histogram networkTotal = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+    private final Histogram overheadTotal = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+
+    OperationStats(String endpoint, String role) {
+        this.endpoint = endpoint;
+        this.role = role;
+    }
+
+    void recordResponse(int status, long totalNanos, long networkNanos, long serialization, long filterChainNanos,
+                        long requestSize, long responseSize) {
+        statusCounts.computeIfAbsent(status, key -> new LongAdder()).increment();
+        recordTimes(totalNanos, networkNanos, serialization, filterChainNanos);
+        requestBytes.add(requestSize);
+        responseBytes.add(responseSize);
+    }
+
+    void recordException(long totalNanos, long networkNanos, long serialization, long filterChainNanos) {
+        exceptions.increment();
+        recordTimes(totalNanos, networkNanos, serialization, filterChainNanos);
+    }
+
+    private void recordTimes(long totalNanos, long networkNanos, long serialization, long filterChainNanos) {
+        latency.recordValue(clamp(totalNanos));
+        if (networkNanos < 0) {
+            return;
+        }
+        long chain = filterChainNanos < 0 ? networkNanos : filterChainNanos;
+        network.recordValue(clamp(networkNanos));
+        overhead.recordValue(clamp(totalNanos - networkNanos));
+        serializationNanos.add(serialization);
+        filterNanos.add(Math.max(0, chain - networkNanos));
+        specNanos.add(Math.max(0, totalNanos - chain - serialization));
+    }
+
+    synchronized OperationSummary snapshot() {
+        latencyTotal.add(latency.getIntervalHistogram());
+        networkTotal.add(network.getIntervalHistogram());
+        overheadTotal.add(overhead.getIntervalHistogram());
+        Map<Integer, Long> statuses = new TreeMap<>();
+        statusCounts.forEach((status, count) -> statuses.put(status, count.sum()));
+        return new OperationSummary(endpoint, role, latencyTotal.copy(), networkTotal.copy(), overheadTotal.copy(),
+                statuses, exceptions.sum(), requestBytes.sum(), responseBytes.sum(),
+                specNanos.sum(), serializationNanos.sum(), filterNanos.sum());
+    }
+
+    private static long clamp(long nanos) {
+        return Math.max(0, Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+    }
+}
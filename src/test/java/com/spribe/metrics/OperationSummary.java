@@ -0,0 +1,171 @@
+package com.spribe.metrics;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency percentiles, status counts, sizes and overhead breakdown of one endpoint and editor role
+ */
+public class OperationSummary {
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final String endpoint;
+    private final String role;
+    private final Histogram latency;
+    private final Histogram network;
+    private final Histogram overhead;
+    private final Map<Integer, Long> statusCounts;
+    private final long exceptions;
+    private final long requestBytes;
+    private final long responseBytes;
+    private final long specNanos;
+    private final long serializationNanos;
+    private final long filterNanos;
+
+    OperationSummary(String endpoint, String role, Histogram latency, Histogram network, Histogram overhead,
+                     Map<Integer, Long> statusCounts, long exceptions, long requestBytes, long responseBytes,
+                     long specNanos, long serializationNanos, long filterNanos) {
+        this.endpoint = endpoint;
+        this.role = role;
+        this.latency = latency;
+        this.network = network;
+        this.overhead = overhead;
+        this.statusCounts = statusCounts;
+        this.exceptions = exceptions;
+        this.requestBytes = requestBytes;
+        this.responseBytes = responseBytes;
+        this.specNanos = specNanos;
+        this.serializationNanos = serializationNanos;
+        this.filterNanos = filterNanos;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    public Histogram getNetwork() {
+        return network;
+    }
+
+    public Histogram getOverhead() {
+        return overhead;
+    }
+
+    public Map<Integer, Long> getStatusCounts() {
+        return statusCounts;
+    }
+
+    public long getCalls() {
+        return latency.getTotalCount();
+    }
+
+    public long getExceptions() {
+        return exceptions;
+    }
+
+    public long getRequestBytes() {
+        return requestBytes;
+    }
+
+    public long getResponseBytes() {
+        return responseBytes;
+    }
+
+    public double getSpecMillis() {
+        return specNanos / NANOS_PER_MILLI;
+    }
+
+    public double getSerializationMillis() {
+        return serializationNanos / NANOS_PER_MILLI;
+    }
+
+    public double getFilterMillis() {
+        return filterNanos / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Calls of this summary and another one for the same endpoint and role, as if recorded by one run
+     */
+    OperationSummary merge(OperationSummary other) {
+        Histogram mergedLatency = latency.copy();
+        mergedLatency.add(other.latency);
+        Histogram mergedNetwork = network.copy();
+        mergedNetwork.add(other.network);
+        Histogram mergedOverhead = overhead.copy();
+        mergedOverhead.add(other.overhead);
+        Map<Integer, Long> statuses = new TreeMap<>(statusCounts);
+        other.statusCounts.forEach((status, count) -> statuses.merge(status, count, Long::sum));
+        return new OperationSummary(endpoint, role, mergedLatency, mergedNetwork, mergedOverhead, statuses,
+                exceptions + other.exceptions, requestBytes + other.requestBytes, responseBytes + other.responseBytes,
+                specNanos + other.specNanos, serializationNanos + other.serializationNanos,
+                filterNanos + other.filterNanos);
+    }
+
+    public static double percentileMillis(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() == 0 ? 0.0 : histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+
+    public static double meanMillis(Histogram histogram) {
+        return histogram.getTotalCount() == 0 ? 0.0 : histogram.getMean() / NANOS_PER_MILLI;
+    }
+
+    public static double maxMillis(Histogram histogram) {
+        return histogram.getTotalCount() == 0 ? 0.0 : histogram.getMaxValue() / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Share of the measured call time spent in the framework rather than on the network
+     */
+    public double getOverheadShare() {
+        double total = latency.getTotalCount() * meanMillis(latency);
+        double spent = overhead.getTotalCount() * meanMillis(overhead);
+        return total == 0 ? 0.0 : spent / total;
+    }
+
+    public static String csvHeader() {
+        return "endpoint,role,calls,exceptions,statuses,p50_ms,p90_ms,p99_ms,max_ms,network_p50_ms,network_p99_ms,"
+                + "overhead_p50_ms,overhead_p99_ms,overhead_share,spec_ms,serialization_ms,filters_ms,"
+                + "request_bytes,response_bytes";
+    }
+
+    public String toCsv() {
+        return String.format(Locale.ROOT, "%s,%s,%d,%d,%s,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.4f,%.3f,%.3f,%.3f,%d,%d",
+                endpoint, role, getCalls(), exceptions, statusesAsString(" "),
+                percentileMillis(latency, 50), percentileMillis(latency, 90), percentileMillis(latency, 99),
+                maxMillis(latency), percentileMillis(network, 50), percentileMillis(network, 99),
+                percentileMillis(overhead, 50), percentileMillis(overhead, 99), getOverheadShare(),
+                getSpecMillis(), getSerializationMillis(), getFilterMillis(), requestBytes, responseBytes);
+    }
+
+    String statusesAsString(String separator) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<Integer, Long> entry : statusCounts.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(separator);
+            }
+            sb.append(entry.getKey()).append(':').append(entry.getValue());
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "%-36s %-10s calls=%-6d exceptions=%-4d statuses=[%s] p50=%.1fms p99=%.1fms network p50=%.1fms overhead p50=%.2fms (%.0f%%)",
+                endpoint, role, getCalls(), exceptions, statusesAsString(", "),
+                percentileMillis(latency, 50), percentileMillis(latency, 99), percentileMillis(network, 50),
+                percentileMillis(overhead, 50), getOverheadShare() * 100);
+    }
+}
@@ -0,0 +1,149 @@
+package com.spribe.metrics;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+
+/**
+ * Per-endpoint latency distributions of a reference run, stored as JSON with compressed HdrHistograms
+ * so that later runs can be compared against the full distribution rather than a few percentiles
+ */
+public class PerformanceBaseline {
+    private static final JsonFactory factory = new JsonFactory();
+
+    private final String target;
+    private final Map<String, Histogram> latencies;
+
+    public PerformanceBaseline(String target, Map<String, Histogram> latencies) {
+        this.target = target;
+        this.latencies = Collections.unmodifiableMap(new TreeMap<>(latencies));
+    }
+
+    /**
+     * The API the baseline was recorded against; runs against another target are not compared
+     */
+    public String getTarget() {
+        return target;
+    }
+
+    public Map<String, Histogram> getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Reads a baseline, or returns null when the file does not exist
+     */
+    public static PerformanceBaseline load(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        String target = null;
+        Map<String, Histogram> latencies = new TreeMap<>();
+        try (InputStream in = Files.newInputStream(file);
+             JsonParser parser = factory.createParser(in)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT, file);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("target".equals(field)) {
+                    target = parser.getText();
+                } else if ("endpoints".equals(field)) {
+                    expect(parser.currentToken(), JsonToken.START_OBJECT, file);
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String endpoint = parser.getCurrentName();
+                        parser.nextToken();
+                        latencies.put(endpoint, readEndpoint(parser, file));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read performance baseline " + file, e);
+        }
+        return new PerformanceBaseline(target, latencies);
+    }
+
+    private static Histogram readEndpoint(JsonParser parser, Path file) throws IOException {
+        expect(parser.currentToken(), JsonToken.START_OBJECT, file);
+        Histogram histogram = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("histogram".equals(field)) {
+                histogram = decode(parser.getText(), file);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (histogram == null) {
+            throw new IllegalStateException("Endpoint without histogram in performance baseline " + file);
+        }
+        return histogram;
+    }
+
+    public void save(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        try (OutputStream out = Files.newOutputStream(file);
+             JsonGenerator generator = factory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+            generator.writeStringField("target", target);
+            generator.writeObjectFieldStart("endpoints");
+            for (Map.Entry<String, Histogram> entry : latencies.entrySet()) {
+                Histogram histogram = entry.getValue();
+                generator.writeObjectFieldStart(entry.getKey());
+                // Percentiles are informational, comparisons use the histogram
+                generator.writeNumberField("count", histogram.getTotalCount());
+                generator.writeNumberField("p50Ms", OperationSummary.percentileMillis(histogram, 50));
+                generator.writeNumberField("p95Ms", OperationSummary.percentileMillis(histogram, 95));
+                generator.writeNumberField("p99Ms", OperationSummary.percentileMillis(histogram, 99));
+                generator.writeStringField("histogram", encode(histogram));
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+    }
+
+    static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+
+    static Histogram decode(String encoded, Path file) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Base64.getDecoder().decode(encoded)), 0);
+        } catch (DataFormatException | IllegalArgumentException e) {
+            throw new IllegalStateException("Corrupt histogram in " + file, e);
+        }
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected, Path file) {
+        if (actual != expected) {
+            throw new IllegalStateException("Malformed performance baseline " + file + ": expected " + expected
+                    + " but found " + actual);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.spribe.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares per-endpoint latency of a run against a {@link PerformanceBaseline}.
+ * For p50, p95, p99 and throughput the ratio current/baseline gets a percentile bootstrap confidence
+ * interval; a regression is reported only when the whole interval lies beyond the tolerance, so noise in
+ * small samples does not fail the build and a real slowdown does.
+ */
+public class PerformanceGate {
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SEED = 0x5eed_ba5eL;
+
+    public enum Metric {
+        P50("p50", 0.50), P95("p95", 0.95), P99("p99", 0.99), THROUGHPUT("throughput", Double.NaN);
+
+        private final String label;
+        private final double quantile;
+
+        Metric(String label, double quantile) {
+            this.label = label;
+            this.quantile = quantile;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    public enum Verdict {
+        REGRESSION, IMPROVEMENT, WITHIN_TOLERANCE, INSUFFICIENT_DATA, NO_BASELINE, NOT_RUN
+    }
+
+    private final double tolerance;
+    private final double confidence;
+    private final int resamples;
+    private final int minSamples;
+    private final int maxSamples;
+
+    /**
+     * @param tolerance  allowed slowdown, 0.2 lets latency grow by 20% and throughput drop to 1/1.2
+     * @param confidence two-sided confidence level of the bootstrap interval
+     * @param resamples  bootstrap resamples per endpoint
+     * @param minSamples calls needed on both sides before an endpoint is judged
+     * @param maxSamples calls per side used for resampling; larger runs are thinned evenly
+     */
+    public PerformanceGate(double tolerance, double confidence, int resamples, int minSamples, int maxSamples) {
+        if (tolerance < 0 || confidence <= 0 || confidence >= 1 || resamples < 1 || maxSamples < minSamples) {
+            throw new IllegalArgumentException(String.format(Locale.ROOT,
+                    "Invalid performance gate settings: tolerance=%s confidence=%s resamples=%d samples=%d..%d",
+                    tolerance, confidence, resamples, minSamples, maxSamples));
+        }
+        this.tolerance = tolerance;
+        this.confidence = confidence;
+        this.resamples = resamples;
+        this.minSamples = minSamples;
+        this.maxSamples = maxSamples;
+    }
+
+    public List<Result> evaluate(PerformanceBaseline baseline, Map<String, Histogram> current) {
+        List<Result> results = new ArrayList<>();
+        for (Map.Entry<String, Histogram> entry : current.entrySet()) {
+            Histogram reference = baseline.getLatencies().get(entry.getKey());
+            if (reference == null) {
+                results.add(new Result(entry.getKey(), null, Verdict.NO_BASELINE, 0, 0, 0, 0));
+            } else {
+                results.addAll(compare(entry.getKey(), reference, entry.getValue()));
+            }
+        }
+        for (String endpoint : baseline.getLatencies().keySet()) {
+            if (!current.containsKey(endpoint)) {
+                results.add(new Result(endpoint, null, Verdict.NOT_RUN, 0, 0, 0, 0));
+            }
+        }
+        return results;
+    }
+
+    private List<Result> compare(String endpoint, Histogram reference, Histogram current) {
+        List<Result> results = new ArrayList<>();
+        long[] base = samples(reference, maxSamples);
+        long[] run = samples(current, maxSamples);
+        if (base.length < minSamples || run.length < minSamples) {
+            results.add(new Result(endpoint, null, Verdict.INSUFFICIENT_DATA, 0, 0, 0, 0));
+            return results;
+        }
+        Arrays.sort(base);
+        Arrays.sort(run);
+        Metric[] metrics = Metric.values();
+        double[][] ratios = new double[metrics.length][resamples];
+        // Seeded per endpoint, so the same two runs always give the same verdict
+        SplittableRandom random = new SplittableRandom(SEED ^ endpoint.hashCode());
+        long[] baseResample = new long[base.length];
+        long[] runResample = new long[run.length];
+        for (int i = 0; i < resamples; i++) {
+            resample(base, baseResample, random);
+            resample(run, runResample, random);
+            Arrays.sort(baseResample);
+            Arrays.sort(runResample);
+            for (Metric metric : metrics) {
+                ratios[metric.ordinal()][i] = ratio(metric, baseResample, runResample);
+            }
+        }
+        double alpha = (1 - confidence) / 2;
+        for (Metric metric : metrics) {
+            double[] distribution = ratios[metric.ordinal()];
+            Arrays.sort(distribution);
+            double lower = quantile(distribution, alpha);
+            double upper = quantile(distribution, 1 - alpha);
+            results.add(new Result(endpoint, metric, verdict(metric, lower, upper),
+                    value(metric, base), value(metric, run), lower, upper));
+        }
+        return results;
+    }
+
+    private Verdict verdict(Metric metric, double lower, double upper) {
+        if (metric == Metric.THROUGHPUT) {
+            if (upper < 1 / (1 + tolerance)) {
+                return Verdict.REGRESSION;
+            }
+            return lower > 1 ? Verdict.IMPROVEMENT : Verdict.WITHIN_TOLERANCE;
+        }
+        if (lower > 1 + tolerance) {
+            return Verdict.REGRESSION;
+        }
+        return upper < 1 ? Verdict.IMPROVEMENT : Verdict.WITHIN_TOLERANCE;
+    }
+
+    /**
+     * Current over baseline of two sorted samples; for throughput, the ratio of calls per second
+     * per connection (inverse mean latency)
+     */
+    private static double ratio(Metric metric, long[] base, long[] run) {
+        if (metric == Metric.THROUGHPUT) {
+            return mean(base) / Math.max(1.0, mean(run));
+        }
+        return (double) percentile(run, metric) / Math.max(1L, percentile(base, metric));
+    }
+
+    /**
+     * Milliseconds for the percentiles, calls per second per connection for throughput
+     */
+    private static double value(Metric metric, long[] sorted) {
+        if (metric == Metric.THROUGHPUT) {
+            return 1000.0 / Math.max(1e-6, mean(sorted) / NANOS_PER_MILLI);
+        }
+        return percentile(sorted, metric) / NANOS_PER_MILLI;
+    }
+
+    private static long percentile(long[] sorted, Metric metric) {
+        int index = (int) Math.ceil(metric.quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static double mean(long[] values) {
+        double sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    private static double quantile(double[] sorted, double q) {
+        int index = (int) Math.ceil(q * sorted.length) - 1;
+        return sorted[Math.min(sorted.length - 1, Math.max(0, index))];
+    }
+
+    private static void resample(long[] source, long[] target, SplittableRandom random) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] = source[random.nextInt(source.length)];
+        }
+    }
+
+    /**
+     * Expands a histogram back into recorded values, keeping at most max of them in proportion
+     */
+    static long[] samples(Histogram histogram, int max) {
+        long total = histogram.getTotalCount();
+        if (total == 0) {
+            return new long[0];
+        }
+        double keep = Math.min(1.0, (double) max / total);
+        long[] values = new long[(int) Math.min(total, max)];
+        int emitted = 0;
+        long seen = 0;
+        for (HistogramIterationValue value : histogram.recordedValues()) {
+            seen += value.getCountAtValueIteratedTo();
+            int upTo = (int) Math.min(values.length, Math.round(seen * keep));
+            long recorded = histogram.highestEquivalentValue(value.getValueIteratedTo());
+            while (emitted < upTo) {
+                values[emitted++] = recorded;
+            }
+        }
+        return emitted == values.length ? values : Arrays.copyOf(values, emitted);
+    }
+
+    /**
+     * Outcome for one endpoint and metric; metric is null for verdicts about the endpoint as a whole
+     */
+    public static class Result {
+        private final String endpoint;
+        private final Metric metric;
+        private final Verdict verdict;
+        private final double baseline;
+        private final double current;
+        private final double lower;
+        private final double upper;
+
+        Result(String endpoint, Metric metric, Verdict verdict, double baseline, double current,
+               double lower, double upper) {
+            this.endpoint = endpoint;
+            this.metric = metric;
+            this.verdict = verdict;
+            this.baseline = baseline;
+            this.current = current;
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public Metric getMetric() {
+            return metric;
+        }
+
+        public Verdict getVerdict() {
+            return verdict;
+        }
+
+        /**
+         * Bounds of the ratio current/baseline; 0 when the endpoint was not compared
+         */
+        public double getLower() {
+            return lower;
+        }
+
+        public double getUpper() {
+            return upper;
+        }
+
+        public boolean isRegression() {
+            return verdict == Verdict.REGRESSION;
+        }
+
+        @Override
+        public String toString() {
+            if (metric == null) {
+                return String.format(Locale.ROOT, "%-36s %s", endpoint, verdict);
+            }
+            String unit = metric == Metric.THROUGHPUT ? "rps" : "ms";
+            return String.format(Locale.ROOT, "%-36s %-10s %9.2f%s -> %9.2f%s  ratio CI [%.2f, %.2f]  %s",
+                    endpoint, metric, baseline, unit, current, unit, lower, upper, verdict);
+        }
+    }
+
+    /**
+     * Thrown at the end of the suite when the gate is in fail mode and a regression was found
+     */
+    public static class PerformanceRegressionException extends RuntimeException {
+        public PerformanceRegressionException(String message) {
+            super(message);
+        }
+    }
+}
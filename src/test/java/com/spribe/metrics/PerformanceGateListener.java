@@ -0,0 +1,112 @@
+package com.spribe.metrics;
+
+import com.spribe.api.ApiClient;
+import com.spribe.config.ConfigManager;
+import org.HdrHistogram.Histogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Suite listener that checks the run's API latency against the baseline file with {@link PerformanceGate}
+ * once the @AfterSuite teardown has finished. Depending on perf.gate.mode a regression is logged (warn) or
+ * fails that teardown (fail), so it shows up in the test report next to the other results; with
+ * perf.gate.rebaseline=true the run is written as the new baseline instead.
+ */
+public class PerformanceGateListener implements IInvokedMethodListener {
+    private static final Logger logger = LogManager.getLogger(PerformanceGateListener.class);
+    private static final String MODE_OFF = "off";
+    private static final String MODE_FAIL = "fail";
+
+    private final AtomicBoolean checked = new AtomicBoolean();
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (!method.isConfigurationMethod() || !method.getTestMethod().isAfterSuiteConfiguration()
+                || !checked.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            ApiMetrics metrics = ApiMetrics.getInstance();
+            if (metrics.isEnabled()) {
+                check(metrics.report().getLatencyByEndpoint());
+            }
+        } catch (PerformanceGate.PerformanceRegressionException e) {
+            testResult.setStatus(ITestResult.FAILURE);
+            testResult.setThrowable(e);
+        }
+    }
+
+    /**
+     * Checks per-endpoint latency of a run against the baseline as configured by perf.gate.*; also used for the
+     * merged metrics of a sharded run
+     *
+     * @throws PerformanceGate.PerformanceRegressionException on a regression when perf.gate.mode=fail
+     */
+    public static void check(Map<String, Histogram> current) {
+        ConfigManager config = ConfigManager.getInstance();
+        String mode = config.getPerfGateMode();
+        if (MODE_OFF.equalsIgnoreCase(mode)) {
+            return;
+        }
+        if (current.isEmpty()) {
+            logger.info("Performance gate: no API calls recorded");
+            return;
+        }
+        Path baselineFile = Paths.get(config.getPerfGateBaselineFile());
+        String target = ApiClient.isLocalTarget() ? "local" : config.getBaseUrl();
+        if (config.isPerfGateRebaseline()) {
+            rebaseline(baselineFile, new PerformanceBaseline(target, current));
+            return;
+        }
+        PerformanceBaseline baseline = PerformanceBaseline.load(baselineFile);
+        if (baseline == null) {
+            logger.warn("Performance gate: no baseline at {}, record one with -Dperf.gate.rebaseline=true", baselineFile);
+            return;
+        }
+        if (!target.equals(baseline.getTarget())) {
+            logger.warn("Performance gate: baseline was recorded against {}, this run targets {}; not compared",
+                    baseline.getTarget(), target);
+            return;
+        }
+        PerformanceGate gate = new PerformanceGate(config.getPerfGateTolerance(), config.getPerfGateConfidence(),
+                config.getPerfGateResamples(), config.getPerfGateMinSamples(), config.getPerfGateMaxSamples());
+        List<PerformanceGate.Result> results = gate.evaluate(baseline, current);
+        List<PerformanceGate.Result> regressions = results.stream()
+                .filter(PerformanceGate.Result::isRegression)
+                .collect(Collectors.toList());
+        logger.info("Performance gate against {} (tolerance {}%, confidence {}%):{}{}", baselineFile,
+                Math.round(config.getPerfGateTolerance() * 100), Math.round(config.getPerfGateConfidence() * 100),
+                System.lineSeparator(), results.stream().map(r -> "  " + r)
+                        .collect(Collectors.joining(System.lineSeparator())));
+        if (regressions.isEmpty()) {
+            return;
+        }
+        String message = regressions.size() + " performance regression(s) beyond tolerance: "
+                + regressions.stream().map(r -> r.getEndpoint() + " " + r.getMetric()).collect(Collectors.joining(", "));
+        if (MODE_FAIL.equalsIgnoreCase(mode)) {
+            throw new PerformanceGate.PerformanceRegressionException(message);
+        }
+        logger.warn("Performance gate: {}", message);
+    }
+
+    private static void rebaseline(Path file, PerformanceBaseline baseline) {
+        try {
+            baseline.save(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write performance baseline " + file, e);
+        }
+        logger.info("Performance gate: wrote baseline with {} endpoint(s) to {}", baseline.getLatencies().size(), file);
+    }
+}
@@ -0,0 +1,163 @@
+package com.spribe.metrics;
+
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import org.HdrHistogram.Histogram;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verdicts of {@link PerformanceGate} on synthetic histograms; the latencies come from a seeded random, so every
+ * run compares the same samples
+ */
+@Epic("Player Management")
+@Feature("Performance Gate")
+public class PerformanceGateTest {
+    private static final String ENDPOINT = "GET /player/get";
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final PerformanceGate gate = new PerformanceGate(0.2, 0.95, 1000, 20, 2000);
+
+    @Test(description = "Three times slower latency is a regression on every metric")
+    @Description("A 3x shift fails p50, p95, p99 and throughput, and each ratio interval contains the true ratio")
+    public void testThreefoldShiftIsRegression() {
+        Histogram baseline = latencies(500, 1);
+
+        Map<PerformanceGate.Metric, PerformanceGate.Result> results =
+                byMetric(gate.evaluate(baseline(baseline), current(latencies(500, 3))));
+
+        assertEquals(results.keySet(), EnumSet.allOf(PerformanceGate.Metric.class), "Every metric should be judged");
+        for (PerformanceGate.Result result : results.values()) {
+            assertEquals(result.getVerdict(), PerformanceGate.Verdict.REGRESSION, result.toString());
+            double expected = result.getMetric() == PerformanceGate.Metric.THROUGHPUT ? 1 / 3.0 : 3.0;
+            assertTrue(result.getLower() <= expected * 1.01 && result.getUpper() >= expected * 0.99,
+                    "Ratio interval should contain " + expected + ": " + result);
+        }
+    }
+
+    @Test(description = "Identical histograms are within tolerance")
+    @Description("Comparing a run with itself passes every metric and the ratio interval contains 1")
+    public void testIdenticalHistogramsWithinTolerance() {
+        Histogram histogram = latencies(500, 1);
+
+        Map<PerformanceGate.Metric, PerformanceGate.Result> results =
+                byMetric(gate.evaluate(baseline(histogram), current(histogram.copy())));
+
+        assertEquals(results.keySet(), EnumSet.allOf(PerformanceGate.Metric.class), "Every metric should be judged");
+        for (PerformanceGate.Result result : results.values()) {
+            assertEquals(result.getVerdict(), PerformanceGate.Verdict.WITHIN_TOLERANCE, result.toString());
+            assertTrue(result.getLower() <= 1 && result.getUpper() >= 1, "Ratio interval should contain 1: " + result);
+        }
+    }
+
+    @Test(description = "Three times faster latency is an improvement on every metric")
+    @Description("A shift to a third of the baseline latency is reported as an improvement, not a regression")
+    public void testThreefoldSpeedupIsImprovement() {
+        Map<PerformanceGate.Metric, PerformanceGate.Result> results =
+                byMetric(gate.evaluate(baseline(latencies(500, 3)), current(latencies(500, 1))));
+
+        assertEquals(results.keySet(), EnumSet.allOf(PerformanceGate.Metric.class), "Every metric should be judged");
+        for (PerformanceGate.Result result : results.values()) {
+            assertEquals(result.getVerdict(), PerformanceGate.Verdict.IMPROVEMENT, result.toString());
+        }
+    }
+
+    @Test(description = "The bootstrap gives the same intervals for the same runs")
+    @Description("Resampling is seeded per endpoint, so evaluating the same two runs twice gives identical results")
+    public void testBootstrapIsDeterministic() {
+        PerformanceBaseline baseline = baseline(latencies(300, 1));
+        Map<String, Histogram> current = current(latencies(300, 1.1));
+
+        String first = gate.evaluate(baseline, current).toString();
+        String second = new PerformanceGate(0.2, 0.95, 1000, 20, 2000).evaluate(baseline, current).toString();
+
+        assertEquals(second, first, "Bootstrap results of two evaluations");
+    }
+
+    @Test(description = "Too few calls are not judged")
+    @Description("An endpoint below perf.gate.min.samples on either side gets a single INSUFFICIENT_DATA result")
+    public void testInsufficientData() {
+        List<PerformanceGate.Result> results = gate.evaluate(baseline(latencies(500, 1)), current(latencies(10, 3)));
+
+        assertEquals(results.size(), 1, "One result for the whole endpoint");
+        assertEquals(results.get(0).getVerdict(), PerformanceGate.Verdict.INSUFFICIENT_DATA);
+        assertNull(results.get(0).getMetric(), "Endpoint-level verdicts have no metric");
+    }
+
+    @Test(description = "Endpoints on only one side are reported, not compared")
+    @Description("A new endpoint gets NO_BASELINE and an endpoint missing from the run gets NOT_RUN")
+    public void testEndpointsOnOneSide() {
+        PerformanceBaseline baseline = new PerformanceBaseline("local",
+                Collections.singletonMap("DELETE /player/delete", latencies(500, 1)));
+
+        List<PerformanceGate.Result> results = gate.evaluate(baseline, current(latencies(500, 1)));
+
+        Map<String, PerformanceGate.Verdict> verdicts = results.stream().collect(
+                Collectors.toMap(PerformanceGate.Result::getEndpoint, PerformanceGate.Result::getVerdict));
+        assertEquals(verdicts.get(ENDPOINT), PerformanceGate.Verdict.NO_BASELINE);
+        assertEquals(verdicts.get("DELETE /player/delete"), PerformanceGate.Verdict.NOT_RUN);
+        assertEquals(results.size(), 2, "One result per endpoint");
+    }
+
+    @Test(description = "Large histograms are thinned evenly")
+    @Description("samples() keeps at most max values, in ascending order and spread over the whole distribution")
+    public void testSamplesThinning() {
+        Histogram histogram = new Histogram(3);
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.recordValue(value * MILLI / 100);
+        }
+
+        long[] thinned = PerformanceGate.samples(histogram, 100);
+        long[] all = PerformanceGate.samples(histogram, 20_000);
+
+        assertEquals(thinned.length, 100, "Values kept from 10000 with max 100");
+        assertEquals(all.length, 10_000, "Values kept when max is above the count");
+        for (int i = 1; i < thinned.length; i++) {
+            assertTrue(thinned[i - 1] <= thinned[i], "Samples should come out in ascending order");
+        }
+        assertTrue(thinned[0] <= 2 * MILLI, "Lowest kept value should be near the minimum: " + thinned[0]);
+        assertTrue(thinned[99] >= 99 * MILLI, "Highest kept value should be near the maximum: " + thinned[99]);
+        assertEquals(PerformanceGate.samples(new Histogram(3), 100).length, 0, "Empty histogram");
+    }
+
+    /**
+     * count latencies between 10 and 20 ms times scale, the same values for the same count
+     */
+    private static Histogram latencies(int count, double scale) {
+        SplittableRandom random = new SplittableRandom(42);
+        Histogram histogram = new Histogram(3);
+        for (int i = 0; i < count; i++) {
+            histogram.recordValue(Math.round((10 + random.nextDouble() * 10) * scale * MILLI));
+        }
+        return histogram;
+    }
+
+    private static PerformanceBaseline baseline(Histogram histogram) {
+        return new PerformanceBaseline("local", current(histogram));
+    }
+
+    private static Map<String, Histogram> current(Histogram histogram) {
+        return Collections.singletonMap(ENDPOINT, histogram);
+    }
+
+    private static Map<PerformanceGate.Metric, PerformanceGate.Result> byMetric(List<PerformanceGate.Result> results) {
+        Map<PerformanceGate.Metric, PerformanceGate.Result> byMetric = new EnumMap<>(PerformanceGate.Metric.class);
+        for (PerformanceGate.Result result : results) {
+            byMetric.put(result.getMetric(), result);
+        }
+        return byMetric;
+    }
+}
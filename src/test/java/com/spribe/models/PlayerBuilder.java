@@ -1,10 +1,8 @@
 package com.spribe.models;
 
-import java.util.Random;
-import java.util.UUID;
-
 /**
- * Builder for Player objects to facilitate test data creation
+ * Builder for Player objects to facilitate test data creation.
+ * Generated values come from the shared {@link PlayerDataGenerator}.
  */
 public class PlayerBuilder {
     private String login;
@@ -14,8 +12,6 @@ public class PlayerBuilder {
     private Integer age;
     private String role;
 
-    private static final Random random = new Random();
-
     public PlayerBuilder() {
         this.login = generateRandomLogin();
         this.password = generateValidPassword();
@@ -64,32 +60,18 @@ public class PlayerBuilder {
     }
 
     public static String generateRandomLogin() {
-        return "user_" + UUID.randomUUID().toString().substring(0, 8);
+        return PlayerDataGenerator.getInstance().nextLogin();
     }
 
     public static String generateRandomScreenName() {
-        return "screen_" + UUID.randomUUID().toString().substring(0, 8);
+        return PlayerDataGenerator.getInstance().nextScreenName();
     }
 
     public static String generateValidPassword() {
-        String letters = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
-        String numbers = "0123456789";
-        StringBuilder password = new StringBuilder();
-        
-        password.append(letters.charAt(random.nextInt(letters.length())));
-        password.append(numbers.charAt(random.nextInt(numbers.length())));
-        
-        int length = 7 + random.nextInt(9);
-        String combined = letters + numbers;
-        
-        for (int i = password.length(); i < length; i++) {
-            password.append(combined.charAt(random.nextInt(combined.length())));
-        }
-        
-        return password.toString();
+        return PlayerDataGenerator.getInstance().nextPassword();
     }
 
     public static int generateValidAge() {
-        return 16 + random.nextInt(45);
+        return PlayerDataGenerator.getInstance().nextAge();
     }
 }
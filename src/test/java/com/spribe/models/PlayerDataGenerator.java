@@ -0,0 +1,137 @@
+package com.spribe.models;
+
+import com.spribe.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.security.SecureRandom;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contention-free source of player test data shared by all threads.
+ * Logins and screen names are a per-run prefix plus a counter in base 36, so they never collide within a run.
+ * Random values come from a generator derived from the run seed and the value's sequence number, with no
+ * shared random state: the same seed gives the same values for the same sequence numbers whichever thread asks,
+ * and a single-threaded run with the same seed reproduces the whole dataset.
+ */
+public final class PlayerDataGenerator {
+    private static final Logger logger = LogManager.getLogger(PlayerDataGenerator.class);
+    private static final char[] LETTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+    private static final char[] DIGITS = "0123456789".toCharArray();
+    private static final char[] ALPHANUMERIC = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
+    private static final char[] BASE36 = "0123456789abcdefghijklmnopqrstuvwxyz".toCharArray();
+    private static final int PREFIX_LENGTH = 6;
+    private static final int MAX_BASE36_DIGITS = 13;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+    private final String runPrefix;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public PlayerDataGenerator(long seed, String runPrefix) {
+        this.seed = seed;
+        this.runPrefix = runPrefix;
+    }
+
+    private static class Holder {
+        private static final PlayerDataGenerator INSTANCE = fromConfig(ConfigManager.getInstance());
+    }
+
+    public static PlayerDataGenerator getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static PlayerDataGenerator fromConfig(ConfigManager config) {
+        SecureRandom secureRandom = new SecureRandom();
+        String configuredSeed = config.getDataSeed();
+        long seed = configuredSeed.isEmpty() ? secureRandom.nextLong() : Long.parseLong(configuredSeed);
+        String runPrefix = config.getDataRunPrefix();
+        if (runPrefix.isEmpty()) {
+            runPrefix = randomPrefix(secureRandom);
+        }
+        logger.info("Test data seed {}, run prefix {} (reproduce values with -Ddata.seed={})", seed, runPrefix, seed);
+        return new PlayerDataGenerator(seed, runPrefix);
+    }
+
+    private static String randomPrefix(SecureRandom random) {
+        char[] prefix = new char[PREFIX_LENGTH];
+        for (int i = 0; i < prefix.length; i++) {
+            prefix[i] = BASE36[random.nextInt(BASE36.length)];
+        }
+        return new String(prefix);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public String getRunPrefix() {
+        return runPrefix;
+    }
+
+    public String nextLogin() {
+        return uniqueName("user_");
+    }
+
+    public String nextScreenName() {
+        return uniqueName("screen_");
+    }
+
+    /**
+     * 7 to 15 letters and digits, starting with a letter and a digit
+     */
+    public String nextPassword() {
+        SplittableRandom random = nextRandom();
+        char[] password = new char[7 + random.nextInt(9)];
+        password[0] = LETTERS[random.nextInt(LETTERS.length)];
+        password[1] = DIGITS[random.nextInt(DIGITS.length)];
+        for (int i = 2; i < password.length; i++) {
+            password[i] = ALPHANUMERIC[random.nextInt(ALPHANUMERIC.length)];
+        }
+        return new String(password);
+    }
+
+    /**
+     * Age between 16 and 60 inclusive
+     */
+    public int nextAge() {
+        return 16 + nextRandom().nextInt(45);
+    }
+
+    private String uniqueName(String kind) {
+        long n = sequence.getAndIncrement();
+        char[] name = new char[kind.length() + runPrefix.length() + MAX_BASE36_DIGITS];
+        kind.getChars(0, kind.length(), name, 0);
+        runPrefix.getChars(0, runPrefix.length(), name, kind.length());
+        int start = kind.length() + runPrefix.length();
+        int end = start + appendBase36(n, name, start);
+        return new String(name, 0, end);
+    }
+
+    private static int appendBase36(long value, char[] target, int offset) {
+        int digits = 1;
+        for (long rest = value / 36; rest > 0; rest /= 36) {
+            digits++;
+        }
+        long rest = value;
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            target[i] = BASE36[(int) (rest % 36)];
+            rest /= 36;
+        }
+        return digits;
+    }
+
+    /**
+     * Generator for the next sequence number; the seed is scrambled so that neighbouring streams do not overlap
+     */
+    private SplittableRandom nextRandom() {
+        return new SplittableRandom(mix64(seed + GOLDEN_GAMMA * sequence.getAndIncrement()));
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,135 @@
+package com.spribe.scheduling;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Locale;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Number of tests allowed to run at once, following the latency of the target with the gradient algorithm of
+ * Netflix concurrency-limits (Gradient2). Every window of samples compares the window's mean latency with a
+ * long-term average: while they stay within the tolerance the limit grows by about its square root, and when
+ * recent latency rises the limit shrinks in proportion, down to half per window. Tests wait in
+ * {@link #acquire()} while the limit is reached.
+ */
+public class AdaptiveConcurrencyLimit {
+    private static final Logger logger = LogManager.getLogger(AdaptiveConcurrencyLimit.class);
+    private static final int WINDOW_SAMPLES = 20;
+    private static final double LONG_TERM_WEIGHT = 2.0 / (10 + 1);
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+
+    private double limit;
+    private int inUse;
+    private long windowNanos;
+    private int windowCount;
+    private double longTermNanos;
+    private int lowestLimit;
+    private int highestLimit;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= max, got "
+                    + minLimit + " and " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.lowestLimit = (int) limit;
+        this.highestLimit = (int) limit;
+    }
+
+    /**
+     * Waits until fewer tests than the current limit are running
+     */
+    public void acquire() {
+        lock.lock();
+        try {
+            while (inUse >= (int) limit) {
+                available.awaitUninterruptibly();
+            }
+            inUse++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            inUse--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records the latency of one call to the target
+     */
+    public void onSample(long latencyNanos) {
+        lock.lock();
+        try {
+            windowNanos += latencyNanos;
+            if (++windowCount == WINDOW_SAMPLES) {
+                update(windowNanos / (double) windowCount);
+                windowNanos = 0;
+                windowCount = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(double shortTermNanos) {
+        if (longTermNanos == 0) {
+            longTermNanos = shortTermNanos;
+        } else {
+            longTermNanos += (shortTermNanos - longTermNanos) * LONG_TERM_WEIGHT;
+        }
+        if (longTermNanos / shortTermNanos > 2) {
+            // Latency dropped for good; let the long-term average catch up instead of growing without bound
+            longTermNanos *= 0.95;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longTermNanos / shortTermNanos));
+        double target = limit * gradient + Math.sqrt(limit);
+        double next = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+        if ((int) next != (int) limit) {
+            logger.debug("Test concurrency limit {} -> {} (recent latency {} ms, long-term {} ms)", (int) limit,
+                    (int) next, String.format(Locale.ROOT, "%.1f", shortTermNanos / 1e6),
+                    String.format(Locale.ROOT, "%.1f", longTermNanos / 1e6));
+        }
+        limit = next;
+        lowestLimit = Math.min(lowestLimit, (int) limit);
+        highestLimit = Math.max(highestLimit, (int) limit);
+        available.signalAll();
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return "limit " + (int) limit + " (ranged " + lowestLimit + ".." + highestLimit + " of " + minLimit
+                    + ".." + maxLimit + ")";
+        } finally {
+            lock.unlock();
+        }
+    }
+}
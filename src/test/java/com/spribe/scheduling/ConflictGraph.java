@@ -0,0 +1,85 @@
+package com.spribe.scheduling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Undirected graph with an edge between every two tests whose {@link ResourceClaim}s conflict.
+ * A greedy colouring, highest degree first, splits the tests into waves of mutually independent tests;
+ * running the waves one after the other keeps conflicting tests apart in the queue.
+ */
+public final class ConflictGraph<T> {
+    private final Map<T, Set<T>> neighbours = new LinkedHashMap<>();
+    private int edges;
+
+    public ConflictGraph(Map<T, ResourceClaim> claims) {
+        List<Map.Entry<T, ResourceClaim>> entries = new ArrayList<>(claims.entrySet());
+        for (Map.Entry<T, ResourceClaim> entry : entries) {
+            neighbours.put(entry.getKey(), new LinkedHashSet<>());
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            ResourceClaim claim = entries.get(i).getValue();
+            if (claim.isEmpty()) {
+                continue;
+            }
+            for (int j = i + 1; j < entries.size(); j++) {
+                if (claim.conflictsWith(entries.get(j).getValue())) {
+                    neighbours.get(entries.get(i).getKey()).add(entries.get(j).getKey());
+                    neighbours.get(entries.get(j).getKey()).add(entries.get(i).getKey());
+                    edges++;
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return neighbours.size();
+    }
+
+    public int getEdgeCount() {
+        return edges;
+    }
+
+    public Set<T> conflictsOf(T node) {
+        return neighbours.get(node);
+    }
+
+    /**
+     * Wave of every node; nodes in the same wave never conflict
+     */
+    public Map<T, Integer> waves() {
+        List<T> byDegree = new ArrayList<>(neighbours.keySet());
+        byDegree.sort(Comparator.comparingInt((T node) -> neighbours.get(node).size()).reversed());
+        Map<T, Integer> waves = new LinkedHashMap<>();
+        for (T node : byDegree) {
+            Set<Integer> taken = new LinkedHashSet<>();
+            for (T neighbour : neighbours.get(node)) {
+                Integer wave = waves.get(neighbour);
+                if (wave != null) {
+                    taken.add(wave);
+                }
+            }
+            int wave = 0;
+            while (taken.contains(wave)) {
+                wave++;
+            }
+            waves.put(node, wave);
+        }
+        return waves;
+    }
+
+    /**
+     * Nodes ordered by wave, keeping the original order within a wave
+     */
+    public List<T> orderedByWave() {
+        Map<T, Integer> waves = waves();
+        List<T> ordered = new ArrayList<>(neighbours.keySet());
+        ordered.sort(Comparator.comparingInt(waves::get));
+        return ordered;
+    }
+}
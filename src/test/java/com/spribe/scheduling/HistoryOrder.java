@@ -0,0 +1,163 @@
+package com.spribe.scheduling;
+
+import com.spribe.history.TestHistory;
+import com.spribe.history.TestStats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Orders tests by the {@link TestHistory}: lane by lane, longest recorded duration first. Handing the longest
+ * tests to the workers first keeps a long test from starting last and becoming the tail of the run; the sort
+ * is stable, so tests of equal duration keep their previous order.
+ */
+final class HistoryOrder {
+    private final TestHistory history;
+    private final Set<Lane> lanes;
+    private final long slowThresholdMillis;
+    private final double flakyThreshold;
+
+    HistoryOrder(TestHistory history, Set<Lane> lanes, long slowThresholdMillis, double flakyThreshold) {
+        this.history = history;
+        this.lanes = lanes;
+        this.slowThresholdMillis = slowThresholdMillis;
+        this.flakyThreshold = flakyThreshold;
+    }
+
+    /**
+     * Lanes named in a comma-separated list such as "slow,flaky"; the normal lane is always there
+     */
+    static Set<Lane> parseLanes(String names) {
+        Set<Lane> lanes = EnumSet.of(Lane.NORMAL);
+        for (String name : names.split(",")) {
+            if (!name.trim().isEmpty()) {
+                try {
+                    lanes.add(Lane.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unknown test lane '" + name.trim()
+                            + "', expected slow or flaky", e);
+                }
+            }
+        }
+        return lanes;
+    }
+
+    boolean isEmpty() {
+        return history.isEmpty();
+    }
+
+    Lane laneOf(String key) {
+        TestStats stats = history.get(key);
+        if (lanes.contains(Lane.FLAKY) && stats != null && stats.getFlakiness() >= flakyThreshold) {
+            return Lane.FLAKY;
+        }
+        if (lanes.contains(Lane.SLOW) && history.estimateMillis(key) >= slowThresholdMillis) {
+            return Lane.SLOW;
+        }
+        return Lane.NORMAL;
+    }
+
+    /**
+     * The tests lane by lane, longest first, rearranged into the order simulated workers on the given number of
+     * threads would start them in when each takes the first queued test that its lane has a thread for and that
+     * does not conflict with a running test. Workers that take tests in this order rarely find a lane full or a
+     * conflicting test running, so the limits need no waiting thread; with real durations differing from the
+     * recorded ones they hold approximately.
+     */
+    <T> List<T> order(List<T> tests, Function<T, String> keys, Function<T, Set<T>> conflicts, int threads,
+                      Map<Lane, Integer> laneThreads) {
+        List<T> queued = new ArrayList<>(tests);
+        queued.sort(Comparator.comparing((T test) -> laneOf(keys.apply(test)))
+                .thenComparing(Comparator.comparingLong((T test) -> history.estimateMillis(keys.apply(test)))
+                        .reversed()));
+        List<T> ordered = new ArrayList<>(queued.size());
+        PriorityQueue<Running<T>> running = new PriorityQueue<>(Comparator.comparingLong(test -> test.finishAt));
+        Map<Lane, Integer> busy = new EnumMap<>(Lane.class);
+        long now = 0;
+        while (!queued.isEmpty()) {
+            T next = running.size() < Math.max(1, threads)
+                    ? firstStartable(queued, keys, conflicts, running, busy, laneThreads) : null;
+            if (next == null) {
+                Running<T> finished = running.poll();
+                if (finished != null) {
+                    now = finished.finishAt;
+                    busy.merge(finished.lane, -1, Integer::sum);
+                    continue;
+                }
+                next = queued.get(0);
+            }
+            queued.remove(next);
+            ordered.add(next);
+            Lane lane = laneOf(keys.apply(next));
+            running.add(new Running<>(next, lane, now + history.estimateMillis(keys.apply(next))));
+            busy.merge(lane, 1, Integer::sum);
+        }
+        return ordered;
+    }
+
+    private <T> T firstStartable(List<T> queued, Function<T, String> keys, Function<T, Set<T>> conflicts,
+                                 PriorityQueue<Running<T>> running, Map<Lane, Integer> busy,
+                                 Map<Lane, Integer> laneThreads) {
+        for (T test : queued) {
+            Lane lane = laneOf(keys.apply(test));
+            Integer threads = laneThreads.get(lane);
+            if (threads != null && busy.getOrDefault(lane, 0) >= threads) {
+                continue;
+            }
+            Set<T> conflicting = conflicts.apply(test);
+            if (running.stream().noneMatch(other -> conflicting.contains(other.test))) {
+                return test;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Wall time of running the tests in the given order on a number of threads, each test starting on the
+     * first thread to become free; conflicts and lanes are not modelled
+     */
+    <T> long estimateMakespanMillis(List<T> ordered, Function<T, String> keys, int threads) {
+        PriorityQueue<Long> freeAt = new PriorityQueue<>();
+        for (int i = 0; i < threads; i++) {
+            freeAt.add(0L);
+        }
+        long makespan = 0;
+        for (T test : ordered) {
+            long finish = freeAt.poll() + history.estimateMillis(keys.apply(test));
+            makespan = Math.max(makespan, finish);
+            freeAt.add(finish);
+        }
+        return makespan;
+    }
+
+    /**
+     * Number of tests in each lane
+     */
+    <T> Map<Lane, Integer> laneSizes(List<T> tests, Function<T, String> keys) {
+        Map<Lane, Integer> sizes = new EnumMap<>(Lane.class);
+        for (T test : tests) {
+            sizes.merge(laneOf(keys.apply(test)), 1, Integer::sum);
+        }
+        return sizes;
+    }
+
+    private static final class Running<T> {
+        private final T test;
+        private final Lane lane;
+        private final long finishAt;
+
+        Running(T test, Lane lane, long finishAt) {
+            this.test = test;
+            this.lane = lane;
+            this.finishAt = finishAt;
+        }
+    }
+}
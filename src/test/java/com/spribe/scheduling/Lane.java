@@ -0,0 +1,10 @@
+package com.spribe.scheduling;
+
+/**
+ * Group of tests queued together and, for the slow and flaky lanes, run on a limited number of threads.
+ * Lanes are queued in declaration order: slow tests first so they do not become the tail of the run, flaky
+ * tests last so they run with as little other load as possible.
+ */
+public enum Lane {
+    SLOW, NORMAL, FLAKY
+}
@@ -0,0 +1,101 @@
+package com.spribe.scheduling;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Resources one test method reads and writes, merged from its own {@link TestResources} and those of its class
+ * hierarchy. A resource that is both read and written counts as written.
+ */
+public final class ResourceClaim {
+    private static final ResourceClaim NONE = new ResourceClaim(new TreeSet<>(), new TreeSet<>());
+
+    private final SortedSet<String> reads;
+    private final SortedSet<String> writes;
+
+    private ResourceClaim(SortedSet<String> reads, SortedSet<String> writes) {
+        reads.removeAll(writes);
+        this.reads = Collections.unmodifiableSortedSet(reads);
+        this.writes = Collections.unmodifiableSortedSet(writes);
+    }
+
+    public static ResourceClaim none() {
+        return NONE;
+    }
+
+    /**
+     * Claim of a test method running on an instance of the given class, a subclass of the method's declaring
+     * class or the declaring class itself; null means the declaring class
+     */
+    public static ResourceClaim of(Method method, Class<?> instanceClass) {
+        SortedSet<String> reads = new TreeSet<>();
+        SortedSet<String> writes = new TreeSet<>();
+        add(method.getAnnotation(TestResources.class), reads, writes);
+        Class<?> type = instanceClass != null ? instanceClass : method.getDeclaringClass();
+        for (; type != null; type = type.getSuperclass()) {
+            add(type.getAnnotation(TestResources.class), reads, writes);
+        }
+        return reads.isEmpty() && writes.isEmpty() ? NONE : new ResourceClaim(reads, writes);
+    }
+
+    private static void add(TestResources resources, SortedSet<String> reads, SortedSet<String> writes) {
+        if (resources != null) {
+            reads.addAll(Arrays.asList(resources.reads()));
+            writes.addAll(Arrays.asList(resources.writes()));
+        }
+    }
+
+    /**
+     * Claim of running both claims' tests as one unit
+     */
+    public ResourceClaim union(ResourceClaim other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        SortedSet<String> unionReads = new TreeSet<>(reads);
+        unionReads.addAll(other.reads);
+        SortedSet<String> unionWrites = new TreeSet<>(writes);
+        unionWrites.addAll(other.writes);
+        return new ResourceClaim(unionReads, unionWrites);
+    }
+
+    public SortedSet<String> getReads() {
+        return reads;
+    }
+
+    public SortedSet<String> getWrites() {
+        return writes;
+    }
+
+    public boolean isEmpty() {
+        return reads.isEmpty() && writes.isEmpty();
+    }
+
+    /**
+     * True when either claim writes a resource the other one reads or writes
+     */
+    public boolean conflictsWith(ResourceClaim other) {
+        for (String resource : writes) {
+            if (other.reads.contains(resource) || other.writes.contains(resource)) {
+                return true;
+            }
+        }
+        for (String resource : other.writes) {
+            if (reads.contains(resource)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "reads=" + reads + ", writes=" + writes;
+    }
+}
@@ -0,0 +1,16 @@
+package com.spribe.scheduling;
+
+/**
+ * Resource names claimed through {@link TestResources}
+ */
+public final class SharedResources {
+    /** The pre-existing account configured as supervisor.login */
+    public static final String SUPERVISOR_ACCOUNT = "supervisor-account";
+    /** The pre-existing account configured as admin.login */
+    public static final String ADMIN_ACCOUNT = "admin-account";
+    /** Uniqueness of logins and screen names across all players; writers assert on what other creates do to it */
+    public static final String PLAYER_NAMESPACE = "player-namespace";
+
+    private SharedResources() {
+    }
+}
@@ -0,0 +1,20 @@
+package com.spribe.scheduling;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Shared resources a test reads or mutates, used by {@link TestScheduler} to decide which tests may run together.
+ * Two tests conflict when one writes a resource the other reads or writes. On a class it applies to every test
+ * method of the class and its subclasses, in addition to the method's own claims. Names are free-form;
+ * {@link SharedResources} holds the ones used by this suite.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface TestResources {
+    String[] reads() default {};
+
+    String[] writes() default {};
+}
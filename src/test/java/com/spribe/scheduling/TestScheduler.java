@@ -0,0 +1,223 @@
+package com.spribe.scheduling;
+
+import com.spribe.config.ConfigManager;
+import com.spribe.history.TestHistory;
+import com.spribe.metrics.ApiMetrics;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.IConfigurationListener;
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Runs test methods in parallel while keeping conflicting ones apart.
+ * Each test's {@link ResourceClaim} comes from its {@link TestResources} annotations; a test holds the
+ * locks of its claim from its first @BeforeMethod until the test method returns, so tests that conflict run
+ * one after the other and all others run side by side. The method order is rearranged into waves of the
+ * {@link ConflictGraph} so that conflicting tests are not queued next to each other. TestNG gets
+ * scheduler.max.threads threads, and an {@link AdaptiveConcurrencyLimit} fed with the API latency measured by
+ * {@link ApiMetrics} decides how many of them run tests at any time. With history.order=longest the order comes
+ * from the {@link TestHistory} instead, longest test first, and planned so that tests put in the slow or flaky
+ * {@link Lane} run on no more than that lane's number of threads; the plan is in the order, so no worker thread
+ * waits for a lane.
+ */
+public class TestScheduler implements IAlterSuiteListener, IMethodInterceptor, IConfigurationListener,
+        IInvokedMethodListener, ISuiteListener {
+    private static final Logger logger = LogManager.getLogger(TestScheduler.class);
+    private static final String ORDER_LONGEST = "longest";
+
+    private final boolean enabled;
+    private final int maxThreads;
+    private final ResourceLocks locks = new ResourceLocks();
+    private final AdaptiveConcurrencyLimit limit;
+    private final ThreadLocal<Claimed> claimed = new ThreadLocal<>();
+    private final HistoryOrder historyOrder;
+    private final Map<Lane, Integer> laneThreads = new EnumMap<>(Lane.class);
+
+    public TestScheduler() {
+        ConfigManager config = ConfigManager.getInstance();
+        enabled = config.isSchedulerEnabled();
+        maxThreads = config.getSchedulerMaxThreads();
+        limit = new AdaptiveConcurrencyLimit(config.getSchedulerInitialThreads(), config.getSchedulerMinThreads(),
+                maxThreads, config.getSchedulerLatencyTolerance());
+        if (enabled) {
+            ApiMetrics.getInstance().addLatencyObserver(limit::onSample);
+        }
+        if (enabled && config.isHistoryEnabled() && ORDER_LONGEST.equalsIgnoreCase(config.getHistoryOrder())) {
+            Set<Lane> enabledLanes = HistoryOrder.parseLanes(config.getHistoryLanes());
+            historyOrder = new HistoryOrder(TestHistory.load(Paths.get(config.getHistoryFile())), enabledLanes,
+                    config.getHistorySlowThresholdMillis(), config.getHistoryFlakyThreshold());
+            if (enabledLanes.contains(Lane.SLOW)) {
+                laneThreads.put(Lane.SLOW, config.getHistorySlowLaneThreads());
+            }
+            if (enabledLanes.contains(Lane.FLAKY)) {
+                laneThreads.put(Lane.FLAKY, config.getHistoryFlakyLaneThreads());
+            }
+        } else {
+            historyOrder = null;
+        }
+    }
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        if (!enabled) {
+            return;
+        }
+        for (XmlSuite suite : suites) {
+            suite.setParallel(XmlSuite.ParallelMode.METHODS);
+            suite.setThreadCount(maxThreads);
+            logger.info("Scheduling suite '{}' on {} threads, {}", suite.getName(), maxThreads, limit);
+        }
+    }
+
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        if (!enabled) {
+            return methods;
+        }
+        Map<IMethodInstance, ResourceClaim> claims = new LinkedHashMap<>();
+        for (IMethodInstance method : methods) {
+            claims.put(method, claimOf(method.getMethod()));
+        }
+        ConflictGraph<IMethodInstance> graph = new ConflictGraph<>(claims);
+        List<IMethodInstance> ordered = graph.orderedByWave();
+        int waves = graph.waves().values().stream().mapToInt(wave -> wave + 1).max().orElse(0);
+        logger.info("Conflict graph of '{}': {} test(s), {} conflicting pair(s), {} wave(s)",
+                context.getName(), graph.size(), graph.getEdgeCount(), waves);
+        if (historyOrder != null) {
+            ordered = orderByHistory(ordered, graph, context);
+        }
+        if (logger.isDebugEnabled()) {
+            for (IMethodInstance method : ordered) {
+                if (!graph.conflictsOf(method).isEmpty()) {
+                    logger.debug("{} [{}] conflicts with {} test(s)", method.getMethod().getQualifiedName(),
+                            claims.get(method), graph.conflictsOf(method).size());
+                }
+            }
+        }
+        return ordered;
+    }
+
+    private List<IMethodInstance> orderByHistory(List<IMethodInstance> byWave, ConflictGraph<IMethodInstance> graph,
+                                                 ITestContext context) {
+        if (historyOrder.isEmpty()) {
+            logger.info("No test history yet, '{}' keeps the wave order", context.getName());
+            return byWave;
+        }
+        Function<IMethodInstance, String> keys = method -> TestHistory.keyOf(method.getMethod());
+        int threads = limit.getLimit();
+        List<IMethodInstance> ordered = historyOrder.order(byWave, keys, graph::conflictsOf, threads, laneThreads);
+        logger.info("Ordered '{}' longest first from the test history: estimated makespan {} s on {} thread(s), "
+                        + "{} s in wave order; lanes {}", context.getName(),
+                seconds(historyOrder.estimateMakespanMillis(ordered, keys, threads)), threads,
+                seconds(historyOrder.estimateMakespanMillis(byWave, keys, threads)),
+                historyOrder.laneSizes(ordered, keys));
+        return ordered;
+    }
+
+    private static String seconds(long millis) {
+        return String.format(Locale.ROOT, "%.1f", millis / 1000.0);
+    }
+
+    @Override
+    public void beforeConfiguration(ITestResult result, ITestNGMethod testMethod) {
+        if (enabled && testMethod != null && result.getMethod().isBeforeMethodConfiguration()) {
+            begin(testMethod);
+        }
+    }
+
+    @Override
+    public void onConfigurationFailure(ITestResult result, ITestNGMethod testMethod) {
+        if (result.getMethod().isBeforeMethodConfiguration()) {
+            end();
+        }
+    }
+
+    @Override
+    public void onConfigurationSkip(ITestResult result, ITestNGMethod testMethod) {
+        if (result.getMethod().isBeforeMethodConfiguration()) {
+            end();
+        }
+    }
+
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (enabled && method.isTestMethod()) {
+            begin(method.getTestMethod());
+        }
+    }
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod()) {
+            end();
+        }
+    }
+
+    @Override
+    public void onFinish(ISuite suite) {
+        if (enabled) {
+            logger.info("Test scheduler: {}, {} wait(s) for conflicting tests", limit, locks.getWaits());
+        }
+    }
+
+    /**
+     * Takes the claim's locks, then a slot under the concurrency limit, unless this thread already holds them for
+     * the same test; the limit last, so a test waiting for a conflicting test does not occupy a slot. Lanes are
+     * not taken here: they are planned into the order
+     */
+    private void begin(ITestNGMethod method) {
+        Claimed current = claimed.get();
+        if (current != null) {
+            if (current.method == method) {
+                return;
+            }
+            end();
+        }
+        List<ResourceLocks.Held> held = locks.acquire(claimOf(method));
+        limit.acquire();
+        claimed.set(new Claimed(method, held));
+    }
+
+    private void end() {
+        Claimed current = claimed.get();
+        if (current == null) {
+            return;
+        }
+        claimed.remove();
+        limit.release();
+        locks.release(current.held);
+    }
+
+    private static ResourceClaim claimOf(ITestNGMethod method) {
+        return ResourceClaim.of(method.getConstructorOrMethod().getMethod(), method.getRealClass());
+    }
+
+    private static final class Claimed {
+        private final ITestNGMethod method;
+        private final List<ResourceLocks.Held> held;
+
+        Claimed(ITestNGMethod method, List<ResourceLocks.Held> held) {
+            this.method = method;
+            this.held = held;
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.spribe.server;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.spribe.api.PlayerCodec;
+import com.spribe.config.ConfigManager;
+import com.spribe.models.Player;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded stand-in for the remote PlayerController, selected with api.target=local.
+ * Serves the same routes and HTTP methods as the real service on the loopback interface,
+ * backed by {@link PlayerStore}, and seeds the configured supervisor and admin accounts.
+ * Requests are handled by a pool of api.local.threads workers; with 0 they run on the dispatcher thread,
+ * which also accepts and reads every connection, so one slow exchange stalls all others.
+ * <p>
+ * The X-Fault-* request headers set by {@link com.spribe.api.FaultInjectionFilter} degrade single exchanges:
+ * the handler waits before acting, answers an error status without touching the store, closes the connection
+ * without a response after the store has acted, or holds the response back as if the link were slow. The client
+ * sees real socket timeouts and connection failures.
+ */
+public class LocalPlayerServer {
+    private static final Logger logger = LogManager.getLogger(LocalPlayerServer.class);
+    private static final String CREATE_PATH = "/player/create/";
+    private static final String GET_PATH = "/player/get";
+    private static final String UPDATE_PATH = "/player/update/";
+    private static final String DELETE_PATH = "/player/delete/";
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    public static final String FAULT_PROFILE_HEADER = "X-Fault-Profile";
+    public static final String FAULT_DELAY_HEADER = "X-Fault-Delay-Ms";
+    public static final String FAULT_STATUS_HEADER = "X-Fault-Status";
+    public static final String FAULT_DROP_HEADER = "X-Fault-Drop";
+    public static final String FAULT_BANDWIDTH_HEADER = "X-Fault-Bandwidth";
+
+    static {
+        // The JDK server writes headers and body separately; with Nagle on, every keep-alive response
+        // after the first waits for the client's delayed ACK (~40 ms). Read once when the server class loads.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final PlayerStore store;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public LocalPlayerServer(int port, int threads, PlayerStore store) {
+        this.store = store;
+        if (threads > 0) {
+            AtomicInteger counter = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "local-player-server-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            executor = null;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to start local player server on port " + port, e);
+        }
+        server.createContext("/player/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    private static class Holder {
+        private static final LocalPlayerServer INSTANCE = startFromConfig(ConfigManager.getInstance());
+    }
+
+    /**
+     * Shared server, started on first use
+     */
+    public static LocalPlayerServer getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    private static LocalPlayerServer startFromConfig(ConfigManager config) {
+        PlayerStore store = new PlayerStore();
+        store.seed(config.getSupervisorLogin(), PlayerStore.SUPERVISOR);
+        store.seed(config.getAdminLogin(), PlayerStore.ADMIN);
+        LocalPlayerServer server = new LocalPlayerServer(config.getLocalServerPort(), config.getLocalServerThreads(), store);
+        server.start();
+        return server;
+    }
+
+    public void start() {
+        server.start();
+        logger.info("Local player server listening on {}", getBaseUrl());
+    }
+
+    public void stop() {
+        server.stop(0);
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        logger.info("Local player server stopped, {} player(s) left in store", store.size());
+    }
+
+    public String getBaseUrl() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getHostString() + ":" + address.getPort();
+    }
+
+    public PlayerStore getStore() {
+        return store;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        Fault fault = Fault.NONE;
+        try {
+            byte[] requestBody = readBody(exchange);
+            InputStream body = new ByteArrayInputStream(requestBody);
+            fault = Fault.of(exchange.getRequestHeaders(), requestBody.length);
+            fault.delay();
+            if (fault.status > 0) {
+                throw new PlayerStore.PlayerStoreException(fault.status, "Injected by fault profile " + fault.profile);
+            }
+            String path = exchange.getRequestURI().getRawPath();
+            String method = exchange.getRequestMethod();
+            if (path.startsWith(CREATE_PATH)) {
+                requireMethod(method, "GET");
+                Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+                Player player = new Player(query.get("login"), query.get("password"), query.get("screenName"),
+                        query.get("gender"), parseInteger(query.get("age")), query.get("role"));
+                respond(exchange, fault, 200, store.create(decode(path.substring(CREATE_PATH.length())), player).json());
+            } else if (path.equals(GET_PATH)) {
+                requireMethod(method, "POST");
+                respond(exchange, fault, 200, store.get(readPlayerId(body)).json());
+            } else if (path.startsWith(UPDATE_PATH)) {
+                requireMethod(method, "PATCH");
+                String[] segments = path.substring(UPDATE_PATH.length()).split("/");
+                if (segments.length != 2) {
+                    throw new PlayerStore.PlayerStoreException(404, "No route for " + path);
+                }
+                Player changes = readPlayer(body);
+                respond(exchange, fault, 200, store.update(decode(segments[0]), parseId(segments[1]), changes).json());
+            } else if (path.startsWith(DELETE_PATH)) {
+                requireMethod(method, "DELETE");
+                Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+                store.delete(decode(path.substring(DELETE_PATH.length())), parseId(query.get("playerId")));
+                respond(exchange, fault, 204, null);
+            } else {
+                throw new PlayerStore.PlayerStoreException(404, "No route for " + path);
+            }
+        } catch (PlayerStore.PlayerStoreException e) {
+            respondError(exchange, fault, e.getStatus(), e.getMessage());
+        } catch (RuntimeException e) {
+            logger.error("Local player server failed on {} {}", exchange.getRequestMethod(), exchange.getRequestURI(), e);
+            respondError(exchange, fault, 500, e.toString());
+        } finally {
+            // Without a response sent, as for an injected drop, this closes the connection
+            exchange.close();
+        }
+    }
+
+    /**
+     * Reads the whole request body before any response is sent. The JDK server closes the connection when
+     * an exchange finishes with unread request bytes, and it can finish a response (at once for 204) before
+     * exchange.close() drains them, so the client's next request on that keep-alive connection is reset.
+     */
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static void requireMethod(String actual, String expected) {
+        if (!expected.equals(actual)) {
+            throw new PlayerStore.PlayerStoreException(405, "Request method '" + actual + "' not supported");
+        }
+    }
+
+    /**
+     * Sends the response, or nothing when the fault drops it; a null body is sent as an empty response
+     */
+    private static void respond(HttpExchange exchange, Fault fault, int status, byte[] body) throws IOException {
+        if (fault.drop) {
+            return;
+        }
+        fault.transfer(body == null ? 0 : body.length);
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void respondError(HttpExchange exchange, Fault fault, int status, String message) throws IOException {
+        String json = "{\"status\":" + status + ",\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+        respond(exchange, fault, status, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Player readPlayer(InputStream body) {
+        try {
+            return PlayerCodec.read(body);
+        } catch (UncheckedIOException e) {
+            throw new PlayerStore.PlayerStoreException(400, "Malformed player JSON");
+        }
+    }
+
+    private static int readPlayerId(InputStream body) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                String field;
+                while ((field = parser.nextFieldName()) != null) {
+                    JsonToken value = parser.nextToken();
+                    if ("playerId".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                        return parser.getIntValue();
+                    }
+                    parser.skipChildren();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // Reported below as a bad request
+        }
+        throw new PlayerStore.PlayerStoreException(400, "Body must be a JSON object with a numeric playerId");
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(decode(pair.substring(0, eq)), decode(pair.substring(eq + 1)));
+            }
+        }
+        return params;
+    }
+
+    private static Integer parseInteger(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new PlayerStore.PlayerStoreException(400, "Not a number: " + value);
+        }
+    }
+
+    private static int parseId(String value) {
+        Integer id = parseInteger(value);
+        if (id == null) {
+            throw new PlayerStore.PlayerStoreException(400, "Player id is required");
+        }
+        return id;
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Degradation requested for one exchange through the X-Fault-* headers
+     */
+    private static final class Fault {
+        static final Fault NONE = new Fault(null, 0, 0, false, 0, 0);
+
+        final String profile;
+        final long delayMillis;
+        final int status;
+        final boolean drop;
+        final long bandwidthBytesPerSecond;
+        final long requestBytes;
+
+        private Fault(String profile, long delayMillis, int status, boolean drop, long bandwidthBytesPerSecond,
+                      long requestBytes) {
+            this.profile = profile;
+            this.delayMillis = delayMillis;
+            this.status = status;
+            this.drop = drop;
+            this.bandwidthBytesPerSecond = bandwidthBytesPerSecond;
+            this.requestBytes = requestBytes;
+        }
+
+        static Fault of(Headers headers, long requestBytes) {
+            String profile = headers.getFirst(FAULT_PROFILE_HEADER);
+            if (profile == null) {
+                return NONE;
+            }
+            return new Fault(profile, parseLong(headers.getFirst(FAULT_DELAY_HEADER)),
+                    (int) parseLong(headers.getFirst(FAULT_STATUS_HEADER)),
+                    Boolean.parseBoolean(headers.getFirst(FAULT_DROP_HEADER)),
+                    parseLong(headers.getFirst(FAULT_BANDWIDTH_HEADER)), requestBytes);
+        }
+
+        void delay() {
+            sleep(delayMillis);
+        }
+
+        /**
+         * Holds the response back for as long as the request and response bodies take on the capped link
+         */
+        void transfer(long responseBytes) {
+            if (bandwidthBytesPerSecond > 0) {
+                sleep((requestBytes + responseBytes) * 1000 / bandwidthBytesPerSecond);
+            }
+        }
+
+        private static long parseLong(String value) {
+            if (value == null) {
+                return 0;
+            }
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                throw new PlayerStore.PlayerStoreException(400, "Invalid fault header value: " + value);
+            }
+        }
+
+        private static void sleep(long millis) {
+            if (millis <= 0) {
+                return;
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
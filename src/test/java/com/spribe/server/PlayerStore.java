@@ -0,0 +1,309 @@
+package com.spribe.server;
+
+import com.spribe.api.PlayerCodec;
+import com.spribe.models.Player;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory player repository with the PlayerController rules the tests encode.
+ * Accounts are immutable snapshots swapped in with compare-and-set, and login and screenName uniqueness is
+ * enforced through putIfAbsent on index maps, so no operation takes a lock.
+ * <ul>
+ *     <li>supervisor and admin can create players, admin only with the user role</li>
+ *     <li>supervisor can update anyone, admin can update users and himself, user only himself</li>
+ *     <li>supervisor can delete admins and users, admin can delete users; nobody deletes himself or a supervisor</li>
+ * </ul>
+ */
+public class PlayerStore {
+    static final String SUPERVISOR = "supervisor";
+    static final String ADMIN = "admin";
+    static final String USER = "user";
+
+    private final ConcurrentMap<Integer, Account> players = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> logins = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Integer> screenNames = new ConcurrentHashMap<>();
+    private final AtomicInteger ids = new AtomicInteger();
+
+    /**
+     * Registers the pre-existing accounts; they bypass the editor checks because nobody can create a supervisor
+     */
+    public void seed(String login, String role) {
+        Player player = new Player(login, "Seed1234", login, "male", 30, role);
+        insert(player);
+    }
+
+    public Account create(String editorLogin, Player player) {
+        Account editor = requireEditor(editorLogin);
+        validateRequired(player);
+        validate(player);
+        if (!USER.equals(player.getRole()) && !ADMIN.equals(player.getRole())) {
+            throw new PlayerStoreException(400, "Role must be user or admin");
+        }
+        if (!SUPERVISOR.equals(editor.role()) && !(ADMIN.equals(editor.role()) && USER.equals(player.getRole()))) {
+            throw new PlayerStoreException(403, "Editor " + editorLogin + " cannot create " + player.getRole());
+        }
+        return insert(player);
+    }
+
+    public Account get(int id) {
+        Account account = players.get(id);
+        if (account == null) {
+            throw new PlayerStoreException(404, "Player " + id + " not found");
+        }
+        return account;
+    }
+
+    public Account update(String editorLogin, int id, Player changes) {
+        Account editor = requireEditor(editorLogin);
+        validate(changes);
+        while (true) {
+            Account current = get(id);
+            if (!canUpdate(editor, current)) {
+                throw new PlayerStoreException(403, "Editor " + editorLogin + " cannot update player " + id);
+            }
+            if (changes.getRole() != null && !changes.getRole().equals(current.role())) {
+                if (!SUPERVISOR.equals(editor.role()) || SUPERVISOR.equals(current.role())
+                        || SUPERVISOR.equals(changes.getRole())) {
+                    throw new PlayerStoreException(403, "Editor " + editorLogin + " cannot change the role of player " + id);
+                }
+            }
+            Player merged = merge(current.player, changes);
+            boolean newLogin = !merged.getLogin().equals(current.login());
+            boolean newScreenName = !merged.getScreenName().equals(current.player.getScreenName());
+            if (newLogin) {
+                reserve(logins, merged.getLogin(), id, "Login");
+            }
+            if (newScreenName) {
+                try {
+                    reserve(screenNames, merged.getScreenName(), id, "ScreenName");
+                } catch (PlayerStoreException e) {
+                    if (newLogin) {
+                        logins.remove(merged.getLogin(), id);
+                    }
+                    throw e;
+                }
+            }
+            Account updated = new Account(merged);
+            if (players.replace(id, current, updated)) {
+                if (newLogin) {
+                    logins.remove(current.login(), id);
+                }
+                if (newScreenName) {
+                    screenNames.remove(current.player.getScreenName(), id);
+                }
+                return updated;
+            }
+            // Lost a race with another update or a delete; release what was reserved and start over
+            if (newLogin) {
+                logins.remove(merged.getLogin(), id);
+            }
+            if (newScreenName) {
+                screenNames.remove(merged.getScreenName(), id);
+            }
+        }
+    }
+
+    public void delete(String editorLogin, int id) {
+        Account editor = requireEditor(editorLogin);
+        Account target = get(id);
+        if (!canDelete(editor, target)) {
+            throw new PlayerStoreException(403, "Editor " + editorLogin + " cannot delete player " + id);
+        }
+        if (!players.remove(id, target)) {
+            // Changed or removed concurrently; a removed player is reported as missing
+            delete(editorLogin, id);
+            return;
+        }
+        logins.remove(target.login(), id);
+        screenNames.remove(target.player.getScreenName(), id);
+    }
+
+    public int size() {
+        return players.size();
+    }
+
+    private Account insert(Player player) {
+        int id = ids.incrementAndGet();
+        reserve(logins, player.getLogin(), id, "Login");
+        try {
+            reserve(screenNames, player.getScreenName(), id, "ScreenName");
+        } catch (PlayerStoreException e) {
+            logins.remove(player.getLogin(), id);
+            throw e;
+        }
+        Player stored = copy(player);
+        stored.setId(id);
+        Account account = new Account(stored);
+        players.put(id, account);
+        return account;
+    }
+
+    private Account requireEditor(String editorLogin) {
+        Integer editorId = editorLogin == null ? null : logins.get(editorLogin);
+        Account editor = editorId == null ? null : players.get(editorId);
+        if (editor == null) {
+            throw new PlayerStoreException(403, "Unknown editor " + editorLogin);
+        }
+        return editor;
+    }
+
+    private static boolean canUpdate(Account editor, Account target) {
+        if (editor.id() == target.id() || SUPERVISOR.equals(editor.role())) {
+            return true;
+        }
+        return ADMIN.equals(editor.role()) && USER.equals(target.role());
+    }
+
+    private static boolean canDelete(Account editor, Account target) {
+        if (editor.id() == target.id() || SUPERVISOR.equals(target.role())) {
+            return false;
+        }
+        return SUPERVISOR.equals(editor.role()) || (ADMIN.equals(editor.role()) && USER.equals(target.role()));
+    }
+
+    private static void reserve(ConcurrentMap<String, Integer> index, String key, int id, String field) {
+        Integer owner = index.putIfAbsent(key, id);
+        if (owner != null && owner != id) {
+            throw new PlayerStoreException(400, field + " " + key + " is already taken");
+        }
+    }
+
+    private static void validateRequired(Player player) {
+        if (isBlank(player.getLogin()) || isBlank(player.getPassword()) || isBlank(player.getScreenName())
+                || isBlank(player.getGender()) || player.getAge() == null || isBlank(player.getRole())) {
+            throw new PlayerStoreException(400, "login, password, screenName, gender, age and role are required");
+        }
+    }
+
+    /**
+     * Checks the fields that are present; absent fields are left to the caller
+     */
+    private static void validate(Player player) {
+        if (player.getAge() != null && (player.getAge() < 16 || player.getAge() > 60)) {
+            throw new PlayerStoreException(400, "Age must be between 16 and 60");
+        }
+        if (player.getGender() != null && !"male".equals(player.getGender()) && !"female".equals(player.getGender())) {
+            throw new PlayerStoreException(400, "Gender must be male or female");
+        }
+        if (player.getPassword() != null && !isValidPassword(player.getPassword())) {
+            throw new PlayerStoreException(400, "Password must be 7-15 latin letters and digits with at least one of each");
+        }
+        if (player.getRole() != null && !USER.equals(player.getRole()) && !ADMIN.equals(player.getRole())
+                && !SUPERVISOR.equals(player.getRole())) {
+            throw new PlayerStoreException(400, "Unknown role " + player.getRole());
+        }
+        if ((player.getLogin() != null && player.getLogin().isEmpty())
+                || (player.getScreenName() != null && player.getScreenName().isEmpty())) {
+            throw new PlayerStoreException(400, "login and screenName must not be empty");
+        }
+    }
+
+    private static boolean isValidPassword(String password) {
+        if (password.length() < 7 || password.length() > 15) {
+            return false;
+        }
+        boolean letter = false;
+        boolean digit = false;
+        for (int i = 0; i < password.length(); i++) {
+            char c = password.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                letter = true;
+            } else if (c >= '0' && c <= '9') {
+                digit = true;
+            } else {
+                return false;
+            }
+        }
+        return letter && digit;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    private static Player merge(Player current, Player changes) {
+        Player merged = copy(current);
+        merged.setId(current.getId());
+        if (changes.getLogin() != null) {
+            merged.setLogin(changes.getLogin());
+        }
+        if (changes.getPassword() != null) {
+            merged.setPassword(changes.getPassword());
+        }
+        if (changes.getScreenName() != null) {
+            merged.setScreenName(changes.getScreenName());
+        }
+        if (changes.getGender() != null) {
+            merged.setGender(changes.getGender());
+        }
+        if (changes.getAge() != null) {
+            merged.setAge(changes.getAge());
+        }
+        if (changes.getRole() != null) {
+            merged.setRole(changes.getRole());
+        }
+        return merged;
+    }
+
+    private static Player copy(Player player) {
+        return new Player(player.getLogin(), player.getPassword(), player.getScreenName(),
+                player.getGender(), player.getAge(), player.getRole());
+    }
+
+    /**
+     * Immutable stored player with its response body serialized once; the password is never echoed back
+     */
+    public static final class Account {
+        private final Player player;
+        private final byte[] json;
+
+        Account(Player player) {
+            this.player = player;
+            Player view = copy(player);
+            view.setId(player.getId());
+            view.setPassword(null);
+            this.json = PlayerCodec.write(view);
+        }
+
+        public int id() {
+            return player.getId();
+        }
+
+        public String login() {
+            return player.getLogin();
+        }
+
+        public String role() {
+            return player.getRole();
+        }
+
+        public byte[] json() {
+            return json;
+        }
+
+        @Override
+        public String toString() {
+            return "Account{id=" + player.getId() + ", login='" + login() + "', role=" + role() + '}';
+        }
+    }
+
+    /**
+     * Rejected request with the HTTP status the controller answers with.
+     * Stack traces are skipped, rejections are part of normal traffic.
+     */
+    public static class PlayerStoreException extends RuntimeException {
+        private final int status;
+
+        PlayerStoreException(int status, String message) {
+            super(message, null, false, false);
+            this.status = status;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.spribe.sharding;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Recorded duration in milliseconds of every test class and test method, keyed by {@link ShardUnit#getKey()}.
+ * Each run is blended into the history with equal weight, so one slow run does not reshuffle the shards.
+ * Units never measured are estimated at the median of the known ones of the same kind.
+ */
+public final class ShardDurations {
+    private static final long UNKNOWN_MILLIS = 1000;
+    private static final double RUN_WEIGHT = 0.5;
+
+    private final Map<String, Long> millis = new TreeMap<>();
+
+    /**
+     * Reads the history, or starts an empty one when the file does not exist
+     */
+    public static ShardDurations load(Path file) {
+        ShardDurations durations = new ShardDurations();
+        if (!Files.exists(file)) {
+            return durations;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read shard durations " + file, e);
+        }
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                durations.millis.put(key, Long.parseLong(properties.getProperty(key).trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalStateException("Invalid duration for " + key + " in " + file, e);
+            }
+        }
+        return durations;
+    }
+
+    public boolean isEmpty() {
+        return millis.isEmpty();
+    }
+
+    /**
+     * Recorded duration of the unit, or an estimate when it has none
+     */
+    public long estimate(ShardUnit unit) {
+        Long known = millis.get(unit.getKey());
+        if (known != null) {
+            return known;
+        }
+        List<Long> sameKind = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : millis.entrySet()) {
+            if (entry.getKey().contains("#") == (unit.getMethodName() != null)) {
+                sameKind.add(entry.getValue());
+            }
+        }
+        if (sameKind.isEmpty()) {
+            return UNKNOWN_MILLIS;
+        }
+        Collections.sort(sameKind);
+        return sameKind.get(sameKind.size() / 2);
+    }
+
+    /**
+     * Blends the durations measured by one run into the history
+     */
+    public void record(Map<String, Long> measured) {
+        measured.forEach((key, value) -> millis.merge(key, value,
+                (old, current) -> Math.round(old * (1 - RUN_WEIGHT) + current * RUN_WEIGHT)));
+    }
+
+    public void save(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        StringBuilder sb = new StringBuilder("# Test durations in milliseconds, used to balance shards\n");
+        // Written by hand rather than with Properties.store, so the file is sorted and has no timestamp
+        for (Map.Entry<String, Long> entry : millis.entrySet()) {
+            sb.append(entry.getKey()).append('=').append(entry.getValue()).append('\n');
+        }
+        Files.write(file, sb.toString().getBytes(StandardCharsets.ISO_8859_1));
+    }
+}
@@ -0,0 +1,348 @@
+package com.spribe.sharding;
+
+import com.spribe.metrics.ApiMetricsReport;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Merges the outputs of the shards of one run into the single-run locations. The result depends only on the
+ * shard outputs, not on which shard finished first: shards are read in index order, TestNG classes are sorted
+ * by name and their methods by start time, and Allure files are copied in name order.
+ */
+public final class ShardReportMerger {
+    private static final Logger logger = LogManager.getLogger(ShardReportMerger.class);
+    private static final String[] COUNTS = {"ignored", "total", "passed", "failed", "skipped"};
+    private static final String API_ENVIRONMENT_PREFIX = "api.";
+
+    private ShardReportMerger() {
+    }
+
+    /**
+     * Combines the shards' testng-results.xml into one file with one &lt;suite&gt; and &lt;test&gt; per name
+     *
+     * @return the merged results
+     */
+    public static TestNgResults mergeTestNg(List<Path> shardFiles, Path target) throws IOException {
+        DocumentBuilder builder = newDocumentBuilder();
+        Document merged = builder.newDocument();
+        Element root = merged.createElement("testng-results");
+        merged.appendChild(root);
+        Element reporterOutput = merged.createElement("reporter-output");
+        root.appendChild(reporterOutput);
+        long[] counts = new long[COUNTS.length];
+        Map<String, Element> suites = new LinkedHashMap<>();
+        for (Path file : shardFiles) {
+            if (!Files.exists(file)) {
+                continue;
+            }
+            Element shardRoot;
+            try (InputStream in = Files.newInputStream(file)) {
+                shardRoot = builder.parse(in).getDocumentElement();
+            } catch (SAXException e) {
+                throw new IOException("Malformed TestNG results " + file, e);
+            }
+            for (int i = 0; i < COUNTS.length; i++) {
+                counts[i] += parseLong(shardRoot.getAttribute(COUNTS[i]));
+            }
+            for (Element child : children(shardRoot, null)) {
+                if ("reporter-output".equals(child.getTagName())) {
+                    children(child, null).forEach(line -> reporterOutput.appendChild(merged.importNode(line, true)));
+                } else if ("suite".equals(child.getTagName())) {
+                    Element suite = suites.computeIfAbsent(child.getAttribute("name"), name -> {
+                        Element created = (Element) merged.importNode(child, false);
+                        root.appendChild(created);
+                        return created;
+                    });
+                    mergeSuite(suite, child);
+                }
+            }
+        }
+        for (int i = 0; i < COUNTS.length; i++) {
+            root.setAttribute(COUNTS[i], String.valueOf(counts[i]));
+        }
+        for (Element suite : suites.values()) {
+            for (Element test : children(suite, "test")) {
+                sortClasses(test);
+            }
+        }
+        write(merged, target);
+        return new TestNgResults(counts[1], counts[2], counts[3], counts[4], measuredDurations(suites.values()));
+    }
+
+    private static void mergeSuite(Element suite, Element shardSuite) {
+        mergeTiming(suite, shardSuite);
+        Document document = suite.getOwnerDocument();
+        for (Element child : children(shardSuite, null)) {
+            String tag = child.getTagName();
+            if ("groups".equals(tag)) {
+                Element groups = first(suite, "groups");
+                if (groups == null) {
+                    groups = (Element) suite.insertBefore(document.createElement("groups"), suite.getFirstChild());
+                }
+                for (Element group : children(child, "group")) {
+                    Element existing = named(groups, "group", group.getAttribute("name"));
+                    if (existing == null) {
+                        groups.appendChild(document.importNode(group, true));
+                    } else {
+                        children(group, null).forEach(method -> existing.appendChild(document.importNode(method, true)));
+                    }
+                }
+            } else if ("test".equals(tag)) {
+                Element test = named(suite, "test", child.getAttribute("name"));
+                if (test == null) {
+                    test = (Element) suite.appendChild(document.importNode(child, false));
+                } else {
+                    mergeTiming(test, child);
+                }
+                for (Element shardClass : children(child, "class")) {
+                    Element mergedClass = named(test, "class", shardClass.getAttribute("name"));
+                    if (mergedClass == null) {
+                        mergedClass = (Element) test.appendChild(document.importNode(shardClass, false));
+                    }
+                    for (Node node : children(shardClass, null)) {
+                        mergedClass.appendChild(document.importNode(node, true));
+                    }
+                }
+            } else {
+                suite.appendChild(document.importNode(child, true));
+            }
+        }
+    }
+
+    /**
+     * Earliest start and latest finish; shards run side by side, so the duration is that of the longest one
+     */
+    private static void mergeTiming(Element merged, Element shard) {
+        if (compareOrEmpty(shard.getAttribute("started-at"), merged.getAttribute("started-at")) < 0) {
+            merged.setAttribute("started-at", shard.getAttribute("started-at"));
+        }
+        if (compareOrEmpty(shard.getAttribute("finished-at"), merged.getAttribute("finished-at")) > 0) {
+            merged.setAttribute("finished-at", shard.getAttribute("finished-at"));
+        }
+        long duration = Math.max(parseLong(merged.getAttribute("duration-ms")),
+                parseLong(shard.getAttribute("duration-ms")));
+        merged.setAttribute("duration-ms", String.valueOf(duration));
+    }
+
+    private static int compareOrEmpty(String candidate, String current) {
+        return candidate.isEmpty() || current.isEmpty() ? 0 : candidate.compareTo(current);
+    }
+
+    private static void sortClasses(Element test) {
+        List<Element> classes = children(test, "class");
+        classes.sort(Comparator.comparing(element -> element.getAttribute("name")));
+        for (Element type : classes) {
+            List<Element> methods = children(type, "test-method");
+            methods.sort(Comparator.comparing((Element method) -> method.getAttribute("started-at"))
+                    .thenComparing(method -> method.getAttribute("signature")));
+            methods.forEach(type::appendChild);
+            test.appendChild(type);
+        }
+    }
+
+    /**
+     * Milliseconds spent per class (configuration methods included) and per test method, retries summed
+     */
+    private static Map<String, Long> measuredDurations(Iterable<Element> suites) {
+        Map<String, Long> durations = new TreeMap<>();
+        for (Element suite : suites) {
+            for (Element test : children(suite, "test")) {
+                for (Element type : children(test, "class")) {
+                    String className = type.getAttribute("name");
+                    for (Element method : children(type, "test-method")) {
+                        long millis = parseLong(method.getAttribute("duration-ms"));
+                        durations.merge(className, millis, Long::sum);
+                        if (!"true".equals(method.getAttribute("is-config"))) {
+                            durations.merge(className + "#" + method.getAttribute("name"), millis, Long::sum);
+                        }
+                    }
+                }
+            }
+        }
+        return durations;
+    }
+
+    /**
+     * Copies every shard's Allure results into one directory; environment entries are combined, except the
+     * per-shard API metrics, which are replaced by the merged ones
+     */
+    public static int mergeAllure(List<Path> shardDirs, Path target) throws IOException {
+        Files.createDirectories(target);
+        Properties environment = new Properties();
+        int copied = 0;
+        for (Path dir : shardDirs) {
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(dir)) {
+                files = listing.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                if ("environment.properties".equals(file.getFileName().toString())) {
+                    Properties shardEnvironment = new Properties();
+                    try (InputStream in = Files.newInputStream(file)) {
+                        shardEnvironment.load(in);
+                    }
+                    for (String key : shardEnvironment.stringPropertyNames()) {
+                        if (!key.startsWith(API_ENVIRONMENT_PREFIX)) {
+                            environment.setProperty(key, shardEnvironment.getProperty(key));
+                        }
+                    }
+                } else {
+                    Files.copy(file, target.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+                    copied++;
+                }
+            }
+        }
+        if (!environment.isEmpty()) {
+            try (OutputStream out = Files.newOutputStream(target.resolve("environment.properties"))) {
+                environment.store(out, null);
+            }
+        }
+        return copied;
+    }
+
+    /**
+     * Combines the shards' api-metrics.json, or returns null when no shard recorded metrics
+     */
+    public static ApiMetricsReport mergeMetrics(List<Path> shardDirs) throws IOException {
+        List<ApiMetricsReport> reports = new ArrayList<>();
+        for (Path dir : shardDirs) {
+            Path file = dir.resolve("api-metrics.json");
+            if (Files.exists(file)) {
+                reports.add(ApiMetricsReport.read(file));
+            }
+        }
+        if (reports.isEmpty()) {
+            return null;
+        }
+        logger.debug("Merging API metrics of {} shard(s)", reports.size());
+        return ApiMetricsReport.merge(reports);
+    }
+
+    private static List<Element> children(Element parent, String tag) {
+        List<Element> elements = new ArrayList<>();
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node.getNodeType() == Node.ELEMENT_NODE && (tag == null || tag.equals(node.getNodeName()))) {
+                elements.add((Element) node);
+            }
+        }
+        return elements;
+    }
+
+    private static Element first(Element parent, String tag) {
+        List<Element> elements = children(parent, tag);
+        return elements.isEmpty() ? null : elements.get(0);
+    }
+
+    private static Element named(Element parent, String tag, String name) {
+        for (Element element : children(parent, tag)) {
+            if (name.equals(element.getAttribute("name"))) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private static long parseLong(String value) {
+        return value == null || value.isEmpty() ? 0 : Long.parseLong(value.trim());
+    }
+
+    private static DocumentBuilder newDocumentBuilder() {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+            return factory.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException("No XML parser available", e);
+        }
+    }
+
+    private static void write(Document document, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try (OutputStream out = Files.newOutputStream(target)) {
+            Transformer transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+            transformer.transform(new DOMSource(document), new StreamResult(out));
+        } catch (TransformerException e) {
+            throw new IOException("Could not write merged TestNG results " + target, e);
+        }
+    }
+
+    /**
+     * Totals of the merged TestNG results and the durations they measured
+     */
+    public static final class TestNgResults {
+        private final long total;
+        private final long passed;
+        private final long failed;
+        private final long skipped;
+        private final Map<String, Long> durations;
+
+        TestNgResults(long total, long passed, long failed, long skipped, Map<String, Long> durations) {
+            this.total = total;
+            this.passed = passed;
+            this.failed = failed;
+            this.skipped = skipped;
+            this.durations = durations;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public long getPassed() {
+            return passed;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        public long getSkipped() {
+            return skipped;
+        }
+
+        public Map<String, Long> getDurations() {
+            return durations;
+        }
+
+        @Override
+        public String toString() {
+            return "total " + total + ", passed " + passed + ", failed " + failed + ", skipped " + skipped;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.spribe.sharding;
+
+import com.spribe.scheduling.ResourceClaim;
+import org.testng.xml.XmlTest;
+
+/**
+ * A test class, or a single test method of it, that is assigned to one shard as a whole
+ */
+public final class ShardUnit {
+    private final XmlTest test;
+    private final String className;
+    private final String methodName;
+    private final ResourceClaim claim;
+
+    ShardUnit(XmlTest test, String className, String methodName, ResourceClaim claim) {
+        this.test = test;
+        this.className = className;
+        this.methodName = methodName;
+        this.claim = claim;
+    }
+
+    /**
+     * The &lt;test&gt; of the suite file the unit comes from
+     */
+    public XmlTest getTest() {
+        return test;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * The test method, or null when the unit is the whole class
+     */
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public ResourceClaim getClaim() {
+        return claim;
+    }
+
+    /**
+     * Name under which the unit's duration is recorded: the class name, or class#method
+     */
+    public String getKey() {
+        return methodName == null ? className : className + "#" + methodName;
+    }
+
+    @Override
+    public String toString() {
+        return getKey();
+    }
+}
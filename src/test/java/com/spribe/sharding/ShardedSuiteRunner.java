@@ -0,0 +1,227 @@
+package com.spribe.sharding;
+
+import com.spribe.config.ConfigManager;
+import com.spribe.metrics.ApiMetricsReport;
+import com.spribe.metrics.PerformanceGate;
+import com.spribe.metrics.PerformanceGateListener;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs the suite file split across several forked TestNG JVMs and merges their results (mvn test -Pshard).
+ * Every shard writes its Allure results, logs, API metrics and TestNG reports under shard.dir/shard-N;
+ * afterwards {@link ShardReportMerger} puts the merged Allure results and API metrics where a single-JVM run
+ * writes them, and the merged TestNG results in shard.dir. The performance gate is checked once, against the
+ * merged metrics, and the measured durations balance the next run. A shard still running after
+ * shard.timeout.minutes is killed and fails the run.
+ */
+public final class ShardedSuiteRunner {
+    private static final Logger logger = LogManager.getLogger(ShardedSuiteRunner.class);
+    private static final String JAVA_AGENT_PROPERTY = "shard.javaagent";
+    // TestNG exit status bits: 1 failed, 2 skipped, 4 failed within success percentage, 8 no tests run
+    private static final int TESTNG_STATUS_MASK = 0xF;
+
+    private ShardedSuiteRunner() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        ConfigManager config = ConfigManager.getInstance();
+        int shardCount = config.getShardCount() > 0 ? config.getShardCount()
+                : Runtime.getRuntime().availableProcessors();
+        Path shardRoot = Paths.get(config.getShardDir());
+        Path durationsFile = Paths.get(config.getShardDurationsFile());
+
+        SuiteSharder sharder = new SuiteSharder(Paths.get(config.getShardSuiteFile()), config.getShardGranularity());
+        ShardDurations durations = ShardDurations.load(durationsFile);
+        List<List<ShardUnit>> plan = sharder.plan(shardCount, durations);
+        logger.info("Sharding {} {}(s) of '{}' across {} JVM(s), balanced by {}", sharder.getUnits().size(),
+                config.getShardGranularity(), sharder.getSuite().getName(), plan.size(),
+                durations.isEmpty() ? "unit count (no recorded durations yet)" : "durations in " + durationsFile);
+
+        List<Process> processes = new ArrayList<>();
+        List<Path> dirs = new ArrayList<>();
+        long started = System.nanoTime();
+        long runId = config.getHistoryRunId() != 0 ? config.getHistoryRunId() : System.currentTimeMillis();
+        for (int index = 0; index < plan.size(); index++) {
+            List<ShardUnit> shard = plan.get(index);
+            Path dir = shardRoot.resolve("shard-" + index);
+            deleteRecursively(dir);
+            Path suiteFile = dir.resolve("testng.xml");
+            sharder.writeShardSuite(shard, suiteFile);
+            long estimate = shard.stream().mapToLong(durations::estimate).sum();
+            logger.info("Shard {}: {} unit(s), estimated {} s", index, shard.size(),
+                    String.format(Locale.ROOT, "%.1f", estimate / 1000.0));
+            processes.add(fork(index, plan.size(), runId, dir, suiteFile, config));
+            dirs.add(dir);
+        }
+
+        boolean crashed = false;
+        long deadline = started + TimeUnit.MINUTES.toNanos(config.getShardTimeoutMinutes());
+        for (int index = 0; index < processes.size(); index++) {
+            Process process = processes.get(index);
+            if (!process.waitFor(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                // A hung shard would block the run forever; kill it and report it like a crash
+                process.destroyForcibly().waitFor();
+                crashed = true;
+                logger.error("Shard {} did not finish within shard.timeout.minutes={} and was killed, see {}", index,
+                        config.getShardTimeoutMinutes(), dirs.get(index).resolve("console.log"));
+                continue;
+            }
+            int exitCode = process.exitValue();
+            Path results = dirs.get(index).resolve("testng").resolve("testng-results.xml");
+            if ((exitCode & ~TESTNG_STATUS_MASK) != 0 || !Files.exists(results)) {
+                crashed = true;
+                logger.error("Shard {} exited with code {} without complete results, see {}", index, exitCode,
+                        dirs.get(index).resolve("console.log"));
+            } else {
+                logger.info("Shard {} finished with exit code {}", index, exitCode);
+            }
+        }
+        logger.info("All shards finished in {} s", String.format(Locale.ROOT, "%.1f",
+                (System.nanoTime() - started) / 1e9));
+
+        ShardReportMerger.TestNgResults results = ShardReportMerger.mergeTestNg(
+                resolveEach(dirs, "testng/testng-results.xml"), shardRoot.resolve("testng-results.xml"));
+        Path allureResults = Paths.get(System.getProperty("allure.results.directory", "target/allure-results"));
+        int copied = ShardReportMerger.mergeAllure(resolveEach(dirs, "allure-results"), allureResults);
+        logger.info("Merged results: {}; TestNG results in {}, {} Allure file(s) in {}", results,
+                shardRoot.resolve("testng-results.xml"), copied, allureResults);
+        String gateFailure = mergeMetrics(config, dirs, allureResults);
+
+        if (!crashed) {
+            durations.record(results.getDurations());
+            durations.save(durationsFile);
+        }
+        if (crashed || results.getFailed() > 0 || gateFailure != null) {
+            throw new IllegalStateException("Sharded run failed: " + results
+                    + (crashed ? ", a shard crashed" : "") + (gateFailure != null ? ", " + gateFailure : ""));
+        }
+    }
+
+    /**
+     * Writes the merged API metrics and checks the performance gate; returns the gate's failure, if any
+     */
+    private static String mergeMetrics(ConfigManager config, List<Path> dirs, Path allureResults)
+            throws IOException {
+        if (!config.isMetricsEnabled()) {
+            return null;
+        }
+        ApiMetricsReport metrics = ShardReportMerger.mergeMetrics(resolveEach(dirs, "api-metrics"));
+        if (metrics == null) {
+            return null;
+        }
+        logger.info("API metrics of all shards:{}{}", System.lineSeparator(), metrics);
+        metrics.writeFiles(Paths.get(config.getMetricsReportDir()));
+        metrics.writeAllureEnvironment(allureResults);
+        try {
+            PerformanceGateListener.check(metrics.getLatencyByEndpoint());
+            return null;
+        } catch (PerformanceGate.PerformanceRegressionException e) {
+            logger.error("Performance gate: {}", e.getMessage());
+            return e.getMessage();
+        }
+    }
+
+    private static Process fork(int index, int count, long runId, Path dir, Path suiteFile, ConfigManager config)
+            throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        String agent = System.getProperty(JAVA_AGENT_PROPERTY, "");
+        if (!agent.isEmpty()) {
+            command.add("-javaagent:" + agent);
+        }
+        String jvmArgs = config.getShardJvmArgs().trim();
+        if (!jvmArgs.isEmpty()) {
+            command.addAll(Arrays.asList(jvmArgs.split("\\s+")));
+        }
+        Map<String, String> overrides = config.getSystemOverrides();
+        String runPrefix = config.getDataRunPrefix();
+        if (!runPrefix.isEmpty()) {
+            // A fixed prefix would repeat in every shard; the index, padded so all prefixes have the same length,
+            // keeps logins unique
+            int width = String.valueOf(count - 1).length();
+            overrides.put("data.run.prefix", runPrefix + String.format(Locale.ROOT, "%0" + width + "d", index));
+        }
+        overrides.put("allure.results.directory", dir.resolve("allure-results").toString());
+        overrides.put("log.dir", dir.resolve("logs").toString());
+        overrides.put("metrics.report.dir", dir.resolve("api-metrics").toString());
+        overrides.put("perf.gate.mode", "off");
+        overrides.put("shard.index", String.valueOf(index));
+        overrides.put("shard.count", String.valueOf(count));
+        // Every shard appends its part of the run to the run history under the same id
+        overrides.put("history.run.id", String.valueOf(runId));
+        copySystemProperty("log.level", overrides);
+        overrides.forEach((key, value) -> command.add("-D" + key + "=" + value));
+        command.add("-classpath");
+        command.add(testClasspath());
+        command.add("org.testng.TestNG");
+        command.add("-d");
+        command.add(dir.resolve("testng").toString());
+        command.add(suiteFile.toString());
+        logger.debug("Shard {} command: {}", index, command);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(dir.resolve("console.log").toFile())
+                .start();
+    }
+
+    private static void copySystemProperty(String key, Map<String, String> overrides) {
+        String value = System.getProperty(key);
+        if (value != null) {
+            overrides.put(key, value);
+        }
+    }
+
+    /**
+     * The classpath the runner was started with; under exec:java that is the class loader of the test scope
+     */
+    private static String testClasspath() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader instanceof URLClassLoader) {
+            List<String> entries = new ArrayList<>();
+            for (URL url : ((URLClassLoader) loader).getURLs()) {
+                try {
+                    entries.add(Paths.get(url.toURI()).toString());
+                } catch (URISyntaxException e) {
+                    throw new IllegalStateException("Unexpected classpath entry " + url, e);
+                }
+            }
+            return String.join(File.pathSeparator, entries);
+        }
+        return System.getProperty("java.class.path");
+    }
+
+    private static List<Path> resolveEach(List<Path> dirs, String child) {
+        return dirs.stream().map(dir -> dir.resolve(child)).collect(Collectors.toList());
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            paths = walk.sorted((a, b) -> b.getNameCount() - a.getNameCount()).collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            Files.delete(path);
+        }
+    }
+}
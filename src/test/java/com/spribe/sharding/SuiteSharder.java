@@ -0,0 +1,214 @@
+package com.spribe.sharding;
+
+import com.spribe.scheduling.ConflictGraph;
+import com.spribe.scheduling.ResourceClaim;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import org.testng.xml.internal.Parser;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Splits the classes, or the test methods, of a TestNG suite file into shards of about equal duration.
+ * Units whose {@link ResourceClaim}s conflict stay in the same shard, where the test scheduler keeps them
+ * apart; the groups are then dealt longest first to the shard with the least work so far. Each shard gets a
+ * suite file with the original suite's settings and listeners and only its own units.
+ */
+public final class SuiteSharder {
+    public static final String GRANULARITY_CLASS = "class";
+    public static final String GRANULARITY_METHOD = "method";
+
+    private final XmlSuite suite;
+    private final List<ShardUnit> units;
+
+    public SuiteSharder(Path suiteFile, String granularity) throws IOException {
+        if (!GRANULARITY_CLASS.equalsIgnoreCase(granularity) && !GRANULARITY_METHOD.equalsIgnoreCase(granularity)) {
+            throw new IllegalArgumentException("Unknown shard granularity '" + granularity + "', expected "
+                    + GRANULARITY_CLASS + " or " + GRANULARITY_METHOD);
+        }
+        Parser parser = new Parser(suiteFile.toString());
+        parser.setLoadClasses(false);
+        List<XmlSuite> suites = parser.parseToList();
+        if (suites.size() != 1) {
+            throw new IllegalArgumentException("Sharding needs a single suite without <suite-files>: " + suiteFile);
+        }
+        this.suite = suites.get(0);
+        this.units = collectUnits(suite, GRANULARITY_METHOD.equalsIgnoreCase(granularity));
+    }
+
+    public XmlSuite getSuite() {
+        return suite;
+    }
+
+    public List<ShardUnit> getUnits() {
+        return units;
+    }
+
+    private static List<ShardUnit> collectUnits(XmlSuite suite, boolean byMethod) {
+        List<ShardUnit> units = new ArrayList<>();
+        for (XmlTest test : suite.getTests()) {
+            if (!test.getXmlPackages().isEmpty()) {
+                throw new IllegalArgumentException("Sharding needs <classes>, <test name=\"" + test.getName()
+                        + "\"> uses <packages>");
+            }
+            for (XmlClass xmlClass : test.getXmlClasses()) {
+                Class<?> type = loadClass(xmlClass.getName());
+                Map<String, Method> methods = testMethods(type, xmlClass);
+                if (byMethod) {
+                    methods.forEach((name, method) ->
+                            units.add(new ShardUnit(test, type.getName(), name, ResourceClaim.of(method, type))));
+                } else if (!methods.isEmpty()) {
+                    ResourceClaim claim = ResourceClaim.none();
+                    for (Method method : methods.values()) {
+                        claim = claim.union(ResourceClaim.of(method, type));
+                    }
+                    units.add(new ShardUnit(test, type.getName(), null, claim));
+                }
+            }
+        }
+        return units;
+    }
+
+    /**
+     * Methods annotated with @Test that the &lt;class&gt; element includes, by name in sorted order
+     */
+    private static Map<String, Method> testMethods(Class<?> type, XmlClass xmlClass) {
+        Set<String> included = new LinkedHashSet<>();
+        for (XmlInclude include : xmlClass.getIncludedMethods()) {
+            included.add(include.getName());
+        }
+        Map<String, Method> methods = new TreeMap<>();
+        for (Method method : type.getMethods()) {
+            if (method.getAnnotation(Test.class) == null
+                    || (!included.isEmpty() && !included.contains(method.getName()))
+                    || xmlClass.getExcludedMethods().stream().anyMatch(method.getName()::matches)) {
+                continue;
+            }
+            methods.putIfAbsent(method.getName(), method);
+        }
+        return methods;
+    }
+
+    private static Class<?> loadClass(String name) {
+        try {
+            return Class.forName(name, false, Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Test class " + name + " of the suite is not on the classpath", e);
+        }
+    }
+
+    /**
+     * Deals the units to at most shardCount shards; fewer when there are fewer independent groups of units
+     */
+    public List<List<ShardUnit>> plan(int shardCount, ShardDurations durations) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be at least 1, got " + shardCount);
+        }
+        List<List<ShardUnit>> groups = conflictGroups();
+        Map<List<ShardUnit>, Long> groupMillis = new LinkedHashMap<>();
+        for (List<ShardUnit> group : groups) {
+            groupMillis.put(group, group.stream().mapToLong(durations::estimate).sum());
+        }
+        groups.sort(Comparator.comparingLong((List<ShardUnit> group) -> groupMillis.get(group)).reversed()
+                .thenComparing(group -> group.get(0).getKey()));
+        int count = Math.min(shardCount, groups.size());
+        List<List<ShardUnit>> shards = new ArrayList<>();
+        long[] load = new long[count];
+        for (int i = 0; i < count; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (List<ShardUnit> group : groups) {
+            int lightest = 0;
+            for (int i = 1; i < count; i++) {
+                if (load[i] < load[lightest]) {
+                    lightest = i;
+                }
+            }
+            shards.get(lightest).addAll(group);
+            load[lightest] += groupMillis.get(group);
+        }
+        for (List<ShardUnit> shard : shards) {
+            shard.sort(Comparator.comparingInt(units::indexOf));
+        }
+        return shards;
+    }
+
+    /**
+     * Connected components of the conflict graph, each in suite order
+     */
+    private List<List<ShardUnit>> conflictGroups() {
+        Map<ShardUnit, ResourceClaim> claims = new LinkedHashMap<>();
+        for (ShardUnit unit : units) {
+            claims.put(unit, unit.getClaim());
+        }
+        ConflictGraph<ShardUnit> graph = new ConflictGraph<>(claims);
+        Set<ShardUnit> seen = new LinkedHashSet<>();
+        List<List<ShardUnit>> groups = new ArrayList<>();
+        for (ShardUnit start : units) {
+            if (!seen.add(start)) {
+                continue;
+            }
+            List<ShardUnit> group = new ArrayList<>();
+            Deque<ShardUnit> pending = new ArrayDeque<>();
+            pending.add(start);
+            while (!pending.isEmpty()) {
+                ShardUnit unit = pending.poll();
+                group.add(unit);
+                for (ShardUnit neighbour : graph.conflictsOf(unit)) {
+                    if (seen.add(neighbour)) {
+                        pending.add(neighbour);
+                    }
+                }
+            }
+            group.sort(Comparator.comparingInt(units::indexOf));
+            groups.add(group);
+        }
+        return groups;
+    }
+
+    /**
+     * Writes the suite file of one shard: the original suite with each &lt;test&gt; reduced to the shard's units
+     */
+    public void writeShardSuite(List<ShardUnit> shard, Path file) throws IOException {
+        XmlSuite shardSuite = suite.shallowCopy();
+        Map<XmlTest, Map<String, XmlClass>> classesByTest = new LinkedHashMap<>();
+        for (ShardUnit unit : shard) {
+            Map<String, XmlClass> classes = classesByTest.computeIfAbsent(unit.getTest(),
+                    test -> new LinkedHashMap<>());
+            XmlClass xmlClass = classes.computeIfAbsent(unit.getClassName(), name -> new XmlClass(name, false));
+            if (unit.getMethodName() != null) {
+                List<XmlInclude> includes = new ArrayList<>(xmlClass.getIncludedMethods());
+                includes.add(new XmlInclude(unit.getMethodName()));
+                xmlClass.setIncludedMethods(includes);
+            }
+        }
+        for (Map.Entry<XmlTest, Map<String, XmlClass>> entry : classesByTest.entrySet()) {
+            XmlTest original = entry.getKey();
+            XmlTest test = new XmlTest(shardSuite);
+            test.setName(original.getName());
+            test.setParameters(original.getLocalParameters());
+            test.setIncludedGroups(original.getIncludedGroups());
+            test.setExcludedGroups(original.getExcludedGroups());
+            test.setXmlClasses(new ArrayList<>(entry.getValue().values()));
+        }
+        Files.createDirectories(file.getParent());
+        Files.write(file, shardSuite.toXml().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,8 +1,11 @@
 package com.spribe.tests;
 
+import com.spribe.api.PlayerCodec;
 import com.spribe.base.BaseTest;
 import com.spribe.models.Player;
 import com.spribe.models.PlayerBuilder;
+import com.spribe.scheduling.SharedResources;
+import com.spribe.scheduling.TestResources;
 import com.spribe.utils.TestDataGenerator;
 import io.qameta.allure.*;
 import io.restassured.response.Response;
@@ -14,7 +17,7 @@ import static org.testng.Assert.*;
 @Feature("Create Player")
 public class CreatePlayerTest extends BaseTest {
 
-    @Test(description = "Create player with supervisor role - positive test")
+    @Test(description = "Create player with supervisor role - positive test", groups = "throttled")
     @Description("Verify that supervisor can successfully create a user")
     @Severity(SeverityLevel.CRITICAL)
     public void testCreatePlayerBySupervisor() {
@@ -23,7 +26,7 @@ public class CreatePlayerTest extends BaseTest {
         Response response = playerService.createPlayer(player, config.getSupervisorLogin());
         
         assertEquals(response.getStatusCode(), 200, "Status code should be 200");
-        Player createdPlayer = response.as(Player.class);
+        Player createdPlayer = PlayerCodec.read(response);
         assertNotNull(createdPlayer.getId(), "Player ID should not be null");
         assertEquals(createdPlayer.getLogin(), player.getLogin(), "Login should match");
         assertEquals(createdPlayer.getScreenName(), player.getScreenName(), "Screen name should match");
@@ -37,13 +40,14 @@ public class CreatePlayerTest extends BaseTest {
     @Test(description = "Create player with admin role - positive test")
     @Description("Verify that admin can successfully create a user")
     @Severity(SeverityLevel.CRITICAL)
+    @TestResources(reads = SharedResources.ADMIN_ACCOUNT)
     public void testCreatePlayerByAdmin() {
         Player player = TestDataGenerator.createValidPlayer();
         
         Response response = playerService.createPlayer(player, config.getAdminLogin());
         
         assertEquals(response.getStatusCode(), 200, "Status code should be 200");
-        Player createdPlayer = response.as(Player.class);
+        Player createdPlayer = PlayerCodec.read(response);
         assertNotNull(createdPlayer.getId(), "Player ID should not be null");
         assertEquals(createdPlayer.getLogin(), player.getLogin(), "Login should match");
         
@@ -59,7 +63,7 @@ public class CreatePlayerTest extends BaseTest {
         Response response = playerService.createPlayer(player, config.getSupervisorLogin());
         
         assertEquals(response.getStatusCode(), 200, "Status code should be 200");
-        Player createdPlayer = response.as(Player.class);
+        Player createdPlayer = PlayerCodec.read(response);
         assertEquals(createdPlayer.getRole(), "admin", "Role should be admin");
         
         createdPlayerIds.add(createdPlayer.getId());
@@ -74,7 +78,7 @@ public class CreatePlayerTest extends BaseTest {
         Response response = playerService.createPlayer(player, config.getSupervisorLogin());
         
         assertEquals(response.getStatusCode(), 200, "Status code should be 200");
-        Player createdPlayer = response.as(Player.class);
+        Player createdPlayer = PlayerCodec.read(response);
         assertEquals(createdPlayer.getAge(), Integer.valueOf(16), "Age should be 16");
         
         createdPlayerIds.add(createdPlayer.getId());
@@ -89,7 +93,7 @@ public class CreatePlayerTest extends BaseTest {
         Response response = playerService.createPlayer(player, config.getSupervisorLogin());
         
         assertEquals(response.getStatusCode(), 200, "Status code should be 200");
-        Player createdPlayer = response.as(Player.class);
+        Player createdPlayer = PlayerCodec.read(response);
         assertEquals(createdPlayer.getAge(), Integer.valueOf(60), "Age should be 60");
         
         createdPlayerIds.add(createdPlayer.getId());
@@ -104,7 +108,7 @@ public class CreatePlayerTest extends BaseTest {
         Response response = playerService.createPlayer(player, config.getSupervisorLogin());
         
         assertEquals(response.getStatusCode(), 200, "Status code should be 200");
-        Player createdPlayer = response.as(Player.class);
+        Player createdPlayer = PlayerCodec.read(response);
         assertEquals(createdPlayer.getGender(), "female", "Gender should be female");
         
         createdPlayerIds.add(createdPlayer.getId());
@@ -116,9 +120,7 @@ public class CreatePlayerTest extends BaseTest {
     @Description("Verify that user role cannot create new players")
     @Severity(SeverityLevel.CRITICAL)
     public void testCreatePlayerByUserForbidden() {
-        // First create a user with 'user' role
-        Player userPlayer = TestDataGenerator.createValidPlayerWithRole("user");
-        Player createdUser = createAndTrackPlayer(userPlayer, config.getSupervisorLogin());
+        Player createdUser = leasePlayer("user");
         assertNotNull(createdUser, "User player should be created");
 
         Player newPlayer = TestDataGenerator.createValidPlayer();
@@ -153,9 +155,9 @@ public class CreatePlayerTest extends BaseTest {
     @Test(description = "Create player with duplicate login - negative test")
     @Description("Verify that player cannot be created with duplicate login")
     @Severity(SeverityLevel.CRITICAL)
+    @TestResources(reads = SharedResources.PLAYER_NAMESPACE)
     public void testCreatePlayerWithDuplicateLogin() {
-        Player player1 = PlayerBuilder.aPlayer().build();
-        Player createdPlayer = createAndTrackPlayer(player1, config.getSupervisorLogin());
+        Player createdPlayer = leasePlayer("user");
         assertNotNull(createdPlayer, "First player should be created");
 
         Player player2 = PlayerBuilder.aPlayer()
@@ -170,9 +172,9 @@ public class CreatePlayerTest extends BaseTest {
     @Test(description = "Create player with duplicate screenName - negative test")
     @Description("Verify that player cannot be created with duplicate screenName")
     @Severity(SeverityLevel.CRITICAL)
+    @TestResources(reads = SharedResources.PLAYER_NAMESPACE)
     public void testCreatePlayerWithDuplicateScreenName() {
-        Player player1 = PlayerBuilder.aPlayer().build();
-        Player createdPlayer = createAndTrackPlayer(player1, config.getSupervisorLogin());
+        Player createdPlayer = leasePlayer("user");
         assertNotNull(createdPlayer, "First player should be created");
 
         Player player2 = PlayerBuilder.aPlayer()
@@ -2,7 +2,8 @@ package com.spribe.tests;
 
 import com.spribe.base.BaseTest;
 import com.spribe.models.Player;
-import com.spribe.utils.TestDataGenerator;
+import com.spribe.scheduling.SharedResources;
+import com.spribe.scheduling.TestResources;
 import io.qameta.allure.*;
 import io.restassured.response.Response;
 import org.testng.annotations.Test;
@@ -16,7 +17,7 @@ public class DeletePlayerTest extends BaseTest {
     @Description("Verify that supervisor can delete users with 'user' role")
     @Severity(SeverityLevel.CRITICAL)
     public void testDeleteUserBySupervisor() {
-        Player user = createAndTrackPlayer(TestDataGenerator.createValidPlayerWithRole("user"), config.getSupervisorLogin());
+        Player user = leasePlayer("user");
         assertNotNull(user, "User should be created");
         int userId = user.getId();
         
@@ -27,14 +28,14 @@ public class DeletePlayerTest extends BaseTest {
         Response getResponse = playerService.getPlayer(userId);
         assertTrue(getResponse.getStatusCode() >= 400, "Deleted player should not be found");
         
-        createdPlayerIds.remove(Integer.valueOf(userId));
+        createdPlayerIds.remove(userId);
     }
 
     @Test(description = "Delete admin by supervisor - positive test")
     @Description("Verify that supervisor can delete users with 'admin' role")
     @Severity(SeverityLevel.CRITICAL)
     public void testDeleteAdminBySupervisor() {
-        Player admin = createAndTrackPlayer(TestDataGenerator.createValidPlayerWithRole("admin"), config.getSupervisorLogin());
+        Player admin = leasePlayer("admin");
         assertNotNull(admin, "Admin should be created");
         int adminId = admin.getId();
         
@@ -45,14 +46,15 @@ public class DeletePlayerTest extends BaseTest {
         Response getResponse = playerService.getPlayer(adminId);
         assertTrue(getResponse.getStatusCode() >= 400, "Deleted player should not be found");
         
-        createdPlayerIds.remove(Integer.valueOf(adminId));
+        createdPlayerIds.remove(adminId);
     }
 
     @Test(description = "Delete user by admin - positive test")
     @Description("Verify that admin can delete users with 'user' role")
     @Severity(SeverityLevel.CRITICAL)
+    @TestResources(reads = SharedResources.ADMIN_ACCOUNT)
     public void testDeleteUserByAdmin() {
-        Player user = createAndTrackPlayer(TestDataGenerator.createValidPlayerWithRole("user"), config.getSupervisorLogin());
+        Player user = leasePlayer("user");
         assertNotNull(user, "User should be created");
         int userId = user.getId();
         
@@ -63,7 +65,7 @@ public class DeletePlayerTest extends BaseTest {
         Response getResponse = playerService.getPlayer(userId);
         assertTrue(getResponse.getStatusCode() >= 400, "Deleted player should not be found");
         
-        createdPlayerIds.remove(Integer.valueOf(userId));
+        createdPlayerIds.remove(userId);
     }
 
     // Negative tests
@@ -89,8 +91,8 @@ public class DeletePlayerTest extends BaseTest {
     @Description("Verify that user role cannot delete any players")
     @Severity(SeverityLevel.CRITICAL)
     public void testDeletePlayerByUserForbidden() {
-        Player user1 = createAndTrackPlayer(TestDataGenerator.createValidPlayerWithRole("user"), config.getSupervisorLogin());
-        Player user2 = createAndTrackPlayer(TestDataGenerator.createValidPlayerWithRole("user"), config.getSupervisorLogin());
+        Player user1 = leasePlayer("user");
+        Player user2 = leasePlayer("user");
         assertNotNull(user1, "User1 should be created");
         assertNotNull(user2, "User2 should be created");
         
@@ -106,7 +108,7 @@ public class DeletePlayerTest extends BaseTest {
     @Description("Verify that user cannot delete their own profile")
     @Severity(SeverityLevel.CRITICAL)
     public void testDeleteOwnProfileByUser() {
-        Player user = createAndTrackPlayer(TestDataGenerator.createValidPlayerWithRole("user"), config.getSupervisorLogin());
+        Player user = leasePlayer("user");
         assertNotNull(user, "User should be created");
         
         Response response = playerService.deletePlayer(user.getId(), user.getLogin());
@@ -141,13 +143,13 @@ public class DeletePlayerTest extends BaseTest {
     @Description("Verify that deleting already deleted player returns appropriate error")
     @Severity(SeverityLevel.NORMAL)
     public void testDeletePlayerTwice() {
-        Player user = createAndTrackPlayer(TestDataGenerator.createValidPlayerWithRole("user"), config.getSupervisorLogin());
+        Player user = leasePlayer("user");
         assertNotNull(user, "User should be created");
         int userId = user.getId();
         
         Response deleteResponse = playerService.deletePlayer(userId, config.getSupervisorLogin());
         assertEquals(deleteResponse.getStatusCode(), 204, "First deletion should succeed");
-        createdPlayerIds.remove(Integer.valueOf(userId));
+        createdPlayerIds.remove(userId);
         
         Response response = playerService.deletePlayer(userId, config.getSupervisorLogin());
         
@@ -158,7 +160,7 @@ public class DeletePlayerTest extends BaseTest {
     @Description("Verify that admin can delete themselves (admin role)")
     @Severity(SeverityLevel.NORMAL)
     public void testDeleteSelfByAdmin() {
-        Player admin = createAndTrackPlayer(TestDataGenerator.createValidPlayerWithRole("admin"), config.getSupervisorLogin());
+        Player admin = leasePlayer("admin");
         assertNotNull(admin, "Admin should be created");
         int adminId = admin.getId();
         
@@ -178,8 +180,8 @@ public class DeletePlayerTest extends BaseTest {
     @Description("Verify that admin cannot delete other admins")
     @Severity(SeverityLevel.CRITICAL)
     public void testDeleteOtherAdminByAdmin() {
-        Player admin1 = createAndTrackPlayer(TestDataGenerator.createValidPlayerWithRole("admin"), config.getSupervisorLogin());
-        Player admin2 = createAndTrackPlayer(TestDataGenerator.createValidPlayerWithRole("admin"), config.getSupervisorLogin());
+        Player admin1 = leasePlayer("admin");
+        Player admin2 = leasePlayer("admin");
         assertNotNull(admin1, "Admin1 should be created");
         assertNotNull(admin2, "Admin2 should be created");
         
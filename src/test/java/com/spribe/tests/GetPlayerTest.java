@@ -1,5 +1,6 @@
 package com.spribe.tests;
 
+import com.spribe.api.PlayerCodec;
 import com.spribe.base.BaseTest;
 import com.spribe.models.Player;
 import io.qameta.allure.*;
@@ -22,34 +23,34 @@ public class GetPlayerTest extends BaseTest {
         createTestPlayer();
     }
 
-    @Test(description = "Get existing player by valid ID - positive test")
+    @Test(description = "Get existing player by valid ID - positive test", groups = "flaky")
     @Description("Verify that player can be retrieved by valid player ID")
     @Severity(SeverityLevel.CRITICAL)
     public void testGetPlayerByValidId() {
-        Response response = playerService.getPlayer(testPlayer.getId());
+        Response response = playerService.getPlayer(testPlayer().getId());
         
         assertEquals(response.getStatusCode(), 200, "Status code should be 200");
-        Player retrievedPlayer = response.as(Player.class);
+        Player retrievedPlayer = PlayerCodec.read(response);
         assertNotNull(retrievedPlayer, "Retrieved player should not be null");
-        assertEquals(retrievedPlayer.getId(), testPlayer.getId(), "Player ID should match");
-        assertEquals(retrievedPlayer.getLogin(), testPlayer.getLogin(), "Login should match");
-        assertEquals(retrievedPlayer.getScreenName(), testPlayer.getScreenName(), "Screen name should match");
-        assertEquals(retrievedPlayer.getAge(), testPlayer.getAge(), "Age should match");
-        assertEquals(retrievedPlayer.getGender(), testPlayer.getGender(), "Gender should match");
-        assertEquals(retrievedPlayer.getRole(), testPlayer.getRole(), "Role should match");
+        assertEquals(retrievedPlayer.getId(), testPlayer().getId(), "Player ID should match");
+        assertEquals(retrievedPlayer.getLogin(), testPlayer().getLogin(), "Login should match");
+        assertEquals(retrievedPlayer.getScreenName(), testPlayer().getScreenName(), "Screen name should match");
+        assertEquals(retrievedPlayer.getAge(), testPlayer().getAge(), "Age should match");
+        assertEquals(retrievedPlayer.getGender(), testPlayer().getGender(), "Gender should match");
+        assertEquals(retrievedPlayer.getRole(), testPlayer().getRole(), "Role should match");
     }
 
-    @Test(description = "Get player multiple times - positive test")
+    @Test(description = "Get player multiple times - positive test", groups = "slow")
     @Description("Verify that player can be retrieved multiple times with consistent data")
     @Severity(SeverityLevel.NORMAL)
     public void testGetPlayerMultipleTimes() {
-        Response response1 = playerService.getPlayer(testPlayer.getId());
+        Response response1 = playerService.getPlayer(testPlayer().getId());
         assertEquals(response1.getStatusCode(), 200, "First request status should be 200");
-        Player player1 = response1.as(Player.class);
+        Player player1 = PlayerCodec.read(response1);
         
-        Response response2 = playerService.getPlayer(testPlayer.getId());
+        Response response2 = playerService.getPlayer(testPlayer().getId());
         assertEquals(response2.getStatusCode(), 200, "Second request status should be 200");
-        Player player2 = response2.as(Player.class);
+        Player player2 = PlayerCodec.read(response2);
         
         assertEquals(player1.getId(), player2.getId(), "Player IDs should match");
         assertEquals(player1.getLogin(), player2.getLogin(), "Logins should match");
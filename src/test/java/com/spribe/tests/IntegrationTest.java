@@ -1,13 +1,21 @@
 package com.spribe.tests;
 
+import com.spribe.api.PlayerCodec;
+import com.spribe.api.PlayerResult;
 import com.spribe.base.BaseTest;
 import com.spribe.models.Player;
 import com.spribe.models.PlayerBuilder;
+import com.spribe.scheduling.SharedResources;
+import com.spribe.scheduling.TestResources;
+import com.spribe.utils.ScenarioScope;
+import com.spribe.utils.ScenarioScope.Subtask;
 import com.spribe.utils.TestDataGenerator;
 import io.qameta.allure.*;
 import io.restassured.response.Response;
 import org.testng.annotations.Test;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.testng.Assert.*;
 
 @Epic("Player Management")
@@ -22,13 +30,13 @@ public class IntegrationTest extends BaseTest {
         Response createResponse = playerService.createPlayer(player, config.getSupervisorLogin());
         assertEquals(createResponse.getStatusCode(), 200, "Create should succeed");
         
-        Player createdPlayer = createResponse.as(Player.class);
+        Player createdPlayer = PlayerCodec.read(createResponse);
         assertNotNull(createdPlayer.getId(), "Created player should have ID");
         createdPlayerIds.add(createdPlayer.getId());
         
         Response getResponse = playerService.getPlayer(createdPlayer.getId());
         assertEquals(getResponse.getStatusCode(), 200, "Get should succeed");
-        Player fetchedPlayer = getResponse.as(Player.class);
+        Player fetchedPlayer = PlayerCodec.read(getResponse);
         assertEquals(fetchedPlayer.getLogin(), player.getLogin(), "Login should match");
         
         Player updateData = new Player();
@@ -37,12 +45,12 @@ public class IntegrationTest extends BaseTest {
         assertEquals(updateResponse.getStatusCode(), 200, "Update should succeed");
         
         Response getAfterUpdate = playerService.getPlayer(createdPlayer.getId());
-        Player updatedPlayer = getAfterUpdate.as(Player.class);
+        Player updatedPlayer = PlayerCodec.read(getAfterUpdate);
         assertEquals(updatedPlayer.getAge(), Integer.valueOf(35), "Age should be updated");
         
         Response deleteResponse = playerService.deletePlayer(createdPlayer.getId(), config.getSupervisorLogin());
         assertEquals(deleteResponse.getStatusCode(), 204, "Delete should succeed");
-        createdPlayerIds.remove(Integer.valueOf(createdPlayer.getId()));
+        createdPlayerIds.remove(createdPlayer.getId());
         
         Response getAfterDelete = playerService.getPlayer(createdPlayer.getId());
         assertTrue(getAfterDelete.getStatusCode() >= 400, "Player should not exist after deletion");
@@ -52,9 +60,9 @@ public class IntegrationTest extends BaseTest {
     @Description("Verify that different roles have appropriate permissions")
     @Severity(SeverityLevel.BLOCKER)
     public void testRoleBasedAccessControl() {
-        Player userRole = createAndTrackPlayer(TestDataGenerator.createValidPlayerWithRole("user"), config.getSupervisorLogin());
-        Player adminRole = createAndTrackPlayer(TestDataGenerator.createValidPlayerWithRole("admin"), config.getSupervisorLogin());
-        Player targetUser = createAndTrackPlayer(TestDataGenerator.createValidPlayerWithRole("user"), config.getSupervisorLogin());
+        Player userRole = leasePlayer("user");
+        Player adminRole = leasePlayer("admin");
+        Player targetUser = leasePlayer("user");
         
         assertNotNull(userRole, "User role player should be created");
         assertNotNull(adminRole, "Admin role player should be created");
@@ -65,24 +73,62 @@ public class IntegrationTest extends BaseTest {
         
         Response deleteByAdmin = playerService.deletePlayer(targetUser.getId(), adminRole.getLogin());
         assertEquals(deleteByAdmin.getStatusCode(), 204, "Admin should delete user role");
-        createdPlayerIds.remove(Integer.valueOf(targetUser.getId()));
+        createdPlayerIds.remove(targetUser.getId());
         
         Response deleteBySupervisor = playerService.deletePlayer(adminRole.getId(), config.getSupervisorLogin());
         assertEquals(deleteBySupervisor.getStatusCode(), 204, "Supervisor should delete admin role");
-        createdPlayerIds.remove(Integer.valueOf(adminRole.getId()));
+        createdPlayerIds.remove(adminRole.getId());
+    }
+
+    @Test(description = "Pipelined async lifecycle: Create, Get, Update")
+    @Description("Verify that create, get and update chained through the async player API behave like the blocking calls")
+    @Severity(SeverityLevel.NORMAL)
+    public void testAsyncPlayerLifecyclePipeline() {
+        Player player = TestDataGenerator.createValidPlayer();
+        Player updateData = new Player();
+        updateData.setAge(35);
+
+        CompletableFuture<PlayerResult> created = asyncPlayerService.createPlayer(player, config.getSupervisorLogin());
+        CompletableFuture<PlayerResult> fetched = created
+                .thenCompose(result -> asyncPlayerService.getPlayer(result.getPlayer().getId()));
+        CompletableFuture<PlayerResult> updated = fetched
+                .thenCompose(result -> asyncPlayerService.updatePlayer(updateData, config.getSupervisorLogin(),
+                        result.getPlayer().getId()));
+
+        PlayerResult createResult = created.join();
+        assertEquals(createResult.getStatusCode(), 200, "Create should succeed");
+        Player createdPlayer = createResult.getPlayer();
+        assertNotNull(createdPlayer.getId(), "Created player should have ID");
+        createdPlayerIds.add(createdPlayer.getId());
+
+        PlayerResult getResult = fetched.join();
+        assertEquals(getResult.getStatusCode(), 200, "Get should succeed");
+        assertEquals(getResult.getPlayer().getLogin(), player.getLogin(), "Login should match");
+
+        PlayerResult updateResult = updated.join();
+        assertEquals(updateResult.getStatusCode(), 200, "Update should succeed");
+        assertEquals(updateResult.getPlayer().getAge(), Integer.valueOf(35), "Age should be updated");
     }
 
     @Test(description = "Concurrent player creation with same data")
     @Description("Verify system handles concurrent requests properly")
     @Severity(SeverityLevel.NORMAL)
+    @TestResources(writes = SharedResources.PLAYER_NAMESPACE)
     public void testConcurrentPlayerCreation() {
         String sharedLogin = "concurrent_" + PlayerBuilder.generateRandomLogin();
         
         Player player1 = PlayerBuilder.aPlayer().withLogin(sharedLogin).build();
         Player player2 = PlayerBuilder.aPlayer().withLogin(sharedLogin).build();
         
-        Response response1 = playerService.createPlayer(player1, config.getSupervisorLogin());
-        Response response2 = playerService.createPlayer(player2, config.getSupervisorLogin());
+        Response response1;
+        Response response2;
+        try (ScenarioScope scope = openScenarioScope()) {
+            Subtask<Response> first = scope.fork(() -> playerService.createPlayer(player1, config.getSupervisorLogin()));
+            Subtask<Response> second = scope.fork(() -> playerService.createPlayer(player2, config.getSupervisorLogin()));
+            scope.join();
+            response1 = first.get();
+            response2 = second.get();
+        }
         
         boolean oneSucceeded = (response1.getStatusCode() == 200 && response2.getStatusCode() >= 400) ||
                                (response2.getStatusCode() == 200 && response1.getStatusCode() >= 400);
@@ -90,10 +136,10 @@ public class IntegrationTest extends BaseTest {
         assertTrue(oneSucceeded, "Exactly one creation should succeed for duplicate login");
         
         if (response1.getStatusCode() == 200) {
-            Player created = response1.as(Player.class);
+            Player created = PlayerCodec.read(response1);
             createdPlayerIds.add(created.getId());
         } else if (response2.getStatusCode() == 200) {
-            Player created = response2.as(Player.class);
+            Player created = PlayerCodec.read(response2);
             createdPlayerIds.add(created.getId());
         }
     }
@@ -102,7 +148,7 @@ public class IntegrationTest extends BaseTest {
     @Description("Verify that update with no actual changes works correctly")
     @Severity(SeverityLevel.MINOR)
     public void testUpdateWithNoChanges() {
-        Player player = createAndTrackPlayer(TestDataGenerator.createValidPlayer(), config.getSupervisorLogin());
+        Player player = leasePlayer("user");
         assertNotNull(player, "Player should be created");
         
         Player emptyUpdate = new Player();
@@ -111,7 +157,7 @@ public class IntegrationTest extends BaseTest {
         assertEquals(response.getStatusCode(), 200, "Update with no changes should succeed");
         
         Response getResponse = playerService.getPlayer(player.getId());
-        Player unchangedPlayer = getResponse.as(Player.class);
+        Player unchangedPlayer = PlayerCodec.read(getResponse);
         assertEquals(unchangedPlayer.getLogin(), player.getLogin(), "Login should remain unchanged");
     }
 
@@ -119,7 +165,7 @@ public class IntegrationTest extends BaseTest {
     @Description("Verify that player can be updated multiple times")
     @Severity(SeverityLevel.NORMAL)
     public void testMultipleSequentialUpdates() {
-        Player player = createAndTrackPlayer(TestDataGenerator.createValidPlayer(), config.getSupervisorLogin());
+        Player player = leasePlayer("user");
         assertNotNull(player, "Player should be created");
         
         Player update1 = new Player();
@@ -138,7 +184,7 @@ public class IntegrationTest extends BaseTest {
         assertEquals(response3.getStatusCode(), 200, "Third update should succeed");
         
         Response getResponse = playerService.getPlayer(player.getId());
-        Player finalPlayer = getResponse.as(Player.class);
+        Player finalPlayer = PlayerCodec.read(getResponse);
         assertEquals(finalPlayer.getAge(), Integer.valueOf(30), "Age should be from second update");
         assertEquals(finalPlayer.getGender(), "female", "Gender should be from third update");
     }
@@ -191,7 +237,7 @@ public class IntegrationTest extends BaseTest {
     @Description("Verify user role permissions on own account")
     @Severity(SeverityLevel.CRITICAL)
     public void testUserOwnAccountPermissions() {
-        Player user = createAndTrackPlayer(TestDataGenerator.createValidPlayerWithRole("user"), config.getSupervisorLogin());
+        Player user = leasePlayer("user");
         assertNotNull(user, "User should be created");
         
         Player updateData = new Player();
@@ -1,9 +1,11 @@
 package com.spribe.tests;
 
+import com.spribe.api.PlayerCodec;
 import com.spribe.base.BaseTest;
 import com.spribe.models.Player;
 import com.spribe.models.PlayerBuilder;
-import com.spribe.utils.TestDataGenerator;
+import com.spribe.scheduling.SharedResources;
+import com.spribe.scheduling.TestResources;
 import io.qameta.allure.*;
 import io.restassured.response.Response;
 import org.testng.annotations.BeforeMethod;
@@ -31,12 +33,12 @@ public class UpdatePlayerTest extends BaseTest {
         Player updateData = new Player();
         updateData.setAge(30);
         
-        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer.getId());
+        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer().getId());
         
         assertEquals(response.getStatusCode(), 200, "Status code should be 200");
         
-        Response getResponse = playerService.getPlayer(testPlayer.getId());
-        Player updatedPlayer = getResponse.as(Player.class);
+        Response getResponse = playerService.getPlayer(testPlayer().getId());
+        Player updatedPlayer = PlayerCodec.read(getResponse);
         assertEquals(updatedPlayer.getAge(), Integer.valueOf(30), "Age should be updated to 30");
     }
 
@@ -48,12 +50,12 @@ public class UpdatePlayerTest extends BaseTest {
         String newScreenName = "updated_" + PlayerBuilder.generateRandomScreenName();
         updateData.setScreenName(newScreenName);
         
-        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer.getId());
+        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer().getId());
         
         assertEquals(response.getStatusCode(), 200, "Status code should be 200");
         
-        Response getResponse = playerService.getPlayer(testPlayer.getId());
-        Player updatedPlayer = getResponse.as(Player.class);
+        Response getResponse = playerService.getPlayer(testPlayer().getId());
+        Player updatedPlayer = PlayerCodec.read(getResponse);
         assertEquals(updatedPlayer.getScreenName(), newScreenName, "ScreenName should be updated");
     }
 
@@ -64,12 +66,12 @@ public class UpdatePlayerTest extends BaseTest {
         Player updateData = new Player();
         updateData.setGender("female");
         
-        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer.getId());
+        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer().getId());
         
         assertEquals(response.getStatusCode(), 200, "Status code should be 200");
         
-        Response getResponse = playerService.getPlayer(testPlayer.getId());
-        Player updatedPlayer = getResponse.as(Player.class);
+        Response getResponse = playerService.getPlayer(testPlayer().getId());
+        Player updatedPlayer = PlayerCodec.read(getResponse);
         assertEquals(updatedPlayer.getGender(), "female", "Gender should be updated to female");
     }
 
@@ -80,7 +82,7 @@ public class UpdatePlayerTest extends BaseTest {
         Player updateData = new Player();
         updateData.setPassword(PlayerBuilder.generateValidPassword());
         
-        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer.getId());
+        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer().getId());
         
         assertEquals(response.getStatusCode(), 200, "Status code should be 200");
     }
@@ -88,16 +90,17 @@ public class UpdatePlayerTest extends BaseTest {
     @Test(description = "Update player by admin - positive test")
     @Description("Verify that admin can update user role players")
     @Severity(SeverityLevel.CRITICAL)
+    @TestResources(reads = SharedResources.ADMIN_ACCOUNT)
     public void testUpdatePlayerByAdmin() {
         Player updateData = new Player();
         updateData.setAge(35);
         
-        Response response = playerService.updatePlayer(updateData, config.getAdminLogin(), testPlayer.getId());
+        Response response = playerService.updatePlayer(updateData, config.getAdminLogin(), testPlayer().getId());
         
         assertEquals(response.getStatusCode(), 200, "Status code should be 200");
         
-        Response getResponse = playerService.getPlayer(testPlayer.getId());
-        Player updatedPlayer = getResponse.as(Player.class);
+        Response getResponse = playerService.getPlayer(testPlayer().getId());
+        Player updatedPlayer = PlayerCodec.read(getResponse);
         assertEquals(updatedPlayer.getAge(), Integer.valueOf(35), "Age should be updated to 35");
     }
 
@@ -105,7 +108,7 @@ public class UpdatePlayerTest extends BaseTest {
     @Description("Verify that user can update their own profile")
     @Severity(SeverityLevel.CRITICAL)
     public void testUpdateOwnProfileByUser() {
-        Player user = createAndTrackPlayer(TestDataGenerator.createValidPlayerWithRole("user"), config.getSupervisorLogin());
+        Player user = leasePlayer("user");
         assertNotNull(user, "User should be created");
         
         Player updateData = new Player();
@@ -116,7 +119,7 @@ public class UpdatePlayerTest extends BaseTest {
         assertEquals(response.getStatusCode(), 200, "Status code should be 200");
         
         Response getResponse = playerService.getPlayer(user.getId());
-        Player updatedUser = getResponse.as(Player.class);
+        Player updatedUser = PlayerCodec.read(getResponse);
         assertEquals(updatedUser.getAge(), Integer.valueOf(28), "Age should be updated to 28");
     }
 
@@ -130,12 +133,12 @@ public class UpdatePlayerTest extends BaseTest {
         String newScreenName = "multi_" + PlayerBuilder.generateRandomScreenName();
         updateData.setScreenName(newScreenName);
         
-        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer.getId());
+        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer().getId());
         
         assertEquals(response.getStatusCode(), 200, "Status code should be 200");
         
-        Response getResponse = playerService.getPlayer(testPlayer.getId());
-        Player updatedPlayer = getResponse.as(Player.class);
+        Response getResponse = playerService.getPlayer(testPlayer().getId());
+        Player updatedPlayer = PlayerCodec.read(getResponse);
         assertEquals(updatedPlayer.getAge(), Integer.valueOf(40), "Age should be updated");
         assertEquals(updatedPlayer.getGender(), "female", "Gender should be updated");
         assertEquals(updatedPlayer.getScreenName(), newScreenName, "ScreenName should be updated");
@@ -147,13 +150,13 @@ public class UpdatePlayerTest extends BaseTest {
     @Description("Verify that user cannot update other players")
     @Severity(SeverityLevel.CRITICAL)
     public void testUpdatePlayerByUserForbidden() {
-        Player user = createAndTrackPlayer(TestDataGenerator.createValidPlayerWithRole("user"), config.getSupervisorLogin());
+        Player user = leasePlayer("user");
         assertNotNull(user, "User should be created");
         
         Player updateData = new Player();
         updateData.setAge(50);
         
-        Response response = playerService.updatePlayer(updateData, user.getLogin(), testPlayer.getId());
+        Response response = playerService.updatePlayer(updateData, user.getLogin(), testPlayer().getId());
         
         assertTrue(response.getStatusCode() >= 400, "Status code should be 4xx for forbidden action");
     }
@@ -165,7 +168,7 @@ public class UpdatePlayerTest extends BaseTest {
         Player updateData = new Player();
         updateData.setAge(15);
         
-        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer.getId());
+        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer().getId());
         
         assertTrue(response.getStatusCode() >= 400, "Status code should be 4xx for invalid age");
     }
@@ -177,7 +180,7 @@ public class UpdatePlayerTest extends BaseTest {
         Player updateData = new Player();
         updateData.setAge(61);
         
-        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer.getId());
+        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer().getId());
         
         assertTrue(response.getStatusCode() >= 400, "Status code should be 4xx for invalid age");
     }
@@ -189,7 +192,7 @@ public class UpdatePlayerTest extends BaseTest {
         Player updateData = new Player();
         updateData.setGender("other");
         
-        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer.getId());
+        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer().getId());
         
         assertTrue(response.getStatusCode() >= 400, "Status code should be 4xx for invalid gender");
     }
@@ -197,14 +200,15 @@ public class UpdatePlayerTest extends BaseTest {
     @Test(description = "Update player with duplicate screenName - negative test")
     @Description("Verify that player cannot be updated with duplicate screenName")
     @Severity(SeverityLevel.CRITICAL)
+    @TestResources(reads = SharedResources.PLAYER_NAMESPACE)
     public void testUpdatePlayerWithDuplicateScreenName() {
-        Player anotherPlayer = createAndTrackPlayer(TestDataGenerator.createValidPlayer(), config.getSupervisorLogin());
+        Player anotherPlayer = leasePlayer("user");
         assertNotNull(anotherPlayer, "Another player should be created");
         
         Player updateData = new Player();
         updateData.setScreenName(anotherPlayer.getScreenName());
         
-        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer.getId());
+        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer().getId());
         
         assertTrue(response.getStatusCode() >= 400, "Status code should be 4xx for duplicate screenName");
     }
@@ -229,7 +233,7 @@ public class UpdatePlayerTest extends BaseTest {
         Player updateData = new Player();
         updateData.setPassword("abc123");
         
-        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer.getId());
+        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer().getId());
         
         assertTrue(response.getStatusCode() >= 400, "Status code should be 4xx for short password");
     }
@@ -241,7 +245,7 @@ public class UpdatePlayerTest extends BaseTest {
         Player updateData = new Player();
         updateData.setPassword("abcdefghij1234567890");
         
-        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer.getId());
+        Response response = playerService.updatePlayer(updateData, config.getSupervisorLogin(), testPlayer().getId());
         
         assertTrue(response.getStatusCode() >= 400, "Status code should be 4xx for long password");
     }
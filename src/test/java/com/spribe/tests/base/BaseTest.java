@@ -1,53 +1,107 @@
 package com.spribe.base;
 
 import com.spribe.api.ApiClient;
+import com.spribe.api.AsyncPlayerService;
+import com.spribe.api.FaultInjectionFilter;
+import com.spribe.api.HttpExchangeLoggingFilter;
+import com.spribe.api.PlayerCleaner;
+import com.spribe.api.PlayerCodec;
+import com.spribe.api.PlayerPool;
 import com.spribe.api.PlayerService;
+import com.spribe.api.RetryBudget;
+import com.spribe.api.RetryPolicy;
 import com.spribe.config.ConfigManager;
+import com.spribe.impact.ImpactRecorder;
+import com.spribe.metrics.ApiMetrics;
 import com.spribe.models.Player;
+import com.spribe.scheduling.SharedResources;
+import com.spribe.scheduling.TestResources;
+import com.spribe.utils.PlayerRegistry;
+import com.spribe.utils.ScenarioScope;
 import com.spribe.utils.TestDataGenerator;
 import io.restassured.response.Response;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.testng.ITestResult;
+import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
 
 import java.lang.reflect.Method;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
 
 import static org.testng.Assert.assertNotNull;
 
+/**
+ * Every test edits players as the configured supervisor
+ */
+@TestResources(reads = SharedResources.SUPERVISOR_ACCOUNT)
 public abstract class BaseTest {
     protected static final Logger logger = LogManager.getLogger(BaseTest.class);
     protected PlayerService playerService;
+    protected AsyncPlayerService asyncPlayerService;
     protected ConfigManager config;
-    protected List<Integer> createdPlayerIds;
-    protected Player testPlayer;
+    protected PlayerRegistry createdPlayerIds;
+    private final ThreadLocal<Player> testPlayer = new ThreadLocal<>();
 
     @BeforeClass
     public void setupClass() {
         logger.info("Setting up test class: {}", this.getClass().getSimpleName());
         ApiClient.setupRestAssured();
         playerService = new PlayerService();
+        asyncPlayerService = new AsyncPlayerService();
         config = ConfigManager.getInstance();
-        createdPlayerIds = new ArrayList<>();
+        createdPlayerIds = new PlayerRegistry();
+        PlayerPool.getInstance().warmUp();
     }
 
     @BeforeMethod
     public void setupMethod(Method method) {
         logger.info("Starting test: {}", method.getName());
+        createdPlayerIds.beginInvocation();
+        HttpExchangeLoggingFilter.discardBuffered();
+        ApiClient.selectFaultProfile(groupsOf(method));
+        RetryPolicy.getBudget().beginTest();
     }
 
     @AfterMethod(alwaysRun = true)
-    public void teardownMethod() {
+    public void teardownMethod(ITestResult result) {
+        if (result.getStatus() == ITestResult.FAILURE) {
+            HttpExchangeLoggingFilter.flushFailedTest(result.getMethod().getMethodName());
+        } else {
+            HttpExchangeLoggingFilter.discardBuffered();
+        }
         cleanupPlayers();
+        testPlayer.remove();
+        FaultInjectionFilter.clear();
+        RetryBudget.endTest();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void teardownClass() {
+        // Players registered outside of a test method scope, or left behind by a skipped teardown
+        cleanupPlayers(createdPlayerIds.drainAll());
+    }
+
+    @AfterSuite(alwaysRun = true)
+    public void teardownSuite() {
+        PlayerPool.getInstance().shutdown();
+        PlayerCleaner.getInstance().awaitPending();
+        ApiClient.flushReporting();
+        ApiClient.logTransportStats();
+        ApiMetrics.getInstance().export();
+        ApiClient.stopLocalTarget();
     }
 
     protected Player createAndTrackPlayer(Player player, String editor) {
         Response response = playerService.createPlayer(player, editor);
         if (response.getStatusCode() == 200 || response.getStatusCode() == 201) {
-            Player createdPlayer = response.as(Player.class);
+            Player createdPlayer = PlayerCodec.read(response);
             if (createdPlayer.getId() != null) {
                 createdPlayerIds.add(createdPlayer.getId());
                 logger.info("Created and tracking player with id: {}", createdPlayer.getId());
@@ -57,29 +111,74 @@ public abstract class BaseTest {
         return null;
     }
 
+    /**
+     * Takes a ready player of the role from the fixture pool, or creates one when the pool has none.
+     * Either way the player belongs to the current test and is cleaned up after it.
+     */
+    protected Player leasePlayer(String role) {
+        Player player = PlayerPool.getInstance().lease(role);
+        if (player == null) {
+            return createAndTrackPlayer(TestDataGenerator.createValidPlayerWithRole(role), config.getSupervisorLogin());
+        }
+        createdPlayerIds.add(player.getId());
+        logger.info("Leased {} player with id: {}", role, player.getId());
+        return player;
+    }
+
     protected void cleanupPlayers() {
-        if (createdPlayerIds.isEmpty()) {
+        cleanupPlayers(createdPlayerIds.endInvocation());
+    }
+
+    private void cleanupPlayers(int[] playerIds) {
+        // Pooled players go to the sweeper whatever the cleanup mode
+        playerIds = PlayerPool.getInstance().retire(playerIds);
+        if (playerIds.length == 0) {
             return;
         }
         
-        logger.info("Cleaning up {} player(s)", createdPlayerIds.size());
-        // Create a copy to avoid ConcurrentModificationException
-        List<Integer> idsToClean = new ArrayList<>(createdPlayerIds);
-        for (Integer playerId : idsToClean) {
-            try {
-                playerService.deletePlayer(playerId, config.getSupervisorLogin());
-                logger.info("Cleaned up player with id: {}", playerId);
-            } catch (Exception e) {
-                logger.warn("Failed to cleanup player with id: {}", playerId, e);
+        logger.info("Cleaning up {} player(s)", playerIds.length);
+        PlayerCleaner.getInstance().cleanup(playerIds, config.getSupervisorLogin());
+    }
+
+    /**
+     * Scope for concurrent steps inside a test; players created by forked tasks are tracked for cleanup
+     * and run with the test's fault profile and retry budget
+     */
+    protected ScenarioScope openScenarioScope() {
+        return ScenarioScope.open(new ScenarioScope.TaskDecorator() {
+            @Override
+            public <T> Callable<T> decorate(Callable<T> task) {
+                return ImpactRecorder.inCurrentTest(FaultInjectionFilter.inCurrentProfile(
+                        RetryBudget.inCurrentTest(createdPlayerIds.inCurrentScope(task))));
             }
-        }
-        createdPlayerIds.clear();
+        });
     }
 
+    private static String[] groupsOf(Method method) {
+        Test methodTest = method.getAnnotation(Test.class);
+        Test classTest = method.getDeclaringClass().getAnnotation(Test.class);
+        return Stream.of(methodTest, classTest)
+                .filter(test -> test != null)
+                .flatMap(test -> Arrays.stream(test.groups()))
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Sets up the test player outside the test's fault profile, so only the calls under test are degraded
+     */
     protected void createTestPlayer() {
-        testPlayer = createAndTrackPlayer(TestDataGenerator.createValidPlayer(), config.getSupervisorLogin());
-        assertNotNull(testPlayer, "Test player should be created");
-        assertNotNull(testPlayer.getId(), "Test player ID should not be null");
-        logger.info("Created test player with id: {}", testPlayer.getId());
+        Player player = FaultInjectionFilter.withoutFaults(() -> leasePlayer("user"));
+        assertNotNull(player, "Test player should be created");
+        assertNotNull(player.getId(), "Test player ID should not be null");
+        testPlayer.set(player);
+        logger.info("Using test player with id: {}", player.getId());
+    }
+
+    /**
+     * Player set up by {@link #createTestPlayer()} for the test running on this thread; kept per thread
+     * because parallel methods of a class share one instance
+     */
+    protected Player testPlayer() {
+        return testPlayer.get();
     }
 }
@@ -0,0 +1,110 @@
+package com.spribe.utils;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free bag of positive ints backed by growing segments of primitive slots.
+ * Writers reserve a slot with a counter and publish with CAS; drain claims every slot,
+ * so a concurrent add either lands in the drained result or retries in a fresh slot.
+ */
+public class ConcurrentIntBag {
+    private static final int UNSET = 0;
+    private static final int REMOVED = -1;
+    private static final int FIRST_SEGMENT_SIZE = 16;
+
+    private final Segment head = new Segment(FIRST_SEGMENT_SIZE);
+    private final AtomicReference<Segment> tail = new AtomicReference<>(head);
+
+    public void add(int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("Only positive ids can be tracked: " + value);
+        }
+        Segment segment = tail.get();
+        while (true) {
+            int index = segment.cursor.getAndIncrement();
+            if (index < segment.slots.length()) {
+                if (segment.slots.compareAndSet(index, UNSET, value)) {
+                    return;
+                }
+                continue;
+            }
+            Segment next = segment.next.get();
+            if (next == null) {
+                Segment created = new Segment(segment.slots.length() * 2);
+                next = segment.next.compareAndSet(null, created) ? created : segment.next.get();
+            }
+            tail.compareAndSet(segment, next);
+            segment = next;
+        }
+    }
+
+    /**
+     * Removes one occurrence of the value
+     */
+    public boolean remove(int value) {
+        for (Segment segment = head; segment != null; segment = segment.next.get()) {
+            int limit = segment.limit();
+            for (int i = 0; i < limit; i++) {
+                if (segment.slots.get(i) == value && segment.slots.compareAndSet(i, value, REMOVED)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment = head; segment != null; segment = segment.next.get()) {
+            int limit = segment.limit();
+            for (int i = 0; i < limit; i++) {
+                if (segment.slots.get(i) > 0) {
+                    size++;
+                }
+            }
+        }
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Atomically takes every value currently in the bag
+     */
+    public int[] drain() {
+        int[] values = new int[FIRST_SEGMENT_SIZE];
+        int count = 0;
+        for (Segment segment = head; segment != null; segment = segment.next.get()) {
+            int limit = segment.limit();
+            for (int i = 0; i < limit; i++) {
+                int value = segment.slots.getAndSet(i, REMOVED);
+                if (value > 0) {
+                    if (count == values.length) {
+                        values = Arrays.copyOf(values, count * 2);
+                    }
+                    values[count++] = value;
+                }
+            }
+        }
+        return count == values.length ? values : Arrays.copyOf(values, count);
+    }
+
+    private static final class Segment {
+        private final AtomicIntegerArray slots;
+        private final AtomicInteger cursor = new AtomicInteger();
+        private final AtomicReference<Segment> next = new AtomicReference<>();
+
+        Segment(int capacity) {
+            slots = new AtomicIntegerArray(capacity);
+        }
+
+        int limit() {
+            return Math.min(cursor.get(), slots.length());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.spribe.utils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry of players created by tests, scoped per test invocation.
+ * Each invocation owns its own {@link ConcurrentIntBag}, bound to the thread running the test so that
+ * parallel methods of the same class never see each other's players. Threads forked inside a test can
+ * register through the bag returned by {@link #beginInvocation()} or {@link #currentScope()}.
+ */
+public class PlayerRegistry {
+    private final ConcurrentMap<Long, ConcurrentIntBag> scopes = new ConcurrentHashMap<>();
+    private final ConcurrentIntBag unscoped = new ConcurrentIntBag();
+    private final ThreadLocal<Long> currentInvocation = new ThreadLocal<>();
+    private final AtomicLong invocationIds = new AtomicLong();
+
+    /**
+     * Opens a new scope for the test invocation running on the current thread
+     */
+    public ConcurrentIntBag beginInvocation() {
+        Long previous = currentInvocation.get();
+        if (previous != null) {
+            ConcurrentIntBag stale = scopes.remove(previous);
+            if (stale != null) {
+                addAll(unscoped, stale.drain());
+            }
+        }
+        long invocationId = invocationIds.incrementAndGet();
+        ConcurrentIntBag scope = new ConcurrentIntBag();
+        scopes.put(invocationId, scope);
+        currentInvocation.set(invocationId);
+        return scope;
+    }
+
+    /**
+     * Closes the current thread's scope and returns the players it still tracks
+     */
+    public int[] endInvocation() {
+        Long invocationId = currentInvocation.get();
+        currentInvocation.remove();
+        ConcurrentIntBag scope = invocationId == null ? null : scopes.remove(invocationId);
+        return scope == null ? new int[0] : scope.drain();
+    }
+
+    /**
+     * Scope of the current thread's test invocation, or the shared unscoped bag outside of a test
+     */
+    public ConcurrentIntBag currentScope() {
+        Long invocationId = currentInvocation.get();
+        ConcurrentIntBag scope = invocationId == null ? null : scopes.get(invocationId);
+        return scope == null ? unscoped : scope;
+    }
+
+    /**
+     * Wraps a task so that players it registers from another thread land in the caller's current scope
+     */
+    public <T> Callable<T> inCurrentScope(Callable<T> task) {
+        Long invocationId = currentInvocation.get();
+        return () -> {
+            Long previous = currentInvocation.get();
+            setInvocation(invocationId);
+            try {
+                return task.call();
+            } finally {
+                setInvocation(previous);
+            }
+        };
+    }
+
+    public void add(int playerId) {
+        currentScope().add(playerId);
+    }
+
+    public boolean remove(int playerId) {
+        return currentScope().remove(playerId);
+    }
+
+    public int size() {
+        return currentScope().size();
+    }
+
+    public boolean isEmpty() {
+        return currentScope().isEmpty();
+    }
+
+    /**
+     * Drains every open scope and the unscoped bag, for class- or suite-level leak sweeps
+     */
+    public int[] drainAll() {
+        int[] all = unscoped.drain();
+        for (Map.Entry<Long, ConcurrentIntBag> entry : scopes.entrySet()) {
+            if (scopes.remove(entry.getKey(), entry.getValue())) {
+                int[] drained = entry.getValue().drain();
+                int offset = all.length;
+                all = Arrays.copyOf(all, offset + drained.length);
+                System.arraycopy(drained, 0, all, offset, drained.length);
+            }
+        }
+        return all;
+    }
+
+    private void setInvocation(Long invocationId) {
+        if (invocationId == null) {
+            currentInvocation.remove();
+        } else {
+            currentInvocation.set(invocationId);
+        }
+    }
+
+    private static void addAll(ConcurrentIntBag bag, int[] values) {
+        for (int value : values) {
+            bag.add(value);
+        }
+    }
+}
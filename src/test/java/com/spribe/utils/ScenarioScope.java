@@ -0,0 +1,202 @@
+package com.spribe.utils;
+
+import com.spribe.config.ConfigManager;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Structured fan-out/fan-in for concurrent API scenarios inside one test.
+ * Every {@link #fork(Callable)} runs on its own thread from {@link ScenarioThreads}, so Allure step context
+ * (inherited by new threads) follows the task. {@link #join()} waits for all subtasks and rethrows the first
+ * failure after cancelling the rest; {@link #close()} cancels whatever is still running. Both return only once
+ * every forked thread has finished, cancelled ones included, so no task outlives its scope.
+ *
+ * <pre>
+ * try (ScenarioScope scope = ScenarioScope.open()) {
+ *     Subtask&lt;Response&gt; first = scope.fork(() -&gt; playerService.createPlayer(player1, editor));
+ *     Subtask&lt;Response&gt; second = scope.fork(() -&gt; playerService.createPlayer(player2, editor));
+ *     scope.join();
+ * }
+ * </pre>
+ */
+public final class ScenarioScope implements AutoCloseable {
+    private static final Semaphore platformPermits =
+            new Semaphore(ConfigManager.getInstance().getScenarioMaxPlatformThreads());
+
+    private final TaskDecorator decorator;
+    private final List<Subtask<?>> subtasks = new CopyOnWriteArrayList<>();
+    private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+
+    private ScenarioScope(TaskDecorator decorator) {
+        this.decorator = decorator;
+    }
+
+    public static ScenarioScope open() {
+        return new ScenarioScope(TaskDecorator.NONE);
+    }
+
+    /**
+     * Opens a scope whose tasks are wrapped by the decorator, e.g. to carry the caller's player registry scope
+     */
+    public static ScenarioScope open(TaskDecorator decorator) {
+        return new ScenarioScope(decorator);
+    }
+
+    public <T> Subtask<T> fork(Callable<T> task) {
+        if (firstFailure.get() != null) {
+            throw new IllegalStateException("Scope already failed", firstFailure.get());
+        }
+        Callable<T> decorated = decorator.decorate(task);
+        boolean bounded = !ScenarioThreads.isVirtual();
+        if (bounded) {
+            platformPermits.acquireUninterruptibly();
+        }
+        Subtask<T> subtask = new Subtask<>(() -> {
+            try {
+                return decorated.call();
+            } catch (Throwable t) {
+                fail(t);
+                throw t;
+            }
+        });
+        // The permit goes back when the thread ends, which it also does for a task cancelled before it started
+        Runnable runner = () -> {
+            try {
+                subtask.future.run();
+            } finally {
+                if (bounded) {
+                    platformPermits.release();
+                }
+                subtask.finished.countDown();
+            }
+        };
+        subtasks.add(subtask);
+        try {
+            ScenarioThreads.factory().newThread(runner).start();
+        } catch (RuntimeException | Error e) {
+            subtasks.remove(subtask);
+            if (bounded) {
+                platformPermits.release();
+            }
+            throw e;
+        }
+        return subtask;
+    }
+
+    /**
+     * Waits until every forked subtask has finished; rethrows the first failure, with the other subtasks
+     * cancelled and finished too
+     */
+    public ScenarioScope join() {
+        for (Subtask<?> subtask : subtasks) {
+            try {
+                subtask.finished.await();
+            } catch (InterruptedException e) {
+                cancelAll();
+                awaitAll();
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while joining scenario scope", e);
+            }
+        }
+        Throwable failure = firstFailure.get();
+        if (failure != null) {
+            // Rethrow unchanged, like the call would have failed on the test thread (REST Assured throws checked I/O exceptions too)
+            throw ScenarioScope.<RuntimeException>rethrow(failure);
+        }
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E rethrow(Throwable failure) throws E {
+        throw (E) failure;
+    }
+
+    /**
+     * Cancels the subtasks still running and waits until their threads have finished
+     */
+    @Override
+    public void close() {
+        cancelAll();
+        awaitAll();
+    }
+
+    private void awaitAll() {
+        boolean interrupted = false;
+        for (Subtask<?> subtask : subtasks) {
+            while (true) {
+                try {
+                    subtask.finished.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void fail(Throwable t) {
+        if (firstFailure.compareAndSet(null, t)) {
+            cancelAll();
+        }
+    }
+
+    private void cancelAll() {
+        for (Subtask<?> subtask : subtasks) {
+            subtask.future.cancel(true);
+        }
+    }
+
+    /**
+     * Wraps tasks before they are forked
+     */
+    public interface TaskDecorator {
+        TaskDecorator NONE = new TaskDecorator() {
+            @Override
+            public <T> Callable<T> decorate(Callable<T> task) {
+                return task;
+            }
+        };
+
+        <T> Callable<T> decorate(Callable<T> task);
+    }
+
+    /**
+     * Result handle of a forked task, readable after {@link ScenarioScope#join()}
+     */
+    public static final class Subtask<T> {
+        private final FutureTask<T> future;
+        private final CountDownLatch finished = new CountDownLatch(1);
+
+        private Subtask(Callable<T> task) {
+            this.future = new FutureTask<>(task);
+        }
+
+        public boolean isDone() {
+            return future.isDone();
+        }
+
+        public T get() {
+            if (!future.isDone()) {
+                throw new IllegalStateException("Subtask not completed, call join() first");
+            }
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Subtask failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.spribe.utils;
+
+import com.spribe.config.ConfigManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factory for concurrent scenarios. Uses virtual threads when scenario.threads=virtual and the
+ * runtime provides them (JDK 21+), looked up reflectively because the build still targets Java 11.
+ * Otherwise falls back to one daemon platform thread per task.
+ */
+public final class ScenarioThreads {
+    private static final Logger logger = LogManager.getLogger(ScenarioThreads.class);
+    private static final String VIRTUAL = "virtual";
+    private static final ThreadFactory FACTORY = createFactory(ConfigManager.getInstance());
+
+    private ScenarioThreads() {
+    }
+
+    public static ThreadFactory factory() {
+        return FACTORY;
+    }
+
+    public static boolean isVirtual() {
+        return !(FACTORY instanceof PlatformThreadFactory);
+    }
+
+    private static ThreadFactory createFactory(ConfigManager config) {
+        if (VIRTUAL.equalsIgnoreCase(config.getScenarioThreads())) {
+            try {
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+                builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "scenario-virtual-", 0L);
+                ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+                logger.info("Scenario tasks run on virtual threads");
+                return factory;
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                logger.info("Virtual threads are not available on Java {}, using platform threads",
+                        System.getProperty("java.specification.version"));
+            }
+        }
+        return new PlatformThreadFactory();
+    }
+
+    private static final class PlatformThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "scenario-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
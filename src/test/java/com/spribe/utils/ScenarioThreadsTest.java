@@ -0,0 +1,64 @@
+package com.spribe.utils;
+
+import com.spribe.config.ConfigManager;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Checks which threads scenarios run on; the JDK 21 CI job is what exercises the virtual-thread branch
+ */
+@Epic("Player Management")
+@Feature("Concurrent Scenarios")
+public class ScenarioThreadsTest {
+
+    @Test(description = "Scenario threads are virtual exactly when requested on a Java 21+ runtime")
+    @Description("scenario.threads=virtual uses virtual threads on Java 21+ and platform threads before it")
+    public void testThreadKindFollowsRuntime() throws Exception {
+        boolean expectVirtual = virtualExpected();
+
+        Thread thread = ScenarioThreads.factory().newThread(() -> { });
+
+        assertEquals(ScenarioThreads.isVirtual(), expectVirtual, "ScenarioThreads.isVirtual()");
+        assertEquals(isVirtual(thread), expectVirtual, "Thread.isVirtual() of a scenario thread");
+    }
+
+    @Test(description = "Forked scenario tasks all run at once", timeOut = 60_000)
+    @Description("On virtual threads a scope runs far more tasks at once than scenario.max.platform.threads; "
+            + "on platform threads it runs up to that cap")
+    public void testFanOutRunsTasksConcurrently() {
+        int cap = ConfigManager.getInstance().getScenarioMaxPlatformThreads();
+        int tasks = virtualExpected() ? cap * 10 : cap;
+        CountDownLatch allStarted = new CountDownLatch(tasks);
+
+        try (ScenarioScope scope = ScenarioScope.open()) {
+            for (int i = 0; i < tasks; i++) {
+                scope.fork(() -> {
+                    allStarted.countDown();
+                    return allStarted.await(30, TimeUnit.SECONDS);
+                });
+            }
+            scope.join();
+        }
+
+        assertEquals(allStarted.getCount(), 0L, "Tasks that never ran alongside the others");
+    }
+
+    private static boolean virtualExpected() {
+        return Runtime.version().feature() >= 21
+                && "virtual".equalsIgnoreCase(ConfigManager.getInstance().getScenarioThreads());
+    }
+
+    private static boolean isVirtual(Thread thread) throws ReflectiveOperationException {
+        if (Runtime.version().feature() < 21) {
+            return false;
+        }
+        return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    }
+}